@@ -311,10 +311,20 @@ public class AtomixCluster implements BootstrapService, Managed<Void> {
    * Builds a default messaging service.
    */
   protected static ManagedMessagingService buildMessagingService(ClusterConfig config) {
-    return NettyMessagingService.builder()
+    NettyMessagingService.Builder builder = NettyMessagingService.builder()
         .withName(config.getClusterId())
         .withAddress(config.getNodeConfig().getAddress())
-        .build();
+        .withFlushConsolidation(config.getMaxMessagesPerFlush());
+    if (config.getPrioritySubjects() != null) {
+      builder.withPrioritySubjects(config.getPrioritySubjects());
+    }
+    if (config.getCompressedSubjects() != null) {
+      builder.withCompressedSubjects(config.getCompressedSubjects());
+    }
+    if (config.getCompressionThreshold() != null) {
+      builder.withCompressionThreshold(config.getCompressionThreshold());
+    }
+    return builder.build();
   }
 
   /**
@@ -20,6 +20,7 @@ import io.atomix.utils.Builder;
 import io.atomix.utils.net.Address;
 
 import java.time.Duration;
+import java.util.Arrays;
 import java.util.Properties;
 
 import static com.google.common.base.Preconditions.checkNotNull;
@@ -239,6 +240,57 @@ public class AtomixClusterBuilder implements Builder<AtomixCluster> {
     return this;
   }
 
+  /**
+   * Sets the subjects of messages to send on the messaging priority lane.
+   * <p>
+   * Subjects are matched against the beginning of message subjects and may contain {@code *} wildcards.
+   *
+   * @param prioritySubjects the priority message subjects
+   * @return the Atomix cluster builder
+   */
+  public AtomixClusterBuilder withPrioritySubjects(String... prioritySubjects) {
+    config.setPrioritySubjects(Arrays.asList(prioritySubjects));
+    return this;
+  }
+
+  /**
+   * Enables consolidation of flushes on messaging connections.
+   * <p>
+   * When enabled, messages sent concurrently on a connection are flushed to the socket together, flushing at least
+   * once every {@code maxMessagesPerFlush} messages.
+   *
+   * @param maxMessagesPerFlush the maximum number of messages per flush, or {@code 0} to disable flush consolidation
+   * @return the Atomix cluster builder
+   */
+  public AtomixClusterBuilder withFlushConsolidation(int maxMessagesPerFlush) {
+    config.setMaxMessagesPerFlush(maxMessagesPerFlush);
+    return this;
+  }
+
+  /**
+   * Sets the subjects of messages whose payloads to compress.
+   * <p>
+   * Subjects are matched against the beginning of message subjects and may contain {@code *} wildcards.
+   *
+   * @param compressedSubjects the compressed message subjects
+   * @return the Atomix cluster builder
+   */
+  public AtomixClusterBuilder withCompressedSubjects(String... compressedSubjects) {
+    config.setCompressedSubjects(Arrays.asList(compressedSubjects));
+    return this;
+  }
+
+  /**
+   * Sets the minimum payload size of messages to compress.
+   *
+   * @param compressionThreshold the compression threshold in bytes
+   * @return the Atomix cluster builder
+   */
+  public AtomixClusterBuilder withCompressionThreshold(int compressionThreshold) {
+    config.setCompressionThreshold(compressionThreshold);
+    return this;
+  }
+
   /**
    * Sets the membership provider.
    *
@@ -18,6 +18,8 @@ package io.atomix.cluster;
 import io.atomix.cluster.discovery.NodeDiscoveryConfig;
 import io.atomix.utils.config.Config;
 
+import java.util.List;
+
 import static com.google.common.base.Preconditions.checkNotNull;
 
 /**
@@ -31,6 +33,10 @@ public class ClusterConfig implements Config {
   private NodeDiscoveryConfig discoveryConfig;
   private MulticastConfig multicastConfig = new MulticastConfig();
   private MembershipConfig membershipConfig = new MembershipConfig();
+  private List<String> prioritySubjects;
+  private int maxMessagesPerFlush;
+  private List<String> compressedSubjects;
+  private Integer compressionThreshold;
 
   /**
    * Returns the cluster identifier.
@@ -131,4 +137,84 @@ public class ClusterConfig implements Config {
     this.membershipConfig = checkNotNull(membershipConfig);
     return this;
   }
+
+  /**
+   * Returns the subjects of messages to send on the messaging priority lane.
+   *
+   * @return the priority message subjects, or {@code null} to use the messaging service defaults
+   */
+  public List<String> getPrioritySubjects() {
+    return prioritySubjects;
+  }
+
+  /**
+   * Sets the subjects of messages to send on the messaging priority lane.
+   *
+   * @param prioritySubjects the priority message subjects
+   * @return the cluster configuration
+   */
+  public ClusterConfig setPrioritySubjects(List<String> prioritySubjects) {
+    this.prioritySubjects = prioritySubjects;
+    return this;
+  }
+
+  /**
+   * Returns the maximum number of messages to write to a messaging connection before flushing it.
+   *
+   * @return the maximum number of messages per flush, or {@code 0} if flush consolidation is disabled
+   */
+  public int getMaxMessagesPerFlush() {
+    return maxMessagesPerFlush;
+  }
+
+  /**
+   * Sets the maximum number of messages to write to a messaging connection before flushing it.
+   *
+   * @param maxMessagesPerFlush the maximum number of messages per flush, or {@code 0} to disable flush consolidation
+   * @return the cluster configuration
+   */
+  public ClusterConfig setMaxMessagesPerFlush(int maxMessagesPerFlush) {
+    this.maxMessagesPerFlush = maxMessagesPerFlush;
+    return this;
+  }
+
+  /**
+   * Returns the subjects of messages whose payloads to compress.
+   *
+   * @return the compressed message subjects, or {@code null} to use the messaging service defaults
+   */
+  public List<String> getCompressedSubjects() {
+    return compressedSubjects;
+  }
+
+  /**
+   * Sets the subjects of messages whose payloads to compress.
+   *
+   * @param compressedSubjects the compressed message subjects
+   * @return the cluster configuration
+   */
+  public ClusterConfig setCompressedSubjects(List<String> compressedSubjects) {
+    this.compressedSubjects = compressedSubjects;
+    return this;
+  }
+
+  /**
+   * Returns the minimum payload size of messages to compress.
+   *
+   * @return the compression threshold in bytes, or {@code null} to use the messaging service default
+   */
+  public Integer getCompressionThreshold() {
+    return compressionThreshold;
+  }
+
+  /**
+   * Sets the minimum payload size of messages to compress.
+   *
+   * @param compressionThreshold the compression threshold in bytes
+   * @return the cluster configuration
+   */
+  public ClusterConfig setCompressionThreshold(Integer compressionThreshold) {
+    this.compressionThreshold = compressionThreshold;
+    return this;
+  }
 }
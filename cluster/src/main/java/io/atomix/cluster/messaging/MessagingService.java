@@ -16,8 +16,12 @@
 package io.atomix.cluster.messaging;
 
 import io.atomix.utils.net.Address;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
 
 import java.time.Duration;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
 import java.util.function.BiConsumer;
@@ -46,6 +50,23 @@ public interface MessagingService {
    */
   CompletableFuture<Void> sendAsync(Address address, String type, byte[] payload);
 
+  /**
+   * Sends a batch of messages asynchronously to the specified communication address.
+   * <p>
+   * The messages are sent in order, and implementations may write all the messages to the connection before
+   * flushing it once rather than flushing each message individually.
+   *
+   * @param address  address to send the messages to.
+   * @param type     type of the messages.
+   * @param payloads message payloads.
+   * @return future that is completed when all the messages are sent
+   */
+  default CompletableFuture<Void> sendBatch(Address address, String type, List<byte[]> payloads) {
+    return CompletableFuture.allOf(payloads.stream()
+        .map(payload -> sendAsync(address, type, payload))
+        .toArray(CompletableFuture[]::new));
+  }
+
   /**
    * Sends a message asynchronously and expects a response.
    *
@@ -90,6 +111,41 @@ public interface MessagingService {
    */
   CompletableFuture<byte[]> sendAndReceive(Address address, String type, byte[] payload, Duration timeout, Executor executor);
 
+  /**
+   * Sends a message with a buffered payload asynchronously to the specified communication address.
+   * <p>
+   * The messaging service takes ownership of the payload buffer and releases it once the message has been sent.
+   * Implementations may write direct payload buffers to the network without copying them to the heap.
+   *
+   * @param address address to send the message to.
+   * @param type    type of message.
+   * @param payload message payload buffer.
+   * @return future that is completed when the message is sent
+   */
+  default CompletableFuture<Void> sendAsync(Address address, String type, ByteBuf payload) {
+    byte[] bytes = ByteBufUtil.getBytes(payload);
+    payload.release();
+    return sendAsync(address, type, bytes);
+  }
+
+  /**
+   * Sends a message with a buffered payload asynchronously and expects a response in a buffer.
+   * <p>
+   * The messaging service takes ownership of the payload buffer and releases it once the message has been sent.
+   * The caller owns the response buffer and is responsible for releasing it.
+   *
+   * @param address address to send the message to.
+   * @param type    type of message.
+   * @param payload message payload buffer.
+   * @param timeout response timeout
+   * @return a response buffer future
+   */
+  default CompletableFuture<ByteBuf> sendAndReceive(Address address, String type, ByteBuf payload, Duration timeout) {
+    byte[] bytes = ByteBufUtil.getBytes(payload);
+    payload.release();
+    return sendAndReceive(address, type, bytes, timeout).thenApply(Unpooled::wrappedBuffer);
+  }
+
   /**
    * Registers a new message handler for message type.
    *
@@ -116,6 +172,24 @@ public interface MessagingService {
    */
   void registerHandler(String type, BiFunction<Address, byte[], CompletableFuture<byte[]>> handler);
 
+  /**
+   * Registers a new message handler for message type that handles buffered payloads.
+   * <p>
+   * The handler owns the request payload buffer and is responsible for releasing it. The messaging service takes
+   * ownership of the response buffer and releases it once the response has been sent.
+   *
+   * @param type    message type.
+   * @param handler message handler
+   */
+  default void registerBufferHandler(String type, BiFunction<Address, ByteBuf, CompletableFuture<ByteBuf>> handler) {
+    registerHandler(type, (address, payload) ->
+        handler.apply(address, Unpooled.wrappedBuffer(payload)).thenApply(response -> {
+          byte[] bytes = ByteBufUtil.getBytes(response);
+          response.release();
+          return bytes;
+        }));
+  }
+
   /**
    * Unregister current handler, if one exists for message type.
    *
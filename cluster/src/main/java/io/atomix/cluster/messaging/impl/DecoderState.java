@@ -19,11 +19,13 @@ package io.atomix.cluster.messaging.impl;
  * State transitions a decoder goes through as it is decoding an incoming message.
  */
 public enum DecoderState {
+  READ_VERSION,
   READ_TYPE,
   READ_PREAMBLE,
   READ_MESSAGE_ID,
   READ_SENDER_IP,
   READ_SENDER_PORT,
+  READ_SUBJECT_ID,
   READ_SUBJECT_LENGTH,
   READ_SUBJECT,
   READ_STATUS,
@@ -15,6 +15,12 @@
  */
 package io.atomix.cluster.messaging.impl;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+
+import static com.google.common.base.Preconditions.checkState;
+
 /**
  * Base class for internal messages.
  */
@@ -60,9 +66,18 @@ public abstract class InternalMessage {
     }
   }
 
+  /**
+   * Flag set in the encoded message type to indicate the message payload is compressed.
+   */
+  static final int COMPRESSED_FLAG = 0x80;
+
+  private static final byte[] EMPTY_PAYLOAD = new byte[0];
+
   private final int preamble;
   private final long id;
-  private final byte[] payload;
+  private volatile byte[] payload;
+  private ByteBuf buffer;
+  private boolean compressed;
 
   protected InternalMessage(int preamble,
                             long id,
@@ -72,6 +87,20 @@ public abstract class InternalMessage {
     this.payload = payload;
   }
 
+  /**
+   * Creates a message with a buffered payload.
+   * <p>
+   * The message takes ownership of the buffer. The buffer is released either when the message is written to a
+   * channel or when the message is {@link #release() released}.
+   */
+  protected InternalMessage(int preamble,
+                            long id,
+                            ByteBuf buffer) {
+    this.preamble = preamble;
+    this.id = id;
+    this.buffer = buffer;
+  }
+
   public abstract Type type();
 
   public boolean isRequest() {
@@ -90,7 +119,101 @@ public abstract class InternalMessage {
     return id;
   }
 
+  /**
+   * Returns a boolean indicating whether the message payload is compressed.
+   *
+   * @return indicates whether the message payload is compressed
+   */
+  boolean isCompressed() {
+    return compressed;
+  }
+
+  /**
+   * Sets whether the message payload is compressed.
+   *
+   * @param compressed whether the message payload is compressed
+   */
+  void setCompressed(boolean compressed) {
+    this.compressed = compressed;
+  }
+
+  /**
+   * Returns a copy of the message with the given payload.
+   *
+   * @param payload the payload of the copy
+   * @return a copy of the message with the given payload
+   */
+  abstract InternalMessage withPayload(ByteBuf payload);
+
+  /**
+   * Returns the message payload, copying it out of the payload buffer if necessary.
+   *
+   * @return the message payload
+   * @throws IllegalStateException if the payload buffer has been released
+   */
   public byte[] payload() {
+    byte[] payload = this.payload;
+    if (payload == null) {
+      synchronized (this) {
+        payload = this.payload;
+        if (payload == null) {
+          checkState(buffer != null, "payload has been released");
+          payload = buffer.isReadable() ? ByteBufUtil.getBytes(buffer) : EMPTY_PAYLOAD;
+          this.payload = payload;
+        }
+      }
+    }
     return payload;
   }
+
+  /**
+   * Returns the message payload as a buffer owned by the caller.
+   * <p>
+   * If the message has a payload buffer, a retained duplicate of the buffer is returned and must be released by the
+   * caller. Otherwise, the payload array is wrapped in a new buffer.
+   *
+   * @return the message payload buffer
+   */
+  public synchronized ByteBuf retainedBuffer() {
+    return buffer != null ? buffer.retainedDuplicate() : Unpooled.wrappedBuffer(payload());
+  }
+
+  /**
+   * Returns the length of the message payload.
+   *
+   * @return the length of the message payload
+   */
+  public synchronized int payloadLength() {
+    return buffer != null ? buffer.readableBytes() : payload().length;
+  }
+
+  /**
+   * Returns a boolean indicating whether the message payload is held in a buffer.
+   *
+   * @return indicates whether the message payload is held in a buffer
+   */
+  synchronized boolean isBuffered() {
+    return buffer != null;
+  }
+
+  /**
+   * Transfers ownership of the message's payload buffer to the caller.
+   *
+   * @return the payload buffer or {@code null} if the message has no payload buffer
+   */
+  synchronized ByteBuf takeBuffer() {
+    ByteBuf buffer = this.buffer;
+    this.buffer = null;
+    return buffer;
+  }
+
+  /**
+   * Releases the message's payload buffer if the message still owns it.
+   */
+  public void release() {
+    ByteBuf buffer = takeBuffer();
+    if (buffer != null) {
+      buffer.release();
+    }
+  }
 }
\ No newline at end of file
@@ -16,7 +16,7 @@
 package io.atomix.cluster.messaging.impl;
 
 import com.google.common.base.MoreObjects;
-import io.atomix.utils.misc.ArraySizeHashPrinter;
+import io.netty.buffer.ByteBuf;
 
 /**
  * Internal reply message.
@@ -88,6 +88,7 @@ public final class InternalReply extends InternalMessage {
     }
 
     private final Status status;
+    private final String subject;
 
     public InternalReply(int preamble,
             long id,
@@ -99,8 +100,34 @@ public final class InternalReply extends InternalMessage {
             long id,
             byte[] payload,
             Status status) {
+        this(preamble, id, payload, status, null);
+    }
+
+    InternalReply(int preamble,
+            long id,
+            byte[] payload,
+            Status status,
+            String subject) {
         super(preamble, id, payload);
         this.status = status;
+        this.subject = subject;
+    }
+
+    public InternalReply(int preamble,
+            long id,
+            ByteBuf payload,
+            Status status) {
+        this(preamble, id, payload, status, null);
+    }
+
+    InternalReply(int preamble,
+            long id,
+            ByteBuf payload,
+            Status status,
+            String subject) {
+        super(preamble, id, payload);
+        this.status = status;
+        this.subject = subject;
     }
 
     @Override
@@ -112,12 +139,28 @@ public final class InternalReply extends InternalMessage {
         return status;
     }
 
+    /**
+     * Returns the subject of the request to which this is a reply.
+     * <p>
+     * The subject is known only on the replying side of the connection and is not sent with the reply.
+     *
+     * @return the subject of the request to which this is a reply or {@code null} if unknown
+     */
+    String subject() {
+        return subject;
+    }
+
+    @Override
+    InternalMessage withPayload(ByteBuf payload) {
+        return new InternalReply(preamble(), id(), payload, status, subject);
+    }
+
     @Override
     public String toString() {
         return MoreObjects.toStringHelper(this)
                 .add("id", id())
                 .add("status", status())
-                .add("payload", ArraySizeHashPrinter.of(payload()))
+                .add("payloadLength", payloadLength())
                 .toString();
     }
 }
\ No newline at end of file
@@ -17,7 +17,7 @@ package io.atomix.cluster.messaging.impl;
 
 import com.google.common.base.MoreObjects;
 import io.atomix.utils.net.Address;
-import io.atomix.utils.misc.ArraySizeHashPrinter;
+import io.netty.buffer.ByteBuf;
 
 /**
  * Internal request message.
@@ -25,6 +25,7 @@ import io.atomix.utils.misc.ArraySizeHashPrinter;
 public final class InternalRequest extends InternalMessage {
     private final Address sender;
     private final String subject;
+    private final int subjectIndex;
 
     public InternalRequest(
         int preamble,
@@ -32,9 +33,47 @@ public final class InternalRequest extends InternalMessage {
         Address sender,
         String subject,
         byte[] payload) {
+        this(preamble, id, sender, subject, payload, -1);
+    }
+
+    public InternalRequest(
+        int preamble,
+        long id,
+        Address sender,
+        String subject,
+        byte[] payload,
+        int subjectIndex) {
         super(preamble, id, payload);
         this.sender = sender;
         this.subject = subject;
+        this.subjectIndex = subjectIndex;
+    }
+
+    public InternalRequest(
+        int preamble,
+        long id,
+        Address sender,
+        String subject,
+        ByteBuf payload) {
+        this(preamble, id, sender, subject, payload, -1);
+    }
+
+    public InternalRequest(
+        int preamble,
+        long id,
+        Address sender,
+        String subject,
+        ByteBuf payload,
+        int subjectIndex) {
+        super(preamble, id, payload);
+        this.sender = sender;
+        this.subject = subject;
+        this.subjectIndex = subjectIndex;
+    }
+
+    @Override
+    InternalMessage withPayload(ByteBuf payload) {
+        return new InternalRequest(preamble(), id(), sender, subject, payload, subjectIndex);
     }
 
     @Override
@@ -46,6 +85,15 @@ public final class InternalRequest extends InternalMessage {
         return subject;
     }
 
+    /**
+     * Returns the index of the subject's handler in the local handler table.
+     *
+     * @return the subject's handler index, or {@code -1} if the subject is not indexed
+     */
+    public int subjectIndex() {
+        return subjectIndex;
+    }
+
     public Address sender() {
         return sender;
     }
@@ -56,7 +104,7 @@ public final class InternalRequest extends InternalMessage {
                 .add("id", id())
                 .add("subject", subject)
                 .add("sender", sender)
-                .add("payload", ArraySizeHashPrinter.of(payload()))
+                .add("payloadLength", payloadLength())
                 .toString();
     }
 }
\ No newline at end of file
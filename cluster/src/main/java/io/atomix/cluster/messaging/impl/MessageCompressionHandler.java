@@ -0,0 +1,140 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.cluster.messaging.impl;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelDuplexHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPromise;
+import io.netty.handler.codec.compression.Snappy;
+
+/**
+ * Message payload compression handler.
+ * <p>
+ * Compresses the payloads of outbound messages whose subjects match the configured compressed subjects and whose
+ * payloads are at least the compression threshold in size, and decompresses the payloads of inbound messages that
+ * were compressed by the other side of the connection. Replies are compressed if the subject of the request to which
+ * they reply is compressed. Payloads are compressed with Netty's pure Java Snappy implementation in independent blocks
+ * of up to {@link #BLOCK_SIZE} bytes, each prefixed with its compressed length. A payload is sent uncompressed if
+ * compressing it does not reduce its size. Payloads are never compressed for remote nodes whose protocol version
+ * predates compression.
+ */
+class MessageCompressionHandler extends ChannelDuplexHandler {
+  private static final int BLOCK_SIZE = 32 * 1024;
+
+  private final SubjectMatcher compressedSubjects;
+  private final int threshold;
+  private final Snappy snappy = new Snappy();
+
+  MessageCompressionHandler(SubjectMatcher compressedSubjects, int threshold) {
+    this.compressedSubjects = compressedSubjects;
+    this.threshold = threshold;
+  }
+
+  @Override
+  public void write(ChannelHandlerContext context, Object rawMessage, ChannelPromise promise) throws Exception {
+    if (rawMessage instanceof InternalMessage && isCompressible(context, (InternalMessage) rawMessage)) {
+      context.write(compress(context, (InternalMessage) rawMessage), promise);
+    } else {
+      context.write(rawMessage, promise);
+    }
+  }
+
+  @Override
+  public void channelRead(ChannelHandlerContext context, Object rawMessage) throws Exception {
+    if (rawMessage instanceof InternalMessage && ((InternalMessage) rawMessage).isCompressed()) {
+      context.fireChannelRead(decompress(context, (InternalMessage) rawMessage));
+    } else {
+      context.fireChannelRead(rawMessage);
+    }
+  }
+
+  /**
+   * Returns a boolean indicating whether the given message should be compressed.
+   */
+  private boolean isCompressible(ChannelHandlerContext context, InternalMessage message) {
+    if (message.isCompressed() || message.payloadLength() < threshold) {
+      return false;
+    }
+    if (MessageEncoder.getVersion(context.channel()) < MessageEncoder.COMPRESSION_VERSION) {
+      return false;
+    }
+    if (message instanceof InternalRequest) {
+      return compressedSubjects.matches(((InternalRequest) message).subject());
+    } else if (message instanceof InternalReply) {
+      String subject = ((InternalReply) message).subject();
+      return subject != null && compressedSubjects.matches(subject);
+    }
+    return false;
+  }
+
+  /**
+   * Compresses the payload of the given message, returning the original message if compression doesn't reduce the
+   * size of the payload.
+   */
+  private InternalMessage compress(ChannelHandlerContext context, InternalMessage message) {
+    ByteBuf payload = message.retainedBuffer();
+    ByteBuf compressed = context.alloc().ioBuffer(payload.readableBytes());
+    try {
+      while (payload.isReadable()) {
+        int blockLength = Math.min(payload.readableBytes(), BLOCK_SIZE);
+        int lengthIndex = compressed.writerIndex();
+        compressed.writeInt(0);
+        snappy.encode(payload.readSlice(blockLength), compressed, blockLength);
+        snappy.reset();
+        compressed.setInt(lengthIndex, compressed.writerIndex() - lengthIndex - 4);
+      }
+    } catch (Exception e) {
+      compressed.release();
+      throw e;
+    } finally {
+      payload.release();
+    }
+
+    if (compressed.readableBytes() >= message.payloadLength()) {
+      compressed.release();
+      return message;
+    }
+
+    // The compressed copy replaces the original message, so release the original message's payload.
+    InternalMessage compressedMessage = message.withPayload(compressed);
+    compressedMessage.setCompressed(true);
+    message.release();
+    return compressedMessage;
+  }
+
+  /**
+   * Decompresses the payload of the given message.
+   */
+  private InternalMessage decompress(ChannelHandlerContext context, InternalMessage message) {
+    ByteBuf payload = message.retainedBuffer();
+    ByteBuf decompressed = context.alloc().buffer(payload.readableBytes() * 2);
+    try {
+      while (payload.isReadable()) {
+        int blockLength = payload.readInt();
+        snappy.decode(payload.readSlice(blockLength), decompressed);
+        snappy.reset();
+      }
+    } catch (Exception e) {
+      decompressed.release();
+      throw e;
+    } finally {
+      payload.release();
+      message.release();
+    }
+    return message.withPayload(decompressed);
+  }
+}
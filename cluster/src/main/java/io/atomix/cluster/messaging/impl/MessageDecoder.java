@@ -17,6 +17,7 @@ package io.atomix.cluster.messaging.impl;
 
 import io.atomix.utils.net.Address;
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.ByteToMessageDecoder;
 import org.slf4j.Logger;
@@ -24,7 +25,9 @@ import org.slf4j.LoggerFactory;
 
 import java.net.InetAddress;
 import java.nio.charset.Charset;
+import java.util.Arrays;
 import java.util.List;
+import java.util.function.ToIntFunction;
 
 import static com.google.common.base.Preconditions.checkState;
 import static java.nio.charset.StandardCharsets.UTF_8;
@@ -36,26 +39,41 @@ public class MessageDecoder extends ByteToMessageDecoder {
 
   private final Logger log = LoggerFactory.getLogger(getClass());
 
-  private static final byte[] EMPTY_PAYLOAD = new byte[0];
-
   private static final int BYTE_SIZE = 1;
   private static final int SHORT_SIZE = 2;
   private static final int INT_SIZE = 4;
   private static final int LONG_SIZE = 8;
 
-  private DecoderState currentState = DecoderState.READ_SENDER_IP;
+  private final ToIntFunction<String> subjectIndexer;
+
+  private DecoderState currentState = DecoderState.READ_VERSION;
+
+  private int version;
 
   private InetAddress senderIp;
   private int senderPort;
   private Address address;
 
   private InternalMessage.Type type;
+  private boolean compressed;
   private int preamble;
   private long messageId;
   private int contentLength;
-  private byte[] content;
+  private ByteBuf content;
+  private int subjectId;
   private int subjectLength;
 
+  private String[] subjects = new String[16];
+  private int[] subjectIndexes = new int[16];
+
+  public MessageDecoder() {
+    this(subject -> -1);
+  }
+
+  public MessageDecoder(ToIntFunction<String> subjectIndexer) {
+    this.subjectIndexer = subjectIndexer;
+  }
+
   @Override
   @SuppressWarnings("squid:S128") // suppress switch fall through warning
   protected void decode(
@@ -64,6 +82,24 @@ public class MessageDecoder extends ByteToMessageDecoder {
       List<Object> out) throws Exception {
 
     switch (currentState) {
+      case READ_VERSION:
+        if (buffer.readableBytes() < BYTE_SIZE) {
+          return;
+        }
+        if (buffer.getByte(buffer.readerIndex()) == MessageEncoder.VERSION_MARKER) {
+          if (buffer.readableBytes() < BYTE_SIZE + BYTE_SIZE) {
+            return;
+          }
+          buffer.skipBytes(BYTE_SIZE);
+          version = buffer.readByte() & 0xFF;
+          checkState(version > MessageEncoder.LEGACY_VERSION && version <= MessageEncoder.VERSION,
+              "Unsupported protocol version %s", version);
+        } else {
+          // Legacy nodes write the sender address without a version.
+          version = MessageEncoder.LEGACY_VERSION;
+        }
+        context.channel().attr(MessageEncoder.PEER_VERSION).set(version);
+        currentState = DecoderState.READ_SENDER_IP;
       case READ_SENDER_IP:
         if (buffer.readableBytes() < BYTE_SIZE) {
           return;
@@ -90,7 +126,14 @@ public class MessageDecoder extends ByteToMessageDecoder {
         if (buffer.readableBytes() < BYTE_SIZE) {
           return;
         }
-        type = InternalMessage.Type.forId(buffer.readByte());
+        final int typeId = buffer.readByte() & 0xFF;
+        if (version >= MessageEncoder.COMPRESSION_VERSION) {
+          type = InternalMessage.Type.forId(typeId & ~InternalMessage.COMPRESSED_FLAG);
+          compressed = (typeId & InternalMessage.COMPRESSED_FLAG) != 0;
+        } else {
+          type = InternalMessage.Type.forId(typeId);
+          compressed = false;
+        }
         currentState = DecoderState.READ_PREAMBLE;
       case READ_PREAMBLE:
         if (buffer.readableBytes() < INT_SIZE) {
@@ -116,15 +159,16 @@ public class MessageDecoder extends ByteToMessageDecoder {
         }
         if (contentLength > 0) {
           // TODO: Perform a sanity check on the size before allocating
-          content = new byte[contentLength];
-          buffer.readBytes(content);
+          // Slice the payload out of the inbound buffer rather than copying it. The message owns the slice, and the
+          // slice is released once the message has been dispatched.
+          content = buffer.readRetainedSlice(contentLength);
         } else {
-          content = EMPTY_PAYLOAD;
+          content = Unpooled.EMPTY_BUFFER;
         }
 
         switch (type) {
           case REQUEST:
-            currentState = DecoderState.READ_SUBJECT_LENGTH;
+            currentState = DecoderState.READ_SUBJECT_ID;
             break;
           case REPLY:
             currentState = DecoderState.READ_STATUS;
@@ -140,6 +184,34 @@ public class MessageDecoder extends ByteToMessageDecoder {
     switch (type) {
       case REQUEST:
         switch (currentState) {
+          case READ_SUBJECT_ID:
+            if (version >= MessageEncoder.SUBJECT_ID_VERSION) {
+              final int subjectHeader = readVarint(buffer);
+              if (subjectHeader < 0) {
+                return;
+              }
+              subjectId = subjectHeader >>> 1;
+              if (subjectId > 0 && (subjectHeader & 1) == 0) {
+                // The subject has already been written to the connection, so read it from the subject table.
+                checkState(subjectId < subjects.length && subjects[subjectId] != null, "Unknown subject identifier");
+                InternalRequest message = new InternalRequest(
+                    preamble,
+                    messageId,
+                    address,
+                    subjects[subjectId],
+                    content,
+                    getSubjectIndex(subjectId));
+                message.setCompressed(compressed);
+                out.add(message);
+                content = null;
+                currentState = DecoderState.READ_TYPE;
+                break;
+              }
+            } else {
+              // Legacy nodes write the subject inline without a subject header.
+              subjectId = 0;
+            }
+            currentState = DecoderState.READ_SUBJECT_LENGTH;
           case READ_SUBJECT_LENGTH:
             if (buffer.readableBytes() < SHORT_SIZE) {
               return;
@@ -151,13 +223,23 @@ public class MessageDecoder extends ByteToMessageDecoder {
               return;
             }
             final String subject = readString(buffer, subjectLength, UTF_8);
+            final int subjectIndex;
+            if (subjectId > 0) {
+              addSubject(subjectId, subject);
+              subjectIndex = getSubjectIndex(subjectId);
+            } else {
+              subjectIndex = subjectIndexer.applyAsInt(subject);
+            }
             InternalRequest message = new InternalRequest(
                 preamble,
                 messageId,
                 address,
                 subject,
-                content);
+                content,
+                subjectIndex);
+            message.setCompressed(compressed);
             out.add(message);
+            content = null;
             currentState = DecoderState.READ_TYPE;
             break;
           default:
@@ -175,7 +257,9 @@ public class MessageDecoder extends ByteToMessageDecoder {
                 messageId,
                 content,
                 status);
+            message.setCompressed(compressed);
             out.add(message);
+            content = null;
             currentState = DecoderState.READ_TYPE;
             break;
           default:
@@ -187,6 +271,51 @@ public class MessageDecoder extends ByteToMessageDecoder {
     }
   }
 
+  /**
+   * Adds a subject to the connection's subject table.
+   */
+  private void addSubject(int subjectId, String subject) {
+    checkState(subjectId <= MessageEncoder.MAX_SUBJECT_IDS, "Invalid subject identifier");
+    if (subjectId >= subjects.length) {
+      int length = Math.min(Math.max(subjects.length * 2, subjectId + 1), MessageEncoder.MAX_SUBJECT_IDS + 1);
+      subjects = Arrays.copyOf(subjects, length);
+      subjectIndexes = Arrays.copyOf(subjectIndexes, length);
+    }
+    subjects[subjectId] = subject;
+    subjectIndexes[subjectId] = subjectIndexer.applyAsInt(subject);
+  }
+
+  /**
+   * Returns the handler index for the given subject identifier, resolving it again if the subject had no handler.
+   */
+  private int getSubjectIndex(int subjectId) {
+    int subjectIndex = subjectIndexes[subjectId];
+    if (subjectIndex < 0) {
+      subjectIndex = subjectIndexer.applyAsInt(subjects[subjectId]);
+      subjectIndexes[subjectId] = subjectIndex;
+    }
+    return subjectIndex;
+  }
+
+  /**
+   * Reads a variable length integer, returning {@code -1} if the buffer does not contain the complete integer.
+   */
+  static int readVarint(ByteBuf buffer) {
+    buffer.markReaderIndex();
+    int value = 0;
+    for (int shift = 0; buffer.isReadable(); shift += 7) {
+      checkState(shift < 32, "Malformed variable length integer");
+      byte b = buffer.readByte();
+      value |= (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) {
+        checkState(value >= 0, "Malformed variable length integer");
+        return value;
+      }
+    }
+    buffer.resetReaderIndex();
+    return -1;
+  }
+
   static String readString(ByteBuf buffer, int length, Charset charset) {
     if (buffer.isDirect()) {
       final String result = buffer.toString(buffer.readerIndex(), length, charset);
@@ -203,6 +332,15 @@ public class MessageDecoder extends ByteToMessageDecoder {
     }
   }
 
+  @Override
+  protected void handlerRemoved0(ChannelHandlerContext context) throws Exception {
+    // Release the payload of a partially decoded message.
+    if (content != null) {
+      content.release();
+      content = null;
+    }
+  }
+
   @Override
   public void exceptionCaught(ChannelHandlerContext context, Throwable cause) {
     try {
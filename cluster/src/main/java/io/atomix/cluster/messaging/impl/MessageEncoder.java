@@ -18,13 +18,18 @@ package io.atomix.cluster.messaging.impl;
 import io.atomix.utils.net.Address;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufUtil;
+import io.netty.channel.Channel;
 import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPromise;
 import io.netty.handler.codec.MessageToByteEncoder;
+import io.netty.util.AttributeKey;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.net.InetAddress;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * Encode InternalMessage out into a byte buffer.
@@ -33,11 +38,52 @@ public class MessageEncoder extends MessageToByteEncoder<Object> {
 // Effectively MessageToByteEncoder<InternalMessage>,
 // had to specify <Object> to avoid Class Loader not being able to find some classes.
 
+  /**
+   * The maximum number of subjects to assign identifiers on a single connection.
+   */
+  static final int MAX_SUBJECT_IDS = 1024;
+
+  /**
+   * The protocol version spoken by nodes that predate protocol versions. Legacy connections carry no version and
+   * write request subjects inline.
+   */
+  static final int LEGACY_VERSION = 1;
+
+  /**
+   * The protocol version in which request subjects are assigned connection-local identifiers.
+   */
+  static final int SUBJECT_ID_VERSION = 2;
+
+  /**
+   * The protocol version in which message payloads may be compressed, as indicated by
+   * {@link InternalMessage#COMPRESSED_FLAG} in the message type.
+   */
+  static final int COMPRESSION_VERSION = 3;
+
+  /**
+   * The current protocol version.
+   */
+  static final int VERSION = COMPRESSION_VERSION;
+
+  /**
+   * Marks the start of a versioned connection. The marker is written in place of the sender address length written by
+   * legacy nodes, which fail to decode it and close the connection rather than misinterpret the messages that follow.
+   */
+  static final byte VERSION_MARKER = (byte) 0xFF;
+
+  /**
+   * Channel attribute holding the protocol version of the remote node, set when the first message from the remote
+   * node is decoded.
+   */
+  static final AttributeKey<Integer> PEER_VERSION = AttributeKey.valueOf("atomix.messaging.peerVersion");
+
   private final Logger log = LoggerFactory.getLogger(getClass());
 
   private final Address address;
   private final int preamble;
   private boolean addressWritten;
+  private int version = VERSION;
+  private final Map<String, Integer> subjectIds = new HashMap<>();
 
   public MessageEncoder(Address address, int preamble) {
     super();
@@ -50,16 +96,77 @@ public class MessageEncoder extends MessageToByteEncoder<Object> {
       ChannelHandlerContext context,
       Object rawMessage,
       ByteBuf out) throws Exception {
-    if (rawMessage instanceof InternalRequest) {
-      encodeRequest((InternalRequest) rawMessage, out);
-    } else if (rawMessage instanceof InternalReply) {
-      encodeReply((InternalReply) rawMessage, out);
+    if (rawMessage instanceof InternalMessage) {
+      final InternalMessage message = (InternalMessage) rawMessage;
+      final byte[] payload = message.payload();
+      encodeMessage(context.channel(), message, payload.length, out);
+
+      // write payload.
+      out.writeBytes(payload);
+
+      encodeTrailer(message, out);
     }
   }
 
-  private void encodeMessage(InternalMessage message, ByteBuf out) {
-    // If the address hasn't been written to the channel, write it.
+  @Override
+  public void write(ChannelHandlerContext context, Object rawMessage, ChannelPromise promise) throws Exception {
+    if (rawMessage instanceof InternalMessage && ((InternalMessage) rawMessage).isBuffered()) {
+      writeBuffered(context, (InternalMessage) rawMessage, promise);
+    } else {
+      super.write(context, rawMessage, promise);
+    }
+  }
+
+  /**
+   * Writes a message with a payload buffer.
+   * <p>
+   * Rather than copying the payload into the encoded message, the message header and trailer are encoded into
+   * separate buffers and written along with the payload buffer as a single composite buffer, allowing direct payload
+   * buffers to be written to the socket without being copied.
+   */
+  private void writeBuffered(ChannelHandlerContext context, InternalMessage message, ChannelPromise promise) {
+    final ByteBuf payload = message.takeBuffer();
+    if (payload == null) {
+      promise.setFailure(new IllegalStateException("payload has been released"));
+      return;
+    }
+
+    final ByteBuf header = context.alloc().ioBuffer(64);
+    final ByteBuf trailer = context.alloc().ioBuffer(16);
+    try {
+      encodeMessage(context.channel(), message, payload.readableBytes(), header);
+      encodeTrailer(message, trailer);
+    } catch (Exception e) {
+      header.release();
+      trailer.release();
+      payload.release();
+      promise.setFailure(e);
+      return;
+    }
+    context.write(context.alloc().compositeBuffer(3).addComponents(true, header, payload, trailer), promise);
+  }
+
+  /**
+   * Returns the protocol version with which to write messages to the given channel.
+   * <p>
+   * Channels opened by this node are written with the current version. Channels accepted from other nodes are written
+   * with the version of the remote node once its first message has been decoded.
+   */
+  static int getVersion(Channel channel) {
+    final Integer peerVersion = channel.attr(PEER_VERSION).get();
+    return peerVersion != null ? Math.min(peerVersion, VERSION) : VERSION;
+  }
+
+  private void encodeMessage(Channel channel, InternalMessage message, int payloadLength, ByteBuf out) {
+    // If the address hasn't been written to the channel, write it, preceded by the protocol version if the remote
+    // node supports versions.
     if (!addressWritten) {
+      version = getVersion(channel);
+      if (version > LEGACY_VERSION) {
+        out.writeByte(VERSION_MARKER);
+        out.writeByte(version);
+      }
+
       final InetAddress senderIp = address.address();
       final byte[] senderIpBytes = senderIp.getAddress();
       out.writeByte(senderIpBytes.length);
@@ -71,39 +178,68 @@ public class MessageEncoder extends MessageToByteEncoder<Object> {
       addressWritten = true;
     }
 
-    out.writeByte(message.type().id());
+    out.writeByte(message.type().id() | (message.isCompressed() ? InternalMessage.COMPRESSED_FLAG : 0));
     out.writeInt(this.preamble);
 
     // write message id
     out.writeLong(message.id());
 
-    final byte[] payload = message.payload();
-
     // write payload length
-    out.writeInt(payload.length);
+    out.writeInt(payloadLength);
+  }
 
-    // write payload.
-    out.writeBytes(payload);
+  private void encodeTrailer(InternalMessage message, ByteBuf out) {
+    if (message instanceof InternalRequest) {
+      encodeRequest((InternalRequest) message, out);
+    } else if (message instanceof InternalReply) {
+      encodeReply((InternalReply) message, out);
+    }
   }
 
   private void encodeRequest(InternalRequest request, ByteBuf out) {
-    encodeMessage(request, out);
+    // Legacy nodes expect the subject to be written inline.
+    if (version < SUBJECT_ID_VERSION) {
+      writeSubject(request.subject(), out);
+      return;
+    }
 
-    final ByteBuf buf = out.alloc().buffer(ByteBufUtil.utf8MaxBytes(request.subject()));
-    try {
-      final int length = ByteBufUtil.writeUtf8(buf, request.subject());
-      // write length of message type
-      out.writeShort(length);
-      // write message type bytes
-      out.writeBytes(buf);
-    } finally {
-      buf.release();
+    // Subjects are assigned connection-local identifiers the first time they're written to the connection. The
+    // subject is written once along with its identifier, and subsequent requests write only the identifier. The
+    // low bit of the subject header indicates whether the subject follows the identifier. Identifier 0 is reserved
+    // for subjects written without an identifier once the connection's identifiers are exhausted.
+    final String subject = request.subject();
+    final Integer subjectId = subjectIds.get(subject);
+    if (subjectId != null) {
+      writeVarint(subjectId << 1, out);
+    } else if (subjectIds.size() < MAX_SUBJECT_IDS) {
+      final int newSubjectId = subjectIds.size() + 1;
+      subjectIds.put(subject, newSubjectId);
+      writeVarint(newSubjectId << 1 | 1, out);
+      writeSubject(subject, out);
+    } else {
+      writeVarint(0, out);
+      writeSubject(subject, out);
     }
   }
 
-  private void encodeReply(InternalReply reply, ByteBuf out) {
-    encodeMessage(reply, out);
+  private void writeSubject(String subject, ByteBuf out) {
+    // write length of message type
+    final int lengthIndex = out.writerIndex();
+    out.writeShort(0);
+    // write message type bytes
+    final int length = ByteBufUtil.writeUtf8(out, subject);
+    out.setShort(lengthIndex, length);
+  }
 
+  static void writeVarint(int value, ByteBuf out) {
+    while ((value & ~0x7F) != 0) {
+      out.writeByte((value & 0x7F) | 0x80);
+      value >>>= 7;
+    }
+    out.writeByte(value);
+  }
+
+  private void encodeReply(InternalReply reply, ByteBuf out) {
     // write message status value
     out.writeByte(reply.status().id());
   }
@@ -27,7 +27,10 @@ import io.atomix.cluster.messaging.MessagingService;
 import io.atomix.utils.net.Address;
 import io.netty.bootstrap.Bootstrap;
 import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
 import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.buffer.Unpooled;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelFutureListener;
@@ -46,6 +49,7 @@ import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.channel.socket.SocketChannel;
 import io.netty.channel.socket.nio.NioServerSocketChannel;
 import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.handler.flush.FlushConsolidationHandler;
 import io.netty.util.concurrent.Future;
 import org.apache.commons.math3.stat.descriptive.DescriptiveStatistics;
 import org.apache.commons.math3.stat.descriptive.SynchronizedDescriptiveStatistics;
@@ -66,6 +70,9 @@ import java.security.MessageDigest;
 import java.security.cert.Certificate;
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Enumeration;
 import java.util.Iterator;
 import java.util.List;
@@ -88,6 +95,7 @@ import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static io.atomix.utils.concurrent.Threads.namedThreads;
 
@@ -96,6 +104,12 @@ import static io.atomix.utils.concurrent.Threads.namedThreads;
  */
 public class NettyMessagingService implements ManagedMessagingService {
   private static final String DEFAULT_NAME = "atomix";
+  private static final int DEFAULT_COMPRESSION_THRESHOLD = 1024;
+  private static final Collection<String> DEFAULT_PRIORITY_SUBJECTS = Arrays.asList(
+      "atomix-cluster-heartbeat",
+      "*-heartbeat",
+      "*-poll",
+      "*-vote");
 
   /**
    * Returns a new Netty messaging service builder.
@@ -112,6 +126,10 @@ public class NettyMessagingService implements ManagedMessagingService {
   public static class Builder extends MessagingService.Builder {
     private String name = DEFAULT_NAME;
     private Address address;
+    private Collection<String> prioritySubjects = DEFAULT_PRIORITY_SUBJECTS;
+    private int maxMessagesPerFlush;
+    private Collection<String> compressedSubjects = Collections.emptyList();
+    private int compressionThreshold = DEFAULT_COMPRESSION_THRESHOLD;
 
     /**
      * Sets the cluster name.
@@ -137,12 +155,91 @@ public class NettyMessagingService implements ManagedMessagingService {
       return this;
     }
 
+    /**
+     * Sets the subjects of messages to send on the priority lane.
+     * <p>
+     * Messages are sent on one of two lanes, each with its own pool of connections to every peer. Latency sensitive
+     * control messages like heartbeats and election requests are sent on the priority lane so they're not queued
+     * behind large data messages on the same connection. Each subject is matched against the beginning of message
+     * subjects and may contain {@code *} wildcards, e.g. {@code *-vote} matches {@code raft-partition-1-vote}.
+     * By default, cluster heartbeats and Raft heartbeat, poll and vote messages are sent on the priority lane.
+     *
+     * @param prioritySubjects the subject prefixes of messages to send on the priority lane
+     * @return the Netty messaging service builder
+     * @throws NullPointerException if the subjects are null
+     */
+    public Builder withPrioritySubjects(Collection<String> prioritySubjects) {
+      this.prioritySubjects = checkNotNull(prioritySubjects);
+      return this;
+    }
+
+    /**
+     * Enables consolidation of flushes on messaging connections.
+     * <p>
+     * When flush consolidation is enabled, messages written to a connection outside of its event loop are not
+     * flushed individually. Instead, a single flush is scheduled on the event loop so that all messages written in
+     * the meantime are sent to the socket in one system call, and messages written while reading from a connection
+     * (e.g. replies) are flushed once the read completes. Connections are flushed explicitly after
+     * {@code maxMessagesPerFlush} messages have been written without a flush. This increases throughput at high
+     * message rates with small payloads at the cost of slightly higher latency at low message rates. By default,
+     * flush consolidation is disabled and every message is flushed as soon as it's written.
+     *
+     * @param maxMessagesPerFlush the maximum number of messages to write before flushing, or {@code 0} to disable
+     *                            flush consolidation
+     * @return the Netty messaging service builder
+     * @throws IllegalArgumentException if the maximum number of messages per flush is negative
+     */
+    public Builder withFlushConsolidation(int maxMessagesPerFlush) {
+      checkArgument(maxMessagesPerFlush >= 0, "maxMessagesPerFlush must be positive");
+      this.maxMessagesPerFlush = maxMessagesPerFlush;
+      return this;
+    }
+
+    /**
+     * Sets the subjects of messages whose payloads to compress.
+     * <p>
+     * Payloads of requests with matching subjects and of the replies to those requests are compressed with a pure
+     * Java Snappy codec before being written to the network, trading CPU for bandwidth. Each subject is matched
+     * against the beginning of message subjects and may contain {@code *} wildcards. Inbound messages are
+     * decompressed regardless of the compressed subjects. By default, no messages are compressed.
+     *
+     * @param compressedSubjects the subject prefixes of messages to compress
+     * @return the Netty messaging service builder
+     * @throws NullPointerException if the subjects are null
+     */
+    public Builder withCompressedSubjects(Collection<String> compressedSubjects) {
+      this.compressedSubjects = checkNotNull(compressedSubjects);
+      return this;
+    }
+
+    /**
+     * Sets the minimum payload size of messages to compress.
+     * <p>
+     * Payloads of messages with compressed subjects are compressed only if they're at least the threshold in size.
+     * By default, payloads of at least 1KB are compressed.
+     *
+     * @param compressionThreshold the minimum payload size in bytes of messages to compress
+     * @return the Netty messaging service builder
+     * @throws IllegalArgumentException if the threshold is negative
+     */
+    public Builder withCompressionThreshold(int compressionThreshold) {
+      checkArgument(compressionThreshold >= 0, "compressionThreshold must be positive");
+      this.compressionThreshold = compressionThreshold;
+      return this;
+    }
+
     @Override
     public ManagedMessagingService build() {
       if (address == null) {
         address = Address.local();
       }
-      return new NettyMessagingService(name.hashCode(), address);
+      return new NettyMessagingService(
+          name.hashCode(),
+          address,
+          prioritySubjects,
+          maxMessagesPerFlush,
+          compressedSubjects,
+          compressionThreshold);
     }
   }
 
@@ -157,6 +254,8 @@ public class NettyMessagingService implements ManagedMessagingService {
   private static final double PHI_FACTOR = 1.0 / Math.log(10.0);
   private static final int PHI_FAILURE_THRESHOLD = 12;
   private static final int CHANNEL_POOL_SIZE = 8;
+  private static final int PRIORITY_CHANNEL_POOL_SIZE = 2;
+  private static final int MAX_INDEXED_SUBJECTS = 4096;
 
   private static final byte[] EMPTY_PAYLOAD = new byte[0];
 
@@ -175,6 +274,9 @@ public class NettyMessagingService implements ManagedMessagingService {
   private final int preamble;
   private final AtomicBoolean started = new AtomicBoolean(false);
   private final Map<String, BiConsumer<InternalRequest, ServerConnection>> handlers = new ConcurrentHashMap<>();
+  private final Map<String, Integer> subjectIndexes = new ConcurrentHashMap<>();
+  @SuppressWarnings("unchecked")
+  private volatile BiConsumer<InternalRequest, ServerConnection>[] handlerTable = new BiConsumer[0];
   private final Map<Channel, RemoteClientConnection> clientConnections = Maps.newConcurrentMap();
   private final Map<Channel, RemoteServerConnection> serverConnections = Maps.newConcurrentMap();
   private final AtomicLong messageIdGenerator = new AtomicLong(0);
@@ -182,6 +284,11 @@ public class NettyMessagingService implements ManagedMessagingService {
   private ScheduledFuture<?> timeoutFuture;
 
   private final Map<Address, List<CompletableFuture<Channel>>> channels = Maps.newConcurrentMap();
+  private final Map<Address, List<CompletableFuture<Channel>>> priorityChannels = Maps.newConcurrentMap();
+  private final SubjectMatcher prioritySubjects;
+  private final int maxMessagesPerFlush;
+  private final SubjectMatcher compressedSubjects;
+  private final int compressionThreshold;
 
   private EventLoopGroup serverGroup;
   private EventLoopGroup clientGroup;
@@ -198,8 +305,22 @@ public class NettyMessagingService implements ManagedMessagingService {
   protected KeyManagerFactory keyManager;
 
   protected NettyMessagingService(int preamble, Address address) {
+    this(preamble, address, DEFAULT_PRIORITY_SUBJECTS, 0, Collections.emptyList(), DEFAULT_COMPRESSION_THRESHOLD);
+  }
+
+  protected NettyMessagingService(
+      int preamble,
+      Address address,
+      Collection<String> prioritySubjects,
+      int maxMessagesPerFlush,
+      Collection<String> compressedSubjects,
+      int compressionThreshold) {
     this.preamble = preamble;
+    this.maxMessagesPerFlush = maxMessagesPerFlush;
+    this.compressedSubjects = new SubjectMatcher(compressedSubjects);
+    this.compressionThreshold = compressionThreshold;
     this.localAddress = address;
+    this.prioritySubjects = new SubjectMatcher(prioritySubjects);
   }
 
   @Override
@@ -349,6 +470,22 @@ public class NettyMessagingService implements ManagedMessagingService {
     return executeOnPooledConnection(address, type, c -> c.sendAsync(message), MoreExecutors.directExecutor());
   }
 
+  @Override
+  public CompletableFuture<Void> sendBatch(Address address, String type, List<byte[]> payloads) {
+    if (payloads.isEmpty()) {
+      return CompletableFuture.completedFuture(null);
+    }
+    List<InternalRequest> messages = new ArrayList<>(payloads.size());
+    for (byte[] payload : payloads) {
+      messages.add(new InternalRequest(preamble,
+          messageIdGenerator.incrementAndGet(),
+          localAddress,
+          type,
+          payload));
+    }
+    return executeOnPooledConnection(address, type, c -> c.sendBatch(messages), MoreExecutors.directExecutor());
+  }
+
   @Override
   public CompletableFuture<byte[]> sendAndReceive(Address address, String type, byte[] payload) {
     return sendAndReceive(address, type, payload, null, MoreExecutors.directExecutor());
@@ -375,34 +512,70 @@ public class NettyMessagingService implements ManagedMessagingService {
     return executeOnPooledConnection(address, type, c -> c.sendAndReceive(message, timeout), executor);
   }
 
-  private List<CompletableFuture<Channel>> getChannelPool(Address address) {
-    List<CompletableFuture<Channel>> channelPool = channels.get(address);
+  @Override
+  public CompletableFuture<Void> sendAsync(Address address, String type, ByteBuf payload) {
+    InternalRequest message = new InternalRequest(preamble,
+        messageIdGenerator.incrementAndGet(),
+        localAddress,
+        type,
+        payload);
+    // Release the payload if the message could not be written, e.g. because a connection could not be established.
+    return executeOnPooledConnection(address, type, c -> c.sendAsync(message), MoreExecutors.directExecutor())
+        .whenComplete((result, error) -> message.release());
+  }
+
+  @Override
+  public CompletableFuture<ByteBuf> sendAndReceive(Address address, String type, ByteBuf payload, Duration timeout) {
+    InternalRequest message = new InternalRequest(preamble,
+        messageIdGenerator.incrementAndGet(),
+        localAddress,
+        type,
+        payload);
+    return executeOnPooledConnection(address, type, c -> c.sendAndReceiveBuffer(message, timeout), MoreExecutors.directExecutor())
+        .whenComplete((result, error) -> message.release());
+  }
+
+  /**
+   * Returns a boolean indicating whether messages of the given type are sent on the priority lane.
+   *
+   * @param messageType the message type
+   * @return indicates whether messages of the given type are sent on the priority lane
+   */
+  boolean isPrioritySubject(String messageType) {
+    return prioritySubjects.matches(messageType);
+  }
+
+  private List<CompletableFuture<Channel>> getChannelPool(Address address, boolean priority) {
+    Map<Address, List<CompletableFuture<Channel>>> lane = priority ? priorityChannels : channels;
+    List<CompletableFuture<Channel>> channelPool = lane.get(address);
     if (channelPool != null) {
       return channelPool;
     }
-    return channels.computeIfAbsent(address, e -> {
-      List<CompletableFuture<Channel>> defaultList = new ArrayList<>(CHANNEL_POOL_SIZE);
-      for (int i = 0; i < CHANNEL_POOL_SIZE; i++) {
+    int poolSize = priority ? PRIORITY_CHANNEL_POOL_SIZE : CHANNEL_POOL_SIZE;
+    return lane.computeIfAbsent(address, e -> {
+      List<CompletableFuture<Channel>> defaultList = new ArrayList<>(poolSize);
+      for (int i = 0; i < poolSize; i++) {
         defaultList.add(null);
       }
       return Lists.newCopyOnWriteArrayList(defaultList);
     });
   }
 
-  private int getChannelOffset(String messageType) {
-    return Math.abs(messageType.hashCode() % CHANNEL_POOL_SIZE);
+  private int getChannelOffset(String messageType, int poolSize) {
+    return Math.abs(messageType.hashCode() % poolSize);
   }
 
   private CompletableFuture<Channel> getChannel(Address address, String messageType) {
-    List<CompletableFuture<Channel>> channelPool = getChannelPool(address);
-    int offset = getChannelOffset(messageType);
+    boolean priority = isPrioritySubject(messageType);
+    List<CompletableFuture<Channel>> channelPool = getChannelPool(address, priority);
+    int offset = getChannelOffset(messageType, channelPool.size());
 
     CompletableFuture<Channel> channelFuture = channelPool.get(offset);
     if (channelFuture == null || channelFuture.isCompletedExceptionally()) {
       synchronized (channelPool) {
         channelFuture = channelPool.get(offset);
         if (channelFuture == null || channelFuture.isCompletedExceptionally()) {
-          channelFuture = openChannel(address);
+          channelFuture = openChannel(address, priority);
           channelPool.set(offset, channelFuture);
         }
       }
@@ -419,7 +592,7 @@ public class NettyMessagingService implements ManagedMessagingService {
             if (currentFuture == finalFuture) {
               channelPool.set(offset, null);
             } else if (currentFuture == null) {
-              currentFuture = openChannel(address);
+              currentFuture = openChannel(address, priority);
               channelPool.set(offset, currentFuture);
             }
           }
@@ -516,28 +689,34 @@ public class NettyMessagingService implements ManagedMessagingService {
 
   @Override
   public void registerHandler(String type, BiConsumer<Address, byte[]> handler, Executor executor) {
-    handlers.put(type, (message, connection) -> executor.execute(() ->
-        handler.accept(message.sender(), message.payload())));
+    putHandler(type, (message, connection) -> {
+      // Copy the payload before handing the message off since the message's buffer is released once dispatched.
+      byte[] payload = message.payload();
+      executor.execute(() -> handler.accept(message.sender(), payload));
+    });
   }
 
   @Override
   public void registerHandler(String type, BiFunction<Address, byte[], byte[]> handler, Executor executor) {
-    handlers.put(type, (message, connection) -> executor.execute(() -> {
-      byte[] responsePayload = null;
-      InternalReply.Status status = InternalReply.Status.OK;
-      try {
-        responsePayload = handler.apply(message.sender(), message.payload());
-      } catch (Exception e) {
-        log.warn("An error occurred in a message handler: {}", e);
-        status = InternalReply.Status.ERROR_HANDLER_EXCEPTION;
-      }
-      connection.reply(message, status, Optional.ofNullable(responsePayload));
-    }));
+    putHandler(type, (message, connection) -> {
+      byte[] payload = message.payload();
+      executor.execute(() -> {
+        byte[] responsePayload = null;
+        InternalReply.Status status = InternalReply.Status.OK;
+        try {
+          responsePayload = handler.apply(message.sender(), payload);
+        } catch (Exception e) {
+          log.warn("An error occurred in a message handler: {}", e);
+          status = InternalReply.Status.ERROR_HANDLER_EXCEPTION;
+        }
+        connection.reply(message, status, Optional.ofNullable(responsePayload));
+      });
+    });
   }
 
   @Override
   public void registerHandler(String type, BiFunction<Address, byte[], CompletableFuture<byte[]>> handler) {
-    handlers.put(type, (message, connection) -> {
+    putHandler(type, (message, connection) -> {
       handler.apply(message.sender(), message.payload()).whenComplete((result, error) -> {
         InternalReply.Status status;
         if (error == null) {
@@ -551,16 +730,92 @@ public class NettyMessagingService implements ManagedMessagingService {
     });
   }
 
+  @Override
+  public void registerBufferHandler(String type, BiFunction<Address, ByteBuf, CompletableFuture<ByteBuf>> handler) {
+    putHandler(type, (message, connection) -> {
+      handler.apply(message.sender(), message.retainedBuffer()).whenComplete((result, error) -> {
+        if (error == null) {
+          connection.reply(message, result != null ? result : Unpooled.EMPTY_BUFFER);
+        } else {
+          log.warn("An error occurred in a message handler: {}", error);
+          connection.reply(message, InternalReply.Status.ERROR_HANDLER_EXCEPTION, Optional.empty());
+        }
+      });
+    });
+  }
+
   @Override
   public void unregisterHandler(String type) {
-    handlers.remove(type);
+    putHandler(type, null);
   }
 
-  private Bootstrap bootstrapClient(Address address) {
+  /**
+   * Registers or unregisters the handler for the given subject.
+   * <p>
+   * Handlers are stored both by subject and in a handler table indexed by subject. Inbound connections resolve the
+   * index of each subject once, when the subject is first written to the connection, and dispatch subsequent requests
+   * by index.
+   */
+  @SuppressWarnings("unchecked")
+  private synchronized void putHandler(String type, BiConsumer<InternalRequest, ServerConnection> handler) {
+    if (handler != null) {
+      handlers.put(type, handler);
+    } else {
+      handlers.remove(type);
+    }
+
+    Integer index = subjectIndexes.get(type);
+    if (index == null) {
+      if (handler == null || subjectIndexes.size() >= MAX_INDEXED_SUBJECTS) {
+        return;
+      }
+      index = subjectIndexes.size();
+    }
+    BiConsumer<InternalRequest, ServerConnection>[] table = handlerTable;
+    if (index >= table.length) {
+      table = Arrays.copyOf(table, Math.max(table.length * 2, 16));
+    } else {
+      table = table.clone();
+    }
+    table[index] = handler;
+    handlerTable = table;
+    subjectIndexes.putIfAbsent(type, index);
+  }
+
+  /**
+   * Returns the index of the given subject in the handler table.
+   *
+   * @param subject the subject for which to return the index
+   * @return the index of the subject in the handler table, or {@code -1} if the subject is not indexed
+   */
+  private int getSubjectIndex(String subject) {
+    Integer index = subjectIndexes.get(subject);
+    return index != null ? index : -1;
+  }
+
+  /**
+   * Returns the handler for the given request.
+   */
+  private BiConsumer<InternalRequest, ServerConnection> getHandler(InternalRequest message) {
+    int index = message.subjectIndex();
+    if (index >= 0) {
+      BiConsumer<InternalRequest, ServerConnection>[] table = handlerTable;
+      return index < table.length ? table[index] : null;
+    }
+    return handlers.get(message.subject());
+  }
+
+  private Bootstrap bootstrapClient(Address address, boolean priority) {
     Bootstrap bootstrap = new Bootstrap();
     bootstrap.option(ChannelOption.ALLOCATOR, PooledByteBufAllocator.DEFAULT);
-    bootstrap.option(ChannelOption.WRITE_BUFFER_WATER_MARK,
-        new WriteBufferWaterMark(10 * 32 * 1024, 10 * 64 * 1024));
+    // Priority lane messages are small, so priority channels are given small write buffers.
+    if (priority) {
+      bootstrap.option(ChannelOption.WRITE_BUFFER_WATER_MARK,
+          new WriteBufferWaterMark(8 * 1024, 32 * 1024));
+    } else {
+      bootstrap.option(ChannelOption.WRITE_BUFFER_WATER_MARK,
+          new WriteBufferWaterMark(10 * 32 * 1024, 10 * 64 * 1024));
+    }
     bootstrap.option(ChannelOption.SO_RCVBUF, 1024 * 1024);
     bootstrap.option(ChannelOption.SO_SNDBUF, 1024 * 1024);
     bootstrap.option(ChannelOption.SO_KEEPALIVE, true);
@@ -615,8 +870,8 @@ public class NettyMessagingService implements ManagedMessagingService {
     return future;
   }
 
-  private CompletableFuture<Channel> openChannel(Address address) {
-    Bootstrap bootstrap = bootstrapClient(address);
+  private CompletableFuture<Channel> openChannel(Address address, boolean priority) {
+    Bootstrap bootstrap = bootstrapClient(address, priority);
     CompletableFuture<Channel> retFuture = new CompletableFuture<>();
     ChannelFuture f = bootstrap.connect();
 
@@ -668,6 +923,15 @@ public class NettyMessagingService implements ManagedMessagingService {
     return CompletableFuture.completedFuture(null);
   }
 
+  /**
+   * Adds a flush consolidation handler to the head of the given channel's pipeline if enabled.
+   */
+  private void addFlushConsolidation(SocketChannel channel) {
+    if (maxMessagesPerFlush > 0) {
+      channel.pipeline().addFirst("flush", new FlushConsolidationHandler(maxMessagesPerFlush, true));
+    }
+  }
+
   /**
    * Channel initializer for TLS servers.
    */
@@ -687,9 +951,11 @@ public class NettyMessagingService implements ManagedMessagingService {
       serverSslEngine.setEnabledCipherSuites(serverSslEngine.getSupportedCipherSuites());
       serverSslEngine.setEnableSessionCreation(true);
 
+      addFlushConsolidation(channel);
       channel.pipeline().addLast("ssl", new io.netty.handler.ssl.SslHandler(serverSslEngine))
           .addLast("encoder", new MessageEncoder(localAddress, preamble))
-          .addLast("decoder", new MessageDecoder())
+          .addLast("decoder", new MessageDecoder(NettyMessagingService.this::getSubjectIndex))
+          .addLast("compression", new MessageCompressionHandler(compressedSubjects, compressionThreshold))
           .addLast("handler", dispatcher);
     }
   }
@@ -712,9 +978,11 @@ public class NettyMessagingService implements ManagedMessagingService {
       clientSslEngine.setEnabledCipherSuites(clientSslEngine.getSupportedCipherSuites());
       clientSslEngine.setEnableSessionCreation(true);
 
+      addFlushConsolidation(channel);
       channel.pipeline().addLast("ssl", new io.netty.handler.ssl.SslHandler(clientSslEngine))
           .addLast("encoder", new MessageEncoder(localAddress, preamble))
-          .addLast("decoder", new MessageDecoder())
+          .addLast("decoder", new MessageDecoder(NettyMessagingService.this::getSubjectIndex))
+          .addLast("compression", new MessageCompressionHandler(compressedSubjects, compressionThreshold))
           .addLast("handler", dispatcher);
     }
   }
@@ -727,9 +995,11 @@ public class NettyMessagingService implements ManagedMessagingService {
 
     @Override
     protected void initChannel(SocketChannel channel) throws Exception {
+      addFlushConsolidation(channel);
       channel.pipeline()
           .addLast("encoder", new MessageEncoder(localAddress, preamble))
-          .addLast("decoder", new MessageDecoder())
+          .addLast("decoder", new MessageDecoder(NettyMessagingService.this::getSubjectIndex))
+          .addLast("compression", new MessageCompressionHandler(compressedSubjects, compressionThreshold))
           .addLast("handler", dispatcher);
     }
   }
@@ -758,6 +1028,8 @@ public class NettyMessagingService implements ManagedMessagingService {
         }
       } catch (RejectedExecutionException e) {
         log.warn("Unable to dispatch message due to {}", e.getMessage());
+      } finally {
+        message.release();
       }
     }
 
@@ -811,20 +1083,33 @@ public class NettyMessagingService implements ManagedMessagingService {
     private final String type;
     private final long timeout;
     private final CompletableFuture<byte[]> future;
+    private final CompletableFuture<ByteBuf> bufferFuture;
     private final long time = System.currentTimeMillis();
 
-    Callback(String type, Duration timeout, CompletableFuture<byte[]> future) {
+    Callback(String type, Duration timeout, CompletableFuture<byte[]> future, CompletableFuture<ByteBuf> bufferFuture) {
       this.type = type;
       this.timeout = timeout != null ? timeout.toMillis() : 0;
       this.future = future;
+      this.bufferFuture = bufferFuture;
     }
 
-    public void complete(byte[] value) {
-      future.complete(value);
+    public void complete(InternalReply reply) {
+      if (bufferFuture != null) {
+        ByteBuf buffer = reply.retainedBuffer();
+        if (!bufferFuture.complete(buffer)) {
+          buffer.release();
+        }
+      } else {
+        future.complete(reply.payload());
+      }
     }
 
     public void completeExceptionally(Throwable error) {
-      future.completeExceptionally(error);
+      if (bufferFuture != null) {
+        bufferFuture.completeExceptionally(error);
+      } else {
+        future.completeExceptionally(error);
+      }
     }
   }
 
@@ -841,6 +1126,18 @@ public class NettyMessagingService implements ManagedMessagingService {
      */
     CompletableFuture<Void> sendAsync(InternalRequest message);
 
+    /**
+     * Sends a batch of messages to the other side of the connection.
+     *
+     * @param messages the messages to send
+     * @return a completable future to be completed once all the messages have been sent
+     */
+    default CompletableFuture<Void> sendBatch(List<InternalRequest> messages) {
+      return CompletableFuture.allOf(messages.stream()
+          .map(this::sendAsync)
+          .toArray(CompletableFuture[]::new));
+    }
+
     /**
      * Sends a message to the other side of the connection, awaiting a reply.
      *
@@ -850,6 +1147,17 @@ public class NettyMessagingService implements ManagedMessagingService {
      */
     CompletableFuture<byte[]> sendAndReceive(InternalRequest message, Duration timeout);
 
+    /**
+     * Sends a message to the other side of the connection, awaiting a reply in a buffer.
+     *
+     * @param message the message to send
+     * @param timeout the response timeout
+     * @return a completable future to be completed with a buffer owned by the caller once a reply is received
+     */
+    default CompletableFuture<ByteBuf> sendAndReceiveBuffer(InternalRequest message, Duration timeout) {
+      return sendAndReceive(message, timeout).thenApply(Unpooled::wrappedBuffer);
+    }
+
     /**
      * Closes the connection.
      */
@@ -871,6 +1179,18 @@ public class NettyMessagingService implements ManagedMessagingService {
      */
     void reply(InternalRequest message, InternalReply.Status status, Optional<byte[]> payload);
 
+    /**
+     * Sends a successful reply to the other side of the connection, taking ownership of the payload buffer.
+     *
+     * @param message the message to which to reply
+     * @param payload the response payload
+     */
+    default void reply(InternalRequest message, ByteBuf payload) {
+      byte[] bytes = payload.isReadable() ? ByteBufUtil.getBytes(payload) : EMPTY_PAYLOAD;
+      payload.release();
+      reply(message, InternalReply.Status.OK, Optional.of(bytes));
+    }
+
     /**
      * Closes the connection.
      */
@@ -927,7 +1247,11 @@ public class NettyMessagingService implements ManagedMessagingService {
     }
 
     protected void registerCallback(long id, String subject, Duration timeout, CompletableFuture<byte[]> future) {
-      futures.put(id, new Callback(subject, timeout, future));
+      futures.put(id, new Callback(subject, timeout, future, null));
+    }
+
+    protected void registerBufferCallback(long id, String subject, Duration timeout, CompletableFuture<ByteBuf> future) {
+      futures.put(id, new Callback(subject, timeout, null, future));
     }
 
     protected Callback completeCallback(long id) {
@@ -966,9 +1290,14 @@ public class NettyMessagingService implements ManagedMessagingService {
       BiConsumer<InternalRequest, ServerConnection> handler = handlers.get(message.subject());
       if (handler != null) {
         log.trace("{} - Received message type {} from {}", localAddress, message.subject(), message.sender());
-        handler.accept(message, localServerConnection);
+        try {
+          handler.accept(message, localServerConnection);
+        } finally {
+          message.release();
+        }
       } else {
         log.debug("{} - No handler for message type {} from {}", localAddress, message.subject(), message.sender());
+        message.release();
       }
       return CompletableFuture.completedFuture(null);
     }
@@ -981,9 +1310,14 @@ public class NettyMessagingService implements ManagedMessagingService {
       BiConsumer<InternalRequest, ServerConnection> handler = handlers.get(message.subject());
       if (handler != null) {
         log.trace("{} - Received message type {} from {}", localAddress, message.subject(), message.sender());
-        handler.accept(message, new LocalServerConnection(future));
+        try {
+          handler.accept(message, new LocalServerConnection(future));
+        } finally {
+          message.release();
+        }
       } else {
         log.debug("{} - No handler for message type {} from {}", localAddress, message.subject(), message.sender());
+        message.release();
         new LocalServerConnection(future)
             .reply(message, InternalReply.Status.ERROR_NO_HANDLER, Optional.empty());
       }
@@ -1040,11 +1374,48 @@ public class NettyMessagingService implements ManagedMessagingService {
       return future;
     }
 
+    @Override
+    public CompletableFuture<Void> sendBatch(List<InternalRequest> messages) {
+      // Write all the messages to the channel's outbound buffer and flush them to the socket at once.
+      CompletableFuture[] futures = new CompletableFuture[messages.size()];
+      for (int i = 0; i < messages.size(); i++) {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        channel.write(messages.get(i)).addListener(channelFuture -> {
+          if (!channelFuture.isSuccess()) {
+            future.completeExceptionally(channelFuture.cause());
+          } else {
+            future.complete(null);
+          }
+        });
+        futures[i] = future;
+      }
+      channel.flush();
+      return CompletableFuture.allOf(futures);
+    }
+
     @Override
     public CompletableFuture<byte[]> sendAndReceive(InternalRequest message, Duration timeout) {
       CompletableFuture<byte[]> future = new CompletableFuture<>();
       registerCallback(message.id(), message.subject(), timeout, future);
+      writeRequest(message);
+      return future;
+    }
+
+    @Override
+    public CompletableFuture<ByteBuf> sendAndReceiveBuffer(InternalRequest message, Duration timeout) {
+      CompletableFuture<ByteBuf> future = new CompletableFuture<>();
+      registerBufferCallback(message.id(), message.subject(), timeout, future);
+      writeRequest(message);
+      return future;
+    }
+
+    /**
+     * Writes a request to the channel, failing the request's callback if the write fails.
+     */
+    private void writeRequest(InternalRequest message) {
       channel.writeAndFlush(message).addListener(channelFuture -> {
+        // Release the payload buffer if it was not written.
+        message.release();
         if (!channelFuture.isSuccess()) {
           Callback callback = failCallback(message.id());
           if (callback != null) {
@@ -1052,7 +1423,6 @@ public class NettyMessagingService implements ManagedMessagingService {
           }
         }
       });
-      return future;
     }
 
     /**
@@ -1069,7 +1439,7 @@ public class NettyMessagingService implements ManagedMessagingService {
       Callback callback = completeCallback(message.id());
       if (callback != null) {
         if (message.status() == InternalReply.Status.OK) {
-          callback.complete(message.payload());
+          callback.complete(message);
         } else if (message.status() == InternalReply.Status.ERROR_NO_HANDLER) {
           callback.completeExceptionally(new MessagingException.NoRemoteHandler());
         } else if (message.status() == InternalReply.Status.ERROR_HANDLER_EXCEPTION) {
@@ -1116,7 +1486,7 @@ public class NettyMessagingService implements ManagedMessagingService {
         return;
       }
 
-      BiConsumer<InternalRequest, ServerConnection> handler = handlers.get(message.subject());
+      BiConsumer<InternalRequest, ServerConnection> handler = getHandler(message);
       if (handler != null) {
         log.trace("{} - Received message type {} from {}", localAddress, message.subject(), message.sender());
         handler.accept(message, this);
@@ -1131,9 +1501,20 @@ public class NettyMessagingService implements ManagedMessagingService {
       InternalReply response = new InternalReply(preamble,
           message.id(),
           payload.orElse(EMPTY_PAYLOAD),
-          status);
+          status,
+          message.subject());
       channel.writeAndFlush(response, channel.voidPromise());
     }
+
+    @Override
+    public void reply(InternalRequest message, ByteBuf payload) {
+      InternalReply response = new InternalReply(preamble,
+          message.id(),
+          payload,
+          InternalReply.Status.OK,
+          message.subject());
+      channel.writeAndFlush(response).addListener(channelFuture -> response.release());
+    }
   }
 
   /**
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.cluster.messaging.impl;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Matches message subjects against a set of subject prefixes.
+ * <p>
+ * Each subject prefix is matched against the beginning of message subjects and may contain {@code *} wildcards,
+ * e.g. {@code *-vote} matches {@code raft-partition-1-vote}. The result of matching each subject is cached.
+ */
+final class SubjectMatcher {
+  private final List<Pattern> patterns;
+  private final Map<String, Boolean> cache = new ConcurrentHashMap<>();
+
+  SubjectMatcher(Collection<String> subjects) {
+    this.patterns = subjects.stream()
+        .map(SubjectMatcher::compileSubject)
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * Compiles a subject with {@code *} wildcards to a pattern.
+   */
+  private static Pattern compileSubject(String subject) {
+    return Pattern.compile(Arrays.stream(subject.split("\\*", -1))
+        .map(Pattern::quote)
+        .collect(Collectors.joining(".*")));
+  }
+
+  /**
+   * Returns a boolean indicating whether the given subject matches any of the subject prefixes.
+   *
+   * @param subject the subject to match
+   * @return indicates whether the subject matches any of the subject prefixes
+   */
+  boolean matches(String subject) {
+    if (patterns.isEmpty()) {
+      return false;
+    }
+    Boolean matches = cache.get(subject);
+    if (matches == null) {
+      matches = cache.computeIfAbsent(subject, s -> patterns.stream().anyMatch(pattern -> pattern.matcher(s).lookingAt()));
+    }
+    return matches;
+  }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.cluster.messaging.impl;
+
+import io.atomix.utils.net.Address;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Message compression handler test.
+ */
+public class MessageCompressionHandlerTest {
+
+    private static final Address ADDRESS = Address.from("127.0.0.1", 5000);
+
+    @Test
+    public void testCompressedRoundTrip() throws Exception {
+        StringBuilder builder = new StringBuilder();
+        while (builder.length() < 100 * 1024) {
+            builder.append("compressible value ").append(builder.length() % 100);
+        }
+        byte[] payload = builder.toString().getBytes(StandardCharsets.UTF_8);
+
+        // Payloads spanning multiple blocks are compressed and restored.
+        int length = roundTrip("compressed-foo", payload);
+        assertTrue(length < payload.length / 2);
+    }
+
+    @Test
+    public void testUncompressedRoundTrip() throws Exception {
+        byte[] payload = new byte[4096];
+        for (int i = 0; i < payload.length; i++) {
+            payload[i] = (byte) (i % 8);
+        }
+
+        // Messages with subjects that are not compressed are sent as is.
+        assertTrue(roundTrip("foo", payload) > payload.length);
+
+        // Payloads below the threshold are sent as is.
+        assertTrue(roundTrip("compressed-foo", new byte[]{1, 2, 3}) > 3);
+
+        // Payloads that don't compress are sent as is.
+        byte[] random = new byte[4096];
+        new Random(0).nextBytes(random);
+        assertTrue(roundTrip("compressed-foo", random) > random.length);
+    }
+
+    @Test
+    public void testUncompressedForLegacyPeer() throws Exception {
+        byte[] payload = new byte[4096];
+        for (int i = 0; i < payload.length; i++) {
+            payload[i] = (byte) (i % 8);
+        }
+
+        // Payloads are not compressed for remote nodes whose protocol version predates compression.
+        SubjectMatcher compressedSubjects = new SubjectMatcher(Collections.singletonList("compressed-*"));
+        EmbeddedChannel encoder = new EmbeddedChannel(
+            new MessageEncoder(ADDRESS, 1), new MessageCompressionHandler(compressedSubjects, 64));
+        encoder.attr(MessageEncoder.PEER_VERSION).set(MessageEncoder.SUBJECT_ID_VERSION);
+        encoder.writeOutbound(new InternalRequest(1, 1, ADDRESS, "compressed-foo", payload));
+        ByteBuf buffer = encoder.readOutbound();
+        try {
+            assertTrue(buffer.readableBytes() > payload.length);
+        } finally {
+            buffer.release();
+        }
+        encoder.finish();
+    }
+
+    /**
+     * Sends a request with the given subject and payload through a compressing encoder and decoder and returns the
+     * encoded length of the request.
+     */
+    private int roundTrip(String subject, byte[] payload) throws Exception {
+        SubjectMatcher compressedSubjects = new SubjectMatcher(Collections.singletonList("compressed-*"));
+        EmbeddedChannel encoder = new EmbeddedChannel(
+            new MessageEncoder(ADDRESS, 1), new MessageCompressionHandler(compressedSubjects, 64));
+        EmbeddedChannel decoder = new EmbeddedChannel(
+            new MessageDecoder(), new MessageCompressionHandler(compressedSubjects, 64));
+
+        encoder.writeOutbound(new InternalRequest(1, 1, ADDRESS, subject, payload));
+        ByteBuf buffer = encoder.readOutbound();
+        int length = buffer.readableBytes();
+        decoder.writeInbound(buffer);
+
+        InternalRequest request = decoder.readInbound();
+        try {
+            assertEquals(subject, request.subject());
+            assertArrayEquals(payload, request.payload());
+        } finally {
+            request.release();
+        }
+        encoder.finish();
+        decoder.finish();
+        return length;
+    }
+}
@@ -15,13 +15,19 @@
  */
 package io.atomix.cluster.messaging.impl;
 
+import io.atomix.utils.net.Address;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
 import org.junit.Test;
 
 import java.nio.charset.StandardCharsets;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 /**
  * Message decoder test.
@@ -59,4 +65,85 @@ public class MessageDecoderTest {
             byteBuf.release();
         }
     }
+
+    @Test
+    public void testSubjectInterning() throws Exception {
+        Address address = Address.from("127.0.0.1", 5000);
+        EmbeddedChannel encoder = new EmbeddedChannel(new MessageEncoder(address, 1));
+        EmbeddedChannel decoder = new EmbeddedChannel(new MessageDecoder(subject -> subject.equals("foo") ? 5 : -1));
+
+        String[] subjects = new String[]{"foo", "bar", "foo", "bar", "baz"};
+        int[] lengths = new int[subjects.length];
+        for (int i = 0; i < subjects.length; i++) {
+            encoder.writeOutbound(new InternalRequest(1, i, address, subjects[i], new byte[]{(byte) i}));
+            ByteBuf buffer = encoder.readOutbound();
+            lengths[i] = buffer.readableBytes();
+
+            // Feed the encoded message to the decoder one byte at a time to exercise partial reads.
+            while (buffer.isReadable()) {
+                decoder.writeInbound(buffer.readRetainedSlice(1));
+            }
+            buffer.release();
+
+            InternalRequest request = decoder.readInbound();
+            assertEquals(i, request.id());
+            assertEquals(subjects[i], request.subject());
+            assertEquals(subjects[i].equals("foo") ? 5 : -1, request.subjectIndex());
+            assertArrayEquals(new byte[]{(byte) i}, request.payload());
+            request.release();
+        }
+
+        // Subjects written to the connection before are replaced by their identifiers.
+        assertEquals(lengths[2], lengths[3]);
+        assertTrue(lengths[1] > lengths[3]);
+        assertTrue(lengths[4] > lengths[3]);
+        encoder.finish();
+        decoder.finish();
+    }
+
+    @Test
+    public void testLegacyPeer() throws Exception {
+        Address address = Address.from("127.0.0.1", 5000);
+        EmbeddedChannel channel = new EmbeddedChannel(
+            new MessageEncoder(address, 1), new MessageDecoder(subject -> -1));
+
+        // Legacy nodes write the sender address without a version and write subjects inline.
+        byte[] subject = "foo".getBytes(StandardCharsets.UTF_8);
+        ByteBuf buffer = Unpooled.buffer()
+            .writeByte(4)
+            .writeBytes(address.address().getAddress())
+            .writeInt(address.port())
+            .writeByte(InternalMessage.Type.REQUEST.id())
+            .writeInt(1)
+            .writeLong(1)
+            .writeInt(1)
+            .writeByte(1)
+            .writeShort(subject.length)
+            .writeBytes(subject);
+        channel.writeInbound(buffer);
+
+        InternalRequest request = channel.readInbound();
+        assertEquals("foo", request.subject());
+        assertArrayEquals(new byte[]{1}, request.payload());
+        request.release();
+        assertEquals(MessageEncoder.LEGACY_VERSION, (int) channel.attr(MessageEncoder.PEER_VERSION).get());
+
+        // Replies to legacy nodes are written without a version.
+        channel.writeOutbound(new InternalReply(1, 1, new byte[]{2}, InternalReply.Status.OK));
+        ByteBuf reply = channel.readOutbound();
+        assertEquals(4, reply.readByte());
+        reply.release();
+        channel.finish();
+    }
+
+    @Test
+    public void testUnsupportedVersion() throws Exception {
+        EmbeddedChannel channel = new EmbeddedChannel(new MessageDecoder());
+        channel.writeInbound(Unpooled.buffer()
+            .writeByte(MessageEncoder.VERSION_MARKER)
+            .writeByte(MessageEncoder.VERSION + 1));
+        assertFalse(channel.isOpen());
+        assertNull(channel.readInbound());
+        channel.finish();
+    }
 }
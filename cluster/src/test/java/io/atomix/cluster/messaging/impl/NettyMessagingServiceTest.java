@@ -19,6 +19,9 @@ import com.google.common.util.concurrent.MoreExecutors;
 import com.google.common.util.concurrent.Uninterruptibles;
 import io.atomix.cluster.messaging.ManagedMessagingService;
 import io.atomix.utils.net.Address;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.buffer.Unpooled;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Ignore;
@@ -28,20 +31,30 @@ import org.slf4j.Logger;
 import java.io.IOException;
 import java.net.ConnectException;
 import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BiFunction;
+import java.util.stream.Collectors;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
@@ -182,6 +195,182 @@ public class NettyMessagingServiceTest {
     }
   }
 
+  @Test
+  public void testSendBatch() throws Exception {
+    String subject = nextSubject();
+    List<String> received = new CopyOnWriteArrayList<>();
+    CountDownLatch latch = new CountDownLatch(100);
+    netty2.registerHandler(subject, (address, payload) -> {
+      received.add(new String(payload));
+      latch.countDown();
+    }, MoreExecutors.directExecutor());
+
+    List<String> messages = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      messages.add("message-" + i);
+    }
+    netty1.sendBatch(ep2, subject, messages.stream().map(String::getBytes).collect(Collectors.toList())).join();
+    assertTrue(latch.await(10, TimeUnit.SECONDS));
+    assertEquals(messages, received);
+  }
+
+  @Test
+  public void testFlushConsolidation() throws Exception {
+    Address address1 = Address.from(findAvailablePort(5005));
+    ManagedMessagingService sender = (ManagedMessagingService) NettyMessagingService.builder()
+        .withAddress(address1)
+        .withFlushConsolidation(16)
+        .build()
+        .start()
+        .join();
+    Address address2 = Address.from(findAvailablePort(5007));
+    ManagedMessagingService receiver = (ManagedMessagingService) NettyMessagingService.builder()
+        .withAddress(address2)
+        .withFlushConsolidation(16)
+        .build()
+        .start()
+        .join();
+    try {
+      String subject = nextSubject();
+      receiver.registerHandler(subject, (address, payload) -> CompletableFuture.completedFuture(payload));
+      List<CompletableFuture<byte[]>> futures = new ArrayList<>();
+      for (int i = 0; i < 1000; i++) {
+        futures.add(sender.sendAndReceive(address2, subject, String.valueOf(i).getBytes(), Duration.ofSeconds(10)));
+      }
+      for (int i = 0; i < 1000; i++) {
+        assertEquals(String.valueOf(i), new String(futures.get(i).join()));
+      }
+    } finally {
+      sender.stop().join();
+      receiver.stop().join();
+    }
+  }
+
+  @Test
+  public void testCompression() throws Exception {
+    Address address1 = Address.from(findAvailablePort(5009));
+    ManagedMessagingService sender = (ManagedMessagingService) NettyMessagingService.builder()
+        .withAddress(address1)
+        .withCompressedSubjects(Collections.singletonList("compressed-*"))
+        .withCompressionThreshold(64)
+        .build()
+        .start()
+        .join();
+    Address address2 = Address.from(findAvailablePort(5011));
+    ManagedMessagingService receiver = (ManagedMessagingService) NettyMessagingService.builder()
+        .withAddress(address2)
+        .withCompressedSubjects(Collections.singletonList("compressed-*"))
+        .withCompressionThreshold(64)
+        .build()
+        .start()
+        .join();
+    try {
+      String subject = "compressed-" + nextSubject();
+      receiver.registerHandler(subject, (address, payload) -> CompletableFuture.completedFuture(payload));
+
+      // Compressible payloads spanning multiple compression blocks.
+      StringBuilder builder = new StringBuilder();
+      while (builder.length() < 100 * 1024) {
+        builder.append("compressible value ").append(builder.length() % 100);
+      }
+      byte[] compressible = builder.toString().getBytes(StandardCharsets.UTF_8);
+      assertArrayEquals(compressible, sender.sendAndReceive(address2, subject, compressible).join());
+
+      ByteBuf buffer = PooledByteBufAllocator.DEFAULT.directBuffer().writeBytes(compressible);
+      ByteBuf response = sender.sendAndReceive(address2, subject, buffer, Duration.ofSeconds(10)).join();
+      try {
+        assertEquals(builder.toString(), response.toString(StandardCharsets.UTF_8));
+      } finally {
+        response.release();
+      }
+
+      // Incompressible and small payloads are sent as is.
+      byte[] random = new byte[4096];
+      new Random(0).nextBytes(random);
+      assertArrayEquals(random, sender.sendAndReceive(address2, subject, random).join());
+      assertArrayEquals("small".getBytes(), sender.sendAndReceive(address2, subject, "small".getBytes()).join());
+    } finally {
+      sender.stop().join();
+      receiver.stop().join();
+    }
+  }
+
+  @Test
+  public void testSendAndReceiveBuffer() {
+    String subject = nextSubject();
+    netty2.registerBufferHandler(subject, (address, payload) -> {
+      ByteBuf response = PooledByteBufAllocator.DEFAULT.directBuffer().writeBytes(payload).writeBytes(" world".getBytes());
+      payload.release();
+      return CompletableFuture.completedFuture(response);
+    });
+
+    ByteBuf payload = PooledByteBufAllocator.DEFAULT.directBuffer().writeBytes("hello".getBytes());
+    ByteBuf response = netty1.sendAndReceive(ep2, subject, payload, Duration.ofSeconds(10)).join();
+    try {
+      assertEquals("hello world", response.toString(StandardCharsets.UTF_8));
+      assertEquals(0, payload.refCnt());
+    } finally {
+      response.release();
+    }
+
+    // Buffered and array payloads are interchangeable between senders and handlers.
+    assertArrayEquals("hello world".getBytes(), netty1.sendAndReceive(ep2, subject, "hello".getBytes()).join());
+
+    String arraySubject = nextSubject();
+    netty2.registerHandler(arraySubject, (address, bytes) -> CompletableFuture.completedFuture(bytes));
+    response = netty1.sendAndReceive(ep2, arraySubject, Unpooled.wrappedBuffer("foo".getBytes()), Duration.ofSeconds(10)).join();
+    try {
+      assertEquals("foo", response.toString(StandardCharsets.UTF_8));
+    } finally {
+      response.release();
+    }
+  }
+
+  @Test
+  public void testSendBufferNoConnection() {
+    ByteBuf payload = PooledByteBufAllocator.DEFAULT.directBuffer().writeBytes("hello".getBytes());
+    try {
+      netty1.sendAsync(invalidAddress, nextSubject(), payload).join();
+      fail();
+    } catch (CompletionException e) {
+      assertTrue(e.getCause() instanceof ConnectException);
+    }
+    assertEquals(0, payload.refCnt());
+  }
+
+  @Test
+  public void testPrioritySubjects() {
+    NettyMessagingService service = (NettyMessagingService) netty1;
+    assertTrue(service.isPrioritySubject("atomix-cluster-heartbeat"));
+    assertTrue(service.isPrioritySubject("raft-partition-1-vote"));
+    assertTrue(service.isPrioritySubject("raft-partition-1-heartbeat-batch"));
+    assertFalse(service.isPrioritySubject("raft-partition-1-append"));
+    assertFalse(service.isPrioritySubject(nextSubject()));
+
+    NettyMessagingService custom = (NettyMessagingService) NettyMessagingService.builder()
+        .withPrioritySubjects(Arrays.asList("control-", "*-ping"))
+        .build();
+    assertTrue(custom.isPrioritySubject("control-election"));
+    assertTrue(custom.isPrioritySubject("group-1-ping"));
+    assertFalse(custom.isPrioritySubject("raft-partition-1-vote"));
+  }
+
+  @Test
+  public void testSendOnPriorityLane() {
+    String dataSubject = nextSubject();
+    String prioritySubject = nextSubject() + "-vote";
+    netty2.registerHandler(dataSubject, (ep, payload) -> CompletableFuture.completedFuture(payload));
+    netty2.registerHandler(prioritySubject, (ep, payload) -> CompletableFuture.completedFuture(payload));
+
+    byte[] bulk = new byte[1024 * 1024];
+    List<CompletableFuture<byte[]>> bulkFutures = new ArrayList<>();
+    for (int i = 0; i < 16; i++) {
+      bulkFutures.add(netty1.sendAndReceive(ep2, dataSubject, bulk, Duration.ofSeconds(30)));
+    }
+    assertArrayEquals("hello world".getBytes(), netty1.sendAndReceive(ep2, prioritySubject, "hello world".getBytes()).join());
+    bulkFutures.forEach(future -> assertEquals(bulk.length, future.join().length));
+  }
+
   /*
    * Supplies executors when registering a handler and calling sendAndReceive and verifies the request handling
    * and response completion occurs on the expected thread.
@@ -254,6 +254,30 @@ public class AtomixBuilder extends AtomixClusterBuilder {
     return this;
   }
 
+  @Override
+  public AtomixBuilder withPrioritySubjects(String... prioritySubjects) {
+    super.withPrioritySubjects(prioritySubjects);
+    return this;
+  }
+
+  @Override
+  public AtomixBuilder withFlushConsolidation(int maxMessagesPerFlush) {
+    super.withFlushConsolidation(maxMessagesPerFlush);
+    return this;
+  }
+
+  @Override
+  public AtomixBuilder withCompressedSubjects(String... compressedSubjects) {
+    super.withCompressedSubjects(compressedSubjects);
+    return this;
+  }
+
+  @Override
+  public AtomixBuilder withCompressionThreshold(int compressionThreshold) {
+    super.withCompressionThreshold(compressionThreshold);
+    return this;
+  }
+
   /**
    * Builds a new Atomix instance.
    *
@@ -15,6 +15,7 @@
  */
 package io.atomix.core.collection.impl;
 
+import com.google.common.collect.Iterators;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 import io.atomix.core.collection.CollectionEvent;
@@ -33,6 +34,7 @@ import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
 import java.util.Set;
 
 import static io.atomix.core.collection.impl.CollectionUpdateResult.noop;
@@ -50,6 +52,7 @@ public abstract class DefaultDistributedCollectionService<T extends Collection<E
   private final Serializer serializer;
   private T collection;
   protected Map<Long, AbstractIteratorContext> iterators = Maps.newHashMap();
+  private long iteratorId = new Random().nextLong();
   private Set<SessionId> listeners = Sets.newHashSet();
 
   protected DefaultDistributedCollectionService(PrimitiveType primitiveType, T collection) {
@@ -76,6 +79,18 @@ public abstract class DefaultDistributedCollectionService<T extends Collection<E
     return collection;
   }
 
+  /**
+   * Returns whether iterators over the collection are fail-fast.
+   * <p>
+   * Iterators over fail-fast collections cannot be read once the collection has been modified, so they're recreated
+   * at their current position whenever a command may have modified the collection since they were last read.
+   *
+   * @return whether iterators over the collection are fail-fast
+   */
+  protected boolean isFailFast() {
+    return false;
+  }
+
   @Override
   public void backup(BackupOutput output) {
     output.writeObject(collection);
@@ -184,22 +199,51 @@ public abstract class DefaultDistributedCollectionService<T extends Collection<E
 
   @Override
   public long iterate() {
-    iterators.put(getCurrentIndex(), new IteratorContext(getCurrentSession().sessionId().id()));
-    return getCurrentIndex();
+    return openIterator(new IteratorContext(getCurrentSession().sessionId().id()));
+  }
+
+  /**
+   * Returns a new iterator identifier.
+   * <p>
+   * Iterators are opened by queries and are held only by the replica that handled the query. Since the current index
+   * is not unique among queries, identifiers are allocated from a randomly seeded counter to avoid reusing an
+   * identifier opened on another replica.
+   *
+   * @return a new iterator identifier
+   */
+  protected long nextIteratorId() {
+    return ++iteratorId;
+  }
+
+  /**
+   * Opens an iterator.
+   * <p>
+   * Iterators are cursors over the live collection, so opening an iterator does not copy the collection. Iterators
+   * may or may not reflect modifications made after they were opened, and iterators over {@link #isFailFast()
+   * fail-fast} collections may skip or repeat elements if the collection is modified while they're being read.
+   *
+   * @param context the iterator context
+   * @return the iterator identifier
+   */
+  protected long openIterator(AbstractIteratorContext context) {
+    long iteratorId = nextIteratorId();
+    context.open();
+    iterators.put(iteratorId, context);
+    return iteratorId;
   }
 
   @Override
   public IteratorBatch<E> next(long iteratorId, int position) {
     AbstractIteratorContext context = iterators.get(iteratorId);
-    if (context == null) {
-      return null;
+    if (context == null || context.sessionId() != getCurrentSession().sessionId().id()) {
+      return IteratorBatch.missing();
     }
 
     List<E> elements = new ArrayList<>();
     while (context.iterator().hasNext()) {
       context.incrementPosition();
+      E element = context.iterator().next();
       if (context.position() > position) {
-        E element = context.iterator().next();
         elements.add(element);
 
         if (elements.size() >= MAX_ITERATOR_BATCH_SIZE) {
@@ -235,6 +279,7 @@ public abstract class DefaultDistributedCollectionService<T extends Collection<E
     private final long sessionId;
     private int position = 0;
     private transient Iterator<E> iterator;
+    private transient long index;
 
     public AbstractIteratorContext(long sessionId) {
       this.sessionId = sessionId;
@@ -254,9 +299,19 @@ public abstract class DefaultDistributedCollectionService<T extends Collection<E
       position++;
     }
 
+    /**
+     * Opens the iterator.
+     */
+    void open() {
+      iterator = create();
+      index = getCurrentIndex();
+    }
+
     public Iterator<E> iterator() {
-      if (iterator == null) {
+      if (isFailFast() && index != getCurrentIndex()) {
         iterator = create();
+        Iterators.advance(iterator, position);
+        index = getCurrentIndex();
       }
       return iterator;
     }
@@ -16,14 +16,22 @@
 package io.atomix.core.iterator;
 
 import io.atomix.core.iterator.impl.BlockingIterator;
+import io.atomix.core.iterator.impl.IteratorBatcher;
 import io.atomix.primitive.DistributedPrimitive;
 
 import java.time.Duration;
+import java.util.Collection;
 import java.util.Iterator;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 /**
  * Asynchronous iterator.
+ * <p>
+ * Iterators over distributed primitives are held by the replica that opened them. If the iterator's requests are
+ * later served by another replica, e.g. following a leader change or a reconnect to another member, the iterator
+ * fails with a {@link io.atomix.primitive.PrimitiveException.Unavailable} error. The iterator cannot be resumed, but
+ * the iteration can be retried by opening a new iterator.
  */
 public interface AsyncIterator<T> {
 
@@ -48,6 +56,22 @@ public interface AsyncIterator<T> {
    */
   CompletableFuture<Void> close();
 
+  /**
+   * Passes all remaining items in the iterator to the given consumer in batches.
+   * <p>
+   * This is the preferred way to consume large iterators. Batches are delivered as soon as they're available, and
+   * iterators over partitioned primitives read from several partitions concurrently, so the order in which items are
+   * delivered may differ from the order of {@link #next()}. The consumer is never called concurrently. If the
+   * iterator fails, the returned future is completed exceptionally and batches already passed to the consumer are not
+   * redelivered.
+   *
+   * @param consumer the batch consumer
+   * @return a future to be completed once all items have been consumed
+   */
+  default CompletableFuture<Void> forEachBatch(Consumer<Collection<T>> consumer) {
+    return IteratorBatcher.forEachBatch(this, consumer);
+  }
+
   /**
    * Returns a synchronous iterator.
    *
@@ -15,7 +15,6 @@
  */
 package io.atomix.core.iterator.impl;
 
-import io.atomix.primitive.operation.Command;
 import io.atomix.primitive.operation.Query;
 
 /**
@@ -28,7 +27,7 @@ public interface IterableService<E> {
    *
    * @return the iterator ID
    */
-  @Command
+  @Query
   long iterate();
 
   /**
@@ -46,7 +45,7 @@ public interface IterableService<E> {
    *
    * @param iteratorId the iterator identifier
    */
-  @Command
+  @Query
   void close(long iteratorId);
 
 }
@@ -15,6 +15,7 @@
  */
 package io.atomix.core.iterator.impl;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
 
@@ -22,6 +23,23 @@ import java.util.Iterator;
  * Iterator batch.
  */
 public final class IteratorBatch<T> implements Iterator<T> {
+  private static final int MISSING_POSITION = -1;
+
+  /**
+   * Returns a batch indicating the iterator is unknown to the replica that handled the request.
+   * <p>
+   * Iterators are opened and read by queries and are only held by the replica that opened them. If a later request
+   * is handled by another replica, e.g. following a leader change, the client fails the iteration with a retryable
+   * {@link io.atomix.primitive.PrimitiveException.Unavailable} error, since the iterator's position in the collection
+   * and any view of the collection pinned by the iterator cannot be recovered on another replica.
+   *
+   * @param <T> the batch element type
+   * @return a batch indicating the iterator is unknown
+   */
+  public static <T> IteratorBatch<T> missing() {
+    return new IteratorBatch<>(MISSING_POSITION, new ArrayList<>());
+  }
+
   private final int position;
   private final Collection<T> entries;
   private transient volatile Iterator<T> iterator;
@@ -40,6 +58,15 @@ public final class IteratorBatch<T> implements Iterator<T> {
     return position;
   }
 
+  /**
+   * Returns whether the iterator was unknown to the replica that handled the request.
+   *
+   * @return whether the iterator is unknown to the replica
+   */
+  public boolean isMissing() {
+    return position == MISSING_POSITION;
+  }
+
   /**
    * Returns the batch of entries.
    *
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.core.iterator.impl;
+
+import io.atomix.core.iterator.AsyncIterator;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+
+/**
+ * Consumes an asynchronous iterator in batches.
+ * <p>
+ * Items that are immediately available from the iterator are collected into a batch, and the batch is passed to the
+ * consumer once the iterator has to wait on the cluster for more items. Iteration continues in a loop rather than
+ * through nested callbacks, so long runs of already completed futures do not grow the stack.
+ */
+public final class IteratorBatcher<T> {
+
+  /**
+   * Passes all remaining items in the given iterator to the given consumer in batches.
+   *
+   * @param iterator the iterator to consume
+   * @param consumer the batch consumer
+   * @param <T>      the item type
+   * @return a future to be completed once all items have been consumed
+   */
+  public static <T> CompletableFuture<Void> forEachBatch(AsyncIterator<T> iterator, Consumer<Collection<T>> consumer) {
+    IteratorBatcher<T> batcher = new IteratorBatcher<>(iterator, consumer);
+    batcher.run();
+    return batcher.future;
+  }
+
+  private final AsyncIterator<T> iterator;
+  private final Consumer<Collection<T>> consumer;
+  private final CompletableFuture<Void> future = new CompletableFuture<>();
+  private List<T> batch = new ArrayList<>();
+
+  private IteratorBatcher(AsyncIterator<T> iterator, Consumer<Collection<T>> consumer) {
+    this.iterator = iterator;
+    this.consumer = consumer;
+  }
+
+  /**
+   * Consumes items until the iterator is exhausted or an item is not immediately available.
+   */
+  private void run() {
+    try {
+      for (;;) {
+        CompletableFuture<Boolean> hasNext = iterator.hasNext();
+        if (!hasNext.isDone()) {
+          flush();
+          hasNext.whenComplete((result, error) -> resume(error));
+          return;
+        } else if (!hasNext.join()) {
+          flush();
+          future.complete(null);
+          return;
+        }
+
+        CompletableFuture<T> next = iterator.next();
+        if (!next.isDone()) {
+          flush();
+          next.whenComplete((item, error) -> {
+            if (error == null) {
+              batch.add(item);
+            }
+            resume(error);
+          });
+          return;
+        }
+        batch.add(next.join());
+      }
+    } catch (CompletionException e) {
+      future.completeExceptionally(e.getCause());
+    } catch (Exception e) {
+      future.completeExceptionally(e);
+    }
+  }
+
+  /**
+   * Resumes iteration once the iterator has completed a pending operation.
+   *
+   * @param error the error with which the operation failed, if any
+   */
+  private void resume(Throwable error) {
+    if (error != null) {
+      future.completeExceptionally(error instanceof CompletionException ? error.getCause() : error);
+    } else {
+      run();
+    }
+  }
+
+  /**
+   * Passes the current batch to the consumer.
+   */
+  private void flush() {
+    if (!batch.isEmpty()) {
+      List<T> batch = this.batch;
+      this.batch = new ArrayList<>();
+      consumer.accept(batch);
+    }
+  }
+}
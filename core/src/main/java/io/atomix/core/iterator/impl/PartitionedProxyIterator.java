@@ -20,20 +20,38 @@ import io.atomix.primitive.partition.PartitionId;
 import io.atomix.primitive.proxy.ProxyClient;
 import io.atomix.utils.concurrent.Futures;
 
-import java.util.Iterator;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static com.google.common.base.Preconditions.checkArgument;
 
 /**
  * Partitioned proxy iterator iterator.
+ * <p>
+ * Partitions are iterated in order, and each partition's iterator is opened only once the iterator reaches it, so
+ * nothing is read from the cluster until the iterator is first read. {@link #forEachBatch(Consumer)} instead
+ * consumes a window of partitions concurrently and delivers batches in the order in which they arrive. Since each
+ * partition prefetches at most one batch at a time, the concurrency bounds the number of batches in flight.
+ * <p>
+ * If any partition's iterator is lost, e.g. following a leader change in the partition, the iteration fails with a
+ * retryable {@link io.atomix.primitive.PrimitiveException.Unavailable} error and must be retried with a new iterator.
  */
 public class PartitionedProxyIterator<S, T> implements AsyncIterator<T> {
+  private static final int DEFAULT_CONCURRENCY = 8;
+
   private final ProxyClient<S> client;
-  private final Iterator<PartitionId> partitions;
+  private final List<PartitionId> partitions;
   private final OpenFunction<S> openFunction;
   private final NextFunction<S, T> nextFunction;
   private final CloseFunction<S> closeFunction;
-  private volatile AsyncIterator<T> iterator;
+  private final int concurrency;
+  private final List<ProxyIterator<S, T>> iterators = new ArrayList<>();
+  private volatile int partition;
   private AtomicBoolean closed = new AtomicBoolean();
 
   public PartitionedProxyIterator(
@@ -41,24 +59,50 @@ public class PartitionedProxyIterator<S, T> implements AsyncIterator<T> {
       OpenFunction<S> openFunction,
       NextFunction<S, T> nextFunction,
       CloseFunction<S> closeFunction) {
+    this(client, openFunction, nextFunction, closeFunction, DEFAULT_CONCURRENCY);
+  }
+
+  public PartitionedProxyIterator(
+      ProxyClient<S> client,
+      OpenFunction<S> openFunction,
+      NextFunction<S, T> nextFunction,
+      CloseFunction<S> closeFunction,
+      int concurrency) {
+    checkArgument(concurrency > 0, "concurrency must be positive");
     this.client = client;
-    this.partitions = client.getPartitionIds().iterator();
+    this.partitions = new ArrayList<>(client.getPartitionIds());
     this.openFunction = openFunction;
     this.nextFunction = nextFunction;
     this.closeFunction = closeFunction;
-    iterator = new ProxyIterator<>(client, partitions.next(), openFunction, nextFunction, closeFunction);
+    this.concurrency = concurrency;
+  }
+
+  /**
+   * Returns the iterator for the given partition.
+   * <p>
+   * Partition iterators are opened when they're first read, so creating the iterator does not read the partition.
+   *
+   * @param index the index of the partition for which to return the iterator
+   * @return the partition iterator
+   */
+  private synchronized ProxyIterator<S, T> iterator(int index) {
+    while (iterators.size() <= index) {
+      iterators.add(new ProxyIterator<>(client, partitions.get(iterators.size()), openFunction, nextFunction, closeFunction));
+    }
+    return iterators.get(index);
   }
 
   @Override
   public CompletableFuture<Boolean> hasNext() {
-    return iterator.hasNext()
+    int partition = this.partition;
+    return iterator(partition).hasNext()
         .thenCompose(hasNext -> {
           if (!hasNext) {
-            if (partitions.hasNext()) {
+            if (partition + 1 < partitions.size()) {
               if (closed.get()) {
                 return Futures.exceptionalFuture(new IllegalStateException("Iterator closed"));
               }
-              iterator = new ProxyIterator<>(client, partitions.next(), openFunction, nextFunction, closeFunction);
+              advance(partition);
               return hasNext();
             }
             return CompletableFuture.completedFuture(false);
@@ -67,14 +111,75 @@ public class PartitionedProxyIterator<S, T> implements AsyncIterator<T> {
         });
   }
 
+  /**
+   * Advances from the given exhausted partition to the next partition.
+   *
+   * @param partition the exhausted partition
+   */
+  private synchronized void advance(int partition) {
+    if (this.partition == partition) {
+      this.partition = partition + 1;
+    }
+  }
+
   @Override
   public CompletableFuture<T> next() {
-    return iterator.next();
+    return iterator(partition).next();
+  }
+
+  @Override
+  public CompletableFuture<Void> forEachBatch(Consumer<Collection<T>> consumer) {
+    Object lock = new Object();
+    Consumer<Collection<T>> synchronizedConsumer = batch -> {
+      synchronized (lock) {
+        consumer.accept(batch);
+      }
+    };
+    CompletableFuture<Void> future = new CompletableFuture<>();
+    AtomicInteger next = new AtomicInteger(partition);
+    AtomicInteger running = new AtomicInteger(concurrency);
+    for (int i = 0; i < concurrency; i++) {
+      forEachBatch(next, running, synchronizedConsumer, future);
+    }
+    return future;
+  }
+
+  /**
+   * Consumes partitions one at a time until no partitions remain.
+   *
+   * @param next     the index of the next partition to consume
+   * @param running  the number of partitions being consumed
+   * @param consumer the batch consumer
+   * @param future   the future to complete once all partitions have been consumed
+   */
+  private void forEachBatch(
+      AtomicInteger next, AtomicInteger running, Consumer<Collection<T>> consumer, CompletableFuture<Void> future) {
+    int index = next.getAndIncrement();
+    if (index >= partitions.size() || future.isDone()) {
+      if (running.decrementAndGet() == 0) {
+        future.complete(null);
+      }
+      return;
+    }
+
+    iterator(index).forEachBatch(consumer).whenComplete((result, error) -> {
+      if (error != null) {
+        future.completeExceptionally(error);
+      } else {
+        forEachBatch(next, running, consumer, future);
+      }
+    });
   }
 
   @Override
   public CompletableFuture<Void> close() {
     closed.set(true);
-    return iterator.close();
+    List<ProxyIterator<S, T>> iterators;
+    synchronized (this) {
+      iterators = new ArrayList<>(this.iterators);
+    }
+    return CompletableFuture.allOf(iterators.stream()
+        .map(ProxyIterator::close)
+        .toArray(CompletableFuture[]::new));
   }
 }
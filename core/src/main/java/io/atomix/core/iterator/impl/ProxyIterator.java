@@ -16,6 +16,7 @@
 package io.atomix.core.iterator.impl;
 
 import io.atomix.core.iterator.AsyncIterator;
+import io.atomix.primitive.PrimitiveException;
 import io.atomix.primitive.partition.PartitionId;
 import io.atomix.primitive.proxy.ProxyClient;
 import io.atomix.utils.concurrent.Futures;
@@ -25,18 +26,22 @@ import java.util.Collections;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
 import java.util.concurrent.CompletableFuture;
-import java.util.function.Function;
 
 /**
  * Collection partition iterator.
+ * <p>
+ * The iterator is opened on the partition when it's first read. It then prefetches the next batch of entries from the
+ * partition while the current batch is consumed, so at most one batch is requested ahead of the consumer.
  */
 public class ProxyIterator<S, T> implements AsyncIterator<T> {
   private final ProxyClient<S> client;
   private final PartitionId partitionId;
+  private final OpenFunction<S> openFunction;
   private final NextFunction<S, T> nextFunction;
   private final CloseFunction<S> closeFunction;
-  private final CompletableFuture<Long> openFuture;
+  private volatile CompletableFuture<Long> openFuture;
   private volatile CompletableFuture<IteratorBatch<T>> batch;
+  private CompletableFuture<IteratorBatch<T>> prefetch;
   private volatile CompletableFuture<Void> closeFuture;
 
   public ProxyIterator(
@@ -47,28 +52,72 @@ public class ProxyIterator<S, T> implements AsyncIterator<T> {
       CloseFunction<S> closeFunction) {
     this.client = client;
     this.partitionId = partitionId;
+    this.openFunction = openFunction;
     this.nextFunction = nextFunction;
     this.closeFunction = closeFunction;
-    this.openFuture = OrderedFuture.wrap(client.applyOn(partitionId, openFunction::open));
-    this.batch = CompletableFuture.completedFuture(
-        new IteratorBatch<T>(0, Collections.emptyList()));
   }
 
   /**
-   * Returns the current batch iterator or lazily fetches the next batch from the cluster.
+   * Opens the iterator and begins prefetching the first batch if the iterator has not yet been opened.
+   * <p>
+   * Iterators that are closed before they're opened are never opened and have no items.
+   */
+  private void start() {
+    if (openFuture == null) {
+      synchronized (this) {
+        if (openFuture == null) {
+          if (closeFuture != null) {
+            batch = CompletableFuture.completedFuture(null);
+            return;
+          }
+          batch = CompletableFuture.completedFuture(new IteratorBatch<T>(0, Collections.emptyList()));
+          openFuture = open();
+          prefetch = fetch(0);
+        }
+      }
+    }
+  }
+
+  /**
+   * Opens the iterator on the partition.
+   *
+   * @return a future to be completed with the iterator identifier
+   */
+  private CompletableFuture<Long> open() {
+    return OrderedFuture.wrap(client.applyOn(partitionId, openFunction::open));
+  }
+
+  /**
+   * Returns the current batch iterator or advances to the prefetched batch once the current batch is exhausted.
    *
    * @return the next batch iterator
    */
   private CompletableFuture<Iterator<T>> batch() {
+    start();
+    CompletableFuture<IteratorBatch<T>> batch = this.batch;
     return batch.thenCompose(iterator -> {
       if (iterator != null && !iterator.hasNext()) {
-        batch = fetch(iterator.position());
-        return batch.thenApply(Function.identity());
+        advance(batch);
+        return batch();
       }
-      return CompletableFuture.completedFuture(iterator);
+      return CompletableFuture.<Iterator<T>>completedFuture(iterator);
     });
   }
 
+  /**
+   * Advances from the given batch to the prefetched batch and begins prefetching the batch that follows it.
+   *
+   * @param current the exhausted batch
+   */
+  private synchronized void advance(CompletableFuture<IteratorBatch<T>> current) {
+    if (batch == current) {
+      batch = prefetch;
+      prefetch = batch.thenCompose(next -> next != null
+          ? fetch(next.position())
+          : CompletableFuture.completedFuture(null));
+    }
+  }
+
   /**
    * Fetches the next batch of entries from the cluster.
    *
@@ -80,6 +129,13 @@ public class ProxyIterator<S, T> implements AsyncIterator<T> {
         .thenCompose(batch -> {
           if (batch == null) {
             return close().thenApply(v -> null);
+          } else if (batch.isMissing()) {
+            // The iterator's view of the partition is lost with its context, so it cannot be resumed elsewhere. The
+            // iteration can be retried by opening a new iterator.
+            if (closeFuture != null) {
+              return CompletableFuture.completedFuture(null);
+            }
+            return Futures.exceptionalFuture(new PrimitiveException.Unavailable("iterator is no longer available"));
           }
           return CompletableFuture.completedFuture(batch);
         }));
@@ -90,7 +146,11 @@ public class ProxyIterator<S, T> implements AsyncIterator<T> {
     if (closeFuture == null) {
       synchronized (this) {
         if (closeFuture == null) {
-          closeFuture = openFuture.thenCompose(id -> client.acceptOn(partitionId, service -> closeFunction.close(service, id)));
+          // An iterator that was never opened has nothing to close on the partition.
+          CompletableFuture<Long> openFuture = this.openFuture;
+          closeFuture = openFuture == null
+              ? CompletableFuture.completedFuture(null)
+              : openFuture.thenCompose(id -> client.acceptOn(partitionId, service -> closeFunction.close(service, id)));
         }
       }
     }
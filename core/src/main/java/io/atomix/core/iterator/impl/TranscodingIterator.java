@@ -17,8 +17,11 @@ package io.atomix.core.iterator.impl;
 
 import io.atomix.core.iterator.AsyncIterator;
 
+import java.util.Collection;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Transcoding iterator.
@@ -42,6 +45,13 @@ public class TranscodingIterator<T1, T2> implements AsyncIterator<T1> {
     return backingIterator.next().thenApply(elementDecoder);
   }
 
+  @Override
+  public CompletableFuture<Void> forEachBatch(Consumer<Collection<T1>> consumer) {
+    return backingIterator.forEachBatch(batch -> consumer.accept(batch.stream()
+        .map(elementDecoder)
+        .collect(Collectors.toList())));
+  }
+
   @Override
   public CompletableFuture<Void> close() {
     return backingIterator.close();
@@ -39,6 +39,11 @@ public class DefaultDistributedListService extends DefaultDistributedCollectionS
     return collection();
   }
 
+  @Override
+  protected boolean isFailFast() {
+    return true;
+  }
+
   @Override
   public CollectionUpdateResult<Boolean> addAll(int index, Collection<? extends String> c) {
     boolean changed = false;
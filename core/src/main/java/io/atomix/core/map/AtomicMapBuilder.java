@@ -55,6 +55,30 @@ public abstract class AtomicMapBuilder<K, V>
     return this;
   }
 
+  /**
+   * Enables asynchronous snapshots of the map.
+   *
+   * @return this builder
+   */
+  public AtomicMapBuilder<K, V> withAsyncSnapshots() {
+    return withAsyncSnapshots(true);
+  }
+
+  /**
+   * Sets whether to snapshot the map asynchronously.
+   * <p>
+   * When enabled, the map state is stored in a persistent map that can be captured in constant time, allowing
+   * snapshots to be written without blocking operations on the map. Iterators over the map likewise observe the map
+   * as of the point at which they were opened. Otherwise, iterators are weakly consistent.
+   *
+   * @param asyncSnapshots whether to snapshot the map asynchronously
+   * @return this builder
+   */
+  public AtomicMapBuilder<K, V> withAsyncSnapshots(boolean asyncSnapshots) {
+    config.setAsyncSnapshots(asyncSnapshots);
+    return this;
+  }
+
   @Override
   public AtomicMapBuilder<K, V> withProtocol(ProxyProtocol protocol) {
     return withProtocol((PrimitiveProtocol) protocol);
@@ -22,6 +22,7 @@ import io.atomix.primitive.PrimitiveType;
  */
 public class AtomicMapConfig extends MapConfig<AtomicMapConfig> {
   private boolean nullValues = false;
+  private boolean asyncSnapshots = false;
 
   @Override
   public PrimitiveType getType() {
@@ -56,4 +57,27 @@ public class AtomicMapConfig extends MapConfig<AtomicMapConfig> {
   public boolean isNullValues() {
     return nullValues;
   }
+
+  /**
+   * Sets whether to snapshot the map asynchronously.
+   * <p>
+   * When enabled, the map state is stored in a persistent map that can be captured in constant time, allowing
+   * snapshots to be written without blocking operations on the map.
+   *
+   * @param asyncSnapshots whether to snapshot the map asynchronously
+   * @return the map configuration
+   */
+  public AtomicMapConfig setAsyncSnapshots(boolean asyncSnapshots) {
+    this.asyncSnapshots = asyncSnapshots;
+    return this;
+  }
+
+  /**
+   * Returns whether the map is snapshotted asynchronously.
+   *
+   * @return {@code true} if the map is snapshotted asynchronously; {@code false} otherwise
+   */
+  public boolean isAsyncSnapshots() {
+    return asyncSnapshots;
+  }
 }
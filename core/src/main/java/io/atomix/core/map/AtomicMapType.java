@@ -17,6 +17,7 @@ package io.atomix.core.map;
 
 import io.atomix.core.iterator.impl.IteratorBatch;
 import io.atomix.core.map.impl.AtomicMapResource;
+import io.atomix.core.map.impl.AtomicMapServiceConfig;
 import io.atomix.core.map.impl.DefaultAtomicMapBuilder;
 import io.atomix.core.map.impl.DefaultAtomicMapService;
 import io.atomix.core.map.impl.MapEntryUpdateResult;
@@ -83,11 +84,15 @@ public class AtomicMapType<K, V> implements PrimitiveType<AtomicMapBuilder<K, V>
         .register(IteratorBatch.class)
         .register(Versioned.class)
         .register(byte[].class)
+        .register(AtomicMapServiceConfig.class)
         .build();
   }
 
   @Override
   public PrimitiveService newService(ServiceConfig config) {
+    if (config instanceof AtomicMapServiceConfig) {
+      return new DefaultAtomicMapService((AtomicMapServiceConfig) config);
+    }
     return new DefaultAtomicMapService();
   }
 
@@ -45,7 +45,9 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
 import java.util.Set;
+import java.util.function.Consumer;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
@@ -57,17 +59,29 @@ import static com.google.common.base.Preconditions.checkState;
 public abstract class AbstractAtomicMapService<K> extends AbstractPrimitiveService<AtomicMapClient> implements AtomicMapService<K> {
 
   private static final int MAX_ITERATOR_BATCH_SIZE = 1024 * 32;
+  private static final long EXPIRATION_RESOLUTION_MILLIS = 100;
+  private static final int MAX_EXPIRATIONS_PER_TICK = 1000;
 
   private final Serializer serializer;
+  private final boolean asyncSnapshots;
   protected Set<SessionId> listeners = Sets.newLinkedHashSet();
   private Map<K, MapEntryValue> map;
   protected Set<K> preparedKeys = Sets.newHashSet();
   protected Map<TransactionId, TransactionScope<K>> activeTransactions = Maps.newHashMap();
   protected Map<Long, IteratorContext> entryIterators = Maps.newHashMap();
+  private long iteratorId = new Random().nextLong();
   protected long currentVersion;
+  private final ExpirationIndex<K, MapEntryValue> expirations = new ExpirationIndex<>(EXPIRATION_RESOLUTION_MILLIS);
+  private Scheduled expirationTimer;
+  private long expirationTime;
 
   public AbstractAtomicMapService(PrimitiveType primitiveType) {
+    this(primitiveType, false);
+  }
+
+  public AbstractAtomicMapService(PrimitiveType primitiveType, boolean asyncSnapshots) {
     super(primitiveType, AtomicMapClient.class);
+    this.asyncSnapshots = asyncSnapshots;
     serializer = Serializer.using(Namespace.builder()
         .register(primitiveType.namespace())
         .register(SessionId.class)
@@ -77,12 +91,13 @@ public abstract class AbstractAtomicMapService<K> extends AbstractPrimitiveServi
         .register(MapEntryValue.Type.class)
         .register(new HashMap().keySet().getClass())
         .register(DefaultIterator.class)
+        .register(PersistentHashMap.class)
         .build());
     map = createMap();
   }
 
   protected Map<K, MapEntryValue> createMap() {
-    return Maps.newConcurrentMap();
+    return asyncSnapshots ? new PersistentHashMap<>() : Maps.newConcurrentMap();
   }
 
   protected Map<K, MapEntryValue> entries() {
@@ -101,7 +116,29 @@ public abstract class AbstractAtomicMapService<K> extends AbstractPrimitiveServi
     writer.writeObject(entries());
     writer.writeObject(activeTransactions);
     writer.writeLong(currentVersion);
-    writer.writeObject(entryIterators);
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public Consumer<BackupOutput> captureBackup() {
+    if (!(map instanceof PersistentHashMap)) {
+      return null;
+    }
+
+    // The entries are captured in constant time. The remaining state is small and is copied to isolate it from
+    // changes made while the backup is written.
+    Set<SessionId> listeners = Sets.newLinkedHashSet(this.listeners);
+    Set<K> preparedKeys = Sets.newHashSet(this.preparedKeys);
+    Map<K, MapEntryValue> entries = ((PersistentHashMap<K, MapEntryValue>) map).snapshot();
+    Map<TransactionId, TransactionScope<K>> activeTransactions = Maps.newHashMap(this.activeTransactions);
+    long currentVersion = this.currentVersion;
+    return writer -> {
+      writer.writeObject(listeners);
+      writer.writeObject(preparedKeys);
+      writer.writeObject(entries);
+      writer.writeObject(activeTransactions);
+      writer.writeLong(currentVersion);
+    };
   }
 
   @Override
@@ -111,22 +148,21 @@ public abstract class AbstractAtomicMapService<K> extends AbstractPrimitiveServi
     map = reader.readObject();
     activeTransactions = reader.readObject();
     currentVersion = reader.readLong();
-    entryIterators = reader.readObject();
 
+    // Rebuild the expiration index from the restored entries, scheduling a single timer for the earliest expiration.
+    expirations.clear();
+    cancelExpirationTimer();
     map.forEach((key, value) -> {
       if (value.ttl() > 0) {
-        value.timer = getScheduler().schedule(Duration.ofMillis(value.ttl() - (getWallClock().getTime().unixTimestamp() - value.created())), () -> {
-          entries().remove(key, value);
-          publish(new AtomicMapEvent<>(AtomicMapEvent.Type.REMOVE, key, null, toVersioned(value)));
-        });
+        expirations.add(key, value, value.expiration());
       }
     });
+    scheduleExpirationTimer();
   }
 
   @Override
   public boolean containsKey(K key) {
-    MapEntryValue value = entries().get(key);
-    return value != null && value.type() != MapEntryValue.Type.TOMBSTONE;
+    return !valueIsNull(entries().get(key));
   }
 
   @Override
@@ -142,7 +178,7 @@ public abstract class AbstractAtomicMapService<K> extends AbstractPrimitiveServi
   @Override
   public boolean containsValue(byte[] value) {
     return entries().values().stream()
-        .filter(v -> v.type() != MapEntryValue.Type.TOMBSTONE)
+        .filter(v -> !valueIsNull(v))
         .anyMatch(v -> Arrays.equals(v.value, value));
   }
 
@@ -154,8 +190,7 @@ public abstract class AbstractAtomicMapService<K> extends AbstractPrimitiveServi
   @Override
   public Map<K, Versioned<byte[]>> getAllPresent(Set<K> keys) {
     return entries().entrySet().stream()
-        .filter(entry -> entry.getValue().type() != MapEntryValue.Type.TOMBSTONE
-            && keys.contains(entry.getKey()))
+        .filter(entry -> !valueIsNull(entry.getValue()) && keys.contains(entry.getKey()))
         .collect(Collectors.toMap(Map.Entry::getKey, o -> toVersioned(o.getValue())));
   }
 
@@ -164,7 +199,7 @@ public abstract class AbstractAtomicMapService<K> extends AbstractPrimitiveServi
     MapEntryValue value = entries().get(key);
     if (value == null) {
       return new Versioned<>(defaultValue, 0);
-    } else if (value.type() == MapEntryValue.Type.TOMBSTONE) {
+    } else if (valueIsNull(value)) {
       return new Versioned<>(defaultValue, value.version);
     } else {
       return new Versioned<>(value.value(), value.version);
@@ -174,20 +209,20 @@ public abstract class AbstractAtomicMapService<K> extends AbstractPrimitiveServi
   @Override
   public int size() {
     return (int) entries().values().stream()
-        .filter(value -> value.type() != MapEntryValue.Type.TOMBSTONE)
+        .filter(value -> !valueIsNull(value))
         .count();
   }
 
   @Override
   public boolean isEmpty() {
     return entries().values().stream()
-        .noneMatch(value -> value.type() != MapEntryValue.Type.TOMBSTONE);
+        .allMatch(this::valueIsNull);
   }
 
   @Override
   public Set<K> keySet() {
     return entries().entrySet().stream()
-        .filter(entry -> entry.getValue().type() != MapEntryValue.Type.TOMBSTONE)
+        .filter(entry -> !valueIsNull(entry.getValue()))
         .map(Map.Entry::getKey)
         .collect(Collectors.toSet());
   }
@@ -195,7 +230,7 @@ public abstract class AbstractAtomicMapService<K> extends AbstractPrimitiveServi
   @Override
   public Collection<Versioned<byte[]>> values() {
     return entries().entrySet().stream()
-        .filter(entry -> entry.getValue().type() != MapEntryValue.Type.TOMBSTONE)
+        .filter(entry -> !valueIsNull(entry.getValue()))
         .map(entry -> toVersioned(entry.getValue()))
         .collect(Collectors.toList());
   }
@@ -203,7 +238,7 @@ public abstract class AbstractAtomicMapService<K> extends AbstractPrimitiveServi
   @Override
   public Set<Map.Entry<K, Versioned<byte[]>>> entrySet() {
     return entries().entrySet().stream()
-        .filter(entry -> entry.getValue().type() != MapEntryValue.Type.TOMBSTONE)
+        .filter(entry -> !valueIsNull(entry.getValue()))
         .map(e -> Maps.immutableEntry(e.getKey(), toVersioned(e.getValue())))
         .collect(Collectors.toSet());
   }
@@ -233,13 +268,16 @@ public abstract class AbstractAtomicMapService<K> extends AbstractPrimitiveServi
   }
 
   /**
-   * Returns a boolean indicating whether the given MapEntryValue is null or a tombstone.
+   * Returns a boolean indicating whether the given MapEntryValue is null, a tombstone, or expired.
+   * <p>
+   * Expired values are treated as absent even if they have not yet been removed from the map.
    *
    * @param value the value to check
-   * @return indicates whether the given value is null or is a tombstone
+   * @return indicates whether the given value is null, is a tombstone, or is expired
    */
   protected boolean valueIsNull(MapEntryValue value) {
-    return value == null || value.type() == MapEntryValue.Type.TOMBSTONE;
+    return value == null || value.type() == MapEntryValue.Type.TOMBSTONE
+        || (value.ttl() > 0 && value.isExpired(getWallClock().getTime().unixTimestamp()));
   }
 
   /**
@@ -250,38 +288,102 @@ public abstract class AbstractAtomicMapService<K> extends AbstractPrimitiveServi
    */
   protected void putValue(K key, MapEntryValue value) {
     MapEntryValue oldValue = entries().put(key, value);
-    cancelTtl(oldValue);
+    cancelTtl(key, oldValue);
     scheduleTtl(key, value);
   }
 
   /**
    * Schedules the TTL for the given value.
+   * <p>
+   * The value is added to the expiration index, and the expiration timer is rescheduled if the value expires before
+   * the next scheduled expiration.
    *
+   * @param key   the key for which to schedule the TTL
    * @param value the value for which to schedule the TTL
    */
   protected void scheduleTtl(K key, MapEntryValue value) {
     if (value.ttl() > 0) {
-      value.timer = getScheduler().schedule(Duration.ofMillis(value.ttl()), () -> {
-        entries().remove(key, value);
-        publish(new AtomicMapEvent<>(AtomicMapEvent.Type.REMOVE, key, null, toVersioned(value)));
-      });
+      expirations.add(key, value, value.expiration());
+      scheduleExpirationTimer();
     }
   }
 
   /**
    * Cancels the TTL for the given value.
    *
+   * @param key   the key for which to cancel the TTL
    * @param value the value for which to cancel the TTL
    */
-  protected void cancelTtl(MapEntryValue value) {
-    if (value != null && value.timer != null) {
-      value.timer.cancel();
+  protected void cancelTtl(K key, MapEntryValue value) {
+    if (value != null && value.ttl() > 0) {
+      expirations.remove(key, value, value.expiration());
+    }
+  }
+
+  /**
+   * Schedules the expiration timer for the earliest expiration in the expiration index if it's not already scheduled
+   * at or before that time.
+   */
+  private void scheduleExpirationTimer() {
+    long nextExpiration = expirations.nextExpiration();
+    if (nextExpiration == -1 || (expirationTimer != null && expirationTime <= nextExpiration)) {
+      return;
+    }
+    cancelExpirationTimer();
+    long delay = Math.max(nextExpiration - getWallClock().getTime().unixTimestamp(), 0);
+    expirationTime = nextExpiration;
+    expirationTimer = getScheduler().schedule(Duration.ofMillis(delay), this::expireEntries);
+  }
+
+  /**
+   * Cancels the expiration timer if it's scheduled.
+   */
+  private void cancelExpirationTimer() {
+    if (expirationTimer != null) {
+      expirationTimer.cancel();
+      expirationTimer = null;
+    }
+  }
+
+  /**
+   * Removes expired entries from the map, publishing a removal event for each.
+   * <p>
+   * At most {@link #MAX_EXPIRATIONS_PER_TICK} entries are removed per invocation to bound the time spent expiring
+   * entries in a single tick. If expired entries remain, the timer is rescheduled to continue on the next tick.
+   */
+  private void expireEntries() {
+    expirationTimer = null;
+    expirations.expire(getWallClock().getTime().unixTimestamp(), MAX_EXPIRATIONS_PER_TICK, (key, value) -> {
+      if (entries().remove(key, value)) {
+        publish(new AtomicMapEvent<>(AtomicMapEvent.Type.REMOVE, key, null, new Versioned<>(value.value(), value.version())));
+      }
+    });
+    scheduleExpirationTimer();
+  }
+
+  /**
+   * Removes the value for the given key if it has expired but has not yet been removed by the expiration timer.
+   * <p>
+   * Writes call this before reading the current value so that the removal of an expired value is published before the
+   * event for the write, and so that the expired value is removed from the expiration index before it's replaced.
+   *
+   * @param key the key to expire
+   * @return the current value for the key, or {@code null} if the value expired
+   */
+  private MapEntryValue expireEntry(K key) {
+    MapEntryValue value = entries().get(key);
+    if (value != null && value.ttl() > 0 && value.isExpired(getWallClock().getTime().unixTimestamp())) {
+      entries().remove(key);
+      cancelTtl(key, value);
+      publish(new AtomicMapEvent<>(AtomicMapEvent.Type.REMOVE, key, null, new Versioned<>(value.value(), value.version())));
+      return null;
     }
+    return value;
   }
 
   @Override
   public MapEntryUpdateResult<K, byte[]> put(K key, byte[] value, long ttl) {
-    MapEntryValue oldValue = entries().get(key);
+    MapEntryValue oldValue = expireEntry(key);
     MapEntryValue newValue = new MapEntryValue(
         MapEntryValue.Type.VALUE,
         getCurrentIndex(),
@@ -324,7 +426,7 @@ public abstract class AbstractAtomicMapService<K> extends AbstractPrimitiveServi
 
   @Override
   public MapEntryUpdateResult<K, byte[]> putIfAbsent(K key, byte[] value, long ttl) {
-    MapEntryValue oldValue = entries().get(key);
+    MapEntryValue oldValue = expireEntry(key);
 
     // If the value is null, this is an INSERT.
     if (valueIsNull(oldValue)) {
@@ -356,7 +458,7 @@ public abstract class AbstractAtomicMapService<K> extends AbstractPrimitiveServi
 
   @Override
   public MapEntryUpdateResult<K, byte[]> putAndGet(K key, byte[] value, long ttl) {
-    MapEntryValue oldValue = entries().get(key);
+    MapEntryValue oldValue = expireEntry(key);
     MapEntryValue newValue = new MapEntryValue(MapEntryValue.Type.VALUE, getCurrentIndex(), value, getWallClock().getTime().unixTimestamp(), ttl);
 
     // If the value is null or a tombstone, this is an insert.
@@ -400,7 +502,7 @@ public abstract class AbstractAtomicMapService<K> extends AbstractPrimitiveServi
    * @return map entry update result
    */
   private MapEntryUpdateResult<K, byte[]> removeIf(long index, K key, Predicate<MapEntryValue> predicate) {
-    MapEntryValue value = entries().get(key);
+    MapEntryValue value = expireEntry(key);
 
     // If the value does not exist or doesn't match the predicate, return a PRECONDITION_FAILED error.
     if (valueIsNull(value) || !predicate.test(value)) {
@@ -419,8 +521,8 @@ public abstract class AbstractAtomicMapService<K> extends AbstractPrimitiveServi
       entries().put(key, new MapEntryValue(MapEntryValue.Type.TOMBSTONE, index, null, 0, 0));
     }
 
-    // Cancel the timer if one is scheduled.
-    cancelTtl(value);
+    // Remove the value from the expiration index if it has a TTL.
+    cancelTtl(key, value);
 
     Versioned<byte[]> result = toVersioned(value);
     publish(new AtomicMapEvent<>(AtomicMapEvent.Type.REMOVE, key, null, result));
@@ -454,7 +556,7 @@ public abstract class AbstractAtomicMapService<K> extends AbstractPrimitiveServi
    */
   private MapEntryUpdateResult<K, byte[]> replaceIf(
       long index, K key, MapEntryValue newValue, Predicate<MapEntryValue> predicate) {
-    MapEntryValue oldValue = entries().get(key);
+    MapEntryValue oldValue = expireEntry(key);
 
     // If the key is not set or the current value doesn't match the predicate, return a PRECONDITION_FAILED error.
     if (valueIsNull(oldValue) || !predicate.test(oldValue)) {
@@ -522,7 +624,7 @@ public abstract class AbstractAtomicMapService<K> extends AbstractPrimitiveServi
       if (!valueIsNull(value)) {
         Versioned<byte[]> removedValue = new Versioned<>(value.value(), value.version());
         publish(new AtomicMapEvent<>(AtomicMapEvent.Type.REMOVE, key, null, removedValue));
-        cancelTtl(value);
+        cancelTtl(key, value);
         if (activeTransactions.isEmpty()) {
           iterator.remove();
         } else {
@@ -571,23 +673,44 @@ public abstract class AbstractAtomicMapService<K> extends AbstractPrimitiveServi
 
   @Override
   public long iterateEntries() {
-    entryIterators.put(getCurrentIndex(), new DefaultIterator(getCurrentSession().sessionId().id()));
-    return getCurrentIndex();
+    return openIterator(new DefaultIterator(getCurrentSession().sessionId().id()));
+  }
+
+  /**
+   * Opens an iterator.
+   * <p>
+   * Iterators are opened and read by queries, so iterator contexts are local to the replica that handled the query
+   * and are excluded from backups. Iterator identifiers are allocated from a randomly seeded counter since the
+   * current index is not unique among queries. Iterators over a {@link PersistentHashMap} observe the map as of the
+   * index at which they were opened. Otherwise, iterators are weakly consistent cursors over the live map: they
+   * never fail due to concurrent writes and may or may not reflect writes made after they were opened.
+   *
+   * @param context the iterator context
+   * @return the iterator identifier
+   */
+  protected long openIterator(IteratorContext context) {
+    long iteratorId = ++this.iteratorId;
+    context.open();
+    entryIterators.put(iteratorId, context);
+    return iteratorId;
   }
 
   @Override
   public IteratorBatch<Map.Entry<K, Versioned<byte[]>>> nextEntries(long iteratorId, int position) {
     IteratorContext context = entryIterators.get(iteratorId);
-    if (context == null) {
-      return null;
+    if (context == null || context.sessionId() != getCurrentSession().sessionId().id()) {
+      return IteratorBatch.missing();
     }
 
     List<Map.Entry<K, Versioned<byte[]>>> entries = new ArrayList<>();
     int size = 0;
     while (context.iterator().hasNext()) {
       context.incrementPosition();
+      Map.Entry<K, MapEntryValue> entry = context.iterator().next();
       if (context.position() > position) {
-        Map.Entry<K, MapEntryValue> entry = context.iterator().next();
+        if (valueIsNull(entry.getValue())) {
+          continue;
+        }
         entries.add(Maps.immutableEntry(entry.getKey(), toVersioned(entry.getValue())));
         size += entry.getValue().value().length;
 
@@ -744,10 +867,12 @@ public abstract class AbstractAtomicMapService<K> extends AbstractPrimitiveServi
         continue;
       }
 
+      // If the previous value has expired, publish its removal before the update.
+      expireEntry(key);
       MapEntryValue previousValue = entries().remove(key);
 
-      // Cancel the previous timer if set.
-      cancelTtl(previousValue);
+      // Remove the previous value from the expiration index if it has a TTL.
+      cancelTtl(key, previousValue);
 
       MapEntryValue newValue = null;
 
@@ -852,8 +977,7 @@ public abstract class AbstractAtomicMapService<K> extends AbstractPrimitiveServi
    * @return versioned instance
    */
   protected Versioned<byte[]> toVersioned(MapEntryValue value) {
-    return value != null && value.type() != MapEntryValue.Type.TOMBSTONE
-        ? new Versioned<>(value.value(), value.version()) : null;
+    return !valueIsNull(value) ? new Versioned<>(value.value(), value.version()) : null;
   }
 
   /**
@@ -895,7 +1019,6 @@ public abstract class AbstractAtomicMapService<K> extends AbstractPrimitiveServi
     final byte[] value;
     final long created;
     final long ttl;
-    transient Scheduled timer;
 
     MapEntryValue(Type type, long version, byte[] value, long created, long ttl) {
       this.type = type;
@@ -950,6 +1073,25 @@ public abstract class AbstractAtomicMapService<K> extends AbstractPrimitiveServi
       return ttl;
     }
 
+    /**
+     * Returns the time at which the value expires.
+     *
+     * @return the time at which the value expires, or {@link Long#MAX_VALUE} if the value has no TTL
+     */
+    public long expiration() {
+      return ttl > 0 ? created + ttl : Long.MAX_VALUE;
+    }
+
+    /**
+     * Returns a boolean indicating whether the value has expired at the given time.
+     *
+     * @param timestamp the current time
+     * @return indicates whether the value has expired
+     */
+    public boolean isExpired(long timestamp) {
+      return timestamp > expiration();
+    }
+
     /**
      * Value type.
      */
@@ -1037,10 +1179,17 @@ public abstract class AbstractAtomicMapService<K> extends AbstractPrimitiveServi
       position++;
     }
 
+    /**
+     * Opens the iterator.
+     * <p>
+     * The iterator is created immediately, so iterators over a {@link PersistentHashMap} are pinned to the
+     * version of the map at which they were opened without copying any entries.
+     */
+    void open() {
+      iterator = create();
+    }
+
     public Iterator<Map.Entry<K, MapEntryValue>> iterator() {
-      if (iterator == null) {
-        iterator = create();
-      }
       return iterator;
     }
   }
@@ -254,14 +254,12 @@ public abstract class AbstractAtomicNavigableMapService<K extends Comparable<K>>
 
   @Override
   public long subMapIterate(K fromKey, boolean fromInclusive, K toKey, boolean toInclusive) {
-    entryIterators.put(getCurrentIndex(), new AscendingIterator(getCurrentSession().sessionId().id(), fromKey, fromInclusive, toKey, toInclusive));
-    return getCurrentIndex();
+    return openIterator(new AscendingIterator(getCurrentSession().sessionId().id(), fromKey, fromInclusive, toKey, toInclusive));
   }
 
   @Override
   public long subMapIterateDescending(K fromKey, boolean fromInclusive, K toKey, boolean toInclusive) {
-    entryIterators.put(getCurrentIndex(), new DescendingIterator(getCurrentSession().sessionId().id(), fromKey, fromInclusive, toKey, toInclusive));
-    return getCurrentIndex();
+    return openIterator(new DescendingIterator(getCurrentSession().sessionId().id(), fromKey, fromInclusive, toKey, toInclusive));
   }
 
   @Override
@@ -294,7 +294,7 @@ public interface AtomicMapService<K> {
    *
    * @return the key iterator ID
    */
-  @Command
+  @Query
   long iterateKeys();
 
   /**
@@ -312,7 +312,7 @@ public interface AtomicMapService<K> {
    *
    * @param iteratorId the iterator identifier
    */
-  @Command
+  @Query
   void closeKeys(long iteratorId);
 
   /**
@@ -320,7 +320,7 @@ public interface AtomicMapService<K> {
    *
    * @return the values iterator ID
    */
-  @Command
+  @Query
   long iterateValues();
 
   /**
@@ -338,7 +338,7 @@ public interface AtomicMapService<K> {
    *
    * @param iteratorId the iterator identifier
    */
-  @Command
+  @Query
   void closeValues(long iteratorId);
 
   /**
@@ -346,7 +346,7 @@ public interface AtomicMapService<K> {
    *
    * @return the entry iterator ID
    */
-  @Command
+  @Query
   long iterateEntries();
 
   /**
@@ -364,7 +364,7 @@ public interface AtomicMapService<K> {
    *
    * @param iteratorId the iterator identifier
    */
-  @Command
+  @Query
   void closeEntries(long iteratorId);
 
   /**
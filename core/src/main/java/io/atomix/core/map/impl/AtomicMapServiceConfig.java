@@ -0,0 +1,45 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.core.map.impl;
+
+import io.atomix.primitive.service.ServiceConfig;
+
+/**
+ * Atomic map service configuration.
+ */
+public class AtomicMapServiceConfig extends ServiceConfig {
+  private boolean asyncSnapshots;
+
+  /**
+   * Sets whether to snapshot the map asynchronously.
+   *
+   * @param asyncSnapshots whether to snapshot the map asynchronously
+   * @return the service configuration
+   */
+  public AtomicMapServiceConfig setAsyncSnapshots(boolean asyncSnapshots) {
+    this.asyncSnapshots = asyncSnapshots;
+    return this;
+  }
+
+  /**
+   * Returns whether to snapshot the map asynchronously.
+   *
+   * @return whether to snapshot the map asynchronously
+   */
+  public boolean isAsyncSnapshots() {
+    return asyncSnapshots;
+  }
+}
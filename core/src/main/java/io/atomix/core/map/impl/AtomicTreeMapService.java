@@ -383,7 +383,7 @@ public interface AtomicTreeMapService<K extends Comparable<K>> extends AtomicMap
    * @param toInclusive whether the to key is inclusive
    * @return the key iterator ID
    */
-  @Command
+  @Query
   long subMapIterate(K fromKey, boolean fromInclusive, K toKey, boolean toInclusive);
 
   /**
@@ -395,7 +395,7 @@ public interface AtomicTreeMapService<K extends Comparable<K>> extends AtomicMap
    * @param toInclusive whether the to key is inclusive
    * @return the key iterator ID
    */
-  @Command
+  @Query
   long subMapIterateDescending(K fromKey, boolean fromInclusive, K toKey, boolean toInclusive);
 
   /**
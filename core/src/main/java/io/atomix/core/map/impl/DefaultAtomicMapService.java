@@ -24,4 +24,8 @@ public class DefaultAtomicMapService extends AbstractAtomicMapService {
   public DefaultAtomicMapService() {
     super(AtomicMapType.instance());
   }
+
+  public DefaultAtomicMapService(AtomicMapServiceConfig config) {
+    super(AtomicMapType.instance(), config.isAsyncSnapshots());
+  }
 }
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.core.map.impl;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.BiConsumer;
+
+/**
+ * Index of map entries by expiration time.
+ * <p>
+ * Entries are grouped into buckets covering {@code resolution} milliseconds of expiration time, and buckets are ordered
+ * by time, so an entry is indexed and removed in constant time within its bucket and expired entries are found by
+ * scanning only the buckets at the head of the index. Entries within a bucket are kept in insertion order so that
+ * entries are expired in the same order on every replica.
+ * <p>
+ * An entry becomes expirable once the end of its bucket has passed, up to {@code resolution} milliseconds after its
+ * actual expiration time. Readers must therefore check the expiration time of an entry themselves rather than
+ * relying on the index having expired it.
+ */
+class ExpirationIndex<K, V> {
+  private final long resolution;
+  private final TreeMap<Long, Map<K, V>> buckets = new TreeMap<>();
+  private int size;
+
+  ExpirationIndex(long resolution) {
+    this.resolution = resolution;
+  }
+
+  /**
+   * Returns the number of indexed entries.
+   *
+   * @return the number of indexed entries
+   */
+  int size() {
+    return size;
+  }
+
+  /**
+   * Adds an entry to the index.
+   *
+   * @param key        the entry key
+   * @param value      the entry value
+   * @param expiration the time at which the entry expires
+   */
+  void add(K key, V value, long expiration) {
+    V previous = buckets.computeIfAbsent(bucket(expiration), t -> new LinkedHashMap<>()).put(key, value);
+    if (previous == null) {
+      size++;
+    }
+  }
+
+  /**
+   * Removes an entry from the index.
+   *
+   * @param key        the entry key
+   * @param value      the entry value
+   * @param expiration the time at which the entry expires
+   */
+  void remove(K key, V value, long expiration) {
+    long time = bucket(expiration);
+    Map<K, V> bucket = buckets.get(time);
+    if (bucket != null && bucket.remove(key, value)) {
+      size--;
+      if (bucket.isEmpty()) {
+        buckets.remove(time);
+      }
+    }
+  }
+
+  /**
+   * Removes all entries from the index.
+   */
+  void clear() {
+    buckets.clear();
+    size = 0;
+  }
+
+  /**
+   * Returns the time after which the next bucket of entries may be expired.
+   *
+   * @return the time after which the next bucket of entries may be expired, or {@code -1} if the index is empty
+   */
+  long nextExpiration() {
+    return buckets.isEmpty() ? -1 : buckets.firstKey();
+  }
+
+  /**
+   * Removes up to {@code limit} entries whose buckets ended before the given time from the index.
+   *
+   * @param timestamp the current time
+   * @param limit     the maximum number of entries to expire
+   * @param consumer  the consumer to which to pass expired entries
+   * @return the number of expired entries
+   */
+  int expire(long timestamp, int limit, BiConsumer<K, V> consumer) {
+    int count = 0;
+    while (count < limit && !buckets.isEmpty() && buckets.firstKey() < timestamp) {
+      Map<K, V> bucket = buckets.firstEntry().getValue();
+      Iterator<Map.Entry<K, V>> iterator = bucket.entrySet().iterator();
+      while (count < limit && iterator.hasNext()) {
+        Map.Entry<K, V> entry = iterator.next();
+        iterator.remove();
+        size--;
+        count++;
+        consumer.accept(entry.getKey(), entry.getValue());
+      }
+      if (bucket.isEmpty()) {
+        buckets.pollFirstEntry();
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Returns the time at which the bucket containing the given expiration time ends.
+   */
+  private long bucket(long expiration) {
+    return (Math.floorDiv(expiration, resolution) + 1) * resolution - 1;
+  }
+}
@@ -0,0 +1,487 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.core.map.impl;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+/**
+ * Hash array mapped trie based map supporting constant time snapshots.
+ * <p>
+ * The map is backed by a persistent trie whose nodes are shared between the map and its {@link #snapshot() snapshots}.
+ * Nodes are owned by the map that created them and are modified in place until a snapshot or iterator is created,
+ * after which any node that's still shared is copied on its first modification. Snapshots and iterators therefore
+ * observe the state of the map at the time they were created, regardless of later modifications to the map.
+ * <p>
+ * This map does not support {@code null} keys and is not thread safe, but snapshots may be safely read by other
+ * threads while the map is modified.
+ */
+public class PersistentHashMap<K, V> extends AbstractMap<K, V> {
+  private static final int BITS = 5;
+  private static final int MASK = (1 << BITS) - 1;
+  private static final Object NOT_FOUND = new Object();
+
+  private Node root;
+  private int size;
+  private Object owner = new Object();
+
+  public PersistentHashMap() {
+  }
+
+  private PersistentHashMap(Node root, int size) {
+    this.root = root;
+    this.size = size;
+  }
+
+  /**
+   * Returns a snapshot of the map.
+   * <p>
+   * The snapshot shares the structure of this map and is created in constant time. Changes to this map are not
+   * reflected in the snapshot and vice versa.
+   *
+   * @return a snapshot of the map
+   */
+  public PersistentHashMap<K, V> snapshot() {
+    freeze();
+    return new PersistentHashMap<>(root, size);
+  }
+
+  /**
+   * Prevents the current nodes from being modified in place.
+   */
+  private void freeze() {
+    owner = new Object();
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return root != null && root.find(0, hash(key), key) != NOT_FOUND;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public V get(Object key) {
+    if (root == null) {
+      return null;
+    }
+    Object value = root.find(0, hash(key), key);
+    return value != NOT_FOUND ? (V) value : null;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public V put(K key, V value) {
+    checkNotNull(key, "key cannot be null");
+    Result result = new Result();
+    Node node = root != null ? root : new BitmapNode(owner, 0, new Object[0]);
+    root = node.put(owner, 0, hash(key), key, value, result);
+    if (!result.found) {
+      size++;
+    }
+    return (V) result.value;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public V remove(Object key) {
+    if (root == null || key == null) {
+      return null;
+    }
+    Result result = new Result();
+    root = root.remove(owner, 0, hash(key), key, result);
+    if (result.found) {
+      size--;
+    }
+    return (V) result.value;
+  }
+
+  @Override
+  public void clear() {
+    root = null;
+    size = 0;
+  }
+
+  @Override
+  public Set<Entry<K, V>> entrySet() {
+    return new AbstractSet<Entry<K, V>>() {
+      @Override
+      public Iterator<Entry<K, V>> iterator() {
+        return new EntryIterator();
+      }
+
+      @Override
+      public int size() {
+        return size;
+      }
+
+      @Override
+      public void clear() {
+        PersistentHashMap.this.clear();
+      }
+    };
+  }
+
+  /**
+   * Returns the hash code for the given key.
+   */
+  private static int hash(Object key) {
+    int hash = key.hashCode();
+    return hash ^ (hash >>> 16);
+  }
+
+  /**
+   * Returns the bit position of the given hash at the given shift.
+   */
+  private static int bit(int hash, int shift) {
+    return 1 << ((hash >>> shift) & MASK);
+  }
+
+  /**
+   * Mutable result of a put or remove operation.
+   */
+  private static final class Result {
+    private boolean found;
+    private Object value;
+  }
+
+  /**
+   * Trie node.
+   * <p>
+   * Nodes store key/value pairs in a flat array. A {@code null} key indicates the value is a child node.
+   */
+  private abstract static class Node {
+    final Object owner;
+    Object[] array;
+
+    Node(Object owner, Object[] array) {
+      this.owner = owner;
+      this.array = array;
+    }
+
+    /**
+     * Returns the value for the given key or {@link #NOT_FOUND} if the key is not present.
+     */
+    abstract Object find(int shift, int hash, Object key);
+
+    /**
+     * Puts the given key/value pair, returning the updated node.
+     */
+    abstract Node put(Object owner, int shift, int hash, Object key, Object value, Result result);
+
+    /**
+     * Removes the given key, returning the updated node or {@code null} if the node is empty.
+     */
+    abstract Node remove(Object owner, int shift, int hash, Object key, Result result);
+
+    /**
+     * Returns a copy of this node with the given array.
+     */
+    abstract Node copy(Object owner, Object[] array);
+
+    /**
+     * Sets the given array index, copying the node if it's not owned by the given owner.
+     */
+    Node set(Object owner, int index, Object value) {
+      if (this.owner == owner) {
+        array[index] = value;
+        return this;
+      }
+      Object[] array = this.array.clone();
+      array[index] = value;
+      return copy(owner, array);
+    }
+
+    /**
+     * Replaces the array, copying the node if it's not owned by the given owner.
+     */
+    Node replace(Object owner, Object[] array) {
+      if (this.owner == owner) {
+        this.array = array;
+        return this;
+      }
+      return copy(owner, array);
+    }
+  }
+
+  /**
+   * Node that indexes up to 32 entries or child nodes by a bitmap of hash bits.
+   */
+  private static final class BitmapNode extends Node {
+    private int bitmap;
+
+    BitmapNode(Object owner, int bitmap, Object[] array) {
+      super(owner, array);
+      this.bitmap = bitmap;
+    }
+
+    private int index(int bit) {
+      return Integer.bitCount(bitmap & (bit - 1));
+    }
+
+    @Override
+    Object find(int shift, int hash, Object key) {
+      int bit = bit(hash, shift);
+      if ((bitmap & bit) == 0) {
+        return NOT_FOUND;
+      }
+      int index = index(bit);
+      Object k = array[index * 2];
+      Object v = array[index * 2 + 1];
+      if (k == null) {
+        return ((Node) v).find(shift + BITS, hash, key);
+      }
+      return key.equals(k) ? v : NOT_FOUND;
+    }
+
+    @Override
+    Node put(Object owner, int shift, int hash, Object key, Object value, Result result) {
+      int bit = bit(hash, shift);
+      int index = index(bit);
+      if ((bitmap & bit) != 0) {
+        Object k = array[index * 2];
+        Object v = array[index * 2 + 1];
+        if (k == null) {
+          Node child = ((Node) v).put(owner, shift + BITS, hash, key, value, result);
+          return child == v ? this : set(owner, index * 2 + 1, child);
+        }
+        if (key.equals(k)) {
+          result.found = true;
+          result.value = v;
+          return v == value ? this : set(owner, index * 2 + 1, value);
+        }
+        Node child = createNode(owner, shift + BITS, k, v, hash, key, value);
+        Node node = set(owner, index * 2, null);
+        return node.set(owner, index * 2 + 1, child);
+      }
+
+      int count = Integer.bitCount(bitmap);
+      Object[] array = new Object[(count + 1) * 2];
+      System.arraycopy(this.array, 0, array, 0, index * 2);
+      array[index * 2] = key;
+      array[index * 2 + 1] = value;
+      System.arraycopy(this.array, index * 2, array, (index + 1) * 2, (count - index) * 2);
+      BitmapNode node = (BitmapNode) replace(owner, array);
+      node.bitmap = bitmap | bit;
+      return node;
+    }
+
+    @Override
+    Node remove(Object owner, int shift, int hash, Object key, Result result) {
+      int bit = bit(hash, shift);
+      if ((bitmap & bit) == 0) {
+        return this;
+      }
+      int index = index(bit);
+      Object k = array[index * 2];
+      Object v = array[index * 2 + 1];
+      if (k == null) {
+        Node child = ((Node) v).remove(owner, shift + BITS, hash, key, result);
+        if (child == v) {
+          return this;
+        } else if (child != null) {
+          return set(owner, index * 2 + 1, child);
+        }
+      } else if (key.equals(k)) {
+        result.found = true;
+        result.value = v;
+      } else {
+        return this;
+      }
+
+      if (bitmap == bit) {
+        return null;
+      }
+      Object[] array = new Object[this.array.length - 2];
+      System.arraycopy(this.array, 0, array, 0, index * 2);
+      System.arraycopy(this.array, (index + 1) * 2, array, index * 2, array.length - index * 2);
+      BitmapNode node = (BitmapNode) replace(owner, array);
+      node.bitmap = bitmap ^ bit;
+      return node;
+    }
+
+    @Override
+    Node copy(Object owner, Object[] array) {
+      return new BitmapNode(owner, bitmap, array);
+    }
+
+    /**
+     * Creates a node containing the two given entries.
+     */
+    private static Node createNode(Object owner, int shift, Object key1, Object value1, int hash2, Object key2, Object value2) {
+      int hash1 = hash(key1);
+      if (hash1 == hash2) {
+        return new CollisionNode(owner, hash1, new Object[]{key1, value1, key2, value2});
+      }
+      Result result = new Result();
+      return new BitmapNode(owner, 0, new Object[0])
+          .put(owner, shift, hash1, key1, value1, result)
+          .put(owner, shift, hash2, key2, value2, result);
+    }
+  }
+
+  /**
+   * Node containing entries with colliding hashes.
+   */
+  private static final class CollisionNode extends Node {
+    private final int hash;
+
+    CollisionNode(Object owner, int hash, Object[] array) {
+      super(owner, array);
+      this.hash = hash;
+    }
+
+    private int indexOf(Object key) {
+      for (int i = 0; i < array.length; i += 2) {
+        if (key.equals(array[i])) {
+          return i;
+        }
+      }
+      return -1;
+    }
+
+    @Override
+    Object find(int shift, int hash, Object key) {
+      if (hash != this.hash) {
+        return NOT_FOUND;
+      }
+      int index = indexOf(key);
+      return index != -1 ? array[index + 1] : NOT_FOUND;
+    }
+
+    @Override
+    Node put(Object owner, int shift, int hash, Object key, Object value, Result result) {
+      if (hash != this.hash) {
+        return new BitmapNode(owner, bit(this.hash, shift), new Object[]{null, this})
+            .put(owner, shift, hash, key, value, result);
+      }
+      int index = indexOf(key);
+      if (index != -1) {
+        result.found = true;
+        result.value = array[index + 1];
+        return array[index + 1] == value ? this : set(owner, index + 1, value);
+      }
+      Object[] array = Arrays.copyOf(this.array, this.array.length + 2);
+      array[this.array.length] = key;
+      array[this.array.length + 1] = value;
+      return replace(owner, array);
+    }
+
+    @Override
+    Node remove(Object owner, int shift, int hash, Object key, Result result) {
+      int index = hash == this.hash ? indexOf(key) : -1;
+      if (index == -1) {
+        return this;
+      }
+      result.found = true;
+      result.value = array[index + 1];
+      if (array.length == 2) {
+        return null;
+      }
+      Object[] array = new Object[this.array.length - 2];
+      System.arraycopy(this.array, 0, array, 0, index);
+      System.arraycopy(this.array, index + 2, array, index, array.length - index);
+      return replace(owner, array);
+    }
+
+    @Override
+    Node copy(Object owner, Object[] array) {
+      return new CollisionNode(owner, hash, array);
+    }
+  }
+
+  /**
+   * Iterator over the entries in the map at the time the iterator was created.
+   */
+  private final class EntryIterator implements Iterator<Entry<K, V>> {
+    // The trie is at most seven bitmap nodes deep followed by a collision node.
+    private final Object[][] arrays = new Object[10][];
+    private final int[] positions = new int[10];
+    private int depth = -1;
+    private Entry<K, V> next;
+    private Entry<K, V> last;
+
+    EntryIterator() {
+      // Prevent nodes from being modified in place while they're being iterated.
+      freeze();
+      if (root != null) {
+        push(root);
+      }
+      next = advance();
+    }
+
+    private void push(Node node) {
+      depth++;
+      arrays[depth] = node.array;
+      positions[depth] = 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Entry<K, V> advance() {
+      while (depth >= 0) {
+        Object[] array = arrays[depth];
+        int position = positions[depth];
+        if (position == array.length) {
+          arrays[depth--] = null;
+          continue;
+        }
+        positions[depth] = position + 2;
+        Object key = array[position];
+        Object value = array[position + 1];
+        if (key == null) {
+          push((Node) value);
+        } else {
+          return new SimpleImmutableEntry<>((K) key, (V) value);
+        }
+      }
+      return null;
+    }
+
+    @Override
+    public boolean hasNext() {
+      return next != null;
+    }
+
+    @Override
+    public Entry<K, V> next() {
+      if (next == null) {
+        throw new NoSuchElementException();
+      }
+      last = next;
+      next = advance();
+      return last;
+    }
+
+    @Override
+    public void remove() {
+      checkState(last != null, "no element to remove");
+      PersistentHashMap.this.remove(last.getKey());
+      last = null;
+    }
+  }
+}
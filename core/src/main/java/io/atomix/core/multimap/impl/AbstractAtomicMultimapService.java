@@ -48,6 +48,7 @@ import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
 import java.util.Set;
 import java.util.TreeSet;
 import java.util.concurrent.atomic.AtomicLong;
@@ -91,6 +92,7 @@ public abstract class AbstractAtomicMultimapService extends AbstractPrimitiveSer
   private Set<SessionId> listeners = new LinkedHashSet<>();
   private Map<String, MapEntryValues> backingMap = Maps.newConcurrentMap();
   protected Map<Long, IteratorContext> entryIterators = Maps.newHashMap();
+  private long iteratorId = new Random().nextLong();
 
   protected AbstractAtomicMultimapService(PrimitiveType primitiveType) {
     super(primitiveType, AtomicMultimapClient.class);
@@ -118,11 +120,13 @@ public abstract class AbstractAtomicMultimapService extends AbstractPrimitiveSer
   @Override
   public void onExpire(Session session) {
     listeners.remove(session.sessionId());
+    entryIterators.entrySet().removeIf(entry -> entry.getValue().sessionId == session.sessionId().id());
   }
 
   @Override
   public void onClose(Session session) {
     listeners.remove(session.sessionId());
+    entryIterators.entrySet().removeIf(entry -> entry.getValue().sessionId == session.sessionId().id());
   }
 
   @Override
@@ -358,23 +362,26 @@ public abstract class AbstractAtomicMultimapService extends AbstractPrimitiveSer
 
   @Override
   public long iterateEntries() {
-    entryIterators.put(getCurrentIndex(), new IteratorContext(getCurrentSession().sessionId().id()));
-    return getCurrentIndex();
+    // Iterators are opened by queries and held only by the replica that handled the query, so identifiers are
+    // allocated from a randomly seeded counter rather than the current index, which is not unique among queries.
+    long iteratorId = ++this.iteratorId;
+    entryIterators.put(iteratorId, new IteratorContext(getCurrentSession().sessionId().id()));
+    return iteratorId;
   }
 
   @Override
   public IteratorBatch<Map.Entry<String, byte[]>> nextEntries(long iteratorId, int position) {
     IteratorContext context = entryIterators.get(iteratorId);
-    if (context == null) {
-      return null;
+    if (context == null || context.sessionId != getCurrentSession().sessionId().id()) {
+      return IteratorBatch.missing();
     }
 
     List<Map.Entry<String, byte[]>> entries = new ArrayList<>();
     int size = 0;
     while (context.iterator.hasNext()) {
       context.position++;
+      Map.Entry<String, MapEntryValues> entry = context.iterator.next();
       if (context.position > position) {
-        Map.Entry<String, MapEntryValues> entry = context.iterator.next();
         String key = entry.getKey();
         int keySize = key.length();
         for (byte[] value : entry.getValue().values()) {
@@ -668,6 +675,9 @@ public abstract class AbstractAtomicMultimapService extends AbstractPrimitiveSer
   private class IteratorContext {
     private final long sessionId;
     private int position = 0;
+
+    // The backing map's iterators are weakly consistent, so the iterator is a cursor over the live multimap that
+    // may or may not reflect writes made after it was opened.
     private transient Iterator<Map.Entry<String, MapEntryValues>> iterator = backingMap.entrySet().iterator();
 
     IteratorContext(long sessionId) {
@@ -220,7 +220,7 @@ public interface AtomicMultimapService {
    *
    * @return the key iterator ID
    */
-  @Command
+  @Query
   long iterateKeySet();
 
   /**
@@ -238,7 +238,7 @@ public interface AtomicMultimapService {
    *
    * @param iteratorId the iterator identifier
    */
-  @Command
+  @Query
   void closeKeySet(long iteratorId);
 
   /**
@@ -246,7 +246,7 @@ public interface AtomicMultimapService {
    *
    * @return the key iterator ID
    */
-  @Command
+  @Query
   long iterateKeys();
 
   /**
@@ -264,7 +264,7 @@ public interface AtomicMultimapService {
    *
    * @param iteratorId the iterator identifier
    */
-  @Command
+  @Query
   void closeKeys(long iteratorId);
 
   /**
@@ -272,7 +272,7 @@ public interface AtomicMultimapService {
    *
    * @return the values iterator ID
    */
-  @Command
+  @Query
   long iterateValues();
 
   /**
@@ -290,7 +290,7 @@ public interface AtomicMultimapService {
    *
    * @param iteratorId the iterator identifier
    */
-  @Command
+  @Query
   void closeValues(long iteratorId);
 
   /**
@@ -298,7 +298,7 @@ public interface AtomicMultimapService {
    *
    * @return the entry iterator ID
    */
-  @Command
+  @Query
   long iterateEntries();
 
   /**
@@ -316,7 +316,7 @@ public interface AtomicMultimapService {
    *
    * @param iteratorId the iterator identifier
    */
-  @Command
+  @Query
   void closeEntries(long iteratorId);
 
 }
@@ -16,6 +16,7 @@
 package io.atomix.core.multiset.impl;
 
 import com.google.common.collect.HashMultiset;
+import com.google.common.collect.Iterators;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Multiset;
 import com.google.common.collect.Multisets;
@@ -23,8 +24,7 @@ import io.atomix.core.collection.impl.CollectionUpdateResult;
 import io.atomix.core.collection.impl.DefaultDistributedCollectionService;
 import io.atomix.core.iterator.impl.IteratorBatch;
 import io.atomix.core.multiset.DistributedMultisetType;
-import io.atomix.primitive.service.BackupInput;
-import io.atomix.primitive.service.BackupOutput;
+import io.atomix.primitive.session.Session;
 import io.atomix.primitive.session.SessionId;
 import io.atomix.utils.serializer.Namespace;
 import io.atomix.utils.serializer.Serializer;
@@ -66,15 +66,8 @@ public class DefaultDistributedMultisetService extends DefaultDistributedCollect
   }
 
   @Override
-  public void backup(BackupOutput output) {
-    super.backup(output);
-    output.writeObject(entryIterators);
-  }
-
-  @Override
-  public void restore(BackupInput input) {
-    super.restore(input);
-    entryIterators = input.readObject();
+  protected boolean isFailFast() {
+    return true;
   }
 
   @Override
@@ -158,23 +151,25 @@ public class DefaultDistributedMultisetService extends DefaultDistributedCollect
 
   @Override
   public long iterateEntries() {
-    entryIterators.put(getCurrentIndex(), new IteratorContext(getCurrentSession().sessionId().id()));
-    return getCurrentIndex();
+    long iteratorId = nextIteratorId();
+    entryIterators.put(iteratorId, new IteratorContext(getCurrentSession().sessionId().id()));
+    return iteratorId;
   }
 
   @Override
   public IteratorBatch<Multiset.Entry<String>> nextEntries(long iteratorId, int position) {
     IteratorContext context = entryIterators.get(iteratorId);
-    if (context == null) {
-      return null;
+    if (context == null || context.sessionId != getCurrentSession().sessionId().id()) {
+      return IteratorBatch.missing();
     }
 
     List<Multiset.Entry<String>> entries = new ArrayList<>();
     int size = 0;
-    while (context.iterator.hasNext()) {
+    Iterator<Multiset.Entry<String>> iterator = context.iterator();
+    while (iterator.hasNext()) {
       context.position++;
+      Multiset.Entry<String> entry = iterator.next();
       if (context.position > position) {
-        Multiset.Entry<String> entry = context.iterator.next();
         entries.add(Multisets.immutableEntry(entry.getElement(), entry.getCount()));
         size += entry.getElement().length() + 4;
 
@@ -195,13 +190,39 @@ public class DefaultDistributedMultisetService extends DefaultDistributedCollect
     entryIterators.remove(iteratorId);
   }
 
+  @Override
+  public void onExpire(Session session) {
+    super.onExpire(session);
+    entryIterators.entrySet().removeIf(entry -> entry.getValue().sessionId == session.sessionId().id());
+  }
+
+  @Override
+  public void onClose(Session session) {
+    super.onClose(session);
+    entryIterators.entrySet().removeIf(entry -> entry.getValue().sessionId == session.sessionId().id());
+  }
+
   private class IteratorContext {
     private final long sessionId;
     private int position = 0;
     private transient Iterator<Multiset.Entry<String>> iterator = multiset().entrySet().iterator();
+    private transient long index = getCurrentIndex();
 
     IteratorContext(long sessionId) {
       this.sessionId = sessionId;
     }
+
+    /**
+     * Returns the entry iterator, recreating it at the current position if the multiset may have been modified since
+     * it was last read, since iterators over the multiset are fail-fast.
+     */
+    Iterator<Multiset.Entry<String>> iterator() {
+      if (index != getCurrentIndex()) {
+        iterator = multiset().entrySet().iterator();
+        Iterators.advance(iterator, position);
+        index = getCurrentIndex();
+      }
+      return iterator;
+    }
   }
 }
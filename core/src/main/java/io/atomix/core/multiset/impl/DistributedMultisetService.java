@@ -135,7 +135,7 @@ public interface DistributedMultisetService extends DistributedCollectionService
    *
    * @return the iterator ID
    */
-  @Command
+  @Query
   long iterateElements();
 
   /**
@@ -153,7 +153,7 @@ public interface DistributedMultisetService extends DistributedCollectionService
    *
    * @param iteratorId the iterator identifier
    */
-  @Command
+  @Query
   void closeElements(long iteratorId);
 
   /**
@@ -161,7 +161,7 @@ public interface DistributedMultisetService extends DistributedCollectionService
    *
    * @return the iterator ID
    */
-  @Command
+  @Query
   long iterateEntries();
 
   /**
@@ -179,7 +179,7 @@ public interface DistributedMultisetService extends DistributedCollectionService
    *
    * @param iteratorId the iterator identifier
    */
-  @Command
+  @Query
   void closeEntries(long iteratorId);
 
 }
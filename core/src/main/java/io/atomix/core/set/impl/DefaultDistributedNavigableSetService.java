@@ -141,20 +141,17 @@ public class DefaultDistributedNavigableSetService<E extends Comparable<E>> exte
 
   @Override
   public long subSetIterate(E fromElement, boolean fromInclusive, E toElement, boolean toInclusive) {
-    iterators.put(getCurrentIndex(), new SubSetIteratorContext(getCurrentSession().sessionId().id(), fromElement, fromInclusive, toElement, toInclusive));
-    return getCurrentIndex();
+    return openIterator(new SubSetIteratorContext(getCurrentSession().sessionId().id(), fromElement, fromInclusive, toElement, toInclusive));
   }
 
   @Override
   public long subSetIterateDescending(E fromElement, boolean fromInclusive, E toElement, boolean toInclusive) {
-    iterators.put(getCurrentIndex(), new DescendingSubSetIteratorContext(getCurrentSession().sessionId().id(), fromElement, fromInclusive, toElement, toInclusive));
-    return getCurrentIndex();
+    return openIterator(new DescendingSubSetIteratorContext(getCurrentSession().sessionId().id(), fromElement, fromInclusive, toElement, toInclusive));
   }
 
   @Override
   public long iterateDescending() {
-    iterators.put(getCurrentIndex(), new DescendingIteratorContext(getCurrentSession().sessionId().id()));
-    return getCurrentIndex();
+    return openIterator(new DescendingIteratorContext(getCurrentSession().sessionId().id()));
   }
 
   private void subSetAccept(Consumer<NavigableSet<E>> function, E fromElement, boolean fromInclusive, E toElement, boolean toInclusive) {
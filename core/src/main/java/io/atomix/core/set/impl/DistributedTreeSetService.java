@@ -181,7 +181,7 @@ public interface DistributedTreeSetService<E extends Comparable<E>> extends Dist
    *
    * @return the descending iterator ID
    */
-  @Command
+  @Query
   long iterateDescending();
 
   /**
@@ -193,7 +193,7 @@ public interface DistributedTreeSetService<E extends Comparable<E>> extends Dist
    * @param toInclusive {@code true} if the high endpoint is to be included in the returned view
    * @return the descending iterator ID
    */
-  @Command
+  @Query
   long subSetIterate(E fromElement, boolean fromInclusive, E toElement, boolean toInclusive);
 
   /**
@@ -205,7 +205,7 @@ public interface DistributedTreeSetService<E extends Comparable<E>> extends Dist
    * @param toInclusive {@code true} if the high endpoint is to be included in the returned view
    * @return the descending iterator ID
    */
-  @Command
+  @Query
   long subSetIterateDescending(E fromElement, boolean fromInclusive, E toElement, boolean toInclusive);
 
 }
@@ -27,13 +27,16 @@ import io.atomix.utils.time.Versioned;
 import org.junit.Test;
 
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
@@ -383,6 +386,47 @@ public abstract class AtomicMapTest extends AbstractPrimitiveTest<ProxyProtocol>
     map.removeListener(listener).get(30, TimeUnit.SECONDS);
   }
 
+  @Test
+  public void testMapIterators() throws Exception {
+    AsyncAtomicMap<String, String> map = atomix().<String, String>atomicMapBuilder("testMapIterators")
+        .withProtocol(protocol())
+        .build()
+        .async();
+
+    // Write enough data to require multiple batches per partition.
+    char[] chars = new char[1024 * 4];
+    Arrays.fill(chars, 'a');
+    String value = new String(chars);
+    for (int i = 0; i < 200; i += 20) {
+      List<CompletableFuture<Versioned<String>>> futures = new ArrayList<>();
+      for (int j = i; j < i + 20; j++) {
+        futures.add(map.put(String.valueOf(j), value));
+      }
+      CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(30, TimeUnit.SECONDS);
+    }
+
+    List<String> keys = new ArrayList<>();
+    Iterator<String> iterator = map.keySet().iterator().sync();
+    while (iterator.hasNext()) {
+      keys.add(iterator.next());
+    }
+    assertEquals(200, keys.size());
+    assertEquals(200, Sets.newHashSet(keys).size());
+
+    List<Collection<Map.Entry<String, Versioned<String>>>> batches = new ArrayList<>();
+    map.entrySet().iterator().forEachBatch(batches::add).get(30, TimeUnit.SECONDS);
+    assertTrue(batches.size() > 1);
+    assertEquals(200, batches.stream().mapToInt(Collection::size).sum());
+    assertEquals(200, batches.stream()
+        .flatMap(Collection::stream)
+        .map(Map.Entry::getKey)
+        .distinct()
+        .count());
+    assertTrue(batches.stream()
+        .flatMap(Collection::stream)
+        .allMatch(entry -> entry.getValue().value().equals(value)));
+  }
+
   @Test
   public void testMapViews() throws Exception {
     AtomicMap<String, String> map = atomix().<String, String>atomicMapBuilder("testMapViews")
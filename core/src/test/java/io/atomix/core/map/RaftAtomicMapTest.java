@@ -18,8 +18,16 @@ package io.atomix.core.map;
 import io.atomix.primitive.protocol.ProxyProtocol;
 import io.atomix.protocols.raft.MultiRaftProtocol;
 import io.atomix.protocols.raft.ReadConsistency;
+import io.atomix.utils.time.Versioned;
+import org.junit.Test;
 
 import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 /**
  * Raft consistent map test.
@@ -33,4 +41,30 @@ public class RaftAtomicMapTest extends AtomicMapTest {
         .withReadConsistency(ReadConsistency.LINEARIZABLE)
         .build();
   }
+
+  /**
+   * Tests that updates applied in the same command batch are assigned distinct versions.
+   */
+  @Test
+  public void testBatchedVersions() throws Throwable {
+    AsyncAtomicMap<String, String> map = atomix()
+        .<String, String>atomicMapBuilder("testBatchedVersions")
+        .withProtocol(MultiRaftProtocol.builder()
+            .withMaxTimeout(Duration.ofSeconds(1))
+            .withMaxRetries(5)
+            .withReadConsistency(ReadConsistency.LINEARIZABLE)
+            .withCommandBatchWindow(Duration.ofMillis(100))
+            .build())
+        .build().async();
+
+    CompletableFuture<Versioned<String>> put1 = map.put("foo", "Hello foo!");
+    CompletableFuture<Versioned<String>> put2 = map.put("foo", "Goodbye foo!");
+    assertNull(put1.get(30, TimeUnit.SECONDS));
+    Versioned<String> first = put2.get(30, TimeUnit.SECONDS);
+    Versioned<String> second = map.get("foo").get(30, TimeUnit.SECONDS);
+    assertTrue(second.version() > first.version());
+
+    assertFalse(map.replace("foo", first.version(), "Hello bar!").get(30, TimeUnit.SECONDS));
+    assertTrue(map.replace("foo", second.version(), "Hello bar!").get(30, TimeUnit.SECONDS));
+  }
 }
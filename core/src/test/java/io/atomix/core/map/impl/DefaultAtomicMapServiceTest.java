@@ -15,8 +15,11 @@
  */
 package io.atomix.core.map.impl;
 
+import io.atomix.core.iterator.impl.IteratorBatch;
+import io.atomix.core.map.AtomicMapEvent;
 import io.atomix.core.map.AtomicMapType;
 import io.atomix.primitive.PrimitiveId;
+import io.atomix.primitive.service.BackupOutput;
 import io.atomix.primitive.service.ServiceContext;
 import io.atomix.primitive.service.impl.DefaultBackupInput;
 import io.atomix.primitive.service.impl.DefaultBackupOutput;
@@ -28,12 +31,26 @@ import io.atomix.utils.concurrent.Scheduled;
 import io.atomix.utils.concurrent.Scheduler;
 import io.atomix.utils.time.Versioned;
 import io.atomix.utils.time.WallClock;
+import io.atomix.utils.time.WallClockTimestamp;
 import org.junit.Test;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -70,9 +87,337 @@ public class DefaultAtomicMapServiceTest {
     assertArrayEquals("Hello world!".getBytes(), value.value());
   }
 
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testAsyncSnapshot() throws Exception {
+    ServiceContext context = mock(ServiceContext.class);
+    when(context.serviceType()).thenReturn(AtomicMapType.instance());
+    when(context.serviceName()).thenReturn("test");
+    when(context.serviceId()).thenReturn(PrimitiveId.from(1));
+    when(context.wallClock()).thenReturn(new WallClock());
+
+    AbstractAtomicMapService service = new TestAtomicMapService();
+    service.init(context);
+    assertNull(service.captureBackup());
+
+    service = new TestAtomicMapService(true);
+    service.init(context);
+
+    service.put("foo", "Hello world!".getBytes());
+
+    Consumer<BackupOutput> backup = service.captureBackup();
+    assertNotNull(backup);
+
+    // Changes made after the backup is captured should not be reflected in the backup.
+    service.put("foo", "Goodbye world!".getBytes());
+    service.put("bar", "Hello world!".getBytes());
+
+    Buffer buffer = HeapBuffer.allocate();
+    backup.accept(new DefaultBackupOutput(buffer, service.serializer()));
+
+    service = new TestAtomicMapService(true);
+    service.restore(new DefaultBackupInput(buffer.flip(), service.serializer()));
+
+    Versioned<byte[]> value = service.get("foo");
+    assertNotNull(value);
+    assertArrayEquals("Hello world!".getBytes(), value.value());
+    assertNull(service.get("bar"));
+  }
+
+  @Test
+  public void testIterator() throws Exception {
+    testIterator(true);
+  }
+
+  @Test
+  public void testIteratorWithoutAsyncSnapshots() throws Exception {
+    testIterator(false);
+  }
+
+  @SuppressWarnings("unchecked")
+  private void testIterator(boolean asyncSnapshots) throws Exception {
+    ServiceContext context = mock(ServiceContext.class);
+    when(context.serviceType()).thenReturn(AtomicMapType.instance());
+    when(context.serviceName()).thenReturn("test");
+    when(context.serviceId()).thenReturn(PrimitiveId.from(1));
+    when(context.wallClock()).thenReturn(new WallClock());
+
+    Session session = mock(Session.class);
+    when(session.sessionId()).thenReturn(SessionId.from(1));
+    Session otherSession = mock(Session.class);
+    when(otherSession.sessionId()).thenReturn(SessionId.from(2));
+
+    AbstractAtomicMapService<String> service = new TestAtomicMapService(asyncSnapshots);
+    service.init(context);
+    service.register(session);
+    service.register(otherSession);
+
+    for (int i = 0; i < 10; i++) {
+      service.put(String.valueOf(i), String.valueOf(i).getBytes());
+    }
+
+    when(context.currentSession()).thenReturn(session);
+    long iteratorId = service.iterateKeys();
+    assertNotEquals(iteratorId, service.iterateKeys());
+
+    // Iterators over a persistent map observe the map as of the point at which they were opened, and other
+    // iterators are weakly consistent.
+    service.put("10", "10".getBytes());
+    service.remove("0");
+    service.put("1", "one".getBytes());
+    IteratorBatch<String> batch = service.nextKeys(iteratorId, 0);
+    assertFalse(batch.isMissing());
+    for (int i = 1; i < 10; i++) {
+      assertTrue(batch.entries().contains(String.valueOf(i)));
+    }
+    if (asyncSnapshots) {
+      assertEquals(10, batch.position());
+      assertEquals(10, batch.entries().size());
+      assertTrue(batch.entries().contains("0"));
+      assertFalse(batch.entries().contains("10"));
+    }
+    assertNull(service.nextKeys(iteratorId, batch.position()));
+
+    // Iterators over a persistent map observe the values of entries as of the point at which they were opened.
+    long entriesIteratorId = service.iterateEntries();
+    service.put("1", "1".getBytes());
+    IteratorBatch<Map.Entry<String, Versioned<byte[]>>> entries = service.nextEntries(entriesIteratorId, 0);
+    assertEquals(10, entries.entries().size());
+    assertArrayEquals((asyncSnapshots ? "one" : "1").getBytes(), entries.entries().stream()
+        .filter(entry -> entry.getKey().equals("1"))
+        .findFirst()
+        .get()
+        .getValue()
+        .value());
+    service.closeEntries(entriesIteratorId);
+
+    // Iterators are only visible to the session that opened them.
+    when(context.currentSession()).thenReturn(otherSession);
+    assertTrue(service.nextKeys(iteratorId, 0).isMissing());
+    when(context.currentSession()).thenReturn(session);
+    service.closeKeys(iteratorId);
+    assertTrue(service.nextKeys(iteratorId, 0).isMissing());
+
+    // Iterators are not written to backups.
+    iteratorId = service.iterateKeys();
+    Buffer buffer = HeapBuffer.allocate();
+    service.backup(new DefaultBackupOutput(buffer, service.serializer()));
+    service = new TestAtomicMapService(asyncSnapshots);
+    service.init(context);
+    service.register(session);
+    service.restore(new DefaultBackupInput(buffer.flip(), service.serializer()));
+    assertTrue(service.nextKeys(iteratorId, 0).isMissing());
+
+    // Iterators skip entries before the requested position.
+    iteratorId = service.iterateKeys();
+    batch = service.nextKeys(iteratorId, 4);
+    assertEquals(10, batch.position());
+    assertEquals(6, batch.entries().size());
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testTtl() throws Exception {
+    ServiceContext context = mock(ServiceContext.class);
+    when(context.serviceType()).thenReturn(AtomicMapType.instance());
+    when(context.serviceName()).thenReturn("test");
+    when(context.serviceId()).thenReturn(PrimitiveId.from(1));
+
+    TimedAtomicMapService service = new TimedAtomicMapService();
+    service.init(context);
+    service.time = 1000;
+
+    service.put("foo", "foo".getBytes(), 1000);
+    service.put("bar", "bar".getBytes(), 5000);
+    service.put("baz", "baz".getBytes());
+
+    // A single timer is scheduled for the earliest expiration.
+    assertEquals(1, service.timers.size());
+
+    // Expired entries are hidden from readers before the timer fires.
+    service.time = 2001;
+    assertNull(service.get("foo"));
+    assertFalse(service.containsKey("foo"));
+    assertEquals(2, service.size());
+    assertTrue(service.entries().containsKey("foo"));
+
+    // Expired entries are removed once the end of their expiration bucket has passed.
+    service.runTimers();
+    assertTrue(service.entries().containsKey("foo"));
+    service.time = 2100;
+    service.runTimers();
+    assertFalse(service.entries().containsKey("foo"));
+    assertEquals(2, service.entries().size());
+
+    // Expirations are restored from snapshots.
+    Buffer buffer = HeapBuffer.allocate();
+    service.backup(new DefaultBackupOutput(buffer, service.serializer()));
+    service = new TimedAtomicMapService();
+    service.init(context);
+    service.time = 2001;
+    service.restore(new DefaultBackupInput(buffer.flip(), service.serializer()));
+    assertNotNull(service.get("bar"));
+    assertEquals(1, service.timers.size());
+
+    service.time = 6101;
+    service.runTimers();
+    assertNull(service.get("bar"));
+    assertEquals(1, service.entries().size());
+
+    // Overwritten and removed entries are removed from the expiration index.
+    service.put("foo", "foo".getBytes(), 1000);
+    service.put("foo", "foo2".getBytes());
+    service.put("bar", "bar".getBytes(), 1000);
+    service.remove("bar");
+    service.time = 10000;
+    service.runTimers();
+    assertArrayEquals("foo2".getBytes(), service.get("foo").value());
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testWriteExpiredEntry() throws Exception {
+    ServiceContext context = mock(ServiceContext.class);
+    when(context.serviceType()).thenReturn(AtomicMapType.instance());
+    when(context.serviceName()).thenReturn("test");
+    when(context.serviceId()).thenReturn(PrimitiveId.from(1));
+
+    TimedAtomicMapService service = new TimedAtomicMapService();
+    service.init(context);
+    service.listeners.add(SessionId.from(1));
+    service.time = 1000;
+    service.put("foo", "foo".getBytes(), 1000);
+    service.events.clear();
+
+    // Writing an expired entry that has not yet been removed publishes its removal before the write.
+    service.time = 2001;
+    service.put("foo", "bar".getBytes());
+    assertEquals(2, service.events.size());
+    assertEquals(AtomicMapEvent.Type.REMOVE, service.events.get(0).type());
+    assertArrayEquals("foo".getBytes(), service.events.get(0).oldValue().value());
+    assertEquals(AtomicMapEvent.Type.INSERT, service.events.get(1).type());
+    assertNull(service.events.get(1).oldValue());
+
+    // The expired entry is removed from the expiration index, so the new value is not removed by the timer.
+    service.time = 10000;
+    service.runTimers();
+    assertArrayEquals("bar".getBytes(), service.get("foo").value());
+    assertEquals(2, service.events.size());
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testTtlExpirationsPerTick() throws Exception {
+    AtomicLong time = new AtomicLong(1000);
+    ServiceContext context = mock(ServiceContext.class);
+    when(context.serviceType()).thenReturn(AtomicMapType.instance());
+    when(context.serviceName()).thenReturn("test");
+    when(context.serviceId()).thenReturn(PrimitiveId.from(1));
+    when(context.wallClock()).thenReturn(new WallClock() {
+      @Override
+      public WallClockTimestamp getTime() {
+        return new WallClockTimestamp(time.get());
+      }
+    });
+
+    // Expire entries through the service's own executor.
+    AbstractAtomicMapService<String> service = new DefaultAtomicMapService();
+    service.init(context);
+    service.tick(new WallClockTimestamp(time.get()));
+    for (int i = 0; i < 2500; i++) {
+      service.put(String.valueOf(i), "value".getBytes(), 100);
+    }
+
+    // Mass expirations are spread across ticks.
+    time.set(20000);
+    assertTrue(service.tickAndReportDirty(new WallClockTimestamp(time.get())));
+    assertEquals(1500, service.entries().size());
+    time.incrementAndGet();
+    assertTrue(service.tickAndReportDirty(new WallClockTimestamp(time.get())));
+    assertEquals(500, service.entries().size());
+    time.incrementAndGet();
+    assertTrue(service.tickAndReportDirty(new WallClockTimestamp(time.get())));
+    assertEquals(0, service.entries().size());
+    time.incrementAndGet();
+    assertFalse(service.tickAndReportDirty(new WallClockTimestamp(time.get())));
+  }
+
+  private static class TimedAtomicMapService extends AbstractAtomicMapService<String> {
+    private final List<TestTimer> timers = new ArrayList<>();
+    private final List<AtomicMapEvent<String, byte[]>> events = new ArrayList<>();
+    private long time;
+
+    TimedAtomicMapService() {
+      super(AtomicMapType.instance());
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected Session<AtomicMapClient> getSession(SessionId sessionId) {
+      Session<AtomicMapClient> session = mock(Session.class);
+      doAnswer(invocation -> {
+        ((Consumer<AtomicMapClient>) invocation.getArguments()[0]).accept(events::add);
+        return null;
+      }).when(session).accept(any());
+      return session;
+    }
+
+    /**
+     * Runs timers scheduled to run before the current time, as a single tick.
+     */
+    void runTimers() {
+      List<TestTimer> runnable = timers.stream()
+          .filter(timer -> timer.time < time)
+          .collect(Collectors.toList());
+      timers.removeAll(runnable);
+      runnable.forEach(timer -> timer.callback.run());
+    }
+
+    @Override
+    protected Scheduler getScheduler() {
+      return new Scheduler() {
+        @Override
+        public Scheduled schedule(Duration delay, Runnable callback) {
+          TestTimer timer = new TestTimer(time + delay.toMillis(), callback);
+          timers.add(timer);
+          return () -> timers.remove(timer);
+        }
+
+        @Override
+        public Scheduled schedule(Duration initialDelay, Duration interval, Runnable callback) {
+          throw new UnsupportedOperationException();
+        }
+      };
+    }
+
+    @Override
+    protected WallClock getWallClock() {
+      return new WallClock() {
+        @Override
+        public WallClockTimestamp getTime() {
+          return new WallClockTimestamp(time);
+        }
+      };
+    }
+  }
+
+  private static class TestTimer {
+    private final long time;
+    private final Runnable callback;
+
+    TestTimer(long time, Runnable callback) {
+      this.time = time;
+      this.callback = callback;
+    }
+  }
+
   private static class TestAtomicMapService extends AbstractAtomicMapService {
     TestAtomicMapService() {
-      super(AtomicMapType.instance());
+      this(false);
+    }
+
+    TestAtomicMapService(boolean asyncSnapshots) {
+      super(AtomicMapType.instance(), asyncSnapshots);
     }
 
     @Override
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.core.map.impl;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Persistent hash map test.
+ */
+public class PersistentHashMapTest {
+
+  @Test
+  public void testPutGetRemove() throws Exception {
+    PersistentHashMap<Integer, Integer> map = new PersistentHashMap<>();
+    Map<Integer, Integer> expected = new HashMap<>();
+    Random random = new Random(0);
+    for (int i = 0; i < 100000; i++) {
+      int key = random.nextInt(10000);
+      if (random.nextBoolean()) {
+        assertEquals(expected.put(key, i), map.put(key, i));
+      } else {
+        assertEquals(expected.remove(key), map.remove(key));
+      }
+      assertEquals(expected.size(), map.size());
+    }
+    assertEquals(expected, map);
+    assertEquals(expected.size(), map.entrySet().stream().count());
+    map.clear();
+    assertTrue(map.isEmpty());
+  }
+
+  @Test
+  public void testCollisions() throws Exception {
+    PersistentHashMap<CollidingKey, String> map = new PersistentHashMap<>();
+    for (int i = 0; i < 100; i++) {
+      map.put(new CollidingKey(i), String.valueOf(i));
+    }
+    map.put(new CollidingKey(1000, 1), "other");
+    assertEquals(101, map.size());
+    for (int i = 0; i < 100; i++) {
+      assertEquals(String.valueOf(i), map.get(new CollidingKey(i)));
+    }
+    assertEquals("other", map.get(new CollidingKey(1000, 1)));
+    for (int i = 0; i < 100; i++) {
+      assertEquals(String.valueOf(i), map.remove(new CollidingKey(i)));
+    }
+    assertEquals(1, map.size());
+    assertNull(map.get(new CollidingKey(0)));
+  }
+
+  @Test
+  public void testSnapshot() throws Exception {
+    PersistentHashMap<String, String> map = new PersistentHashMap<>();
+    for (int i = 0; i < 1000; i++) {
+      map.put(String.valueOf(i), "a");
+    }
+    Map<String, String> snapshot = map.snapshot();
+    for (int i = 0; i < 1000; i++) {
+      map.put(String.valueOf(i), "b");
+    }
+    map.remove("0");
+    map.put("foo", "bar");
+
+    assertEquals(1000, snapshot.size());
+    assertFalse(snapshot.containsKey("foo"));
+    for (int i = 0; i < 1000; i++) {
+      assertEquals("a", snapshot.get(String.valueOf(i)));
+    }
+    assertEquals(1000, map.size());
+    assertEquals("b", map.get("1"));
+    assertNull(map.get("0"));
+  }
+
+  @Test
+  public void testIteratorRemove() throws Exception {
+    PersistentHashMap<Integer, Integer> map = new PersistentHashMap<>();
+    for (int i = 0; i < 1000; i++) {
+      map.put(i, i);
+    }
+    int count = 0;
+    Iterator<Map.Entry<Integer, Integer>> iterator = map.entrySet().iterator();
+    while (iterator.hasNext()) {
+      Map.Entry<Integer, Integer> entry = iterator.next();
+      map.put(entry.getKey() + 1000, entry.getValue());
+      if (entry.getKey() % 2 == 0) {
+        iterator.remove();
+      }
+      count++;
+    }
+    assertEquals(1000, count);
+    assertEquals(1500, map.size());
+    assertNull(map.get(0));
+    assertEquals(Integer.valueOf(1), map.get(1));
+  }
+
+  private static class CollidingKey {
+    private final int id;
+    private final int hash;
+
+    CollidingKey(int id) {
+      this(id, 0);
+    }
+
+    CollidingKey(int id, int hash) {
+      this.id = id;
+      this.hash = hash;
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+
+    @Override
+    public boolean equals(Object object) {
+      return object instanceof CollidingKey && ((CollidingKey) object).id == id;
+    }
+  }
+}
@@ -0,0 +1,386 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.primitive.operation.impl;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Primitive operation method invoker.
+ * <p>
+ * Operation methods are invoked through functional interfaces implemented by {@link LambdaMetafactory}, which
+ * compiles to a direct interface or virtual call to the operation method with casts and unboxing of its arguments
+ * rather than a reflective {@link Method#invoke(Object, Object...) invocation}. Methods with more than
+ * {@link #MAX_GENERATED_PARAMETERS} parameters, and methods that can't be linked from this class because they're not
+ * public or not visible to its class loader, are invoked reflectively.
+ * <p>
+ * Invokers are bound to the target object at call time, so a single invoker is created and cached per method and
+ * shared by all objects on which the method is invoked.
+ */
+public abstract class MethodInvoker {
+  private static final Logger LOGGER = LoggerFactory.getLogger(MethodInvoker.class);
+  private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+  private static final int MAX_GENERATED_PARAMETERS = 5;
+  private static final Class<?>[] FUNCTIONS = new Class[]{
+      Function0.class, Function1.class, Function2.class, Function3.class, Function4.class, Function5.class};
+  private static final Class<?>[] PROCEDURES = new Class[]{
+      Procedure0.class, Procedure1.class, Procedure2.class, Procedure3.class, Procedure4.class, Procedure5.class};
+
+  // Invokers are cached per declaring class so that cached invokers don't prevent the class from being unloaded.
+  private static final ClassValue<Map<Method, MethodInvoker>> INVOKERS = new ClassValue<Map<Method, MethodInvoker>>() {
+    @Override
+    protected Map<Method, MethodInvoker> computeValue(Class<?> type) {
+      return new ConcurrentHashMap<>();
+    }
+  };
+
+  /**
+   * Returns an invoker for the given method.
+   *
+   * @param method the method for which to return an invoker
+   * @return the method invoker
+   */
+  public static MethodInvoker of(Method method) {
+    return INVOKERS.get(method.getDeclaringClass()).computeIfAbsent(method, MethodInvoker::create);
+  }
+
+  /**
+   * Creates an invoker for the given method.
+   */
+  private static MethodInvoker create(Method method) {
+    if (method.getParameterCount() <= MAX_GENERATED_PARAMETERS && isLinkable(method)) {
+      try {
+        return generate(method);
+      } catch (Throwable e) {
+        LOGGER.debug("Failed to generate invoker for {}; falling back to reflection", method, e);
+      }
+    }
+    return new ReflectiveInvoker(method);
+  }
+
+  /**
+   * Returns a boolean indicating whether the given method can be called from code generated in this class.
+   */
+  private static boolean isLinkable(Method method) {
+    if (!Modifier.isPublic(method.getModifiers()) || Modifier.isStatic(method.getModifiers())
+        || !Modifier.isPublic(method.getDeclaringClass().getModifiers())) {
+      return false;
+    }
+    if (!isVisible(method.getDeclaringClass()) || !isVisible(method.getReturnType())) {
+      return false;
+    }
+    for (Class<?> parameterType : method.getParameterTypes()) {
+      if (!isVisible(parameterType)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Returns a boolean indicating whether the given type is resolvable by this class's class loader.
+   */
+  private static boolean isVisible(Class<?> type) {
+    while (type.isArray()) {
+      type = type.getComponentType();
+    }
+    if (type.isPrimitive()) {
+      return true;
+    }
+    try {
+      return Class.forName(type.getName(), false, MethodInvoker.class.getClassLoader()) == type;
+    } catch (ClassNotFoundException e) {
+      return false;
+    }
+  }
+
+  /**
+   * Generates an invoker for the given method.
+   */
+  private static MethodInvoker generate(Method method) throws Throwable {
+    MethodHandle handle = LOOKUP.unreflect(method);
+    int parameterCount = method.getParameterCount();
+    boolean isVoid = method.getReturnType() == Void.TYPE;
+    Class<?> functionType = isVoid ? PROCEDURES[parameterCount] : FUNCTIONS[parameterCount];
+
+    // The erased signature of the functional interface method, e.g. (Object, Object, Object) -> Object.
+    MethodType erasedType = MethodType.genericMethodType(parameterCount + 1);
+    if (isVoid) {
+      erasedType = erasedType.changeReturnType(Void.TYPE);
+    }
+
+    // The signature of the operation with the receiver type and boxed primitives, to which erased arguments are cast.
+    MethodType instantiatedType = handle.type().wrap();
+    if (isVoid) {
+      instantiatedType = instantiatedType.changeReturnType(Void.TYPE);
+    }
+
+    CallSite callSite = LambdaMetafactory.metafactory(
+        LOOKUP,
+        "apply",
+        MethodType.methodType(functionType),
+        erasedType,
+        handle,
+        instantiatedType);
+    Object function = callSite.getTarget().invoke();
+    switch (parameterCount) {
+      case 0:
+        return isVoid ? new Invoker0((Procedure0) function) : new Invoker0((Function0) function);
+      case 1:
+        return isVoid ? new Invoker1((Procedure1) function) : new Invoker1((Function1) function);
+      case 2:
+        return isVoid ? new Invoker2((Procedure2) function) : new Invoker2((Function2) function);
+      case 3:
+        return isVoid ? new Invoker3((Procedure3) function) : new Invoker3((Function3) function);
+      case 4:
+        return isVoid ? new Invoker4((Procedure4) function) : new Invoker4((Function4) function);
+      case 5:
+        return isVoid ? new Invoker5((Procedure5) function) : new Invoker5((Function5) function);
+      default:
+        throw new AssertionError();
+    }
+  }
+
+  /**
+   * Invokes the method on the given target.
+   * <p>
+   * Exceptions thrown by the method are rethrown as is rather than wrapped in an
+   * {@link InvocationTargetException}.
+   *
+   * @param target the object on which to invoke the method
+   * @param args   the method arguments, or {@code null} if the method has no parameters
+   * @return the method's return value, or {@code null} if the method is {@code void}
+   * @throws Exception if the method throws an exception
+   */
+  public abstract Object invoke(Object target, Object[] args) throws Exception;
+
+  /**
+   * Reflective method invoker.
+   */
+  private static class ReflectiveInvoker extends MethodInvoker {
+    private final Method method;
+
+    ReflectiveInvoker(Method method) {
+      this.method = method;
+      method.setAccessible(true);
+    }
+
+    @Override
+    public Object invoke(Object target, Object[] args) throws Exception {
+      try {
+        return method.invoke(target, args);
+      } catch (InvocationTargetException e) {
+        if (e.getCause() instanceof Exception) {
+          throw (Exception) e.getCause();
+        } else if (e.getCause() instanceof Error) {
+          throw (Error) e.getCause();
+        }
+        throw e;
+      }
+    }
+  }
+
+  private static class Invoker0 extends MethodInvoker {
+    private final Function0 function;
+
+    Invoker0(Function0 function) {
+      this.function = function;
+    }
+
+    Invoker0(Procedure0 procedure) {
+      this.function = target -> {
+        procedure.apply(target);
+        return null;
+      };
+    }
+
+    @Override
+    public Object invoke(Object target, Object[] args) {
+      return function.apply(target);
+    }
+  }
+
+  private static class Invoker1 extends MethodInvoker {
+    private final Function1 function;
+
+    Invoker1(Function1 function) {
+      this.function = function;
+    }
+
+    Invoker1(Procedure1 procedure) {
+      this.function = (target, a0) -> {
+        procedure.apply(target, a0);
+        return null;
+      };
+    }
+
+    @Override
+    public Object invoke(Object target, Object[] args) {
+      return function.apply(target, args[0]);
+    }
+  }
+
+  private static class Invoker2 extends MethodInvoker {
+    private final Function2 function;
+
+    Invoker2(Function2 function) {
+      this.function = function;
+    }
+
+    Invoker2(Procedure2 procedure) {
+      this.function = (target, a0, a1) -> {
+        procedure.apply(target, a0, a1);
+        return null;
+      };
+    }
+
+    @Override
+    public Object invoke(Object target, Object[] args) {
+      return function.apply(target, args[0], args[1]);
+    }
+  }
+
+  private static class Invoker3 extends MethodInvoker {
+    private final Function3 function;
+
+    Invoker3(Function3 function) {
+      this.function = function;
+    }
+
+    Invoker3(Procedure3 procedure) {
+      this.function = (target, a0, a1, a2) -> {
+        procedure.apply(target, a0, a1, a2);
+        return null;
+      };
+    }
+
+    @Override
+    public Object invoke(Object target, Object[] args) {
+      return function.apply(target, args[0], args[1], args[2]);
+    }
+  }
+
+  private static class Invoker4 extends MethodInvoker {
+    private final Function4 function;
+
+    Invoker4(Function4 function) {
+      this.function = function;
+    }
+
+    Invoker4(Procedure4 procedure) {
+      this.function = (target, a0, a1, a2, a3) -> {
+        procedure.apply(target, a0, a1, a2, a3);
+        return null;
+      };
+    }
+
+    @Override
+    public Object invoke(Object target, Object[] args) {
+      return function.apply(target, args[0], args[1], args[2], args[3]);
+    }
+  }
+
+  private static class Invoker5 extends MethodInvoker {
+    private final Function5 function;
+
+    Invoker5(Function5 function) {
+      this.function = function;
+    }
+
+    Invoker5(Procedure5 procedure) {
+      this.function = (target, a0, a1, a2, a3, a4) -> {
+        procedure.apply(target, a0, a1, a2, a3, a4);
+        return null;
+      };
+    }
+
+    @Override
+    public Object invoke(Object target, Object[] args) {
+      return function.apply(target, args[0], args[1], args[2], args[3], args[4]);
+    }
+  }
+
+  @FunctionalInterface
+  interface Function0 {
+    Object apply(Object target);
+  }
+
+  @FunctionalInterface
+  interface Function1 {
+    Object apply(Object target, Object a0);
+  }
+
+  @FunctionalInterface
+  interface Function2 {
+    Object apply(Object target, Object a0, Object a1);
+  }
+
+  @FunctionalInterface
+  interface Function3 {
+    Object apply(Object target, Object a0, Object a1, Object a2);
+  }
+
+  @FunctionalInterface
+  interface Function4 {
+    Object apply(Object target, Object a0, Object a1, Object a2, Object a3);
+  }
+
+  @FunctionalInterface
+  interface Function5 {
+    Object apply(Object target, Object a0, Object a1, Object a2, Object a3, Object a4);
+  }
+
+  @FunctionalInterface
+  interface Procedure0 {
+    void apply(Object target);
+  }
+
+  @FunctionalInterface
+  interface Procedure1 {
+    void apply(Object target, Object a0);
+  }
+
+  @FunctionalInterface
+  interface Procedure2 {
+    void apply(Object target, Object a0, Object a1);
+  }
+
+  @FunctionalInterface
+  interface Procedure3 {
+    void apply(Object target, Object a0, Object a1, Object a2);
+  }
+
+  @FunctionalInterface
+  interface Procedure4 {
+    void apply(Object target, Object a0, Object a1, Object a2, Object a3);
+  }
+
+  @FunctionalInterface
+  interface Procedure5 {
+    void apply(Object target, Object a0, Object a1, Object a2, Object a3, Object a4);
+  }
+}
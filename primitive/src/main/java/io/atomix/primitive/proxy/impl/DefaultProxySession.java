@@ -24,6 +24,7 @@ import io.atomix.primitive.event.Events;
 import io.atomix.primitive.operation.OperationId;
 import io.atomix.primitive.operation.Operations;
 import io.atomix.primitive.operation.PrimitiveOperation;
+import io.atomix.primitive.operation.impl.MethodInvoker;
 import io.atomix.primitive.proxy.ProxySession;
 import io.atomix.utils.concurrent.ThreadContext;
 import io.atomix.utils.serializer.Serializer;
@@ -31,7 +32,6 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.lang.reflect.InvocationHandler;
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
@@ -81,10 +81,11 @@ public class DefaultProxySession<S> implements ProxySession<S> {
   @Override
   public void register(Object client) {
     Events.getEventMap(client.getClass()).forEach((eventType, method) -> {
+      MethodInvoker invoker = MethodInvoker.of(method);
       session.addEventListener(eventType, event -> {
         try {
-          method.invoke(client, (Object[]) decode(event.value()));
-        } catch (IllegalAccessException | InvocationTargetException e) {
+          invoker.invoke(client, (Object[]) decode(event.value()));
+        } catch (Exception e) {
           log.warn("Failed to handle event", e);
         }
       });
@@ -21,6 +21,7 @@ import io.atomix.primitive.PrimitiveId;
 import io.atomix.primitive.PrimitiveType;
 import io.atomix.primitive.operation.OperationId;
 import io.atomix.primitive.operation.Operations;
+import io.atomix.primitive.operation.impl.MethodInvoker;
 import io.atomix.primitive.service.impl.DefaultServiceExecutor;
 import io.atomix.primitive.session.Session;
 import io.atomix.primitive.session.SessionId;
@@ -35,7 +36,6 @@ import io.atomix.utils.time.WallClock;
 import io.atomix.utils.time.WallClockTimestamp;
 import org.slf4j.Logger;
 
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.Collection;
 import java.util.Map;
@@ -107,6 +107,11 @@ public abstract class AbstractPrimitiveService<C> implements PrimitiveService {
     executor.tick(timestamp);
   }
 
+  @Override
+  public final boolean tickAndReportDirty(WallClockTimestamp timestamp) {
+    return executor.tickAndReportDirty(timestamp);
+  }
+
   @Override
   public final byte[] apply(Commit<byte[]> commit) {
     return executor.apply(commit);
@@ -127,51 +132,54 @@ public abstract class AbstractPrimitiveService<C> implements PrimitiveService {
 
   /**
    * Configures the given operation on the given executor.
+   * <p>
+   * Operations are invoked through the {@link MethodInvoker} cached for the operation method rather than by
+   * reflection.
    *
    * @param operationId the operation identifier
    * @param method      the operation method
    * @param executor    the service executor
    */
   private void configure(OperationId operationId, Method method, ServiceExecutor executor) {
+    MethodInvoker invoker = MethodInvoker.of(method);
     if (method.getReturnType() == Void.TYPE) {
       if (method.getParameterTypes().length == 0) {
         executor.register(operationId, () -> {
-          try {
-            method.invoke(this);
-          } catch (IllegalAccessException | InvocationTargetException e) {
-            throw new PrimitiveException.ServiceException(e.getMessage());
-          }
+          invoke(invoker, null);
         });
       } else {
         executor.register(operationId, args -> {
-          try {
-            method.invoke(this, (Object[]) args.value());
-          } catch (IllegalAccessException | InvocationTargetException e) {
-            throw new PrimitiveException.ServiceException(e.getMessage());
-          }
+          invoke(invoker, (Object[]) args.value());
         });
       }
     } else {
       if (method.getParameterTypes().length == 0) {
         executor.register(operationId, () -> {
-          try {
-            return method.invoke(this);
-          } catch (IllegalAccessException | InvocationTargetException e) {
-            throw new PrimitiveException.ServiceException(e.getMessage());
-          }
+          return invoke(invoker, null);
         });
       } else {
         executor.register(operationId, args -> {
-          try {
-            return method.invoke(this, (Object[]) args.value());
-          } catch (IllegalAccessException | InvocationTargetException e) {
-            throw new PrimitiveException.ServiceException(e.getMessage());
-          }
+          return invoke(invoker, (Object[]) args.value());
         });
       }
     }
   }
 
+  /**
+   * Invokes an operation on this service.
+   *
+   * @param invoker the operation method invoker
+   * @param args    the operation arguments
+   * @return the operation result
+   */
+  private Object invoke(MethodInvoker invoker, Object[] args) {
+    try {
+      return invoker.invoke(this, args);
+    } catch (Exception e) {
+      throw new PrimitiveException.ServiceException(e.getMessage());
+    }
+  }
+
   /**
    * Returns the primitive type.
    *
@@ -219,6 +227,9 @@ public abstract class AbstractPrimitiveService<C> implements PrimitiveService {
 
   /**
    * Returns the state machine's current index.
+   * <p>
+   * The index is unique to each command applied to the service but may run ahead of the index of the log entry
+   * being applied. See {@link ServiceContext#currentIndex()}.
    *
    * @return The state machine's current index.
    */
@@ -34,7 +34,10 @@ public interface Commit<T> {
    * <p>
    * This is the index at which the committed {@link PrimitiveOperation} was written in the Raft log.
    * Raft guarantees that this index will be unique for {@link PrimitiveOperation} commits and will be the same for all
-   * instances of the given operation on all servers in the cluster.
+   * instances of the given operation on all servers in the cluster. If several operations are committed in a
+   * single log entry, each operation is assigned the index following that of the previous command applied to the
+   * service, so the index is unique to the operation but may run ahead of the log index. See
+   * {@link ServiceContext#currentIndex()}.
    * <p>
    * For {@link PrimitiveOperation} operations, the returned {@code index} may actually be representative of the last committed
    * index in the Raft log since queries are not actually written to disk. Thus, query commits cannot be assumed
@@ -20,6 +20,8 @@ import io.atomix.primitive.session.SessionId;
 import io.atomix.utils.serializer.Serializer;
 import io.atomix.utils.time.WallClockTimestamp;
 
+import java.util.function.Consumer;
+
 /**
  * Base class for user-provided services.
  *
@@ -44,6 +46,20 @@ public interface PrimitiveService {
    */
   void tick(WallClockTimestamp timestamp);
 
+  /**
+   * Increments the Raft service time to the given timestamp, reporting whether the service state may have changed.
+   * <p>
+   * By default, the service is assumed to have changed. Services that know whether scheduled callbacks were executed
+   * should override this method to allow unchanged services to be skipped when snapshotting.
+   *
+   * @param timestamp the service timestamp
+   * @return whether any scheduled callbacks were executed, possibly modifying the service state
+   */
+  default boolean tickAndReportDirty(WallClockTimestamp timestamp) {
+    tick(timestamp);
+    return true;
+  }
+
   /**
    * Returns the primitive service serializer.
    *
@@ -58,6 +74,20 @@ public interface PrimitiveService {
    */
   void backup(BackupOutput output);
 
+  /**
+   * Captures a point-in-time backup of the service state to be written asynchronously.
+   * <p>
+   * The returned function may be called on a different thread while operations continue to be applied to the service,
+   * so it must only reference state that is not modified after this method returns. By default, this method returns
+   * {@code null} and the service is backed up synchronously via {@link #backup(BackupOutput)}.
+   *
+   * @return a function with which to write the captured backup, or {@code null} if the service does not support
+   * asynchronous backups
+   */
+  default Consumer<BackupOutput> captureBackup() {
+    return null;
+  }
+
   /**
    * Restores the service state from the given buffer.
    *
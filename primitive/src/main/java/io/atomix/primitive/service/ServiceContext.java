@@ -68,6 +68,12 @@ public interface ServiceContext {
    * The state index is indicative of the index of the current operation
    * being applied to the server state machine. If a query is being applied,
    * the index of the last command applied will be used.
+   * <p>
+   * Each command applied to the service is applied at a distinct index, and indexes increase monotonically, so
+   * indexes may be used to version the service's state. Protocols may apply several commands from a single log
+   * entry, in which case the index may run ahead of the index of the entry in the underlying log. Indexes should
+   * therefore only be compared with other indexes of the same service, and not with log indexes reported to
+   * clients.
    *
    * @return The current state machine index.
    */
@@ -76,6 +76,19 @@ public interface ServiceExecutor extends Executor, Scheduler {
    */
   void tick(WallClockTimestamp timestamp);
 
+  /**
+   * Increments the service clock, reporting whether any scheduled tasks were executed.
+   * <p>
+   * By default, tasks are assumed to have been executed.
+   *
+   * @param timestamp the wall clock timestamp
+   * @return whether any scheduled tasks were executed
+   */
+  default boolean tickAndReportDirty(WallClockTimestamp timestamp) {
+    tick(timestamp);
+    return true;
+  }
+
   /**
    * Applies the given commit to the executor.
    *
@@ -31,8 +31,8 @@ import org.slf4j.Logger;
 
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
-import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -47,14 +47,28 @@ import static com.google.common.base.Preconditions.checkState;
 
 /**
  * Default operation executor.
+ * <p>
+ * Scheduled tasks are stored in an indexed binary heap ordered by their scheduled time and then by the order in which
+ * they were scheduled, so scheduling and cancelling a task costs {@code O(log n)} regardless of the number of pending
+ * tasks. Tasks are scheduled relative to the log's wall clock time and ties are broken by scheduling order, so the
+ * order in which tasks are executed is deterministic across replicas.
+ * <p>
+ * Tasks scheduled by a task that's executed during a {@link #tick(WallClockTimestamp) tick} are not executed until the
+ * next tick, even if their scheduled time has already passed, so the work done in a single tick is bounded by the
+ * tasks that were scheduled when the tick began.
  */
 public class DefaultServiceExecutor implements ServiceExecutor {
+  private static final int INITIAL_CAPACITY = 16;
+
   private final Serializer serializer;
   private final ServiceContext context;
   private final Logger log;
   private final Queue<Runnable> tasks = new LinkedList<>();
-  private final List<ScheduledTask> scheduledTasks = new ArrayList<>();
+  private ScheduledTask[] scheduledTasks = new ScheduledTask[INITIAL_CAPACITY];
+  private int scheduledTaskCount;
+  private long taskSequence;
   private final List<ScheduledTask> complete = new ArrayList<>();
+  private final List<ScheduledTask> deferred = new ArrayList<>();
   private final Map<String, Function<Commit<byte[]>, byte[]>> operations = new HashMap<>();
   private OperationType operationType;
   private long timestamp;
@@ -93,25 +107,39 @@ public class DefaultServiceExecutor implements ServiceExecutor {
 
   @Override
   public void tick(WallClockTimestamp timestamp) {
+    tickAndReportDirty(timestamp);
+  }
+
+  @Override
+  public boolean tickAndReportDirty(WallClockTimestamp timestamp) {
     long unixTimestamp = timestamp.unixTimestamp();
     this.operationType = OperationType.COMMAND;
-    if (!scheduledTasks.isEmpty()) {
-      // Iterate through scheduled tasks until we reach a task that has not met its scheduled time.
-      // The tasks list is sorted by time on insertion.
-      Iterator<ScheduledTask> iterator = scheduledTasks.iterator();
-      while (iterator.hasNext()) {
-        ScheduledTask task = iterator.next();
-        if (task.isRunnable(unixTimestamp)) {
-          this.timestamp = task.time;
-          this.operationType = OperationType.COMMAND;
-          log.trace("Executing scheduled task {}", task);
-          task.execute();
-          complete.add(task);
-          iterator.remove();
-        } else {
-          break;
+    boolean executed = false;
+    if (scheduledTaskCount > 0) {
+      // Remove tasks from the head of the heap until we reach a task that has not met its scheduled time. Tasks
+      // scheduled during this tick are set aside to be executed in a later tick.
+      long lastSequence = taskSequence;
+      while (scheduledTaskCount > 0 && scheduledTasks[0].isRunnable(unixTimestamp)) {
+        ScheduledTask task = removeTask(0);
+        if (task.sequence > lastSequence) {
+          deferred.add(task);
+          continue;
+        }
+        this.timestamp = task.time;
+        this.operationType = OperationType.COMMAND;
+        log.trace("Executing scheduled task {}", task);
+        task.execute();
+        executed = true;
+        complete.add(task);
+      }
+
+      // Return deferred tasks to the heap in their original order.
+      for (ScheduledTask task : deferred) {
+        if (!task.cancelled) {
+          insertTask(task);
         }
       }
+      deferred.clear();
 
       // Iterate through tasks that were completed and reschedule them.
       for (ScheduledTask task : complete) {
@@ -119,6 +147,95 @@ public class DefaultServiceExecutor implements ServiceExecutor {
       }
       complete.clear();
     }
+    return executed;
+  }
+
+  /**
+   * Adds the given task to the scheduled tasks heap.
+   *
+   * @param task the task to add
+   */
+  private void addTask(ScheduledTask task) {
+    task.sequence = ++taskSequence;
+    insertTask(task);
+  }
+
+  /**
+   * Inserts the given task into the scheduled tasks heap without changing its sequence number.
+   *
+   * @param task the task to insert
+   */
+  private void insertTask(ScheduledTask task) {
+    if (scheduledTaskCount == scheduledTasks.length) {
+      scheduledTasks = Arrays.copyOf(scheduledTasks, scheduledTasks.length * 2);
+    }
+    siftUp(scheduledTaskCount++, task);
+  }
+
+  /**
+   * Removes the task at the given index from the scheduled tasks heap.
+   *
+   * @param index the index of the task to remove
+   * @return the removed task
+   */
+  private ScheduledTask removeTask(int index) {
+    ScheduledTask task = scheduledTasks[index];
+    ScheduledTask last = scheduledTasks[--scheduledTaskCount];
+    scheduledTasks[scheduledTaskCount] = null;
+    if (index < scheduledTaskCount) {
+      siftDown(index, last);
+      if (scheduledTasks[index] == last) {
+        siftUp(index, last);
+      }
+    }
+    task.index = -1;
+    return task;
+  }
+
+  /**
+   * Moves the given task up the heap from the given index until its parent is scheduled before it.
+   */
+  private void siftUp(int index, ScheduledTask task) {
+    while (index > 0) {
+      int parentIndex = (index - 1) >>> 1;
+      ScheduledTask parent = scheduledTasks[parentIndex];
+      if (!task.isBefore(parent)) {
+        break;
+      }
+      setTask(index, parent);
+      index = parentIndex;
+    }
+    setTask(index, task);
+  }
+
+  /**
+   * Moves the given task down the heap from the given index until its children are scheduled after it.
+   */
+  private void siftDown(int index, ScheduledTask task) {
+    int half = scheduledTaskCount >>> 1;
+    while (index < half) {
+      int childIndex = (index << 1) + 1;
+      ScheduledTask child = scheduledTasks[childIndex];
+      int rightIndex = childIndex + 1;
+      if (rightIndex < scheduledTaskCount && scheduledTasks[rightIndex].isBefore(child)) {
+        childIndex = rightIndex;
+        child = scheduledTasks[childIndex];
+      }
+      if (!child.isBefore(task)) {
+        break;
+      }
+      setTask(index, child);
+      index = childIndex;
+    }
+    setTask(index, task);
+  }
+
+  /**
+   * Stores the given task at the given heap index.
+   */
+  private void setTask(int index, ScheduledTask task) {
+    scheduledTasks[index] = task;
+    task.index = index;
   }
 
   /**
@@ -236,6 +353,9 @@ public class DefaultServiceExecutor implements ServiceExecutor {
     private final long interval;
     private final Runnable callback;
     private long time;
+    private long sequence;
+    private int index = -1;
+    private boolean cancelled;
 
     private ScheduledTask(Runnable callback, long delay) {
       this(callback, delay, 0);
@@ -251,34 +371,7 @@ public class DefaultServiceExecutor implements ServiceExecutor {
      * Schedules the task.
      */
     private Scheduled schedule() {
-      // Perform binary search to insert the task at the appropriate position in the tasks list.
-      if (scheduledTasks.isEmpty()) {
-        scheduledTasks.add(this);
-      } else {
-        int l = 0;
-        int u = scheduledTasks.size() - 1;
-        int i;
-        while (true) {
-          i = (u + l) / 2;
-          long t = scheduledTasks.get(i).time;
-          if (t == time) {
-            scheduledTasks.add(i, this);
-            return this;
-          } else if (t < time) {
-            l = i + 1;
-            if (l > u) {
-              scheduledTasks.add(i + 1, this);
-              return this;
-            }
-          } else {
-            u = i - 1;
-            if (l > u) {
-              scheduledTasks.add(i, this);
-              return this;
-            }
-          }
-        }
-      }
+      addTask(this);
       return this;
     }
 
@@ -286,7 +379,7 @@ public class DefaultServiceExecutor implements ServiceExecutor {
      * Reschedules the task.
      */
     private void reschedule(long timestamp) {
-      if (interval > 0) {
+      if (interval > 0 && !cancelled) {
         time = timestamp + interval;
         schedule();
       }
@@ -299,6 +392,13 @@ public class DefaultServiceExecutor implements ServiceExecutor {
       return timestamp > time;
     }
 
+    /**
+     * Returns a boolean value indicating whether the task is scheduled to run before the given task.
+     */
+    private boolean isBefore(ScheduledTask task) {
+      return time < task.time || (time == task.time && sequence < task.sequence);
+    }
+
     /**
      * Executes the task.
      */
@@ -312,7 +412,10 @@ public class DefaultServiceExecutor implements ServiceExecutor {
 
     @Override
     public synchronized void cancel() {
-      scheduledTasks.remove(this);
+      cancelled = true;
+      if (index >= 0) {
+        removeTask(index);
+      }
     }
   }
 }
@@ -0,0 +1,195 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.primitive.operation.impl;
+
+import org.junit.Test;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Method invoker test.
+ */
+public class MethodInvokerTest {
+
+  @Test
+  public void testGeneratedInvokers() throws Exception {
+    TestServiceImpl service = new TestServiceImpl();
+    assertEquals("none", invoke(service, "none"));
+    assertEquals(2L, invoke(service, "one", 1L));
+    assertEquals("a1", invoke(service, "two", "a", 1));
+    assertEquals(6, invoke(service, "three", 1, 2, 3));
+    assertEquals("abcd", invoke(service, "four", "a", "b", "c", "d"));
+    assertEquals(true, invoke(service, "five", "a", "b", true, "d", false));
+    assertEquals(21, invoke(service, "six", 1, 2, 3, 4, 5, 6));
+
+    assertNull(invoke(service, "voidNone"));
+    assertNull(invoke(service, "voidOne", "foo"));
+    assertNull(invoke(service, "voidTwo", "bar", 'c'));
+    assertEquals(3, service.calls.size());
+    assertEquals("bar:c", service.calls.get(2));
+  }
+
+  @Test
+  public void testExceptions() throws Exception {
+    TestServiceImpl service = new TestServiceImpl();
+    try {
+      invoke(service, "fail", "foo");
+      fail();
+    } catch (IllegalStateException e) {
+      assertEquals("foo", e.getMessage());
+    }
+    try {
+      invoke(service, "six", 1, 2, 3, 4, 5, -1);
+      fail();
+    } catch (IllegalArgumentException e) {
+      assertEquals("negative", e.getMessage());
+    }
+  }
+
+  @Test
+  public void testReflectiveFallback() throws Exception {
+    MethodInvoker invoker = MethodInvoker.of(HiddenService.class.getMethod("hidden", String.class));
+    assertFalse(invoker.getClass().getSimpleName().startsWith("Invoker"));
+    assertEquals("foo!", invoker.invoke(new HiddenServiceImpl(), new Object[]{"foo"}));
+
+    invoker = MethodInvoker.of(TestService.class.getMethod("one", long.class));
+    assertTrue(invoker.getClass().getSimpleName().startsWith("Invoker"));
+  }
+
+  @Test
+  public void testCachedInvokers() throws Exception {
+    Method method = TestService.class.getMethod("two", String.class, int.class);
+    MethodInvoker invoker = MethodInvoker.of(method);
+    assertSame(invoker, MethodInvoker.of(TestService.class.getMethod("two", String.class, int.class)));
+    assertEquals("a1", invoker.invoke(new TestServiceImpl(), new Object[]{"a", 1}));
+    assertEquals("b2", invoker.invoke(new TestServiceImpl(), new Object[]{"b", 2}));
+  }
+
+  private static Object invoke(TestService service, String name, Object... args) throws Exception {
+    for (Method method : TestService.class.getMethods()) {
+      if (method.getName().equals(name)) {
+        return MethodInvoker.of(method).invoke(service, args.length == 0 ? null : args);
+      }
+    }
+    throw new AssertionError();
+  }
+
+  public interface TestService {
+    String none();
+
+    long one(long value);
+
+    String two(String a, int b);
+
+    int three(int a, Integer b, int c);
+
+    String four(String a, String b, String c, String d);
+
+    boolean five(String a, String b, boolean c, String d, boolean e);
+
+    int six(int a, int b, int c, int d, int e, int f);
+
+    void voidNone();
+
+    void voidOne(String value);
+
+    void voidTwo(String value, char c);
+
+    void fail(String message);
+  }
+
+  public static class TestServiceImpl implements TestService {
+    private final List<String> calls = new ArrayList<>();
+
+    @Override
+    public String none() {
+      return "none";
+    }
+
+    @Override
+    public long one(long value) {
+      return value + 1;
+    }
+
+    @Override
+    public String two(String a, int b) {
+      return a + b;
+    }
+
+    @Override
+    public int three(int a, Integer b, int c) {
+      return a * b * c;
+    }
+
+    @Override
+    public String four(String a, String b, String c, String d) {
+      return a + b + c + d;
+    }
+
+    @Override
+    public boolean five(String a, String b, boolean c, String d, boolean e) {
+      return c && !e;
+    }
+
+    @Override
+    public int six(int a, int b, int c, int d, int e, int f) {
+      if (f < 0) {
+        throw new IllegalArgumentException("negative");
+      }
+      return a + b + c + d + e + f;
+    }
+
+    @Override
+    public void voidNone() {
+      calls.add("none");
+    }
+
+    @Override
+    public void voidOne(String value) {
+      calls.add(value);
+    }
+
+    @Override
+    public void voidTwo(String value, char c) {
+      calls.add(value + ":" + c);
+    }
+
+    @Override
+    public void fail(String message) {
+      throw new IllegalStateException(message);
+    }
+  }
+
+  interface HiddenService {
+    String hidden(String value);
+  }
+
+  static class HiddenServiceImpl implements HiddenService {
+    @Override
+    public String hidden(String value) {
+      return value + "!";
+    }
+  }
+}
@@ -22,15 +22,22 @@ import io.atomix.primitive.operation.OperationType;
 import io.atomix.primitive.service.impl.DefaultCommit;
 import io.atomix.primitive.service.impl.DefaultServiceExecutor;
 import io.atomix.primitive.session.Session;
+import io.atomix.utils.concurrent.Scheduled;
 import io.atomix.utils.serializer.Namespaces;
 import io.atomix.utils.serializer.Serializer;
 import io.atomix.utils.time.WallClockTimestamp;
 import org.junit.Test;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
@@ -86,12 +93,60 @@ public class DefaultServiceExecutorTest {
     Set<String> calls = new HashSet<>();
     executor.tick(new WallClockTimestamp(1));
     executor.schedule(Duration.ofMillis(100), () -> calls.add("a"));
-    executor.tick(new WallClockTimestamp(100));
+    assertFalse(executor.tickAndReportDirty(new WallClockTimestamp(100)));
     assertFalse(calls.contains("a"));
-    executor.tick(new WallClockTimestamp(101));
+    assertTrue(executor.tickAndReportDirty(new WallClockTimestamp(101)));
     assertTrue(calls.contains("a"));
   }
 
+  @Test
+  public void testScheduledTaskOrdering() throws Exception {
+    ServiceExecutor executor = executor();
+    List<Integer> calls = new ArrayList<>();
+    List<Scheduled> tasks = new ArrayList<>();
+    executor.register(OperationId.command("a"), () -> {
+      // Schedule tasks out of order, with ties executed in the order in which they were scheduled.
+      int[] delays = new int[]{50, 10, 30, 10, 40, 20, 30, 10};
+      for (int i = 0; i < delays.length; i++) {
+        int task = i;
+        tasks.add(executor.schedule(Duration.ofMillis(delays[i]), () -> calls.add(task)));
+      }
+    });
+    executor.apply(commit(OperationId.command("a"), 1, null, 0));
+
+    // Cancel tasks from the head, middle and tail of the schedule.
+    tasks.get(1).cancel();
+    tasks.get(6).cancel();
+    tasks.get(0).cancel();
+    tasks.get(0).cancel();
+
+    assertTrue(executor.tickAndReportDirty(new WallClockTimestamp(25)));
+    assertEquals(Arrays.asList(3, 7, 5), calls);
+    assertTrue(executor.tickAndReportDirty(new WallClockTimestamp(100)));
+    assertEquals(Arrays.asList(3, 7, 5, 2, 4), calls);
+    assertFalse(executor.tickAndReportDirty(new WallClockTimestamp(200)));
+  }
+
+  @Test
+  public void testRepeatingTaskCancellation() throws Exception {
+    ServiceExecutor executor = executor();
+    AtomicInteger count = new AtomicInteger();
+    AtomicReference<Scheduled> task = new AtomicReference<>();
+    executor.register(OperationId.command("a"), () -> {
+      task.set(executor.schedule(Duration.ofMillis(10), Duration.ofMillis(10), () -> {
+        if (count.incrementAndGet() == 3) {
+          task.get().cancel();
+        }
+      }));
+    });
+    executor.apply(commit(OperationId.command("a"), 1, null, 0));
+
+    for (int time = 11; time < 100; time += 10) {
+      executor.tick(new WallClockTimestamp(time));
+    }
+    assertEquals(3, count.get());
+  }
+
   private ServiceExecutor executor() {
     ServiceContext context = mock(ServiceContext.class);
     when(context.serviceId()).thenReturn(PrimitiveId.from(1));
@@ -116,6 +116,8 @@ public class MultiRaftProtocol implements ProxyProtocol {
             .withRecoveryStrategy(config.getRecoveryStrategy())
             .withMaxRetries(config.getMaxRetries())
             .withRetryDelay(config.getRetryDelay())
+            .withCommandBatchWindow(config.getCommandBatchWindow())
+            .withMaxCommandBatchSize(config.getMaxCommandBatchSize())
             .build())
         .collect(Collectors.toList());
     return new DefaultProxyClient<>(primitiveName, primitiveType, this, serviceType, partitions, config.getPartitioner());
@@ -142,6 +142,28 @@ public class MultiRaftProtocolBuilder extends PrimitiveProtocolBuilder<MultiRaft
     return this;
   }
 
+  /**
+   * Sets the window within which commands submitted to the same session are batched.
+   *
+   * @param commandBatchWindow the command batch window, or {@link Duration#ZERO} to disable command batching
+   * @return the proxy builder
+   */
+  public MultiRaftProtocolBuilder withCommandBatchWindow(Duration commandBatchWindow) {
+    config.setCommandBatchWindow(commandBatchWindow);
+    return this;
+  }
+
+  /**
+   * Sets the maximum number of commands in a single batch.
+   *
+   * @param maxCommandBatchSize the maximum number of commands in a single batch
+   * @return the proxy builder
+   */
+  public MultiRaftProtocolBuilder withMaxCommandBatchSize(int maxCommandBatchSize) {
+    config.setMaxCommandBatchSize(maxCommandBatchSize);
+    return this;
+  }
+
   @Override
   public MultiRaftProtocol build() {
     return new MultiRaftProtocol(config);
@@ -36,6 +36,8 @@ public class MultiRaftProtocolConfig extends PrimitiveProtocolConfig<MultiRaftPr
   private Recovery recoveryStrategy = Recovery.RECOVER;
   private int maxRetries = 0;
   private Duration retryDelay = Duration.ofMillis(100);
+  private Duration commandBatchWindow = Duration.ZERO;
+  private int maxCommandBatchSize = 128;
 
   @Override
   public PrimitiveProtocol.Type getType() {
@@ -231,4 +233,50 @@ public class MultiRaftProtocolConfig extends PrimitiveProtocolConfig<MultiRaftPr
     this.retryDelay = retryDelay;
     return this;
   }
+
+  /**
+   * Returns the window within which commands submitted to the same session are batched.
+   *
+   * @return the command batch window, or {@link Duration#ZERO} if command batching is disabled
+   */
+  public Duration getCommandBatchWindow() {
+    return commandBatchWindow;
+  }
+
+  /**
+   * Sets the window within which commands submitted to the same session are batched.
+   * <p>
+   * When set to a positive duration, commands submitted to a session within the window are sent to the cluster as a
+   * single request and committed as a single log entry. Each command still receives its own result, and commands
+   * are applied in the order in which they were submitted. By default, command batching is disabled.
+   *
+   * @param commandBatchWindow the command batch window, or {@link Duration#ZERO} to disable command batching
+   * @return the protocol configuration
+   */
+  public MultiRaftProtocolConfig setCommandBatchWindow(Duration commandBatchWindow) {
+    this.commandBatchWindow = commandBatchWindow;
+    return this;
+  }
+
+  /**
+   * Returns the maximum number of commands in a single batch.
+   *
+   * @return the maximum number of commands in a single batch
+   */
+  public int getMaxCommandBatchSize() {
+    return maxCommandBatchSize;
+  }
+
+  /**
+   * Sets the maximum number of commands in a single batch.
+   * <p>
+   * Once a batch reaches the maximum size it is sent immediately, without waiting for the batch window to expire.
+   *
+   * @param maxCommandBatchSize the maximum number of commands in a single batch
+   * @return the protocol configuration
+   */
+  public MultiRaftProtocolConfig setMaxCommandBatchSize(int maxCommandBatchSize) {
+    this.maxCommandBatchSize = maxCommandBatchSize;
+    return this;
+  }
 }
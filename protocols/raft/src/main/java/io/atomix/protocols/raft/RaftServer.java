@@ -27,6 +27,7 @@ import io.atomix.protocols.raft.protocol.RaftServerProtocol;
 import io.atomix.protocols.raft.storage.RaftStorage;
 import io.atomix.protocols.raft.storage.log.RaftLog;
 import io.atomix.storage.StorageLevel;
+import io.atomix.utils.concurrent.ThreadContextFactory;
 import io.atomix.utils.concurrent.ThreadModel;
 
 import java.net.InetAddress;
@@ -552,6 +553,12 @@ public interface RaftServer {
     private static final Duration DEFAULT_SESSION_TIMEOUT = Duration.ofMillis(5000);
     private static final ThreadModel DEFAULT_THREAD_MODEL = ThreadModel.SHARED_THREAD_POOL;
     private static final int DEFAULT_THREAD_POOL_SIZE = Math.max(Math.min(Runtime.getRuntime().availableProcessors() * 2, 8), 4);
+    private static final int DEFAULT_MAX_APPENDS_IN_FLIGHT = 2;
+    private static final int DEFAULT_MAX_APPEND_BATCH_SIZE = 1024 * 32;
+    private static final int DEFAULT_MAX_SNAPSHOT_CHUNKS_IN_FLIGHT = 1;
+    private static final long DEFAULT_MAX_SNAPSHOT_INSTALL_RATE = 0;
+    private static final Duration DEFAULT_READ_LEASE_TIMEOUT = Duration.ZERO;
+    private static final Duration DEFAULT_MAX_CLOCK_DRIFT = Duration.ofMillis(100);
 
     protected String name;
     protected MemberId localMemberId;
@@ -563,7 +570,15 @@ public interface RaftServer {
     protected Duration sessionTimeout = DEFAULT_SESSION_TIMEOUT;
     protected PrimitiveTypeRegistry primitiveTypes;
     protected ThreadModel threadModel = DEFAULT_THREAD_MODEL;
+    protected ThreadContextFactory threadContextFactory;
     protected int threadPoolSize = DEFAULT_THREAD_POOL_SIZE;
+    protected boolean parallelApply;
+    protected int maxAppendsInFlight = DEFAULT_MAX_APPENDS_IN_FLIGHT;
+    protected int maxAppendBatchSize = DEFAULT_MAX_APPEND_BATCH_SIZE;
+    protected int maxSnapshotChunksInFlight = DEFAULT_MAX_SNAPSHOT_CHUNKS_IN_FLIGHT;
+    protected long maxSnapshotInstallRate = DEFAULT_MAX_SNAPSHOT_INSTALL_RATE;
+    protected Duration readLeaseTimeout = DEFAULT_READ_LEASE_TIMEOUT;
+    protected Duration maxClockDrift = DEFAULT_MAX_CLOCK_DRIFT;
 
     protected Builder(MemberId localMemberId) {
       this.localMemberId = checkNotNull(localMemberId, "localMemberId cannot be null");
@@ -615,6 +630,23 @@ public interface RaftServer {
       return this;
     }
 
+    /**
+     * Sets a shared thread context factory on which to run the server.
+     * <p>
+     * When a thread context factory is provided, the server creates its internal Raft, state machine, load and
+     * compaction contexts and its session contexts from the factory rather than starting dedicated threads,
+     * allowing many servers to be multiplexed onto a bounded set of threads. The factory is not closed when the
+     * server is shut down. By default, each server starts its own threads according to the
+     * {@link #withThreadModel(ThreadModel) thread model}.
+     *
+     * @param threadContextFactory the shared thread context factory
+     * @return the server builder
+     */
+    public Builder withThreadContextFactory(ThreadContextFactory threadContextFactory) {
+      this.threadContextFactory = checkNotNull(threadContextFactory, "threadContextFactory cannot be null");
+      return this;
+    }
+
     /**
      * Sets the storage module.
      *
@@ -698,5 +730,136 @@ public interface RaftServer {
       this.threadPoolSize = threadPoolSize;
       return this;
     }
+
+    /**
+     * Sets whether to apply operations to independent services in parallel.
+     * <p>
+     * When parallel apply is enabled, each service is applied on its own ordered thread context in a dedicated pool
+     * sized by the {@link #withThreadPoolSize(int) thread pool size}. Commands and queries for a service are still
+     * applied in log order, but operations on different services may be applied concurrently. Session and
+     * configuration changes wait for all services to catch up before being applied. By default, all operations
+     * are applied sequentially on a single state machine thread.
+     *
+     * @param parallelApply whether to apply operations to independent services in parallel
+     * @return The server builder.
+     */
+    public Builder withParallelApply(boolean parallelApply) {
+      this.parallelApply = parallelApply;
+      return this;
+    }
+
+    /**
+     * Sets the maximum number of append requests the leader sends to a follower before awaiting responses.
+     * <p>
+     * While appends to a follower are succeeding, the leader optimistically advances the follower's next index and
+     * pipelines up to this many append requests. When a request is rejected, the leader waits for in-flight requests
+     * to complete and resumes from the index reported by the follower. By default, the leader pipelines up to
+     * {@code 2} append requests per follower.
+     *
+     * @param maxAppendsInFlight The maximum number of in-flight append requests per follower.
+     * @return The server builder.
+     * @throws IllegalArgumentException if the maximum number of appends is not positive
+     */
+    public Builder withMaxAppendsInFlight(int maxAppendsInFlight) {
+      checkArgument(maxAppendsInFlight > 0, "maxAppendsInFlight must be positive");
+      this.maxAppendsInFlight = maxAppendsInFlight;
+      return this;
+    }
+
+    /**
+     * Sets the maximum size of the entries the leader sends in a single append request in bytes.
+     * <p>
+     * A single entry larger than the batch size is always sent in its own request. By default, append requests
+     * are limited to {@code 32KB} of entries.
+     *
+     * @param maxAppendBatchSize The maximum append batch size in bytes.
+     * @return The server builder.
+     * @throws IllegalArgumentException if the batch size is not positive
+     */
+    public Builder withMaxAppendBatchSize(int maxAppendBatchSize) {
+      checkArgument(maxAppendBatchSize > 0, "maxAppendBatchSize must be positive");
+      this.maxAppendBatchSize = maxAppendBatchSize;
+      return this;
+    }
+
+    /**
+     * Sets the maximum number of snapshot chunks the leader sends to a member before awaiting responses.
+     * <p>
+     * Pipelining snapshot chunks hides the round trip latency between chunks when installing large snapshots on
+     * followers. By default, the leader sends one chunk at a time.
+     *
+     * @param maxSnapshotChunksInFlight The maximum number of in-flight snapshot chunks per member.
+     * @return The server builder.
+     * @throws IllegalArgumentException if the maximum number of chunks is not positive
+     */
+    public Builder withMaxSnapshotChunksInFlight(int maxSnapshotChunksInFlight) {
+      checkArgument(maxSnapshotChunksInFlight > 0, "maxSnapshotChunksInFlight must be positive");
+      this.maxSnapshotChunksInFlight = maxSnapshotChunksInFlight;
+      return this;
+    }
+
+    /**
+     * Sets the maximum rate at which the leader sends snapshots to members in bytes per second.
+     * <p>
+     * The rate is shared by all members to which the leader is installing snapshots, preventing snapshot
+     * installs from saturating the network and delaying append requests. By default, snapshot installs are
+     * not throttled.
+     *
+     * @param maxSnapshotInstallRate The maximum snapshot install rate in bytes per second, or {@code 0} to
+     *                               disable throttling.
+     * @return The server builder.
+     * @throws IllegalArgumentException if the rate is negative
+     */
+    public Builder withMaxSnapshotInstallRate(long maxSnapshotInstallRate) {
+      checkArgument(maxSnapshotInstallRate >= 0, "maxSnapshotInstallRate cannot be negative");
+      this.maxSnapshotInstallRate = maxSnapshotInstallRate;
+      return this;
+    }
+
+    /**
+     * Sets the duration of the read leases the leader grants to followers.
+     * <p>
+     * When read leases are enabled, the leader grants a lease to each responsive follower on append requests.
+     * While a follower holds a lease for the current term, it serves
+     * {@link io.atomix.primitive.operation.OperationType#QUERY} operations with
+     * {@link io.atomix.protocols.raft.ReadConsistency#LINEARIZABLE_LEASE} consistency from its local state machine
+     * rather than forwarding them to the leader. In exchange, the leader does not acknowledge a write until every
+     * follower holding a lease has learned that the write is committed or its lease has expired, so leases add
+     * latency to writes when followers lag. Leases are only granted when the lease timeout plus the
+     * {@link #withMaxClockDrift(Duration) maximum clock drift} is shorter than the election timeout.
+     * By default, read leases are disabled.
+     *
+     * @param readLeaseTimeout The read lease timeout, or {@link Duration#ZERO} to disable read leases.
+     * @return The server builder.
+     * @throws NullPointerException if the lease timeout is null
+     * @throws IllegalArgumentException if the lease timeout is negative
+     */
+    public Builder withReadLeaseTimeout(Duration readLeaseTimeout) {
+      checkNotNull(readLeaseTimeout, "readLeaseTimeout cannot be null");
+      checkArgument(!readLeaseTimeout.isNegative(), "readLeaseTimeout cannot be negative");
+      this.readLeaseTimeout = readLeaseTimeout;
+      return this;
+    }
+
+    /**
+     * Sets the maximum clock drift between members for read leases.
+     * <p>
+     * Followers measure read leases from the time the leader sent them less the maximum clock drift, and the leader
+     * assumes a follower's read lease is valid for the lease timeout plus the maximum clock drift after the lease was
+     * sent. The drift must bound the difference between members' clocks over a lease period. Followers don't serve
+     * lease reads if the lease timeout is not greater than the maximum clock drift. By default, the maximum clock
+     * drift is {@code 100} milliseconds.
+     *
+     * @param maxClockDrift The maximum clock drift.
+     * @return The server builder.
+     * @throws NullPointerException if the clock drift is null
+     * @throws IllegalArgumentException if the clock drift is negative
+     */
+    public Builder withMaxClockDrift(Duration maxClockDrift) {
+      checkNotNull(maxClockDrift, "maxClockDrift cannot be null");
+      checkArgument(!maxClockDrift.isNegative(), "maxClockDrift cannot be negative");
+      this.maxClockDrift = maxClockDrift;
+      return this;
+    }
   }
 }
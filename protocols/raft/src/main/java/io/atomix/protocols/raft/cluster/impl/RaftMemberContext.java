@@ -27,7 +27,6 @@ import static com.google.common.base.Preconditions.checkNotNull;
  * Cluster member state.
  */
 public final class RaftMemberContext {
-  private static final int MAX_APPENDS = 2;
   private static final int APPEND_WINDOW_SIZE = 8;
   private final DefaultRaftMember member;
   private long term;
@@ -37,11 +36,13 @@ public final class RaftMemberContext {
   private int nextSnapshotOffset;
   private long matchIndex;
   private long heartbeatTime;
+  private long leaseExpiration;
+  private long leaseCommitIndex;
   private int appending;
   private boolean appendSucceeded;
   private long appendTime;
   private boolean configuring;
-  private boolean installing;
+  private int installing;
   private int failures;
   private long failureTime;
   private volatile RaftLogReader reader;
@@ -60,10 +61,12 @@ public final class RaftMemberContext {
     nextSnapshotOffset = 0;
     matchIndex = 0;
     heartbeatTime = 0;
+    leaseExpiration = 0;
+    leaseCommitIndex = 0;
     appending = 0;
     timeStats.clear();
     configuring = false;
-    installing = false;
+    installing = 0;
     appendSucceeded = false;
     failures = 0;
     failureTime = 0;
@@ -208,11 +211,15 @@ public final class RaftMemberContext {
 
   /**
    * Returns a boolean indicating whether an append request can be sent to the member.
+   * <p>
+   * Multiple append requests may be pipelined to the member only while prior appends are succeeding. Once an append
+   * is rejected, in-flight requests must complete before the next request is sent from the rolled back index.
    *
+   * @param maxAppends The maximum number of in-flight append requests.
    * @return Indicates whether an append request can be sent to the member.
    */
-  public boolean canAppend() {
-    return appending == 0 || (appendSucceeded && appending < MAX_APPENDS && System.currentTimeMillis() - (timeStats.getMean() / MAX_APPENDS) >= appendTime);
+  public boolean canAppend(int maxAppends) {
+    return appending == 0 || (appendSucceeded && appending < maxAppends && System.currentTimeMillis() - (timeStats.getMean() / maxAppends) >= appendTime);
   }
 
   /**
@@ -298,24 +305,34 @@ public final class RaftMemberContext {
   /**
    * Returns a boolean indicating whether an install request can be sent to the member.
    *
+   * @param maxInstalls The maximum number of in-flight install requests.
    * @return Indicates whether an install request can be sent to the member.
    */
-  public boolean canInstall() {
-    return !installing;
+  public boolean canInstall(int maxInstalls) {
+    return installing < maxInstalls;
+  }
+
+  /**
+   * Returns a boolean indicating whether any install requests to the member are in flight.
+   *
+   * @return Indicates whether any install requests to the member are in flight.
+   */
+  public boolean isInstalling() {
+    return installing > 0;
   }
 
   /**
    * Starts an install request to the member.
    */
   public void startInstall() {
-    installing = true;
+    installing++;
   }
 
   /**
    * Completes an install request to the member.
    */
   public void completeInstall() {
-    installing = false;
+    installing--;
   }
 
   /**
@@ -336,6 +353,44 @@ public final class RaftMemberContext {
     this.heartbeatTime = Math.max(this.heartbeatTime, heartbeatTime);
   }
 
+  /**
+   * Returns the time until which the member may hold a read lease.
+   *
+   * @return The member's read lease expiration time.
+   */
+  public long getLeaseExpiration() {
+    return leaseExpiration;
+  }
+
+  /**
+   * Sets the time until which the member may hold a read lease.
+   * <p>
+   * The lease expiration is never decreased, since the member may still hold a previously granted lease.
+   *
+   * @param leaseExpiration The member's read lease expiration time.
+   */
+  public void setLeaseExpiration(long leaseExpiration) {
+    this.leaseExpiration = Math.max(this.leaseExpiration, leaseExpiration);
+  }
+
+  /**
+   * Returns the highest commit index the member has acknowledged.
+   *
+   * @return The member's acknowledged commit index.
+   */
+  public long getLeaseCommitIndex() {
+    return leaseCommitIndex;
+  }
+
+  /**
+   * Sets the highest commit index the member has acknowledged.
+   *
+   * @param leaseCommitIndex The member's acknowledged commit index.
+   */
+  public void setLeaseCommitIndex(long leaseCommitIndex) {
+    this.leaseCommitIndex = Math.max(this.leaseCommitIndex, leaseCommitIndex);
+  }
+
   /**
    * Returns the member failure count.
    *
@@ -142,7 +142,9 @@ public class DefaultRaftClient implements RaftClient {
                 communicationStrategy,
                 threadContextFactory.createContext(),
                 minTimeout,
-                maxTimeout));
+                maxTimeout,
+                commandBatchWindow,
+                maxCommandBatchSize));
 
         SessionClient proxy;
 
@@ -243,10 +243,16 @@ public class DefaultRaftServer implements RaftServer {
         storage = RaftStorage.builder().build();
       }
 
-      RaftContext raft = new RaftContext(name, localMemberId, membershipService, protocol, storage, primitiveTypes, threadModel, threadPoolSize);
+      RaftContext raft = new RaftContext(name, localMemberId, membershipService, protocol, storage, primitiveTypes, threadModel, threadPoolSize, parallelApply, threadContextFactory);
       raft.setElectionTimeout(electionTimeout);
       raft.setHeartbeatInterval(heartbeatInterval);
       raft.setSessionTimeout(sessionTimeout);
+      raft.setMaxAppendsInFlight(maxAppendsInFlight);
+      raft.setMaxAppendBatchSize(maxAppendBatchSize);
+      raft.setMaxSnapshotChunksInFlight(maxSnapshotChunksInFlight);
+      raft.setMaxSnapshotInstallRate(maxSnapshotInstallRate);
+      raft.setReadLeaseTimeout(readLeaseTimeout);
+      raft.setMaxClockDrift(maxClockDrift);
 
       return new DefaultRaftServer(raft);
     }
@@ -17,6 +17,8 @@ package io.atomix.protocols.raft.impl;
 
 import io.atomix.utils.misc.ArraySizeHashPrinter;
 
+import java.util.List;
+
 import static com.google.common.base.MoreObjects.toStringHelper;
 
 /**
@@ -59,20 +61,42 @@ public final class OperationResult {
     return new OperationResult(index, eventIndex, error, null);
   }
 
+  /**
+   * Returns the result of a batch of operations.
+   *
+   * @param index the result index
+   * @param eventIndex the session's last event index
+   * @param results the results of the individual operations in the batch
+   * @return the operation result
+   */
+  public static OperationResult batch(long index, long eventIndex, List<OperationResult> results) {
+    return new OperationResult(index, eventIndex, null, null, results);
+  }
+
   private final long index;
   private final long eventIndex;
   private final Throwable error;
   private final byte[] result;
+  private final List<OperationResult> results;
 
   private OperationResult(long index, long eventIndex, Throwable error, byte[] result) {
+    this(index, eventIndex, error, result, null);
+  }
+
+  private OperationResult(long index, long eventIndex, Throwable error, byte[] result, List<OperationResult> results) {
     this.index = index;
     this.eventIndex = eventIndex;
     this.error = error;
     this.result = result;
+    this.results = results;
   }
 
   /**
    * Returns the result index.
+   * <p>
+   * The result index is the index of the log entry in which the operation was committed, which clients use to
+   * sequence subsequent queries. It may differ from the {@link io.atomix.primitive.service.Commit#index() commit
+   * index} at which the operation was applied to the service.
    *
    * @return The result index.
    */
@@ -107,6 +131,24 @@ public final class OperationResult {
     return result;
   }
 
+  /**
+   * Returns the results of the individual operations in a batch.
+   *
+   * @return the results of the operations in the batch, or {@code null} if the result is not a batch result
+   */
+  public List<OperationResult> results() {
+    return results;
+  }
+
+  /**
+   * Returns whether the result is the result of a batch of operations.
+   *
+   * @return whether the result is the result of a batch of operations
+   */
+  public boolean isBatch() {
+    return results != null;
+  }
+
   /**
    * Returns whether the operation succeeded.
    *
@@ -132,6 +174,7 @@ public final class OperationResult {
         .add("eventIndex", eventIndex)
         .add("error", error)
         .add("result", ArraySizeHashPrinter.of(result))
+        .add("results", results)
         .toString();
   }
 }
@@ -39,6 +39,8 @@ import io.atomix.protocols.raft.storage.RaftStorage;
 import io.atomix.protocols.raft.storage.log.RaftLog;
 import io.atomix.protocols.raft.storage.log.RaftLogReader;
 import io.atomix.protocols.raft.storage.log.RaftLogWriter;
+import io.atomix.protocols.raft.storage.snapshot.PendingSnapshot;
+import io.atomix.protocols.raft.storage.snapshot.Snapshot;
 import io.atomix.protocols.raft.storage.snapshot.SnapshotStore;
 import io.atomix.protocols.raft.storage.system.MetaStore;
 import io.atomix.protocols.raft.utils.LoadMonitor;
@@ -46,16 +48,22 @@ import io.atomix.utils.concurrent.SingleThreadContext;
 import io.atomix.utils.concurrent.ThreadContext;
 import io.atomix.utils.concurrent.ThreadContextFactory;
 import io.atomix.utils.concurrent.ThreadModel;
+import io.atomix.utils.concurrent.ThreadPoolContextFactory;
 import io.atomix.utils.logging.ContextualLoggerFactory;
 import io.atomix.utils.logging.LoggerContext;
 import org.slf4j.Logger;
 
 import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.NavigableMap;
 import java.util.Objects;
+import java.util.Queue;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.CopyOnWriteArraySet;
-import java.util.concurrent.ExecutionException;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 
@@ -96,19 +104,32 @@ public class RaftContext implements AutoCloseable {
   private final SnapshotStore snapshotStore;
   private final RaftServiceManager stateMachine;
   private final ThreadContextFactory threadContextFactory;
+  private final ThreadContextFactory applyContextFactory;
+  private final ThreadContextFactory sharedContextFactory;
   private final ThreadContext loadContext;
   private final ThreadContext stateContext;
   private final ThreadContext compactionContext;
   protected RaftRole role = new InactiveRole(this);
+  private final Queue<Runnable> pendingRequests = new ArrayDeque<>();
+  private boolean roleStarting;
   private Duration electionTimeout = Duration.ofMillis(500);
   private Duration heartbeatInterval = Duration.ofMillis(150);
   private Duration sessionTimeout = Duration.ofMillis(5000);
+  private int maxAppendsInFlight = 2;
+  private int maxAppendBatchSize = 1024 * 32;
+  private int maxSnapshotChunksInFlight = 1;
+  private long maxSnapshotInstallRate;
+  private Duration readLeaseTimeout = Duration.ZERO;
+  private Duration maxClockDrift = Duration.ofMillis(100);
+  private PendingSnapshot pendingSnapshot;
   private volatile MemberId leader;
   private volatile long term;
   private MemberId lastVotedFor;
   private long commitIndex;
+  private CompletableFuture<Void> commitFuture = CompletableFuture.completedFuture(null);
   private volatile long firstCommitIndex;
   private volatile long lastApplied;
+  private final NavigableMap<Long, CompletableFuture<Void>> appliedFutures = new TreeMap<>();
 
   @SuppressWarnings("unchecked")
   public RaftContext(
@@ -119,7 +140,9 @@ public class RaftContext implements AutoCloseable {
       RaftStorage storage,
       PrimitiveTypeRegistry primitiveTypes,
       ThreadModel threadModel,
-      int threadPoolSize) {
+      int threadPoolSize,
+      boolean parallelApply,
+      ThreadContextFactory sharedContextFactory) {
     this.name = checkNotNull(name, "name cannot be null");
     this.membershipService = checkNotNull(membershipService, "membershipService cannot be null");
     this.protocol = checkNotNull(protocol, "protocol cannot be null");
@@ -129,13 +152,26 @@ public class RaftContext implements AutoCloseable {
         .addValue(name)
         .build());
 
-    String baseThreadName = String.format("raft-server-%s", name);
-    this.threadContext = new SingleThreadContext(namedThreads(baseThreadName, log));
-    this.loadContext = new SingleThreadContext(namedThreads(baseThreadName + "-load", log));
-    this.stateContext = new SingleThreadContext(namedThreads(baseThreadName + "-state", log));
-    this.compactionContext = new SingleThreadContext(namedThreads(baseThreadName + "-compaction", log));
+    this.sharedContextFactory = sharedContextFactory;
 
-    this.threadContextFactory = threadModel.factory(baseThreadName + "-%d", threadPoolSize, log);
+    String baseThreadName = String.format("raft-server-%s", name);
+    if (sharedContextFactory != null) {
+      // Multiplex the server's contexts onto the shared factory's threads rather than creating dedicated threads.
+      this.threadContext = sharedContextFactory.createContext();
+      this.loadContext = sharedContextFactory.createContext();
+      this.stateContext = sharedContextFactory.createContext();
+      this.compactionContext = sharedContextFactory.createContext();
+      this.threadContextFactory = sharedContextFactory;
+    } else {
+      this.threadContext = new SingleThreadContext(namedThreads(baseThreadName, log));
+      this.loadContext = new SingleThreadContext(namedThreads(baseThreadName + "-load", log));
+      this.stateContext = new SingleThreadContext(namedThreads(baseThreadName + "-state", log));
+      this.compactionContext = new SingleThreadContext(namedThreads(baseThreadName + "-compaction", log));
+      this.threadContextFactory = threadModel.factory(baseThreadName + "-%d", threadPoolSize, log);
+    }
+    this.applyContextFactory = parallelApply
+        ? new ThreadPoolContextFactory(baseThreadName + "-apply-%d", threadPoolSize, log)
+        : null;
 
     this.loadMonitor = new LoadMonitor(LOAD_WINDOW_SIZE, HIGH_LOAD_THRESHOLD, loadContext);
 
@@ -154,8 +190,17 @@ public class RaftContext implements AutoCloseable {
     // Open the snapshot store.
     this.snapshotStore = storage.openSnapshotStore();
 
+    // Resume a partially installed snapshot if one was in progress when the server was stopped.
+    Snapshot partialSnapshot = snapshotStore.resumeSnapshot(meta.loadInstallIndex(), meta.loadInstallLength());
+    if (partialSnapshot != null) {
+      this.pendingSnapshot = new PendingSnapshot(partialSnapshot, meta.loadInstallOffset(), meta.loadInstallLength());
+      log.debug("Resuming {}", pendingSnapshot);
+    } else {
+      meta.storeInstallProgress(0, 0, 0);
+    }
+
     // Create a new internal server state machine.
-    this.stateMachine = new RaftServiceManager(this, stateContext, compactionContext, threadContextFactory);
+    this.stateMachine = new RaftServiceManager(this, stateContext, compactionContext, threadContextFactory, applyContextFactory);
 
     this.cluster = new RaftClusterContext(localMemberId, this);
 
@@ -336,6 +381,123 @@ public class RaftContext implements AutoCloseable {
     return sessionTimeout;
   }
 
+  /**
+   * Returns the maximum number of append requests to send to a member before awaiting responses.
+   *
+   * @return The maximum number of in-flight append requests per member.
+   */
+  public int getMaxAppendsInFlight() {
+    return maxAppendsInFlight;
+  }
+
+  /**
+   * Sets the maximum number of append requests to send to a member before awaiting responses.
+   *
+   * @param maxAppendsInFlight The maximum number of in-flight append requests per member.
+   */
+  public void setMaxAppendsInFlight(int maxAppendsInFlight) {
+    checkArgument(maxAppendsInFlight > 0, "maxAppendsInFlight must be positive");
+    this.maxAppendsInFlight = maxAppendsInFlight;
+  }
+
+  /**
+   * Returns the maximum size of the entries in a single append request in bytes.
+   *
+   * @return The maximum append batch size in bytes.
+   */
+  public int getMaxAppendBatchSize() {
+    return maxAppendBatchSize;
+  }
+
+  /**
+   * Sets the maximum size of the entries in a single append request in bytes.
+   *
+   * @param maxAppendBatchSize The maximum append batch size in bytes.
+   */
+  public void setMaxAppendBatchSize(int maxAppendBatchSize) {
+    checkArgument(maxAppendBatchSize > 0, "maxAppendBatchSize must be positive");
+    this.maxAppendBatchSize = maxAppendBatchSize;
+  }
+
+  /**
+   * Returns the maximum number of snapshot chunks to send to a member before awaiting responses.
+   *
+   * @return The maximum number of in-flight snapshot chunks per member.
+   */
+  public int getMaxSnapshotChunksInFlight() {
+    return maxSnapshotChunksInFlight;
+  }
+
+  /**
+   * Sets the maximum number of snapshot chunks to send to a member before awaiting responses.
+   *
+   * @param maxSnapshotChunksInFlight The maximum number of in-flight snapshot chunks per member.
+   */
+  public void setMaxSnapshotChunksInFlight(int maxSnapshotChunksInFlight) {
+    checkArgument(maxSnapshotChunksInFlight > 0, "maxSnapshotChunksInFlight must be positive");
+    this.maxSnapshotChunksInFlight = maxSnapshotChunksInFlight;
+  }
+
+  /**
+   * Returns the maximum rate at which snapshots are sent to members in bytes per second.
+   *
+   * @return The maximum snapshot install rate in bytes per second, or {@code 0} if installs are not throttled.
+   */
+  public long getMaxSnapshotInstallRate() {
+    return maxSnapshotInstallRate;
+  }
+
+  /**
+   * Sets the maximum rate at which snapshots are sent to members in bytes per second.
+   *
+   * @param maxSnapshotInstallRate The maximum snapshot install rate in bytes per second, or {@code 0} to disable
+   *                               throttling.
+   */
+  public void setMaxSnapshotInstallRate(long maxSnapshotInstallRate) {
+    checkArgument(maxSnapshotInstallRate >= 0, "maxSnapshotInstallRate cannot be negative");
+    this.maxSnapshotInstallRate = maxSnapshotInstallRate;
+  }
+
+  /**
+   * Returns the duration of the read leases granted to followers.
+   *
+   * @return The read lease timeout, or {@link Duration#ZERO} if read leases are disabled.
+   */
+  public Duration getReadLeaseTimeout() {
+    return readLeaseTimeout;
+  }
+
+  /**
+   * Sets the duration of the read leases granted to followers.
+   *
+   * @param readLeaseTimeout The read lease timeout, or {@link Duration#ZERO} to disable read leases.
+   */
+  public void setReadLeaseTimeout(Duration readLeaseTimeout) {
+    checkNotNull(readLeaseTimeout, "readLeaseTimeout cannot be null");
+    checkArgument(!readLeaseTimeout.isNegative(), "readLeaseTimeout cannot be negative");
+    this.readLeaseTimeout = readLeaseTimeout;
+  }
+
+  /**
+   * Returns the maximum clock drift between members for read leases.
+   *
+   * @return The maximum clock drift.
+   */
+  public Duration getMaxClockDrift() {
+    return maxClockDrift;
+  }
+
+  /**
+   * Sets the maximum clock drift between members for read leases.
+   *
+   * @param maxClockDrift The maximum clock drift.
+   */
+  public void setMaxClockDrift(Duration maxClockDrift) {
+    checkNotNull(maxClockDrift, "maxClockDrift cannot be null");
+    checkArgument(!maxClockDrift.isNegative(), "maxClockDrift cannot be negative");
+    this.maxClockDrift = maxClockDrift;
+  }
+
   /**
    * Sets the session timeout.
    *
@@ -467,7 +629,10 @@ public class RaftContext implements AutoCloseable {
     long previousCommitIndex = this.commitIndex;
     if (commitIndex > previousCommitIndex) {
       this.commitIndex = commitIndex;
-      logWriter.commit(Math.min(commitIndex, logWriter.getLastIndex()));
+      CompletableFuture<Void> commitFuture = logWriter.commit(Math.min(commitIndex, logWriter.getLastIndex()), threadContext);
+      if (!commitFuture.isDone() || this.commitFuture.isDone()) {
+        this.commitFuture = commitFuture;
+      }
       long configurationIndex = cluster.getConfiguration().index();
       if (configurationIndex > previousCommitIndex && configurationIndex <= commitIndex) {
         cluster.commit();
@@ -486,6 +651,18 @@ public class RaftContext implements AutoCloseable {
     return commitIndex;
   }
 
+  /**
+   * Returns a future to be completed once committed entries have been flushed to disk.
+   * <p>
+   * When group commit is enabled, the flush on commit may be deferred. Committed entries must not be applied to the
+   * state machine until the future has been completed.
+   *
+   * @return a future to be completed once committed entries have been flushed to disk
+   */
+  public CompletableFuture<Void> getCommitFuture() {
+    return commitFuture;
+  }
+
   /**
    * Sets the first commit index.
    *
@@ -513,6 +690,7 @@ public class RaftContext implements AutoCloseable {
    */
   public void setLastApplied(long lastApplied) {
     this.lastApplied = Math.max(this.lastApplied, lastApplied);
+    completeAppliedFutures(this.lastApplied);
     if (state == State.ACTIVE) {
       threadContext.execute(() -> {
         if (state == State.ACTIVE && this.lastApplied >= firstCommitIndex) {
@@ -532,6 +710,32 @@ public class RaftContext implements AutoCloseable {
     return lastApplied;
   }
 
+  /**
+   * Returns a future to be completed once entries up to the given index have been applied.
+   * <p>
+   * Operations submitted to the state machine once the returned future has been completed are guaranteed to be
+   * applied after all entries up to the given index.
+   *
+   * @param index the index to await
+   * @return a future to be completed once the given index has been applied
+   */
+  public CompletableFuture<Void> awaitApplied(long index) {
+    checkThread();
+    if (lastApplied >= index) {
+      return CompletableFuture.completedFuture(null);
+    }
+    return appliedFutures.computeIfAbsent(index, i -> new CompletableFuture<>());
+  }
+
+  /**
+   * Completes futures awaiting indexes up to the given applied index.
+   */
+  private void completeAppliedFutures(long index) {
+    while (!appliedFutures.isEmpty() && appliedFutures.firstKey() <= index) {
+      appliedFutures.pollFirstEntry().getValue().complete(null);
+    }
+  }
+
   /**
    * Returns the server load monitor.
    *
@@ -640,6 +844,39 @@ public class RaftContext implements AutoCloseable {
     return snapshotStore;
   }
 
+  /**
+   * Returns the snapshot currently being installed on this server.
+   * <p>
+   * The pending snapshot is retained across role changes so that a snapshot install may be resumed from the last
+   * received chunk when a new leader is elected or the server is restarted.
+   *
+   * @return The pending snapshot or {@code null} if no snapshot is being installed.
+   */
+  public PendingSnapshot getPendingSnapshot() {
+    return pendingSnapshot;
+  }
+
+  /**
+   * Sets the snapshot currently being installed on this server, persisting the install progress.
+   *
+   * @param pendingSnapshot The pending snapshot or {@code null} if no snapshot is being installed.
+   */
+  public void setPendingSnapshot(PendingSnapshot pendingSnapshot) {
+    this.pendingSnapshot = pendingSnapshot;
+    updatePendingSnapshot();
+  }
+
+  /**
+   * Persists the progress of the pending snapshot.
+   */
+  public void updatePendingSnapshot() {
+    if (pendingSnapshot != null) {
+      meta.storeInstallProgress(pendingSnapshot.snapshot().index(), pendingSnapshot.nextOffset(), pendingSnapshot.length());
+    } else {
+      meta.storeInstallProgress(0, 0, 0);
+    }
+  }
+
   /**
    * Checks that the current thread is the state context thread.
    */
@@ -661,6 +898,7 @@ public class RaftContext implements AutoCloseable {
     protocol.registerReconfigureHandler(request -> runOnContext(() -> role.onReconfigure(request)));
     protocol.registerLeaveHandler(request -> runOnContext(() -> role.onLeave(request)));
     protocol.registerTransferHandler(request -> runOnContext(() -> role.onTransfer(request)));
+    protocol.registerReadIndexHandler(request -> runOnContext(() -> role.onReadIndex(request)));
     protocol.registerAppendHandler(request -> runOnContext(() -> role.onAppend(request)));
     protocol.registerPollHandler(request -> runOnContext(() -> role.onPoll(request)));
     protocol.registerVoteHandler(request -> runOnContext(() -> role.onVote(request)));
@@ -671,17 +909,32 @@ public class RaftContext implements AutoCloseable {
   private <R extends RaftResponse> CompletableFuture<R> runOnContext(Supplier<CompletableFuture<R>> function) {
     CompletableFuture<R> future = new CompletableFuture<>();
     threadContext.execute(() -> {
-      function.get().whenComplete((response, error) -> {
+      // If the current role has not yet started, defer the request until it has.
+      Runnable request = () -> function.get().whenComplete((response, error) -> {
         if (error == null) {
           future.complete(response);
         } else {
           future.completeExceptionally(error);
         }
       });
+      if (roleStarting || !pendingRequests.isEmpty()) {
+        pendingRequests.add(request);
+      } else {
+        request.run();
+      }
     });
     return future;
   }
 
+  /**
+   * Handles requests that were deferred while the current role was starting, in the order in which they were received.
+   */
+  private void handlePendingRequests() {
+    while (!roleStarting && !pendingRequests.isEmpty()) {
+      pendingRequests.poll().run();
+    }
+  }
+
   /**
    * Unregisters server handlers on the configured protocol.
    */
@@ -696,6 +949,7 @@ public class RaftContext implements AutoCloseable {
     protocol.unregisterReconfigureHandler();
     protocol.unregisterLeaveHandler();
     protocol.unregisterTransferHandler();
+    protocol.unregisterReadIndexHandler();
     protocol.unregisterAppendHandler();
     protocol.unregisterPollHandler();
     protocol.unregisterVoteHandler();
@@ -792,23 +1046,57 @@ public class RaftContext implements AutoCloseable {
     log.info("Transitioning to {}", role);
 
     // Close the old state.
-    try {
-      this.role.stop().get();
-    } catch (InterruptedException | ExecutionException e) {
-      throw new IllegalStateException("failed to close Raft state", e);
-    }
-
-    // Force state transitions to occur synchronously in order to prevent race conditions.
-    try {
-      this.role = createRole(role);
-      this.role.start().get();
-    } catch (InterruptedException | ExecutionException e) {
-      throw new IllegalStateException("failed to initialize Raft state", e);
+    completeTransition(this.role.stop(), "failed to close Raft state");
+
+    // Roles are started synchronously unless they have to wait on another thread context, e.g. for the log to be
+    // compacted. Requests are not handled until the new role has started, so a role that starts asynchronously
+    // defers requests until its start future is completed.
+    RaftRole startingRole = createRole(role);
+    this.role = startingRole;
+    CompletableFuture<RaftRole> startFuture = startingRole.start();
+    completeTransition(startFuture, "failed to initialize Raft state");
+    if (startFuture.isDone()) {
+      roleStarting = false;
+      if (!pendingRequests.isEmpty()) {
+        threadContext.execute(this::handlePendingRequests);
+      }
+    } else {
+      roleStarting = true;
+      startFuture.whenComplete((result, error) -> threadContext.execute(() -> {
+        if (this.role == startingRole) {
+          roleStarting = false;
+          handlePendingRequests();
+        }
+      }));
     }
 
     roleChangeListeners.forEach(l -> l.accept(this.role.role()));
   }
 
+  /**
+   * Completes a step of a role transition.
+   * <p>
+   * Roles are started and stopped synchronously unless they have to wait on another thread context, e.g. for the log
+   * to be compacted. Since the Raft thread may be shared with those contexts, this method never blocks waiting for a
+   * step to complete. Requests are deferred until a role that starts asynchronously has started, and failures of
+   * steps that complete asynchronously are handled by the role itself.
+   *
+   * @param future  the transition step future
+   * @param message the message with which to fail the transition if the step failed
+   * @throws IllegalStateException if the step has already failed
+   */
+  private void completeTransition(CompletableFuture<?> future, String message) {
+    if (future.isDone()) {
+      try {
+        future.join();
+      } catch (CompletionException | CancellationException e) {
+        throw new IllegalStateException(message, e.getCause() != null ? e.getCause() : e);
+      }
+    } else {
+      log.debug("Completing transition asynchronously");
+    }
+  }
+
   /**
    * Creates an internal state for the given state type.
    */
@@ -842,6 +1130,12 @@ public class RaftContext implements AutoCloseable {
     } catch (Exception e) {
     }
 
+    // Close the pending snapshot, retaining it so the install can be resumed on restart.
+    if (pendingSnapshot != null) {
+      pendingSnapshot.close();
+      pendingSnapshot = null;
+    }
+
     // Close the metastore.
     try {
       meta.close();
@@ -854,13 +1148,22 @@ public class RaftContext implements AutoCloseable {
     } catch (Exception e) {
     }
 
+    // Fail futures awaiting entries that will not be applied.
+    appliedFutures.values().forEach(future -> future.completeExceptionally(new IllegalStateException("server closed")));
+    appliedFutures.clear();
+
     // Close the state machine and thread context.
     stateMachine.close();
     threadContext.close();
     loadContext.close();
     stateContext.close();
     compactionContext.close();
-    threadContextFactory.close();
+    if (threadContextFactory != sharedContextFactory) {
+      threadContextFactory.close();
+    }
+    if (applyContextFactory != null) {
+      applyContextFactory.close();
+    }
   }
 
   /**
@@ -40,9 +40,11 @@ import io.atomix.protocols.raft.storage.log.entry.OpenSessionEntry;
 import io.atomix.protocols.raft.storage.log.entry.QueryEntry;
 import io.atomix.protocols.raft.storage.log.entry.RaftLogEntry;
 import io.atomix.protocols.raft.storage.snapshot.Snapshot;
+import io.atomix.protocols.raft.storage.snapshot.SnapshotManifest;
 import io.atomix.protocols.raft.storage.snapshot.SnapshotReader;
 import io.atomix.protocols.raft.storage.snapshot.SnapshotWriter;
 import io.atomix.storage.StorageLevel;
+import io.atomix.storage.buffer.HeapBuffer;
 import io.atomix.storage.journal.Indexed;
 import io.atomix.utils.concurrent.ComposableFuture;
 import io.atomix.utils.concurrent.Futures;
@@ -57,12 +59,15 @@ import io.atomix.utils.time.WallClockTimestamp;
 import org.slf4j.Logger;
 
 import java.time.Duration;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
@@ -84,24 +89,57 @@ public class RaftServiceManager implements AutoCloseable {
   private final ThreadContext stateContext;
   private final ThreadContext compactionContext;
   private final ThreadContextFactory threadContextFactory;
+  private final ThreadContextFactory applyContextFactory;
+  private final Set<RaftServiceContext> pendingServices = new HashSet<>();
   private final RaftLog log;
   private final RaftLogReader reader;
   private final Map<Long, CompletableFuture> futures = Maps.newHashMap();
   private volatile CompletableFuture<Void> compactFuture;
+  private final Queue<Runnable> deferredTasks = new ArrayDeque<>();
+  private boolean awaitingServices;
   private long lastEnqueued;
+  private long lastSubmitted;
+  private CompletableFuture<Void> appliedFuture = CompletableFuture.completedFuture(null);
+  private long pendingIndex;
+  private CompletableFuture<Void> pendingCommit;
   private long lastCompacted;
 
   public RaftServiceManager(RaftContext raft, ThreadContext stateContext, ThreadContext compactionContext, ThreadContextFactory threadContextFactory) {
+    this(raft, stateContext, compactionContext, threadContextFactory, null);
+  }
+
+  /**
+   * Creates a new service manager.
+   * <p>
+   * If an {@code applyContextFactory} is provided, each service is assigned its own ordered thread context from the
+   * factory and commands and queries are applied to independent services in parallel. Session and configuration
+   * changes act as barriers and are only applied once all services have caught up with the state thread.
+   *
+   * @param raft                 the Raft context
+   * @param stateContext         the state machine thread context
+   * @param compactionContext    the compaction thread context
+   * @param threadContextFactory the thread context factory for sessions
+   * @param applyContextFactory  the thread context factory for services, or {@code null} to apply all entries
+   *                             on the state thread
+   */
+  public RaftServiceManager(
+      RaftContext raft,
+      ThreadContext stateContext,
+      ThreadContext compactionContext,
+      ThreadContextFactory threadContextFactory,
+      ThreadContextFactory applyContextFactory) {
     this.raft = checkNotNull(raft, "state cannot be null");
     this.log = raft.getLog();
     this.reader = log.openReader(1, RaftLogReader.Mode.COMMITS);
     this.stateContext = stateContext;
     this.compactionContext = compactionContext;
     this.threadContextFactory = threadContextFactory;
+    this.applyContextFactory = applyContextFactory;
     this.logger = ContextualLoggerFactory.getLogger(getClass(), LoggerContext.builder(RaftServer.class)
         .addValue(raft.getName())
         .build());
     this.lastEnqueued = reader.getFirstIndex() - 1;
+    this.lastSubmitted = lastEnqueued;
     scheduleSnapshots();
   }
 
@@ -152,7 +190,9 @@ public class RaftServiceManager implements AutoCloseable {
       return compactFuture;
     }
 
-    long lastApplied = raft.getLastApplied();
+    // Entries may be applied out of order by services with their own thread contexts, so snapshots are taken at the
+    // last index submitted to the state machine rather than the last applied index.
+    long lastApplied = Math.max(lastSubmitted, raft.getLastApplied());
 
     // Only take snapshots if segments can be removed from the log below the lastApplied index.
     if (raft.getLog().isCompactable(lastApplied) && raft.getLog().getCompactableIndex(lastApplied) > lastCompacted) {
@@ -188,9 +228,9 @@ public class RaftServiceManager implements AutoCloseable {
       compactFuture = new OrderedFuture<>();
 
       // Wait for snapshots in all state machines to be completed before compacting the log at the last applied index.
-      takeSnapshots(lastApplied).whenCompleteAsync((snapshot, error) -> {
+      takeSnapshots(lastApplied).whenCompleteAsync((snapshots, error) -> {
         if (error == null) {
-          scheduleCompletion(snapshot.persist());
+          scheduleCompletion(composeSnapshot(lastApplied, snapshots));
         }
       }, compactionContext);
 
@@ -215,15 +255,15 @@ public class RaftServiceManager implements AutoCloseable {
    * @param index the compaction index
    * @return future to be completed once all snapshots have been completed
    */
-  private CompletableFuture<Snapshot> takeSnapshots(long index) {
-    ComposableFuture<Snapshot> future = new ComposableFuture<>();
-    stateContext.execute(() -> {
+  private CompletableFuture<List<ServiceSnapshot>> takeSnapshots(long index) {
+    ComposableFuture<List<ServiceSnapshot>> future = new ComposableFuture<>();
+    executeState(() -> awaitServices(() -> {
       try {
         future.complete(snapshot(index));
       } catch (Exception e) {
         future.completeExceptionally(e);
       }
-    });
+    }));
     return future;
   }
 
@@ -313,10 +353,31 @@ public class RaftServiceManager implements AutoCloseable {
 
   /**
    * Applies all entries up to the given index.
+   * <p>
+   * If the flush of committed entries has been deferred by group commit, entries are enqueued once the flush
+   * completes so entries are never applied before they're durable.
    *
    * @param index the index up to which to apply entries
    */
   private void enqueueBatch(long index) {
+    CompletableFuture<Void> commitFuture = raft.getCommitFuture();
+    if (commitFuture.isDone()) {
+      enqueueEntries(index);
+    } else {
+      pendingIndex = Math.max(pendingIndex, index);
+      if (commitFuture != pendingCommit) {
+        pendingCommit = commitFuture;
+        commitFuture.whenComplete((result, error) -> enqueueEntries(pendingIndex));
+      }
+    }
+  }
+
+  /**
+   * Enqueues all entries up to the given index.
+   *
+   * @param index the index up to which to enqueue entries
+   */
+  private void enqueueEntries(long index) {
     while (lastEnqueued < index) {
       enqueueIndex(++lastEnqueued);
     }
@@ -343,25 +404,18 @@ public class RaftServiceManager implements AutoCloseable {
       // Read the entry from the log. If the entry is non-null then apply it, otherwise
       // simply update the last applied index and return a null result.
       Indexed<RaftLogEntry> entry = reader.next();
+      CompletableFuture<Object> applied;
       try {
         if (entry.index() != index) {
           throw new IllegalStateException("inconsistent index applying entry " + index + ": " + entry);
         }
-        CompletableFuture future = futures.remove(index);
-        apply(entry).whenComplete((r, e) -> {
-          if (future != null) {
-            if (e == null) {
-              future.complete(r);
-            } else {
-              future.completeExceptionally(e);
-            }
-          }
-        });
+        applied = apply(entry);
       } catch (Exception e) {
         logger.error("Failed to apply {}: {}", entry, e);
-      } finally {
-        raft.setLastApplied(index);
+        applied = Futures.exceptionalFuture(e);
       }
+      lastSubmitted = index;
+      completeIndex(index, applied, futures.remove(index));
     } else {
       CompletableFuture future = futures.remove(index);
       if (future != null) {
@@ -371,6 +425,35 @@ public class RaftServiceManager implements AutoCloseable {
     }
   }
 
+  /**
+   * Advances the last applied index once the entry at the given index has been applied.
+   * <p>
+   * Entries applied by services with their own thread contexts may complete out of order, so the last applied index
+   * is only advanced once all prior entries have been applied as well. The future awaiting the result of the entry
+   * is completed after the last applied index has been advanced.
+   *
+   * @param index   the index of the entry
+   * @param applied the future to be completed once the entry has been applied
+   * @param future  the future awaiting the result of the entry, or {@code null}
+   */
+  @SuppressWarnings("unchecked")
+  private void completeIndex(long index, CompletableFuture<Object> applied, CompletableFuture future) {
+    appliedFuture = appliedFuture.thenAcceptBoth(applied.handle((r, e) -> null), (a, b) -> {
+    });
+    appliedFuture.thenRun(() -> raft.getThreadContext().execute(() -> {
+      raft.setLastApplied(index);
+      if (future != null) {
+        applied.whenComplete((r, e) -> {
+          if (e == null) {
+            future.complete(r);
+          } else {
+            future.completeExceptionally(e);
+          }
+        });
+      }
+    }));
+  }
+
   /**
    * Applies an entry to the state machine.
    * <p>
@@ -383,10 +466,10 @@ public class RaftServiceManager implements AutoCloseable {
   @SuppressWarnings("unchecked")
   public <T> CompletableFuture<T> apply(Indexed<? extends RaftLogEntry> entry) {
     CompletableFuture<T> future = new CompletableFuture<>();
-    stateContext.execute(() -> {
+    executeState(() -> {
       logger.trace("Applying {}", entry);
-      try {
-        if (entry.type() == QueryEntry.class) {
+      if (entry.type() == QueryEntry.class) {
+        try {
           applyQuery(entry.cast()).whenComplete((r, e) -> {
             if (e != null) {
               future.completeExceptionally(e);
@@ -394,88 +477,216 @@ public class RaftServiceManager implements AutoCloseable {
               future.complete((T) r);
             }
           });
+        } catch (Exception e) {
+          future.completeExceptionally(e);
+        }
+      } else {
+        // If a snapshot exists for the prior index, wait for operations dispatched to services to complete before
+        // installing it.
+        Snapshot snapshot = raft.getSnapshotStore().getSnapshot(entry.index() - 1);
+        if (snapshot != null) {
+          awaitServices(() -> applyEntry(entry, snapshot, future));
         } else {
-          install(entry.index());
-          if (entry.type() == CommandEntry.class) {
-            future.complete((T) applyCommand(entry.cast()));
-          } else if (entry.type() == OpenSessionEntry.class) {
-            future.complete((T) (Long) applyOpenSession(entry.cast()));
-          } else if (entry.type() == KeepAliveEntry.class) {
-            future.complete((T) applyKeepAlive(entry.cast()));
-          } else if (entry.type() == CloseSessionEntry.class) {
-            applyCloseSession(entry.cast());
-            future.complete(null);
-          } else if (entry.type() == MetadataEntry.class) {
-            future.complete((T) applyMetadata(entry.cast()));
-          } else if (entry.type() == InitializeEntry.class) {
-            future.complete((T) applyInitialize(entry.cast()));
-          } else if (entry.type() == ConfigurationEntry.class) {
-            future.complete((T) applyConfiguration(entry.cast()));
-          } else {
-            future.completeExceptionally(new RaftException.ProtocolException("Unknown entry type"));
-          }
+          applyEntry(entry, null, future);
         }
-      } catch (Exception e) {
-        future.completeExceptionally(e);
       }
     });
     return future;
   }
 
+  /**
+   * Applies a non-query entry to the state machine, installing the given snapshot first if necessary.
+   *
+   * @param entry    the entry to apply
+   * @param snapshot the snapshot to install, or {@code null}
+   * @param future   the future to complete with the result
+   */
+  @SuppressWarnings("unchecked")
+  private <T> void applyEntry(Indexed<? extends RaftLogEntry> entry, Snapshot snapshot, CompletableFuture<T> future) {
+    try {
+      if (snapshot != null) {
+        install(snapshot);
+      }
+      if (entry.type() == CommandEntry.class) {
+        applyCommand(entry.cast()).whenComplete((r, e) -> {
+          if (e != null) {
+            future.completeExceptionally(e);
+          } else {
+            future.complete((T) r);
+          }
+        });
+        return;
+      }
+
+      // All other entries may read or modify the state of multiple services and sessions, so wait for
+      // commands and queries that have been dispatched to services to complete before applying them.
+      awaitServices(() -> applySessionEntry(entry, future));
+    } catch (Exception e) {
+      future.completeExceptionally(e);
+    }
+  }
+
+  /**
+   * Applies an entry that may read or modify the state of multiple services and sessions.
+   *
+   * @param entry  the entry to apply
+   * @param future the future to complete with the result
+   */
+  @SuppressWarnings("unchecked")
+  private <T> void applySessionEntry(Indexed<? extends RaftLogEntry> entry, CompletableFuture<T> future) {
+    try {
+      if (entry.type() == OpenSessionEntry.class) {
+        future.complete((T) (Long) applyOpenSession(entry.cast()));
+      } else if (entry.type() == KeepAliveEntry.class) {
+        future.complete((T) applyKeepAlive(entry.cast()));
+      } else if (entry.type() == CloseSessionEntry.class) {
+        applyCloseSession(entry.cast());
+        future.complete(null);
+      } else if (entry.type() == MetadataEntry.class) {
+        future.complete((T) applyMetadata(entry.cast()));
+      } else if (entry.type() == InitializeEntry.class) {
+        future.complete((T) applyInitialize(entry.cast()));
+      } else if (entry.type() == ConfigurationEntry.class) {
+        future.complete((T) applyConfiguration(entry.cast()));
+      } else {
+        future.completeExceptionally(new RaftException.ProtocolException("Unknown entry type"));
+      }
+    } catch (Exception e) {
+      future.completeExceptionally(e);
+    }
+  }
+
   /**
    * Takes snapshots for the given index.
+   * <p>
+   * Service metadata and sessions are captured for every service, but service state is only serialized for services
+   * that have changed since their last snapshot. Unchanged services reuse their most recent service snapshot, and
+   * services that support asynchronous snapshots are captured here but written on the compaction thread.
    *
    * @param index the index for which to take snapshots
    */
-  private Snapshot snapshot(long index) {
-    Snapshot snapshot = raft.getSnapshotStore().newTemporarySnapshot(index, new WallClockTimestamp());
-    try (SnapshotWriter writer = snapshot.openWriter()) {
+  private List<ServiceSnapshot> snapshot(long index) {
+    WallClockTimestamp timestamp = new WallClockTimestamp();
+    List<ServiceSnapshot> snapshots = new ArrayList<>();
+    try {
       for (RaftServiceContext service : raft.getServices()) {
-        writer.buffer().mark();
-        SnapshotWriter serviceWriter = new SnapshotWriter(writer.buffer().writeInt(0).slice(), writer.snapshot());
-        snapshotService(serviceWriter, service);
-        int length = serviceWriter.buffer().position();
-        writer.buffer().reset().writeInt(length).skip(length);
+        snapshots.add(snapshotService(service, index, timestamp));
       }
     } catch (Exception e) {
-      snapshot.close();
+      snapshots.stream()
+          .filter(snapshot -> snapshot.temporary)
+          .forEach(snapshot -> snapshot.snapshot.close());
+      snapshots.forEach(snapshot -> snapshot.header.close());
       throw e;
     }
-    return snapshot;
+    return snapshots;
   }
 
   /**
    * Takes a snapshot of the given service.
    *
-   * @param writer  the snapshot writer
-   * @param service the service to snapshot
+   * @param service   the service to snapshot
+   * @param index     the index for which to take the snapshot
+   * @param timestamp the snapshot timestamp
+   * @return the service snapshot
    */
-  private void snapshotService(SnapshotWriter writer, RaftServiceContext service) {
-    writer.writeLong(service.serviceId().id());
-    writer.writeString(service.serviceType().name());
-    writer.writeString(service.serviceName());
+  private ServiceSnapshot snapshotService(RaftServiceContext service, long index, WallClockTimestamp timestamp) {
+    HeapBuffer header = HeapBuffer.allocate();
+    header.writeLong(service.serviceId().id());
+    header.writeString(service.serviceType().name());
+    header.writeString(service.serviceName());
     byte[] config = Serializer.using(service.serviceType().namespace()).encode(service.serviceConfig());
-    writer.writeInt(config.length).writeBytes(config);
-    service.takeSnapshot(writer);
+    header.writeInt(config.length).writeBytes(config);
+    service.takeSessionSnapshot(header);
+    header.writeLong(service.commandIndex());
+    header.flip();
+
+    // Reuse the last service snapshot if the service has not changed since it was taken.
+    Snapshot snapshot = raft.getSnapshotStore().getServiceSnapshot(service.serviceId().id());
+    if (!service.isDirty() && snapshot != null && snapshot.index() == service.snapshotIndex()) {
+      logger.trace("Reusing snapshot {} for service {}", snapshot.index(), service.serviceName());
+      return new ServiceSnapshot(header, snapshot, false);
+    }
+
+    // If the service supports asynchronous snapshots, defer writing the service state to the compaction thread.
+    Consumer<SnapshotWriter> capture = service.captureServiceSnapshot(index);
+    if (capture != null) {
+      return new ServiceSnapshot(header, service.serviceId().id(), capture);
+    }
+
+    snapshot = raft.getSnapshotStore().newTemporaryServiceSnapshot(service.serviceId().id(), index, timestamp);
+    try (SnapshotWriter writer = snapshot.openWriter()) {
+      service.takeServiceSnapshot(writer);
+    } catch (Exception e) {
+      snapshot.close();
+      throw e;
+    }
+    return new ServiceSnapshot(header, snapshot, true);
   }
 
   /**
-   * Prepares sessions for the given index.
+   * Persists the given service snapshots and composes them into a partition snapshot at the given index.
+   * <p>
+   * The partition snapshot is a {@link SnapshotManifest manifest} that references the service snapshots rather than
+   * copying their state. This method is called on the compaction thread to avoid writing service state on the state
+   * machine thread.
    *
-   * @param index the index for which to install snapshots
+   * @param index     the index for which to compose the snapshot
+   * @param snapshots the service snapshots from which to compose the partition snapshot
+   * @return the partition snapshot
    */
-  private void install(long index) {
-    Snapshot snapshot = raft.getSnapshotStore().getSnapshot(index - 1);
+  private Snapshot composeSnapshot(long index, List<ServiceSnapshot> snapshots) {
+    WallClockTimestamp timestamp = new WallClockTimestamp();
+    Snapshot snapshot = raft.getSnapshotStore().newManifestSnapshot(index, timestamp);
+    try (SnapshotWriter writer = snapshot.openWriter()) {
+      SnapshotManifest.writeVersion(writer);
+      for (ServiceSnapshot serviceSnapshot : snapshots) {
+        Snapshot state = serviceSnapshot.snapshot;
+        if (serviceSnapshot.capture != null) {
+          state = raft.getSnapshotStore().newServiceSnapshot(serviceSnapshot.serviceId, index, timestamp);
+          try (SnapshotWriter serviceWriter = state.openWriter()) {
+            serviceSnapshot.capture.accept(serviceWriter);
+          }
+          state.complete();
+        } else if (serviceSnapshot.temporary) {
+          state = state.persist();
+          state.complete();
+          if (state != serviceSnapshot.snapshot) {
+            serviceSnapshot.snapshot.close();
+          }
+        }
 
-    // If snapshots exist for the prior index, iterate through snapshots and populate services/sessions.
-    if (snapshot != null) {
-      logger.debug("Installing snapshot {}", snapshot);
+        HeapBuffer header = serviceSnapshot.header;
+        SnapshotManifest.writeEntry(writer, header.readBytes((int) header.remaining()), state);
+        header.close();
+      }
+    }
+    return snapshot;
+  }
+
+  /**
+   * Installs the given snapshot, populating services and sessions.
+   *
+   * @param snapshot the snapshot to install
+   */
+  private void install(Snapshot snapshot) {
+    logger.debug("Installing snapshot {}", snapshot);
+    SnapshotManifest manifest = raft.getSnapshotStore().getManifest(snapshot);
+    if (manifest != null) {
+      // Read the state of each service from the service snapshot referenced by the manifest.
+      for (SnapshotManifest.Entry entry : manifest.entries()) {
+        try (SnapshotReader stateReader = entry.snapshot().openReader()) {
+          installService(new SnapshotReader(HeapBuffer.wrap(entry.header()), snapshot), stateReader, manifest.version());
+        }
+      }
+    } else {
       try (SnapshotReader reader = snapshot.openReader()) {
+        int version = SnapshotManifest.readVersion(reader);
         while (reader.hasRemaining()) {
           int length = reader.readInt();
           if (length > 0) {
             SnapshotReader serviceReader = new SnapshotReader(reader.buffer().slice(length), reader.snapshot());
-            installService(serviceReader);
+            installService(serviceReader, serviceReader, version);
             reader.skip(length);
           }
         }
@@ -486,9 +697,11 @@ public class RaftServiceManager implements AutoCloseable {
   /**
    * Restores the service associated with the given snapshot.
    *
-   * @param reader the snapshot reader
+   * @param reader      the snapshot reader from which to read the service metadata and sessions
+   * @param stateReader the snapshot reader from which to read the service state
+   * @param version     the {@link SnapshotManifest#version() version} of the partition snapshot
    */
-  private void installService(SnapshotReader reader) {
+  private void installService(SnapshotReader reader, SnapshotReader stateReader, int version) {
     PrimitiveId primitiveId = PrimitiveId.from(reader.readLong());
     try {
       PrimitiveType primitiveType = raft.getPrimitiveTypes().getPrimitiveType(reader.readString());
@@ -499,7 +712,7 @@ public class RaftServiceManager implements AutoCloseable {
       logger.debug("Installing service {} {}", primitiveId, serviceName);
       RaftServiceContext service = initializeService(primitiveId, primitiveType, serviceName, serviceConfig);
       if (service != null) {
-        service.installSnapshot(reader);
+        service.installSnapshot(reader, stateReader, version >= SnapshotManifest.COMMAND_INDEX_VERSION);
       }
     } catch (ConfigurationException e) {
       logger.error(e.getMessage(), e);
@@ -629,7 +842,8 @@ public class RaftServiceManager implements AutoCloseable {
         serviceConfig,
         primitiveType.newService(serviceConfig),
         raft,
-        threadContextFactory);
+        threadContextFactory,
+        applyContextFactory != null ? applyContextFactory.createContext() : stateContext);
     raft.getServices().registerService(service);
 
     // If a service with this name was already registered, remove all of its sessions.
@@ -734,7 +948,7 @@ public class RaftServiceManager implements AutoCloseable {
    * received in sequential order. The reason for this assumption is because leaders always sequence
    * commands as they're written to the log, so no sequence number will be skipped.
    */
-  private OperationResult applyCommand(Indexed<CommandEntry> entry) {
+  private CompletableFuture<OperationResult> applyCommand(Indexed<CommandEntry> entry) {
     // First check to ensure that the session exists.
     RaftSession session = raft.getSessions().getSession(entry.entry().session());
 
@@ -752,13 +966,42 @@ public class RaftServiceManager implements AutoCloseable {
     raft.getLoadMonitor().recordEvent();
 
     // Execute the command using the state machine associated with the session.
-    return session.getService()
-        .executeCommand(
-            entry.index(),
-            entry.entry().sequenceNumber(),
-            entry.entry().timestamp(),
-            session,
-            entry.entry().operation());
+    RaftServiceContext service = session.getService();
+    if (service.executor() == stateContext) {
+      return CompletableFuture.completedFuture(executeCommand(service, session, entry));
+    }
+
+    CompletableFuture<OperationResult> future = new CompletableFuture<>();
+    pendingServices.add(service);
+    service.executor().execute(() -> {
+      try {
+        future.complete(executeCommand(service, session, entry));
+      } catch (Exception e) {
+        future.completeExceptionally(e);
+      }
+    });
+    return future;
+  }
+
+  /**
+   * Executes a command entry on the given service, applying batched commands in the order in which they were
+   * submitted.
+   */
+  private OperationResult executeCommand(RaftServiceContext service, RaftSession session, Indexed<CommandEntry> entry) {
+    if (entry.entry().isBatch()) {
+      return service.executeCommands(
+          entry.index(),
+          entry.entry().sequenceNumber(),
+          entry.entry().timestamp(),
+          session,
+          entry.entry().operations());
+    }
+    return service.executeCommand(
+        entry.index(),
+        entry.entry().sequenceNumber(),
+        entry.entry().timestamp(),
+        session,
+        entry.entry().operation());
   }
 
   /**
@@ -790,17 +1033,127 @@ public class RaftServiceManager implements AutoCloseable {
     }
 
     // Execute the query using the state machine associated with the session.
-    return session.getService()
-        .executeQuery(
-            entry.index(),
-            entry.entry().sequenceNumber(),
-            entry.entry().timestamp(),
-            session,
-            entry.entry().operation());
+    RaftServiceContext service = session.getService();
+    if (service.executor() == stateContext) {
+      return service.executeQuery(
+          entry.index(),
+          entry.entry().sequenceNumber(),
+          entry.entry().timestamp(),
+          session,
+          entry.entry().operation());
+    }
+
+    CompletableFuture<OperationResult> future = new CompletableFuture<>();
+    pendingServices.add(service);
+    service.executor().execute(() -> service.executeQuery(
+        entry.index(),
+        entry.entry().sequenceNumber(),
+        entry.entry().timestamp(),
+        session,
+        entry.entry().operation()).whenComplete((r, e) -> {
+          if (e != null) {
+            future.completeExceptionally(e);
+          } else {
+            future.complete(r);
+          }
+        }));
+    return future;
+  }
+
+  /**
+   * Executes the given task on the state thread.
+   * <p>
+   * Tasks are run in the order in which they're submitted. Tasks submitted while the state thread is awaiting
+   * operations dispatched to service thread contexts are deferred until the awaiting callback has been run.
+   *
+   * @param task the task to execute
+   */
+  private void executeState(Runnable task) {
+    stateContext.execute(() -> {
+      if (awaitingServices || !deferredTasks.isEmpty()) {
+        deferredTasks.add(task);
+      } else {
+        task.run();
+      }
+    });
+  }
+
+  /**
+   * Runs the given callback on the state thread once all operations dispatched to service thread contexts have been
+   * applied.
+   * <p>
+   * The state thread is not blocked while operations are pending. Instead, tasks submitted via
+   * {@link #executeState(Runnable)} are deferred and run after the callback. The callback is run immediately when
+   * no operations are pending, e.g. when services are applied on the state thread.
+   *
+   * @param callback the callback to run once pending operations have been applied
+   */
+  private void awaitServices(Runnable callback) {
+    if (pendingServices.isEmpty()) {
+      callback.run();
+      return;
+    }
+
+    List<CompletableFuture<Void>> futures = new ArrayList<>(pendingServices.size());
+    for (RaftServiceContext service : pendingServices) {
+      CompletableFuture<Void> future = new CompletableFuture<>();
+      service.executor().execute(() -> future.complete(null));
+      futures.add(future);
+    }
+    pendingServices.clear();
+    awaitingServices = true;
+    CompletableFuture.allOf(futures.toArray(new CompletableFuture[futures.size()]))
+        .whenComplete((result, error) -> stateContext.execute(() -> {
+          awaitingServices = false;
+          runState(callback);
+          while (!awaitingServices && !deferredTasks.isEmpty()) {
+            runState(deferredTasks.poll());
+          }
+        }));
+  }
+
+  /**
+   * Runs a deferred state task, logging rather than propagating failures so subsequent tasks are still run.
+   *
+   * @param task the task to run
+   */
+  private void runState(Runnable task) {
+    try {
+      task.run();
+    } catch (Exception e) {
+      logger.error("An exception occurred applying state: {}", e);
+    }
   }
 
   @Override
   public void close() {
     // Don't close the thread context here since state machines can be reused.
   }
+
+  /**
+   * Service snapshot captured on the state machine thread.
+   */
+  private static class ServiceSnapshot {
+    private final HeapBuffer header;
+    private final long serviceId;
+    private final Snapshot snapshot;
+    private final boolean temporary;
+    private final Consumer<SnapshotWriter> capture;
+
+    ServiceSnapshot(HeapBuffer header, Snapshot snapshot, boolean temporary) {
+      this.header = header;
+      this.serviceId = snapshot.serviceId();
+      this.snapshot = snapshot;
+      this.temporary = temporary;
+      this.capture = null;
+    }
+
+    ServiceSnapshot(HeapBuffer header, long serviceId, Consumer<SnapshotWriter> capture) {
+      this.header = header;
+      this.serviceId = serviceId;
+      this.snapshot = null;
+      this.temporary = false;
+      this.capture = capture;
+    }
+  }
 }
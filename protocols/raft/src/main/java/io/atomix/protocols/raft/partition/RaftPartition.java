@@ -21,13 +21,16 @@ import io.atomix.primitive.partition.PartitionId;
 import io.atomix.primitive.partition.PartitionManagementService;
 import io.atomix.primitive.partition.PartitionMetadata;
 import io.atomix.protocols.raft.partition.impl.RaftClientCommunicator;
+import io.atomix.protocols.raft.partition.impl.RaftHeartbeatCoalescer;
 import io.atomix.protocols.raft.partition.impl.RaftNamespaces;
 import io.atomix.protocols.raft.partition.impl.RaftPartitionClient;
 import io.atomix.protocols.raft.partition.impl.RaftPartitionServer;
 import io.atomix.storage.StorageLevel;
+import io.atomix.utils.concurrent.ThreadContextFactory;
 import io.atomix.utils.serializer.Serializer;
 
 import java.io.File;
+import java.time.Duration;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.concurrent.CompletableFuture;
@@ -43,16 +46,29 @@ public class RaftPartition implements Partition {
   private final StorageLevel storageLevel;
   private final long segmentSize;
   private final boolean flushOnCommit;
+  private final boolean parallelApply;
+  private final int maxAppendsInFlight;
+  private final int maxAppendBatchSize;
+  private final Duration readLeaseTimeout;
+  private final Duration maxClockDrift;
   private final File dataDirectory;
   private PartitionMetadata partition;
   private RaftPartitionClient client;
   private RaftPartitionServer server;
+  private ThreadContextFactory threadContextFactory;
+  private RaftHeartbeatCoalescer heartbeatCoalescer;
 
-  public RaftPartition(PartitionId partitionId, StorageLevel storageLevel, long segmentSize, boolean flushOnCommit, File dataDirectory) {
+  public RaftPartition(PartitionId partitionId, StorageLevel storageLevel, long segmentSize, boolean flushOnCommit, boolean parallelApply,
+      int maxAppendsInFlight, int maxAppendBatchSize, Duration readLeaseTimeout, Duration maxClockDrift, File dataDirectory) {
     this.partitionId = partitionId;
     this.storageLevel = storageLevel;
     this.segmentSize = segmentSize;
     this.flushOnCommit = flushOnCommit;
+    this.parallelApply = parallelApply;
+    this.maxAppendsInFlight = maxAppendsInFlight;
+    this.maxAppendBatchSize = maxAppendBatchSize;
+    this.readLeaseTimeout = readLeaseTimeout;
+    this.maxClockDrift = maxClockDrift;
     this.dataDirectory = dataDirectory;
   }
 
@@ -123,6 +139,51 @@ public class RaftPartition implements Partition {
     return flushOnCommit;
   }
 
+  /**
+   * Returns whether to apply operations to independent services in parallel.
+   *
+   * @return whether to apply operations to independent services in parallel
+   */
+  public boolean parallelApply() {
+    return parallelApply;
+  }
+
+  /**
+   * Returns the maximum number of append requests to pipeline to each follower.
+   *
+   * @return the maximum number of in-flight append requests per follower
+   */
+  public int maxAppendsInFlight() {
+    return maxAppendsInFlight;
+  }
+
+  /**
+   * Returns the maximum size of the entries in a single append request in bytes.
+   *
+   * @return the maximum append batch size in bytes
+   */
+  public int maxAppendBatchSize() {
+    return maxAppendBatchSize;
+  }
+
+  /**
+   * Returns the duration of the read leases the partition leader grants to followers.
+   *
+   * @return the read lease timeout
+   */
+  public Duration readLeaseTimeout() {
+    return readLeaseTimeout;
+  }
+
+  /**
+   * Returns the maximum clock drift between members for read leases.
+   *
+   * @return the maximum clock drift
+   */
+  public Duration maxClockDrift() {
+    return maxClockDrift;
+  }
+
   /**
    * Returns the partition data directory.
    *
@@ -141,7 +202,21 @@ public class RaftPartition implements Partition {
    * Opens the partition.
    */
   CompletableFuture<Partition> open(PartitionMetadata metadata, PartitionManagementService managementService) {
+    return open(metadata, managementService, null, null);
+  }
+
+  /**
+   * Opens the partition, running the partition server on the given thread context factory and coalescing its
+   * heartbeats through the given coalescer.
+   */
+  CompletableFuture<Partition> open(
+      PartitionMetadata metadata,
+      PartitionManagementService managementService,
+      ThreadContextFactory threadContextFactory,
+      RaftHeartbeatCoalescer heartbeatCoalescer) {
     this.partition = metadata;
+    this.threadContextFactory = threadContextFactory;
+    this.heartbeatCoalescer = heartbeatCoalescer;
     this.client = createClient(managementService);
     if (partition.members().contains(managementService.getMembershipService().getLocalMember().id())) {
       server = createServer(managementService);
@@ -199,7 +274,9 @@ public class RaftPartition implements Partition {
         managementService.getMembershipService().getLocalMember().id(),
         managementService.getMembershipService(),
         managementService.getMessagingService(),
-        managementService.getPrimitiveTypes());
+        managementService.getPrimitiveTypes(),
+        threadContextFactory,
+        heartbeatCoalescer);
   }
 
   /**
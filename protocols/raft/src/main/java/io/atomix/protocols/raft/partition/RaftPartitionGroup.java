@@ -31,11 +31,17 @@ import io.atomix.primitive.partition.PartitionMetadata;
 import io.atomix.primitive.protocol.PrimitiveProtocol;
 import io.atomix.primitive.protocol.ProxyProtocol;
 import io.atomix.protocols.raft.MultiRaftProtocol;
+import io.atomix.protocols.raft.partition.impl.RaftHeartbeatCoalescer;
+import io.atomix.protocols.raft.partition.impl.RaftNamespaces;
 import io.atomix.storage.StorageLevel;
+import io.atomix.utils.concurrent.EventLoopContextFactory;
+import io.atomix.utils.memory.MemorySize;
+import io.atomix.utils.serializer.Serializer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -100,6 +106,11 @@ public class RaftPartitionGroup implements ManagedPartitionGroup {
           StorageLevel.valueOf(config.getStorageLevel().toUpperCase()),
           config.getSegmentSize().bytes(),
           config.isFlushOnCommit(),
+          config.isParallelApply(),
+          config.getMaxAppendsInFlight(),
+          (int) config.getMaxAppendBatchSize().bytes(),
+          config.getReadLeaseTimeout(),
+          config.getMaxClockDrift(),
           new File(partitionsDir, String.valueOf(i + 1))));
     }
     return partitions;
@@ -111,6 +122,8 @@ public class RaftPartitionGroup implements ManagedPartitionGroup {
   private final Map<PartitionId, RaftPartition> partitions = Maps.newConcurrentMap();
   private final List<PartitionId> sortedPartitionIds = Lists.newCopyOnWriteArrayList();
   private Collection<PartitionMetadata> metadata;
+  private EventLoopContextFactory eventLoops;
+  private RaftHeartbeatCoalescer heartbeatCoalescer;
 
   public RaftPartitionGroup(RaftPartitionGroupConfig config) {
     this.name = config.getName();
@@ -170,10 +183,25 @@ public class RaftPartitionGroup implements ManagedPartitionGroup {
   @Override
   public CompletableFuture<ManagedPartitionGroup> join(PartitionManagementService managementService) {
     this.metadata = buildPartitions();
+    if (config.getEventLoops() > 0 && eventLoops == null) {
+      eventLoops = new EventLoopContextFactory(
+          String.format("raft-partition-group-%s-%%d", name), config.getEventLoops(), LOGGER);
+    }
+    if (!config.getHeartbeatCoalescingInterval().isZero() && heartbeatCoalescer == null) {
+      heartbeatCoalescer = new RaftHeartbeatCoalescer(
+          name,
+          config.getHeartbeatCoalescingInterval(),
+          Serializer.using(RaftNamespaces.RAFT_PROTOCOL),
+          managementService.getMessagingService());
+    }
     List<CompletableFuture<Partition>> futures = metadata.stream()
         .map(metadata -> {
           RaftPartition partition = partitions.get(metadata.id());
-          return partition.open(metadata, managementService);
+          return partition.open(
+              metadata,
+              managementService,
+              eventLoops != null ? eventLoops.newPinnedFactory() : null,
+              heartbeatCoalescer);
         })
         .collect(Collectors.toList());
     return CompletableFuture.allOf(futures.toArray(new CompletableFuture[futures.size()])).thenApply(v -> {
@@ -219,6 +247,14 @@ public class RaftPartitionGroup implements ManagedPartitionGroup {
         .map(RaftPartition::close)
         .collect(Collectors.toList());
     return CompletableFuture.allOf(futures.toArray(new CompletableFuture[futures.size()])).thenRun(() -> {
+      if (heartbeatCoalescer != null) {
+        heartbeatCoalescer.close();
+        heartbeatCoalescer = null;
+      }
+      if (eventLoops != null) {
+        eventLoops.close();
+        eventLoops = null;
+      }
       LOGGER.info("Stopped");
     });
   }
@@ -319,6 +355,84 @@ public class RaftPartitionGroup implements ManagedPartitionGroup {
       return this;
     }
 
+    /**
+     * Sets whether to apply operations to independent services in parallel.
+     *
+     * @param parallelApply whether to apply operations to independent services in parallel
+     * @return the Raft partition group builder
+     */
+    public Builder withParallelApply(boolean parallelApply) {
+      config.setParallelApply(parallelApply);
+      return this;
+    }
+
+    /**
+     * Sets the number of event loops shared by the group's partitions.
+     *
+     * @param eventLoops the number of shared event loops, or {@code 0} to run each partition on dedicated threads
+     * @return the Raft partition group builder
+     */
+    public Builder withEventLoops(int eventLoops) {
+      config.setEventLoops(eventLoops);
+      return this;
+    }
+
+    /**
+     * Sets the interval at which heartbeats from all partitions to the same peer are coalesced into a single message.
+     *
+     * @param heartbeatCoalescingInterval the heartbeat coalescing interval, or {@link Duration#ZERO} to disable
+     *                                    heartbeat coalescing
+     * @return the Raft partition group builder
+     */
+    public Builder withHeartbeatCoalescingInterval(Duration heartbeatCoalescingInterval) {
+      config.setHeartbeatCoalescingInterval(heartbeatCoalescingInterval);
+      return this;
+    }
+
+    /**
+     * Sets the maximum number of append requests to pipeline to each follower.
+     *
+     * @param maxAppendsInFlight the maximum number of in-flight append requests per follower
+     * @return the Raft partition group builder
+     */
+    public Builder withMaxAppendsInFlight(int maxAppendsInFlight) {
+      config.setMaxAppendsInFlight(maxAppendsInFlight);
+      return this;
+    }
+
+    /**
+     * Sets the maximum size of the entries in a single append request.
+     *
+     * @param maxAppendBatchSize the maximum append batch size
+     * @return the Raft partition group builder
+     */
+    public Builder withMaxAppendBatchSize(MemorySize maxAppendBatchSize) {
+      config.setMaxAppendBatchSize(maxAppendBatchSize);
+      return this;
+    }
+
+    /**
+     * Sets the duration of the read leases partition leaders grant to followers.
+     *
+     * @param readLeaseTimeout the read lease timeout, or {@link Duration#ZERO} to disable read leases
+     * @return the Raft partition group builder
+     */
+    public Builder withReadLeaseTimeout(Duration readLeaseTimeout) {
+      config.setReadLeaseTimeout(readLeaseTimeout);
+      return this;
+    }
+
+    /**
+     * Sets the maximum clock drift between members for read leases.
+     *
+     * @param maxClockDrift the maximum clock drift
+     * @return the Raft partition group builder
+     */
+    public Builder withMaxClockDrift(Duration maxClockDrift) {
+      config.setMaxClockDrift(maxClockDrift);
+      return this;
+    }
+
     /**
      * Sets the path to the data directory.
      *
@@ -20,6 +20,7 @@ import io.atomix.primitive.partition.PartitionGroupConfig;
 import io.atomix.storage.StorageLevel;
 import io.atomix.utils.memory.MemorySize;
 
+import java.time.Duration;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -35,6 +36,13 @@ public class RaftPartitionGroupConfig extends PartitionGroupConfig<RaftPartition
   private String storageLevel = StorageLevel.MAPPED.name();
   private long segmentSize = 1024 * 1024 * 32;
   private boolean flushOnCommit = true;
+  private boolean parallelApply = false;
+  private int maxAppendsInFlight = 2;
+  private int eventLoops = 0;
+  private Duration heartbeatCoalescingInterval = Duration.ZERO;
+  private long maxAppendBatchSize = 1024 * 32;
+  private Duration readLeaseTimeout = Duration.ZERO;
+  private Duration maxClockDrift = Duration.ofMillis(100);
   private String dataDirectory;
 
   @Override
@@ -148,6 +156,159 @@ public class RaftPartitionGroupConfig extends PartitionGroupConfig<RaftPartition
     return this;
   }
 
+  /**
+   * Returns whether to apply operations to independent services in parallel.
+   *
+   * @return whether to apply operations to independent services in parallel
+   */
+  public boolean isParallelApply() {
+    return parallelApply;
+  }
+
+  /**
+   * Sets whether to apply operations to independent services in parallel.
+   *
+   * @param parallelApply whether to apply operations to independent services in parallel
+   * @return the Raft partition group configuration
+   */
+  public RaftPartitionGroupConfig setParallelApply(boolean parallelApply) {
+    this.parallelApply = parallelApply;
+    return this;
+  }
+
+  /**
+   * Returns the number of event loops shared by the group's partitions.
+   *
+   * @return the number of shared event loops, or {@code 0} if each partition runs on dedicated threads
+   */
+  public int getEventLoops() {
+    return eventLoops;
+  }
+
+  /**
+   * Sets the number of event loops shared by the group's partitions.
+   * <p>
+   * When set to a positive number, the partitions' Raft servers are multiplexed onto the given number of event
+   * loop threads, with each partition pinned to a single event loop. The number of event loops is typically the
+   * number of available processors. When {@code 0}, each partition runs on its own dedicated threads.
+   *
+   * @param eventLoops the number of shared event loops, or {@code 0} to run each partition on dedicated threads
+   * @return the Raft partition group configuration
+   */
+  public RaftPartitionGroupConfig setEventLoops(int eventLoops) {
+    this.eventLoops = eventLoops;
+    return this;
+  }
+
+  /**
+   * Returns the interval at which heartbeats from all partitions to the same peer are coalesced.
+   *
+   * @return the heartbeat coalescing interval, or {@link Duration#ZERO} if heartbeat coalescing is disabled
+   */
+  public Duration getHeartbeatCoalescingInterval() {
+    return heartbeatCoalescingInterval;
+  }
+
+  /**
+   * Sets the interval at which heartbeats from all partitions to the same peer are coalesced.
+   * <p>
+   * When set to a positive duration, empty append requests sent by the group's partition leaders to the same peer
+   * are queued for up to the given interval and sent as a single message. The interval should be small relative to
+   * the partitions' heartbeat interval. By default, heartbeat coalescing is disabled and each partition sends its own
+   * heartbeats.
+   *
+   * @param heartbeatCoalescingInterval the heartbeat coalescing interval, or {@link Duration#ZERO} to disable
+   *                                    heartbeat coalescing
+   * @return the Raft partition group configuration
+   */
+  public RaftPartitionGroupConfig setHeartbeatCoalescingInterval(Duration heartbeatCoalescingInterval) {
+    this.heartbeatCoalescingInterval = heartbeatCoalescingInterval;
+    return this;
+  }
+
+  /**
+   * Returns the maximum number of append requests to pipeline to each follower.
+   *
+   * @return the maximum number of in-flight append requests per follower
+   */
+  public int getMaxAppendsInFlight() {
+    return maxAppendsInFlight;
+  }
+
+  /**
+   * Sets the maximum number of append requests to pipeline to each follower.
+   *
+   * @param maxAppendsInFlight the maximum number of in-flight append requests per follower
+   * @return the Raft partition group configuration
+   */
+  public RaftPartitionGroupConfig setMaxAppendsInFlight(int maxAppendsInFlight) {
+    this.maxAppendsInFlight = maxAppendsInFlight;
+    return this;
+  }
+
+  /**
+   * Returns the maximum size of the entries in a single append request.
+   *
+   * @return the maximum append batch size
+   */
+  public MemorySize getMaxAppendBatchSize() {
+    return MemorySize.from(maxAppendBatchSize);
+  }
+
+  /**
+   * Sets the maximum size of the entries in a single append request.
+   *
+   * @param maxAppendBatchSize the maximum append batch size
+   * @return the Raft partition group configuration
+   */
+  public RaftPartitionGroupConfig setMaxAppendBatchSize(MemorySize maxAppendBatchSize) {
+    this.maxAppendBatchSize = maxAppendBatchSize.bytes();
+    return this;
+  }
+
+  /**
+   * Returns the duration of the read leases partition leaders grant to followers.
+   *
+   * @return the read lease timeout, or {@link Duration#ZERO} if read leases are disabled
+   */
+  public Duration getReadLeaseTimeout() {
+    return readLeaseTimeout;
+  }
+
+  /**
+   * Sets the duration of the read leases partition leaders grant to followers.
+   * <p>
+   * Followers holding a lease serve lease-consistent queries locally, and writes are delayed until all lease
+   * holders have learned of them. By default, read leases are disabled.
+   *
+   * @param readLeaseTimeout the read lease timeout, or {@link Duration#ZERO} to disable read leases
+   * @return the Raft partition group configuration
+   */
+  public RaftPartitionGroupConfig setReadLeaseTimeout(Duration readLeaseTimeout) {
+    this.readLeaseTimeout = readLeaseTimeout;
+    return this;
+  }
+
+  /**
+   * Returns the maximum clock drift between members for read leases.
+   *
+   * @return the maximum clock drift
+   */
+  public Duration getMaxClockDrift() {
+    return maxClockDrift;
+  }
+
+  /**
+   * Sets the maximum clock drift between members for read leases.
+   *
+   * @param maxClockDrift the maximum clock drift
+   * @return the Raft partition group configuration
+   */
+  public RaftPartitionGroupConfig setMaxClockDrift(Duration maxClockDrift) {
+    this.maxClockDrift = maxClockDrift;
+    return this;
+  }
+
   /**
    * Returns the partition data directory.
    *
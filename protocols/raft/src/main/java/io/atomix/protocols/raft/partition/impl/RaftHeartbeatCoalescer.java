@@ -0,0 +1,243 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.protocols.raft.partition.impl;
+
+import io.atomix.cluster.MemberId;
+import io.atomix.cluster.messaging.ClusterCommunicationService;
+import io.atomix.protocols.raft.protocol.AppendRequest;
+import io.atomix.protocols.raft.protocol.AppendResponse;
+import io.atomix.utils.concurrent.Scheduled;
+import io.atomix.utils.concurrent.SingleThreadContext;
+import io.atomix.utils.concurrent.ThreadContext;
+import io.atomix.utils.serializer.Serializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Node-to-node Raft heartbeat coalescer.
+ * <p>
+ * The coalescer is shared by all the partitions of a Raft partition group on a node. Rather than sending each
+ * partition's empty {@link AppendRequest} heartbeats to a peer as an individual message, heartbeats destined for the
+ * same peer are queued and flushed as a single batch message once per coalescing interval. The batch is keyed by each
+ * partition's append subject, and the receiving coalescer demultiplexes the batch to the append handlers registered
+ * by its local partitions, returning the partitions' responses in a single reply.
+ * <p>
+ * The reply is not held up by slow partitions. Partitions that have not responded within the coalescing interval are
+ * omitted from the reply, and their heartbeats are resent to the peer individually.
+ * <p>
+ * If a partition queues a new heartbeat for a peer before the previous one has been flushed, the newer heartbeat
+ * replaces the older one and both callers are completed with the response to the newer heartbeat.
+ */
+public class RaftHeartbeatCoalescer implements AutoCloseable {
+  private static final Logger LOGGER = LoggerFactory.getLogger(RaftHeartbeatCoalescer.class);
+
+  private final String subject;
+  private final Duration interval;
+  private final Serializer serializer;
+  private final ClusterCommunicationService clusterCommunicator;
+  private final ThreadContext threadContext;
+  private final Map<String, Function<AppendRequest, CompletableFuture<AppendResponse>>> handlers = new ConcurrentHashMap<>();
+  private final Map<MemberId, Map<String, PendingHeartbeat>> pendingHeartbeats = new HashMap<>();
+
+  public RaftHeartbeatCoalescer(
+      String name,
+      Duration interval,
+      Serializer serializer,
+      ClusterCommunicationService clusterCommunicator) {
+    this.subject = String.format("%s-heartbeat-batch", checkNotNull(name, "name cannot be null"));
+    this.interval = checkNotNull(interval, "interval cannot be null");
+    this.serializer = checkNotNull(serializer, "serializer cannot be null");
+    this.clusterCommunicator = checkNotNull(clusterCommunicator, "clusterCommunicator cannot be null");
+    this.threadContext = new SingleThreadContext("raft-heartbeat-coalescer-" + name + "-%d");
+    Function<HashMap<String, AppendRequest>, CompletableFuture<HashMap<String, AppendResponse>>> handler = this::handleBatch;
+    clusterCommunicator.subscribe(subject, serializer::decode, handler, serializer::encode);
+  }
+
+  /**
+   * Queues a heartbeat to be sent to the given member in the next batch.
+   *
+   * @param appendSubject the append subject of the partition sending the heartbeat
+   * @param memberId      the member to which to send the heartbeat
+   * @param request       the empty append request
+   * @return a future to be completed with the partition's append response
+   */
+  public CompletableFuture<AppendResponse> append(String appendSubject, MemberId memberId, AppendRequest request) {
+    CompletableFuture<AppendResponse> future = new CompletableFuture<>();
+    synchronized (pendingHeartbeats) {
+      Map<String, PendingHeartbeat> heartbeats = pendingHeartbeats.get(memberId);
+      if (heartbeats == null) {
+        heartbeats = new HashMap<>();
+        pendingHeartbeats.put(memberId, heartbeats);
+        threadContext.schedule(interval, () -> flush(memberId));
+      }
+      PendingHeartbeat previous = heartbeats.put(appendSubject, new PendingHeartbeat(request, future));
+      if (previous != null) {
+        future.whenComplete((response, error) -> {
+          if (error == null) {
+            previous.future.complete(response);
+          } else {
+            previous.future.completeExceptionally(error);
+          }
+        });
+      }
+    }
+    return future;
+  }
+
+  /**
+   * Flushes the pending heartbeats for the given member as a single batch.
+   */
+  private void flush(MemberId memberId) {
+    Map<String, PendingHeartbeat> heartbeats;
+    synchronized (pendingHeartbeats) {
+      heartbeats = pendingHeartbeats.remove(memberId);
+    }
+    if (heartbeats == null || heartbeats.isEmpty()) {
+      return;
+    }
+
+    HashMap<String, AppendRequest> batch = new HashMap<>(heartbeats.size());
+    heartbeats.forEach((appendSubject, heartbeat) -> batch.put(appendSubject, heartbeat.request));
+    clusterCommunicator.<HashMap<String, AppendRequest>, HashMap<String, AppendResponse>>send(
+        subject, batch, serializer::encode, serializer::decode, memberId)
+        .whenComplete((responses, error) -> {
+          if (error == null) {
+            heartbeats.forEach((appendSubject, heartbeat) -> {
+              AppendResponse response = responses.get(appendSubject);
+              if (response != null) {
+                heartbeat.future.complete(response);
+              } else {
+                resend(appendSubject, memberId, heartbeat);
+              }
+            });
+          } else {
+            heartbeats.values().forEach(heartbeat -> heartbeat.future.completeExceptionally(error));
+          }
+        });
+  }
+
+  /**
+   * Resends a heartbeat that was omitted from a batch reply directly to the partition's append handler on the peer.
+   */
+  private void resend(String appendSubject, MemberId memberId, PendingHeartbeat heartbeat) {
+    clusterCommunicator.<AppendRequest, AppendResponse>send(
+        appendSubject, heartbeat.request, serializer::encode, serializer::decode, memberId)
+        .whenComplete((response, error) -> {
+          if (error == null) {
+            heartbeat.future.complete(response);
+          } else {
+            heartbeat.future.completeExceptionally(error);
+          }
+        });
+  }
+
+  /**
+   * Handles a batch of heartbeats from a peer, dispatching each heartbeat to the local partition's append handler.
+   * <p>
+   * The reply is sent once all partitions have responded or the coalescing interval has elapsed, whichever comes
+   * first. Partitions that have not responded by then are omitted from the reply.
+   */
+  private CompletableFuture<HashMap<String, AppendResponse>> handleBatch(HashMap<String, AppendRequest> batch) {
+    HashMap<String, AppendResponse> responses = new HashMap<>(batch.size());
+    CompletableFuture[] futures = batch.entrySet().stream()
+        .map(entry -> {
+          Function<AppendRequest, CompletableFuture<AppendResponse>> handler = handlers.get(entry.getKey());
+          if (handler == null) {
+            return CompletableFuture.completedFuture(null);
+          }
+          return handler.apply(entry.getValue()).handle((response, error) -> {
+            if (error == null) {
+              synchronized (responses) {
+                responses.put(entry.getKey(), response);
+              }
+            } else {
+              LOGGER.debug("Failed to handle heartbeat for {}", entry.getKey(), error);
+            }
+            return null;
+          });
+        })
+        .toArray(CompletableFuture[]::new);
+
+    CompletableFuture<HashMap<String, AppendResponse>> future = new CompletableFuture<>();
+    Scheduled timeout = threadContext.schedule(interval, () -> completeBatch(future, responses));
+    CompletableFuture.allOf(futures).whenComplete((result, error) -> {
+      timeout.cancel();
+      completeBatch(future, responses);
+    });
+    return future;
+  }
+
+  /**
+   * Completes a batch reply with the responses received so far.
+   */
+  private void completeBatch(CompletableFuture<HashMap<String, AppendResponse>> future, HashMap<String, AppendResponse> responses) {
+    synchronized (responses) {
+      future.complete(new HashMap<>(responses));
+    }
+  }
+
+  /**
+   * Registers a partition's append handler.
+   *
+   * @param appendSubject the partition's append subject
+   * @param handler       the append request handler
+   */
+  public void registerHandler(String appendSubject, Function<AppendRequest, CompletableFuture<AppendResponse>> handler) {
+    handlers.put(appendSubject, handler);
+  }
+
+  /**
+   * Unregisters a partition's append handler.
+   *
+   * @param appendSubject the partition's append subject
+   */
+  public void unregisterHandler(String appendSubject) {
+    handlers.remove(appendSubject);
+  }
+
+  @Override
+  public void close() {
+    clusterCommunicator.unsubscribe(subject);
+    threadContext.close();
+    synchronized (pendingHeartbeats) {
+      pendingHeartbeats.values().forEach(heartbeats -> heartbeats.values()
+          .forEach(heartbeat -> heartbeat.future.completeExceptionally(new IllegalStateException("coalescer closed"))));
+      pendingHeartbeats.clear();
+    }
+  }
+
+  /**
+   * Heartbeat waiting to be flushed.
+   */
+  private static class PendingHeartbeat {
+    private final AppendRequest request;
+    private final CompletableFuture<AppendResponse> future;
+
+    PendingHeartbeat(AppendRequest request, CompletableFuture<AppendResponse> future) {
+      this.request = request;
+      this.future = future;
+    }
+  }
+}
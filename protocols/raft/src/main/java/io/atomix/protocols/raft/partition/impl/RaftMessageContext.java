@@ -33,6 +33,7 @@ class RaftMessageContext {
   final String reconfigureSubject;
   final String installSubject;
   final String transferSubject;
+  final String readIndexSubject;
   final String pollSubject;
   final String voteSubject;
   final String appendSubject;
@@ -52,6 +53,7 @@ class RaftMessageContext {
     this.reconfigureSubject = getSubject(prefix, "reconfigure");
     this.installSubject = getSubject(prefix, "install");
     this.transferSubject = getSubject(prefix, "transfer");
+    this.readIndexSubject = getSubject(prefix, "read-index");
     this.pollSubject = getSubject(prefix, "poll");
     this.voteSubject = getSubject(prefix, "vote");
     this.appendSubject = getSubject(prefix, "append");
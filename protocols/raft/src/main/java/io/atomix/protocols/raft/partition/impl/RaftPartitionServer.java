@@ -24,6 +24,7 @@ import io.atomix.protocols.raft.RaftServer;
 import io.atomix.protocols.raft.partition.RaftPartition;
 import io.atomix.protocols.raft.storage.RaftStorage;
 import io.atomix.utils.Managed;
+import io.atomix.utils.concurrent.ThreadContextFactory;
 import io.atomix.utils.serializer.Serializer;
 import org.slf4j.Logger;
 
@@ -55,6 +56,8 @@ public class RaftPartitionServer implements Managed<RaftPartitionServer> {
   private final ClusterMembershipService membershipService;
   private final ClusterCommunicationService clusterCommunicator;
   private final PrimitiveTypeRegistry primitiveTypes;
+  private final ThreadContextFactory threadContextFactory;
+  private final RaftHeartbeatCoalescer heartbeatCoalescer;
   private RaftServer server;
 
   public RaftPartitionServer(
@@ -63,7 +66,30 @@ public class RaftPartitionServer implements Managed<RaftPartitionServer> {
       ClusterMembershipService membershipService,
       ClusterCommunicationService clusterCommunicator,
       PrimitiveTypeRegistry primitiveTypes) {
+    this(partition, localMemberId, membershipService, clusterCommunicator, primitiveTypes, null);
+  }
+
+  public RaftPartitionServer(
+      RaftPartition partition,
+      MemberId localMemberId,
+      ClusterMembershipService membershipService,
+      ClusterCommunicationService clusterCommunicator,
+      PrimitiveTypeRegistry primitiveTypes,
+      ThreadContextFactory threadContextFactory) {
+    this(partition, localMemberId, membershipService, clusterCommunicator, primitiveTypes, threadContextFactory, null);
+  }
+
+  public RaftPartitionServer(
+      RaftPartition partition,
+      MemberId localMemberId,
+      ClusterMembershipService membershipService,
+      ClusterCommunicationService clusterCommunicator,
+      PrimitiveTypeRegistry primitiveTypes,
+      ThreadContextFactory threadContextFactory,
+      RaftHeartbeatCoalescer heartbeatCoalescer) {
     this.partition = partition;
+    this.threadContextFactory = threadContextFactory;
+    this.heartbeatCoalescer = heartbeatCoalescer;
     this.localMemberId = localMemberId;
     this.membershipService = membershipService;
     this.clusterCommunicator = clusterCommunicator;
@@ -132,16 +158,22 @@ public class RaftPartitionServer implements Managed<RaftPartitionServer> {
   }
 
   private RaftServer buildServer() {
-    return RaftServer.builder(localMemberId)
+    RaftServer.Builder builder = RaftServer.builder(localMemberId)
         .withName(partition.name())
         .withMembershipService(membershipService)
         .withProtocol(new RaftServerCommunicator(
             partition.name(),
             Serializer.using(RaftNamespaces.RAFT_PROTOCOL),
-            clusterCommunicator))
+            clusterCommunicator,
+            heartbeatCoalescer))
         .withPrimitiveTypes(primitiveTypes)
         .withElectionTimeout(Duration.ofMillis(ELECTION_TIMEOUT_MILLIS))
         .withHeartbeatInterval(Duration.ofMillis(HEARTBEAT_INTERVAL_MILLIS))
+        .withParallelApply(partition.parallelApply())
+        .withMaxAppendsInFlight(partition.maxAppendsInFlight())
+        .withMaxAppendBatchSize(partition.maxAppendBatchSize())
+        .withReadLeaseTimeout(partition.readLeaseTimeout())
+        .withMaxClockDrift(partition.maxClockDrift())
         .withStorage(RaftStorage.builder()
             .withPrefix(partition.name())
             .withStorageLevel(partition.storageLevel())
@@ -150,8 +182,11 @@ public class RaftPartitionServer implements Managed<RaftPartitionServer> {
             .withSerializer(Serializer.using(RaftNamespaces.RAFT_STORAGE))
             .withDirectory(partition.dataDirectory())
             .withMaxSegmentSize(MAX_SEGMENT_SIZE)
-            .build())
-        .build();
+            .build());
+    if (threadContextFactory != null) {
+      builder.withThreadContextFactory(threadContextFactory);
+    }
+    return builder.build();
   }
 
   public CompletableFuture<Void> join(Collection<MemberId> otherMembers) {
@@ -50,14 +50,18 @@ public class AppendRequest extends AbstractRaftRequest {
   private final long prevLogTerm;
   private final List<RaftLogEntry> entries;
   private final long commitIndex;
+  private final long leaseTimestamp;
+  private final long leaseTimeout;
 
-  public AppendRequest(long term, String leader, long prevLogIndex, long prevLogTerm, List<RaftLogEntry> entries, long commitIndex) {
+  public AppendRequest(long term, String leader, long prevLogIndex, long prevLogTerm, List<RaftLogEntry> entries, long commitIndex, long leaseTimestamp, long leaseTimeout) {
     this.term = term;
     this.leader = leader;
     this.prevLogIndex = prevLogIndex;
     this.prevLogTerm = prevLogTerm;
     this.entries = entries;
     this.commitIndex = commitIndex;
+    this.leaseTimestamp = leaseTimestamp;
+    this.leaseTimeout = leaseTimeout;
   }
 
   /**
@@ -114,9 +118,27 @@ public class AppendRequest extends AbstractRaftRequest {
     return commitIndex;
   }
 
+  /**
+   * Returns the time at which the leader granted the read lease, according to the leader's clock.
+   *
+   * @return The time at which the read lease was granted in milliseconds since the epoch.
+   */
+  public long leaseTimestamp() {
+    return leaseTimestamp;
+  }
+
+  /**
+   * Returns the duration of the read lease granted to the receiving member in milliseconds.
+   *
+   * @return The read lease timeout in milliseconds, or {@code 0} if no lease is granted.
+   */
+  public long leaseTimeout() {
+    return leaseTimeout;
+  }
+
   @Override
   public int hashCode() {
-    return Objects.hash(getClass(), term, leader, prevLogIndex, prevLogTerm, entries, commitIndex);
+    return Objects.hash(getClass(), term, leader, prevLogIndex, prevLogTerm, entries, commitIndex, leaseTimestamp, leaseTimeout);
   }
 
   @Override
@@ -128,7 +150,9 @@ public class AppendRequest extends AbstractRaftRequest {
           && request.prevLogIndex == prevLogIndex
           && request.prevLogTerm == prevLogTerm
           && request.entries.equals(entries)
-          && request.commitIndex == commitIndex;
+          && request.commitIndex == commitIndex
+          && request.leaseTimestamp == leaseTimestamp
+          && request.leaseTimeout == leaseTimeout;
     }
     return false;
   }
@@ -142,6 +166,8 @@ public class AppendRequest extends AbstractRaftRequest {
         .add("prevLogTerm", prevLogTerm)
         .add("entries", entries.size())
         .add("commitIndex", commitIndex)
+        .add("leaseTimestamp", leaseTimestamp)
+        .add("leaseTimeout", leaseTimeout)
         .toString();
   }
 
@@ -155,6 +181,8 @@ public class AppendRequest extends AbstractRaftRequest {
     private long logTerm;
     private List<RaftLogEntry> entries;
     private long commitIndex = -1;
+    private long leaseTimestamp;
+    private long leaseTimeout;
 
     /**
      * Sets the request term.
@@ -256,6 +284,30 @@ public class AppendRequest extends AbstractRaftRequest {
       return this;
     }
 
+    /**
+     * Sets the time at which the leader granted the read lease, according to the leader's clock.
+     *
+     * @param leaseTimestamp The time at which the read lease was granted in milliseconds since the epoch.
+     * @return The append request builder.
+     */
+    public Builder withLeaseTimestamp(long leaseTimestamp) {
+      this.leaseTimestamp = leaseTimestamp;
+      return this;
+    }
+
+    /**
+     * Sets the duration of the read lease granted to the receiving member.
+     *
+     * @param leaseTimeout The read lease timeout in milliseconds, or {@code 0} to grant no lease.
+     * @return The append request builder.
+     * @throws IllegalArgumentException if the lease timeout is negative
+     */
+    public Builder withLeaseTimeout(long leaseTimeout) {
+      checkArgument(leaseTimeout >= 0, "leaseTimeout cannot be negative");
+      this.leaseTimeout = leaseTimeout;
+      return this;
+    }
+
     @Override
     protected void validate() {
       super.validate();
@@ -274,7 +326,7 @@ public class AppendRequest extends AbstractRaftRequest {
     @Override
     public AppendRequest build() {
       validate();
-      return new AppendRequest(term, leader, logIndex, logTerm, entries, commitIndex);
+      return new AppendRequest(term, leader, logIndex, logTerm, entries, commitIndex, leaseTimestamp, leaseTimeout);
     }
   }
 }
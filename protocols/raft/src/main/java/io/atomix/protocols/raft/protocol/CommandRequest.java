@@ -17,9 +17,13 @@ package io.atomix.protocols.raft.protocol;
 
 import io.atomix.primitive.operation.PrimitiveOperation;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
 
 import static com.google.common.base.MoreObjects.toStringHelper;
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
 
 /**
  * Client command request.
@@ -34,6 +38,10 @@ import static com.google.common.base.MoreObjects.toStringHelper;
  * Command requests should always be submitted to the server to which the client is connected and will
  * be forwarded to the current cluster leader. In the event that no leader is available, the request
  * will fail and should be resubmitted by the client.
+ * <p>
+ * A command request may carry a {@link #operations() batch} of operations in place of a single
+ * {@link #operation()}. A batch is assigned a single sequence number, is committed as a single entry, and its
+ * operations are applied to the state machine in the order in which they appear in the batch.
  */
 public class CommandRequest extends OperationRequest {
 
@@ -46,8 +54,33 @@ public class CommandRequest extends OperationRequest {
     return new Builder();
   }
 
+  private final List<PrimitiveOperation> operations;
+
   public CommandRequest(long session, long sequence, PrimitiveOperation operation) {
+    this(session, sequence, operation, null);
+  }
+
+  public CommandRequest(long session, long sequence, PrimitiveOperation operation, List<PrimitiveOperation> operations) {
     super(session, sequence, operation);
+    this.operations = operations;
+  }
+
+  /**
+   * Returns the batch of operations to apply.
+   *
+   * @return the batch of operations to apply, or {@code null} if the request carries a single operation
+   */
+  public List<PrimitiveOperation> operations() {
+    return operations;
+  }
+
+  /**
+   * Returns whether the request carries a batch of operations.
+   *
+   * @return whether the request carries a batch of operations
+   */
+  public boolean isBatch() {
+    return operations != null;
   }
 
   @Override
@@ -61,13 +94,21 @@ public class CommandRequest extends OperationRequest {
       CommandRequest request = (CommandRequest) object;
       return request.session == session
           && request.sequence == sequence
-          && request.operation.equals(operation);
+          && Objects.equals(request.operation, operation)
+          && Objects.equals(request.operations, operations);
     }
     return false;
   }
 
   @Override
   public String toString() {
+    if (operations != null) {
+      return toStringHelper(this)
+          .add("session", session)
+          .add("sequence", sequence)
+          .add("operations", operations)
+          .toString();
+    }
     return toStringHelper(this)
         .add("session", session)
         .add("sequence", sequence)
@@ -79,10 +120,34 @@ public class CommandRequest extends OperationRequest {
    * Command request builder.
    */
   public static class Builder extends OperationRequest.Builder<Builder, CommandRequest> {
+    private List<PrimitiveOperation> operations;
+
+    /**
+     * Sets the batch of operations to apply in place of a single operation.
+     *
+     * @param operations the batch of operations
+     * @return the request builder
+     * @throws NullPointerException if the {@code operations} are {@code null}
+     */
+    public Builder withOperations(List<PrimitiveOperation> operations) {
+      this.operations = new ArrayList<>(checkNotNull(operations, "operations cannot be null"));
+      return this;
+    }
+
+    @Override
+    protected void validateOperation() {
+      if (operations == null) {
+        super.validateOperation();
+      } else {
+        checkArgument(operation == null, "cannot set both operation and operations");
+        checkArgument(!operations.isEmpty(), "operations cannot be empty");
+      }
+    }
+
     @Override
     public CommandRequest build() {
       validate();
-      return new CommandRequest(session, sequence, operation);
+      return new CommandRequest(session, sequence, operation, operations);
     }
   }
 }
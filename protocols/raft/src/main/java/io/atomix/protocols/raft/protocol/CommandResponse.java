@@ -17,6 +17,11 @@ package io.atomix.protocols.raft.protocol;
 
 import io.atomix.protocols.raft.RaftError;
 
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
 /**
  * Client command response.
  * <p>
@@ -27,6 +32,9 @@ import io.atomix.protocols.raft.RaftError;
  * command responses may not be sent or received in sequential order. If a command response has to await
  * the completion of an event, or if the response is proxied through another server, responses may be
  * received out of order. Clients should resequence concurrent responses to ensure they're handled in FIFO order.
+ * <p>
+ * Responses to batched command requests carry a {@link #results() response} for each operation in the batch,
+ * in the order in which the operations were applied.
  */
 public class CommandResponse extends OperationResponse {
 
@@ -39,18 +47,49 @@ public class CommandResponse extends OperationResponse {
     return new Builder();
   }
 
+  private final List<CommandResponse> results;
+
   public CommandResponse(Status status, RaftError error, long index, long eventIndex, byte[] result, long lastSequence) {
+    this(status, error, index, eventIndex, result, lastSequence, null);
+  }
+
+  public CommandResponse(
+      Status status, RaftError error, long index, long eventIndex, byte[] result, long lastSequence, List<CommandResponse> results) {
     super(status, error, index, eventIndex, result, lastSequence);
+    this.results = results;
+  }
+
+  /**
+   * Returns the responses to the operations of a batched command.
+   *
+   * @return the responses to the operations of a batched command, or {@code null} if the command was not batched
+   */
+  public List<CommandResponse> results() {
+    return results;
   }
 
   /**
    * Command response builder.
    */
   public static class Builder extends OperationResponse.Builder<Builder, CommandResponse> {
+    private List<CommandResponse> results;
+
+    /**
+     * Sets the responses to the operations of a batched command.
+     *
+     * @param results the responses to the operations of a batched command
+     * @return the response builder
+     * @throws NullPointerException if the {@code results} are {@code null}
+     */
+    public Builder withResults(List<CommandResponse> results) {
+      this.results = new ArrayList<>(checkNotNull(results, "results cannot be null"));
+      return this;
+    }
+
     @Override
     public CommandResponse build() {
       validate();
-      return new CommandResponse(status, error, index, eventIndex, result, lastSequence);
+      return new CommandResponse(status, error, index, eventIndex, result, lastSequence, results);
     }
   }
 }
@@ -17,12 +17,16 @@ package io.atomix.protocols.raft.protocol;
 
 import io.atomix.protocols.raft.RaftError;
 
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static com.google.common.base.Preconditions.checkArgument;
+
 /**
  * Snapshot installation response.
  * <p>
  * Install responses are sent once a snapshot installation request has been received and processed.
- * Install responses provide no additional metadata aside from indicating whether or not the request
- * was successful.
+ * In addition to indicating whether or not the request was successful, install responses indicate the
+ * {@link #nextChunkOffset() next chunk} the receiver expects, allowing the leader to resume a partially
+ * installed snapshot.
  */
 public class InstallResponse extends AbstractRaftResponse {
 
@@ -35,18 +39,61 @@ public class InstallResponse extends AbstractRaftResponse {
     return new Builder();
   }
 
-  public InstallResponse(Status status, RaftError error) {
+  private final int nextChunkOffset;
+
+  public InstallResponse(Status status, RaftError error, int nextChunkOffset) {
     super(status, error);
+    this.nextChunkOffset = nextChunkOffset;
+  }
+
+  /**
+   * Returns the offset of the next chunk expected by the receiver.
+   *
+   * @return the offset of the next chunk expected by the receiver
+   */
+  public int nextChunkOffset() {
+    return nextChunkOffset;
+  }
+
+  @Override
+  public String toString() {
+    if (status == Status.OK) {
+      return toStringHelper(this)
+          .add("status", status)
+          .add("nextChunkOffset", nextChunkOffset)
+          .toString();
+    } else {
+      return toStringHelper(this)
+          .add("status", status)
+          .add("error", error)
+          .add("nextChunkOffset", nextChunkOffset)
+          .toString();
+    }
   }
 
   /**
    * Install response builder.
    */
   public static class Builder extends AbstractRaftResponse.Builder<Builder, InstallResponse> {
+    private int nextChunkOffset;
+
+    /**
+     * Sets the offset of the next chunk expected by the receiver.
+     *
+     * @param nextChunkOffset the offset of the next chunk expected by the receiver
+     * @return the install response builder
+     * @throws IllegalArgumentException if {@code nextChunkOffset} is negative
+     */
+    public Builder withNextChunkOffset(int nextChunkOffset) {
+      checkArgument(nextChunkOffset >= 0, "nextChunkOffset must be positive");
+      this.nextChunkOffset = nextChunkOffset;
+      return this;
+    }
+
     @Override
     public InstallResponse build() {
       validate();
-      return new InstallResponse(status, error);
+      return new InstallResponse(status, error, nextChunkOffset);
     }
   }
 }
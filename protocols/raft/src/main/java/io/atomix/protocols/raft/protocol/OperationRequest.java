@@ -95,6 +95,13 @@ public abstract class OperationRequest extends SessionRequest {
     protected void validate() {
       super.validate();
       checkArgument(sequence >= 0, "sequence must be positive");
+      validateOperation();
+    }
+
+    /**
+     * Validates the request operation.
+     */
+    protected void validateOperation() {
       checkNotNull(operation, "operation cannot be null");
     }
   }
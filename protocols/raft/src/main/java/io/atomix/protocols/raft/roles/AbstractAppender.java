@@ -30,6 +30,7 @@ import io.atomix.protocols.raft.protocol.RaftResponse;
 import io.atomix.protocols.raft.storage.log.RaftLogReader;
 import io.atomix.protocols.raft.storage.log.entry.RaftLogEntry;
 import io.atomix.protocols.raft.storage.snapshot.Snapshot;
+import io.atomix.protocols.raft.storage.snapshot.SnapshotManifest;
 import io.atomix.protocols.raft.storage.snapshot.SnapshotReader;
 import io.atomix.storage.journal.Indexed;
 import io.atomix.utils.logging.ContextualLoggerFactory;
@@ -46,7 +47,7 @@ import static com.google.common.base.Preconditions.checkNotNull;
  * Abstract appender.
  */
 abstract class AbstractAppender implements AutoCloseable {
-  private static final int MAX_BATCH_SIZE = 1024 * 32;
+  private static final int SNAPSHOT_CHUNK_SIZE = 1024 * 32;
   protected final Logger log;
   protected final RaftContext raft;
   protected boolean open = true;
@@ -101,6 +102,7 @@ abstract class AbstractAppender implements AutoCloseable {
     Indexed<RaftLogEntry> prevEntry = reader != null ? reader.getCurrentEntry() : null;
 
     DefaultRaftMember leader = raft.getLeader();
+    long timestamp = System.currentTimeMillis();
     return AppendRequest.builder()
         .withTerm(raft.getTerm())
         .withLeader(leader != null ? leader.memberId() : null)
@@ -108,9 +110,22 @@ abstract class AbstractAppender implements AutoCloseable {
         .withPrevLogTerm(prevEntry != null ? prevEntry.entry().term() : 0)
         .withEntries(Collections.emptyList())
         .withCommitIndex(raft.getCommitIndex())
+        .withLeaseTimestamp(timestamp)
+        .withLeaseTimeout(grantLease(member, timestamp))
         .build();
   }
 
+  /**
+   * Returns the duration of the read lease to grant to the given member on an append request.
+   *
+   * @param member    The member to which the request is being sent.
+   * @param timestamp The time at which the request is being sent.
+   * @return The read lease timeout in milliseconds, or {@code 0} to grant no lease.
+   */
+  protected long grantLease(RaftMemberContext member, long timestamp) {
+    return 0;
+  }
+
   /**
    * Builds a populated AppendEntries request.
    */
@@ -121,22 +136,26 @@ abstract class AbstractAppender implements AutoCloseable {
     final Indexed<RaftLogEntry> prevEntry = reader.getCurrentEntry();
 
     final DefaultRaftMember leader = raft.getLeader();
+    final long timestamp = System.currentTimeMillis();
     AppendRequest.Builder builder = AppendRequest.builder()
         .withTerm(raft.getTerm())
         .withLeader(leader != null ? leader.memberId() : null)
         .withPrevLogIndex(prevEntry != null ? prevEntry.index() : reader.getFirstIndex() - 1)
         .withPrevLogTerm(prevEntry != null ? prevEntry.entry().term() : 0)
-        .withCommitIndex(raft.getCommitIndex());
+        .withCommitIndex(raft.getCommitIndex())
+        .withLeaseTimestamp(timestamp)
+        .withLeaseTimeout(grantLease(member, timestamp));
 
     // Build a list of entries to send to the member.
     final List<RaftLogEntry> entries = new ArrayList<>();
 
-    // Build a list of entries up to the MAX_BATCH_SIZE. Note that entries in the log may
+    // Build a list of entries up to the maximum append batch size. Note that entries in the log may
     // be null if they've been compacted and the member to which we're sending entries is just
     // joining the cluster or is otherwise far behind. Null entries are simply skipped and not
     // counted towards the size of the batch.
-    // If there exists an entry in the log with size >= MAX_BATCH_SIZE the logic ensures that
+    // If there exists an entry in the log with size >= the maximum batch size the logic ensures that
     // entry will be sent in a batch of size one
+    final int maxBatchSize = raft.getMaxAppendBatchSize();
     int size = 0;
 
     // Iterate through the log until the last index or the end of the log is reached.
@@ -145,7 +164,7 @@ abstract class AbstractAppender implements AutoCloseable {
       Indexed<RaftLogEntry> entry = reader.next();
       entries.add(entry.entry());
       size += entry.size();
-      if (entry.index() == lastIndex || size >= MAX_BATCH_SIZE) {
+      if (entry.index() == lastIndex || size >= maxBatchSize) {
         break;
       }
     }
@@ -289,8 +308,11 @@ abstract class AbstractAppender implements AutoCloseable {
    * Updates the match index when a response is received.
    */
   protected void updateMatchIndex(RaftMemberContext member, AppendResponse response) {
-    // If the replica returned a valid match index then update the existing match index.
-    member.setMatchIndex(response.lastLogIndex());
+    // If the replica returned a greater match index then update the existing match index. Pipelined
+    // append responses may be received out of order, so the match index is never decreased here.
+    if (response.lastLogIndex() > member.getMatchIndex()) {
+      member.setMatchIndex(response.lastLogIndex());
+    }
   }
 
   /**
@@ -406,6 +428,8 @@ abstract class AbstractAppender implements AutoCloseable {
 
   /**
    * Builds an install request for the given member.
+   *
+   * @return the install request for the member's next snapshot chunk or {@code null} if all chunks have been sent
    */
   protected InstallRequest buildInstallRequest(RaftMemberContext member, Snapshot snapshot) {
     if (member.getNextSnapshotIndex() != snapshot.index()) {
@@ -413,38 +437,70 @@ abstract class AbstractAppender implements AutoCloseable {
       member.setNextSnapshotOffset(0);
     }
 
+    // Manifest snapshots are sent in the inline format since members do not share service snapshots.
+    SnapshotManifest manifest = raft.getSnapshotStore().getManifest(snapshot);
+    if (manifest != null) {
+      // If all chunks have already been sent to the member, wait for the outstanding responses.
+      long position = (long) member.getNextSnapshotOffset() * SNAPSHOT_CHUNK_SIZE;
+      if (member.getNextSnapshotOffset() > 0 && position >= manifest.length()) {
+        return null;
+      }
+
+      byte[] data = new byte[(int) Math.min(SNAPSHOT_CHUNK_SIZE, manifest.length() - position)];
+      manifest.read((int) position, data);
+      return buildInstallRequest(member, snapshot, data, position + data.length >= manifest.length());
+    }
+
     InstallRequest request;
     synchronized (snapshot) {
       // Open a new snapshot reader.
       try (SnapshotReader reader = snapshot.openReader()) {
+        // If all chunks have already been sent to the member, wait for the outstanding responses.
+        long position = (long) member.getNextSnapshotOffset() * SNAPSHOT_CHUNK_SIZE;
+        if (member.getNextSnapshotOffset() > 0 && position >= reader.remaining()) {
+          return null;
+        }
+
         // Skip to the next batch of bytes according to the snapshot chunk size and current offset.
-        reader.skip(member.getNextSnapshotOffset() * MAX_BATCH_SIZE);
-        byte[] data = new byte[Math.min(MAX_BATCH_SIZE, reader.remaining())];
+        reader.skip((int) position);
+        byte[] data = new byte[Math.min(SNAPSHOT_CHUNK_SIZE, reader.remaining())];
         reader.read(data);
-
-        // Create the install request, indicating whether this is the last chunk of data based on the number
-        // of bytes remaining in the buffer.
-        DefaultRaftMember leader = raft.getLeader();
-        request = InstallRequest.builder()
-            .withTerm(raft.getTerm())
-            .withLeader(leader != null ? leader.memberId() : null)
-            .withIndex(snapshot.index())
-            .withOffset(member.getNextSnapshotOffset())
-            .withData(data)
-            .withComplete(!reader.hasRemaining())
-            .build();
+        request = buildInstallRequest(member, snapshot, data, !reader.hasRemaining());
       }
     }
 
     return request;
   }
 
+  /**
+   * Builds an install request for the given chunk of snapshot data.
+   *
+   * @param member   the member to which to send the request
+   * @param snapshot the snapshot being installed
+   * @param data     the chunk of snapshot data
+   * @param complete whether the chunk is the last chunk of the snapshot
+   * @return the install request
+   */
+  private InstallRequest buildInstallRequest(RaftMemberContext member, Snapshot snapshot, byte[] data, boolean complete) {
+    DefaultRaftMember leader = raft.getLeader();
+    return InstallRequest.builder()
+        .withTerm(raft.getTerm())
+        .withLeader(leader != null ? leader.memberId() : null)
+        .withIndex(snapshot.index())
+        .withOffset(member.getNextSnapshotOffset())
+        .withData(data)
+        .withComplete(complete)
+        .build();
+  }
+
   /**
    * Connects to the member and sends a snapshot request.
    */
   protected void sendInstallRequest(RaftMemberContext member, InstallRequest request) {
-    // Start the install to the member.
+    // Start the install to the member and advance the member's snapshot offset to allow the next chunk
+    // to be sent before this request is acknowledged.
     member.startInstall();
+    member.setNextSnapshotOffset(request.chunkOffset() + 1);
 
     long timestamp = System.currentTimeMillis();
 
@@ -471,10 +527,12 @@ abstract class AbstractAppender implements AutoCloseable {
    * Handles an install response failure.
    */
   protected void handleInstallResponseFailure(RaftMemberContext member, InstallRequest request, Throwable error) {
-    // Reset the member's snapshot index and offset to resend the snapshot from the start
-    // once a connection to the member is re-established.
-    member.setNextSnapshotIndex(0);
-    member.setNextSnapshotOffset(0);
+    // Rewind the member's snapshot offset to resend the failed chunk once a connection to the member is
+    // re-established. Chunks the member has already received will be skipped by the member.
+    if (member.getNextSnapshotIndex() == request.snapshotIndex()
+        && member.getNextSnapshotOffset() > request.chunkOffset()) {
+      member.setNextSnapshotOffset(request.chunkOffset());
+    }
 
     // Log the failed attempt to contact the member.
     failAttempt(member, request, error);
@@ -494,7 +552,6 @@ abstract class AbstractAppender implements AutoCloseable {
   /**
    * Handles an OK install response.
    */
-  @SuppressWarnings("unused")
   protected void handleInstallResponseOk(RaftMemberContext member, InstallRequest request, InstallResponse response) {
     // Reset the member failure count and update the member's status if necessary.
     succeedAttempt(member);
@@ -506,9 +563,11 @@ abstract class AbstractAppender implements AutoCloseable {
       member.setNextSnapshotOffset(0);
       member.setSnapshotIndex(request.snapshotIndex());
     }
-    // If more install requests remain, increment the member's snapshot offset.
-    else {
-      member.setNextSnapshotOffset(request.chunkOffset() + 1);
+    // If the member has already received chunks beyond the acknowledged chunk, e.g. from a prior leader
+    // or before a restart, skip ahead to the member's next expected chunk.
+    else if (member.getNextSnapshotIndex() == request.snapshotIndex()
+        && response.nextChunkOffset() > member.getNextSnapshotOffset()) {
+      member.setNextSnapshotOffset(response.nextChunkOffset());
     }
 
     // Recursively append entries to the member.
@@ -518,11 +577,13 @@ abstract class AbstractAppender implements AutoCloseable {
   /**
    * Handles an ERROR install response.
    */
-  @SuppressWarnings("unused")
   protected void handleInstallResponseError(RaftMemberContext member, InstallRequest request, InstallResponse response) {
     log.warn("Failed to install {}", member.getMember().memberId());
-    member.setNextSnapshotIndex(0);
-    member.setNextSnapshotOffset(0);
+
+    // Resume the install from the chunk expected by the member.
+    if (member.getNextSnapshotIndex() == request.snapshotIndex()) {
+      member.setNextSnapshotOffset(response.nextChunkOffset());
+    }
   }
 
   @Override
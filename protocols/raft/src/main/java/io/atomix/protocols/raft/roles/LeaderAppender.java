@@ -15,6 +15,8 @@
  */
 package io.atomix.protocols.raft.roles;
 
+import com.google.common.util.concurrent.RateLimiter;
+import io.atomix.cluster.MemberId;
 import io.atomix.protocols.raft.RaftException;
 import io.atomix.protocols.raft.RaftServer;
 import io.atomix.protocols.raft.cluster.RaftMember;
@@ -28,11 +30,14 @@ import io.atomix.protocols.raft.protocol.InstallResponse;
 import io.atomix.protocols.raft.protocol.RaftRequest;
 import io.atomix.protocols.raft.storage.snapshot.Snapshot;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 
 /**
@@ -48,9 +53,14 @@ final class LeaderAppender extends AbstractAppender {
   private final long leaderIndex;
   private final long electionTimeout;
   private final long heartbeatInterval;
+  private final long leaseTimeout;
+  private final long maxClockDrift;
   private long heartbeatTime;
+  private long completeIndex;
   private final Map<Long, CompletableFuture<Long>> appendFutures = new HashMap<>();
   private final List<TimestampedFuture<Long>> heartbeatFutures = new ArrayList<>();
+  private final RateLimiter installLimiter;
+  private final Set<MemberId> throttledMembers = new HashSet<>();
 
   LeaderAppender(LeaderRole leader) {
     super(leader.raft);
@@ -59,6 +69,12 @@ final class LeaderAppender extends AbstractAppender {
     this.heartbeatTime = leaderTime;
     this.electionTimeout = raft.getElectionTimeout().toMillis();
     this.heartbeatInterval = raft.getHeartbeatInterval().toMillis();
+    this.leaseTimeout = raft.getReadLeaseTimeout().toMillis();
+    this.maxClockDrift = raft.getMaxClockDrift().toMillis();
+    this.completeIndex = raft.getCommitIndex();
+    this.installLimiter = raft.getMaxSnapshotInstallRate() > 0
+        ? RateLimiter.create(raft.getMaxSnapshotInstallRate())
+        : null;
   }
 
   /**
@@ -102,6 +118,11 @@ final class LeaderAppender extends AbstractAppender {
   public CompletableFuture<Long> appendEntries() {
     raft.checkThread();
 
+    // Writes held back by read leases may be completed once the leases expire.
+    if (leaseTimeout > 0) {
+      completeCommits();
+    }
+
     // If there are no other active members in the cluster, simply complete the append operation.
     if (raft.getCluster().getRemoteMemberStates().isEmpty()) {
       return CompletableFuture.completedFuture(null);
@@ -131,24 +152,25 @@ final class LeaderAppender extends AbstractAppender {
       return appendEntries();
     }
 
-    if (index <= raft.getCommitIndex()) {
+    if (index <= completeIndex) {
       return CompletableFuture.completedFuture(index);
     }
 
     // If there are no other stateful servers in the cluster, immediately commit the index.
     if (raft.getCluster().getActiveMemberStates().isEmpty() && raft.getCluster().getPassiveMemberStates().isEmpty()) {
-      long previousCommitIndex = raft.getCommitIndex();
       raft.setCommitIndex(index);
-      completeCommits(previousCommitIndex, index);
+      completeCommits();
       return CompletableFuture.completedFuture(index);
     }
     // If there are no other active members in the cluster, update the commit index and complete the commit.
-    // The updated commit index will be sent to passive/reserve members on heartbeats.
+    // The updated commit index will be sent to passive/reserve members on heartbeats. If passive members hold
+    // read leases, the commit is completed once they've learned of it.
     else if (raft.getCluster().getActiveMemberStates().isEmpty()) {
-      long previousCommitIndex = raft.getCommitIndex();
       raft.setCommitIndex(index);
-      completeCommits(previousCommitIndex, index);
-      return CompletableFuture.completedFuture(index);
+      completeCommits();
+      if (index <= completeIndex) {
+        return CompletableFuture.completedFuture(index);
+      }
     }
 
     // Only send entry-specific AppendRequests to active members of the cluster.
@@ -195,22 +217,97 @@ final class LeaderAppender extends AbstractAppender {
         || member.getMember().getType() == RaftMember.Type.PASSIVE) {
       Snapshot snapshot = raft.getSnapshotStore().getCurrentSnapshot();
       if (snapshot != null && member.getSnapshotIndex() < snapshot.index() && snapshot.index() >= member.getLogReader().getCurrentIndex()) {
-        if (!member.canInstall()) {
-          return;
-        }
-
-        log.debug("Replicating snapshot {} to {}", snapshot.index(), member.getMember().memberId());
-        sendInstallRequest(member, buildInstallRequest(member, snapshot));
-      } else if (member.canAppend()) {
+        sendInstallRequests(member, snapshot);
+      } else if (member.canAppend(raft.getMaxAppendsInFlight())) {
         sendAppendRequest(member, buildAppendRequest(member, -1));
       }
     }
     // If no AppendRequest is already being sent, send an AppendRequest.
-    else if (member.canAppend()) {
+    else if (member.canAppend(raft.getMaxAppendsInFlight())) {
       sendAppendRequest(member, buildAppendRequest(member, -1));
     }
   }
 
+  /**
+   * Sends snapshot chunks to the given member, pipelining up to the configured number of in-flight chunks.
+   */
+  private void sendInstallRequests(RaftMemberContext member, Snapshot snapshot) {
+    int maxInstalls = raft.getMaxSnapshotChunksInFlight();
+    while (member.canInstall(maxInstalls) && !throttledMembers.contains(member.getMember().memberId())) {
+      InstallRequest request = buildInstallRequest(member, snapshot);
+
+      // If all chunks have been sent, await responses from the member.
+      if (request == null) {
+        return;
+      }
+
+      // If the snapshot install rate is limited and no bytes are available, retry once enough bytes have accrued.
+      if (installLimiter != null && !installLimiter.tryAcquire(Math.max(request.data().length, 1))) {
+        throttleInstall(member, request.data().length);
+        return;
+      }
+
+      log.debug("Replicating snapshot {} chunk {} to {}", snapshot.index(), request.chunkOffset(), member.getMember().memberId());
+      sendInstallRequest(member, request);
+    }
+  }
+
+  /**
+   * Schedules a throttled snapshot install to the given member to be retried.
+   */
+  private void throttleInstall(RaftMemberContext member, int bytes) {
+    MemberId memberId = member.getMember().memberId();
+    throttledMembers.add(memberId);
+    long delay = Math.max(bytes * 1000L / raft.getMaxSnapshotInstallRate(), 1);
+    raft.getThreadContext().schedule(Duration.ofMillis(delay), () -> {
+      throttledMembers.remove(memberId);
+      if (open) {
+        appendEntries(member);
+      }
+    });
+  }
+
+  /**
+   * Grants a read lease to the given member if leases are enabled and the member is responsive.
+   * <p>
+   * A lease is only granted while the leader has recently contacted a majority of the cluster, such that the lease
+   * expires before a new leader can be elected. The member measures the lease from the time the request was sent
+   * less the maximum clock drift, so the member is assumed to hold the lease until the lease timeout plus the maximum
+   * clock drift has elapsed from the time the request was sent, whether or not the request is acknowledged.
+   */
+  @Override
+  protected long grantLease(RaftMemberContext member, long timestamp) {
+    if (leaseTimeout == 0 || member.getFailureCount() > 0) {
+      return 0;
+    }
+
+    if (timestamp - computeHeartbeatTime() + leaseTimeout + maxClockDrift >= electionTimeout) {
+      return 0;
+    }
+    member.setLeaseExpiration(timestamp + leaseTimeout + maxClockDrift);
+    return leaseTimeout;
+  }
+
+  /**
+   * Returns the highest index that has been learned by all members holding read leases.
+   */
+  private long computeLeaseIndex() {
+    long currentTime = System.currentTimeMillis();
+
+    // Members may hold leases granted by a prior leader until they expire.
+    if (currentTime < leaderTime + leaseTimeout + maxClockDrift) {
+      return completeIndex;
+    }
+
+    long leaseIndex = raft.getCommitIndex();
+    for (RaftMemberContext member : raft.getCluster().getRemoteMemberStates()) {
+      if (member.getLeaseExpiration() > currentTime) {
+        leaseIndex = Math.min(leaseIndex, member.getLeaseCommitIndex());
+      }
+    }
+    return leaseIndex;
+  }
+
   @Override
   protected boolean hasMoreEntries(RaftMemberContext member) {
     // If the member's nextIndex is an entry in the local log then more entries can be sent.
@@ -320,7 +417,7 @@ final class LeaderAppender extends AbstractAppender {
       long previousCommitIndex = raft.setCommitIndex(commitIndex);
       if (commitIndex > previousCommitIndex) {
         log.trace("Committed entries up to {}", commitIndex);
-        completeCommits(previousCommitIndex, commitIndex);
+        completeCommits();
       }
       return;
     }
@@ -335,20 +432,29 @@ final class LeaderAppender extends AbstractAppender {
     if (commitIndex > 0 && commitIndex > previousCommitIndex && (leaderIndex > 0 && commitIndex >= leaderIndex)) {
       log.trace("Committed entries up to {}", commitIndex);
       raft.setCommitIndex(commitIndex);
-      completeCommits(previousCommitIndex, commitIndex);
+      completeCommits();
     }
   }
 
   /**
-   * Completes append entries attempts up to the given index.
+   * Completes append entries attempts up to the commit index.
+   * <p>
+   * When read leases are enabled, attempts are only completed once all members holding leases have learned the
+   * entries are committed, or their leases have expired.
    */
-  private void completeCommits(long previousCommitIndex, long commitIndex) {
-    for (long i = previousCommitIndex + 1; i <= commitIndex; i++) {
+  private void completeCommits() {
+    long index = raft.getCommitIndex();
+    if (leaseTimeout > 0 && !raft.getCluster().getRemoteMemberStates().isEmpty()) {
+      index = Math.min(index, computeLeaseIndex());
+    }
+
+    for (long i = completeIndex + 1; i <= index; i++) {
       CompletableFuture<Long> future = appendFutures.remove(i);
       if (future != null) {
         future.complete(i);
       }
     }
+    completeIndex = Math.max(completeIndex, index);
   }
 
   @Override
@@ -378,6 +484,12 @@ final class LeaderAppender extends AbstractAppender {
         commitEntries();
       }
 
+      // Record the commit index learned by the member and complete writes held back by its read lease.
+      if (leaseTimeout > 0) {
+        member.setLeaseCommitIndex(Math.min(request.commitIndex(), response.lastLogIndex()));
+        completeCommits();
+      }
+
       // If there are more entries to send then attempt to send another commit.
       if (hasMoreEntries(member)) {
         appendEntries(member);
@@ -50,6 +50,8 @@ import io.atomix.protocols.raft.protocol.PollResponse;
 import io.atomix.protocols.raft.protocol.QueryRequest;
 import io.atomix.protocols.raft.protocol.QueryResponse;
 import io.atomix.protocols.raft.protocol.RaftResponse;
+import io.atomix.protocols.raft.protocol.ReadIndexRequest;
+import io.atomix.protocols.raft.protocol.ReadIndexResponse;
 import io.atomix.protocols.raft.protocol.ReconfigureRequest;
 import io.atomix.protocols.raft.protocol.ReconfigureResponse;
 import io.atomix.protocols.raft.protocol.TransferRequest;
@@ -57,6 +59,8 @@ import io.atomix.protocols.raft.protocol.TransferResponse;
 import io.atomix.protocols.raft.protocol.VoteRequest;
 import io.atomix.protocols.raft.protocol.VoteResponse;
 import io.atomix.protocols.raft.session.RaftSession;
+import io.atomix.protocols.raft.storage.log.RaftLogReader;
+import io.atomix.protocols.raft.storage.log.RaftLogWriter;
 import io.atomix.protocols.raft.storage.log.entry.CloseSessionEntry;
 import io.atomix.protocols.raft.storage.log.entry.CommandEntry;
 import io.atomix.protocols.raft.storage.log.entry.ConfigurationEntry;
@@ -74,7 +78,9 @@ import io.atomix.utils.concurrent.Scheduled;
 
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
@@ -93,6 +99,9 @@ public final class LeaderRole extends ActiveRole {
   private final Set<SessionId> expiring = Sets.newHashSet();
   private long configuring;
   private boolean transferring;
+  private CompletableFuture<Void> leadershipFuture;
+  private final List<RaftLogEntry> pendingEntries = new ArrayList<>();
+  private final List<CompletableFuture<Indexed<RaftLogEntry>>> pendingAppends = new ArrayList<>();
 
   public LeaderRole(RaftContext context) {
     super(context);
@@ -110,8 +119,27 @@ public final class LeaderRole extends ActiveRole {
     takeLeadership();
 
     // Append initial entries to the log, including an initial no-op entry and the server's configuration.
-    appendInitialEntries().join();
+    // If the log must be compacted to make space for the entries, the leader is started once compaction completes
+    // rather than blocking the Raft thread, which may be shared with the threads that compact the log.
+    CompletableFuture<RaftRole> future = appendInitialEntries()
+        .thenCompose(v -> raft.getRaftRole() == this ? startLeader() : CompletableFuture.completedFuture(this));
+
+    // If the initial entries could not be appended once the log was compacted, step down.
+    if (!future.isDone()) {
+      future.whenComplete((role, error) -> {
+        if (error != null && raft.getRaftRole() == this) {
+          log.warn("Failed to append initial entries: {}", error.getMessage());
+          raft.transition(RaftServer.Role.FOLLOWER);
+        }
+      });
+    }
+    return future;
+  }
 
+  /**
+   * Starts the leader once the initial entries have been appended to the log.
+   */
+  private CompletableFuture<RaftRole> startLeader() {
     // Commit the initial leader entries.
     commitInitialEntries();
 
@@ -643,7 +671,7 @@ public final class LeaderRole extends ActiveRole {
     if (sequenceNumber <= session.getCommandSequence()) {
       OperationResult result = session.getResult(sequenceNumber);
       if (result != null) {
-          completeOperation(result, CommandResponse.builder(), null, future);
+          completeCommand(result, null, future);
       } else {
           future.complete(CommandResponse.builder()
                   .withStatus(RaftResponse.Status.ERROR)
@@ -686,7 +714,7 @@ public final class LeaderRole extends ActiveRole {
     final long term = raft.getTerm();
     final long timestamp = System.currentTimeMillis();
 
-    appendAndCompact(new CommandEntry(term, timestamp, request.session(), request.sequenceNumber(), request.operation()))
+    appendAndCompact(new CommandEntry(term, timestamp, request.session(), request.sequenceNumber(), request.operation(), request.operations()))
         .whenCompleteAsync((entry, error) -> {
           if (error != null) {
             future.complete(CommandResponse.builder()
@@ -696,8 +724,6 @@ public final class LeaderRole extends ActiveRole {
             return;
           }
 
-
-
           // Replicate the command to followers.
           appender.appendEntries(entry.index()).whenComplete((commitIndex, commitError) -> {
             raft.checkThread();
@@ -705,7 +731,7 @@ public final class LeaderRole extends ActiveRole {
               // If the command was successfully committed, apply it to the state machine.
               if (commitError == null) {
                 raft.getServiceManager().<OperationResult>apply(entry.index()).whenComplete((r, e) -> {
-                  completeOperation(r, CommandResponse.builder(), e, future);
+                  completeCommand(r, e, future);
                 });
               } else {
                 future.complete(CommandResponse.builder()
@@ -723,6 +749,27 @@ public final class LeaderRole extends ActiveRole {
         }, raft.getThreadContext());
   }
 
+  /**
+   * Completes a command, building a response for each operation if the command was a batch.
+   */
+  private void completeCommand(OperationResult result, Throwable error, CompletableFuture<CommandResponse> future) {
+    if (error != null || result == null || !result.isBatch()) {
+      completeOperation(result, CommandResponse.builder(), error, future);
+      return;
+    }
+
+    List<CommandResponse> results = new ArrayList<>(result.results().size());
+    for (OperationResult operationResult : result.results()) {
+      results.add(buildOperationResponse(operationResult, CommandResponse.builder(), null));
+    }
+    future.complete(CommandResponse.builder()
+        .withStatus(RaftResponse.Status.OK)
+        .withIndex(result.index())
+        .withEventIndex(result.eventIndex())
+        .withResults(results)
+        .build());
+  }
+
   @Override
   public CompletableFuture<QueryResponse> onQuery(final QueryRequest request) {
     raft.checkThread();
@@ -788,17 +835,85 @@ public final class LeaderRole extends ActiveRole {
   /**
    * Executes a linearizable query.
    * <p>
-   * Linearizable queries are first sequenced with commands and then applied to the state machine. Once
-   * applied, we verify the node's leadership prior to responding successfully to the query.
+   * Linearizable queries are evaluated using the ReadIndex protocol. The leader's commit index is recorded as the
+   * read index and leadership is confirmed with a majority of the cluster. Once the state machine has applied
+   * entries up to the read index, the query is applied to the state machine.
    */
   private CompletableFuture<QueryResponse> queryLinearizable(Indexed<QueryEntry> entry) {
-    return applyQuery(entry)
-        .thenComposeAsync(response -> appender.appendEntries()
-            .thenApply(index -> response)
-            .exceptionally(error -> QueryResponse.builder()
-                .withStatus(RaftResponse.Status.ERROR)
-                .withError(RaftError.Type.QUERY_FAILURE, error.getMessage())
-                .build()), raft.getThreadContext());
+    return readIndex()
+        .thenCompose(raft::awaitApplied)
+        .thenCompose(v -> applyQuery(entry))
+        .exceptionally(error -> QueryResponse.builder()
+            .withStatus(RaftResponse.Status.ERROR)
+            .withError(RaftError.Type.QUERY_FAILURE, error.getMessage())
+            .build());
+  }
+
+  @Override
+  public CompletableFuture<ReadIndexResponse> onReadIndex(ReadIndexRequest request) {
+    raft.checkThread();
+    logRequest(request);
+    return readIndex()
+        .thenApply(index -> ReadIndexResponse.builder()
+            .withStatus(RaftResponse.Status.OK)
+            .withIndex(index)
+            .build())
+        .exceptionally(error -> ReadIndexResponse.builder()
+            .withStatus(RaftResponse.Status.ERROR)
+            .withError(RaftError.Type.QUERY_FAILURE, error.getMessage())
+            .build())
+        .thenApply(this::logResponse);
+  }
+
+  /**
+   * Returns a read index at which linearizable queries may be evaluated.
+   * <p>
+   * The read index is the greater of the current commit index and the index of the leader's initial entry, which
+   * ensures entries committed in prior terms are visible to the query. The returned future is completed once the
+   * leader has confirmed its leadership with a majority of the cluster. Read index requests received before the next
+   * heartbeat round is started share a single round.
+   *
+   * @return a future to be completed with the read index
+   */
+  private CompletableFuture<Long> readIndex() {
+    long readIndex = Math.max(raft.getCommitIndex(), appender.getIndex());
+    if (leadershipFuture == null) {
+      leadershipFuture = new CompletableFuture<>();
+      raft.getThreadContext().execute(this::confirmLeadership);
+    }
+    return leadershipFuture.thenApply(v -> readIndex);
+  }
+
+  /**
+   * Confirms leadership for pending read index requests with a single heartbeat round.
+   */
+  private void confirmLeadership() {
+    CompletableFuture<Void> future = leadershipFuture;
+    leadershipFuture = null;
+    if (future == null) {
+      return;
+    }
+    if (!isRunning()) {
+      future.completeExceptionally(new RaftException.ProtocolException("Failed to reach consensus"));
+      return;
+    }
+    appender.appendEntries().whenComplete((index, error) -> {
+      if (error == null) {
+        future.complete(null);
+      } else {
+        future.completeExceptionally(error);
+      }
+    });
+  }
+
+  /**
+   * Fails read index requests awaiting leadership confirmation.
+   */
+  private void failPendingReads() {
+    if (leadershipFuture != null) {
+      leadershipFuture.completeExceptionally(new RaftException.ProtocolException("Failed to reach consensus"));
+      leadershipFuture = null;
+    }
   }
 
   @Override
@@ -1032,9 +1147,124 @@ public final class LeaderRole extends ActiveRole {
    * @return a completable future to be completed once the entry has been appended
    */
   private <E extends RaftLogEntry> CompletableFuture<Indexed<E>> appendAndCompact(E entry) {
+    if (raft.getStorage().maxBatchSize() > 0) {
+      return appendBatched(entry);
+    }
     return appendAndCompact(entry, 0);
   }
 
+  /**
+   * Enqueues an entry to be appended to the Raft log along with other entries received by the Raft thread.
+   * <p>
+   * When group commit is enabled, the first enqueued entry schedules a task on the Raft thread, and all entries
+   * enqueued before the task runs are appended to the log in a single write.
+   *
+   * @param entry the entry to append
+   * @param <E>   the entry type
+   * @return a completable future to be completed once the entry has been appended
+   */
+  @SuppressWarnings("unchecked")
+  private <E extends RaftLogEntry> CompletableFuture<Indexed<E>> appendBatched(E entry) {
+    CompletableFuture<Indexed<RaftLogEntry>> future = new CompletableFuture<>();
+    if (pendingEntries.isEmpty()) {
+      raft.getThreadContext().execute(this::appendPendingEntries);
+    }
+    pendingEntries.add(entry);
+    pendingAppends.add(future);
+    return (CompletableFuture) future;
+  }
+
+  /**
+   * Appends all enqueued entries to the Raft log in a single batch.
+   * <p>
+   * If the batch cannot be appended, the entries that were appended before the failure are completed and the
+   * remaining entries are appended individually, so an entry that cannot be appended, e.g. because it's too large
+   * for a segment, fails only the request that submitted it.
+   */
+  private void appendPendingEntries() {
+    List<RaftLogEntry> entries = new ArrayList<>(pendingEntries);
+    List<CompletableFuture<Indexed<RaftLogEntry>>> futures = new ArrayList<>(pendingAppends);
+    pendingEntries.clear();
+    pendingAppends.clear();
+
+    if (!isRunning()) {
+      futures.forEach(future -> future.completeExceptionally(new IllegalStateException("Not the leader")));
+      return;
+    }
+
+    RaftLogWriter writer = raft.getLogWriter();
+    long firstIndex = writer.getNextIndex();
+    try {
+      List<Indexed<RaftLogEntry>> indexed = writer.appendBatch(entries);
+      log.trace("Appended {}", indexed);
+      for (int i = 0; i < indexed.size(); i++) {
+        futures.get(i).complete(indexed.get(i));
+      }
+    } catch (StorageException.OutOfDiskSpace e) {
+      log.warn("Caught OutOfDiskSpace error! Force compacting logs...");
+
+      // Append the remaining entries in order once the logs have been compacted.
+      int appended = completeAppended(firstIndex, futures);
+      appendRemaining(raft.getServiceManager().compact(), entries, futures, appended, 1);
+    } catch (RuntimeException e) {
+      log.warn("Failed to append batch of {} entries, appending remaining entries individually", entries.size(), e);
+
+      // Append the remaining entries individually, so that only entries that cannot be appended are failed.
+      int appended = completeAppended(firstIndex, futures);
+      appendRemaining(CompletableFuture.completedFuture(null), entries, futures, appended, 0);
+    }
+  }
+
+  /**
+   * Completes the futures of the entries in a batch that were appended before the batch failed.
+   *
+   * @param firstIndex the index of the first entry in the batch
+   * @param futures    the futures of the entries in the batch
+   * @return the number of entries that were appended
+   */
+  private int completeAppended(long firstIndex, List<CompletableFuture<Indexed<RaftLogEntry>>> futures) {
+    int appended = (int) (raft.getLogWriter().getNextIndex() - firstIndex);
+    if (appended > 0) {
+      try (RaftLogReader reader = raft.getLog().openReader(firstIndex, RaftLogReader.Mode.ALL)) {
+        for (int i = 0; i < appended; i++) {
+          futures.get(i).complete(reader.next());
+        }
+      }
+    }
+    return appended;
+  }
+
+  /**
+   * Appends the entries in a batch that were not appended before the batch failed, one at a time and in order.
+   *
+   * @param start   a future to be completed once the entries can be appended
+   * @param entries the entries in the batch
+   * @param futures the futures of the entries in the batch
+   * @param offset  the number of entries that were appended
+   * @param attempt the append attempt count with which to append each entry
+   */
+  private void appendRemaining(
+      CompletableFuture<Void> start,
+      List<RaftLogEntry> entries,
+      List<CompletableFuture<Indexed<RaftLogEntry>>> futures,
+      int offset,
+      int attempt) {
+    CompletableFuture<Void> next = start;
+    for (int i = offset; i < entries.size(); i++) {
+      RaftLogEntry entry = entries.get(i);
+      CompletableFuture<Indexed<RaftLogEntry>> future = futures.get(i);
+      next = next.thenCompose(v -> appendAndCompact(entry, attempt))
+          .handle((indexed, error) -> {
+            if (error == null) {
+              future.complete(indexed);
+            } else {
+              future.completeExceptionally(error);
+            }
+            return null;
+          });
+    }
+  }
+
   /**
    * Appends an entry to the Raft log and compacts logs if necessary.
    *
@@ -1101,6 +1331,7 @@ public final class LeaderRole extends ActiveRole {
         .thenRun(appender::close)
         .thenRun(this::cancelAppendTimer)
         .thenRun(this::stepDown)
-        .thenRun(this::failPendingCommands);
+        .thenRun(this::failPendingCommands)
+        .thenRun(this::failPendingReads);
   }
 }
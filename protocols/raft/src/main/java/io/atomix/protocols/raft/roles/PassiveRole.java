@@ -27,22 +27,24 @@ import io.atomix.protocols.raft.storage.log.RaftLogReader;
 import io.atomix.protocols.raft.storage.log.RaftLogWriter;
 import io.atomix.protocols.raft.storage.log.entry.QueryEntry;
 import io.atomix.protocols.raft.storage.log.entry.RaftLogEntry;
+import io.atomix.protocols.raft.storage.snapshot.PendingSnapshot;
 import io.atomix.protocols.raft.storage.snapshot.Snapshot;
-import io.atomix.protocols.raft.storage.snapshot.SnapshotWriter;
 import io.atomix.storage.StorageException;
 import io.atomix.storage.journal.Indexed;
 import io.atomix.utils.time.WallClockTimestamp;
 
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
 
-import static com.google.common.base.MoreObjects.toStringHelper;
-
 /**
  * Passive state.
  */
 public class PassiveRole extends InactiveRole {
-  private PendingSnapshot pendingSnapshot;
+  private CompletableFuture<Long> readIndexFuture;
+  private boolean readIndexPending;
+  private long leaseTerm;
+  private long leaseExpiration;
 
   public PassiveRole(RaftContext context) {
     super(context);
@@ -60,6 +62,15 @@ public class PassiveRole extends InactiveRole {
         .thenApply(v -> this);
   }
 
+  @Override
+  public CompletableFuture<Void> stop() {
+    if (readIndexFuture != null) {
+      readIndexFuture.completeExceptionally(new RaftException.Unavailable("Server role changed"));
+      readIndexFuture = null;
+    }
+    return super.stop();
+  }
+
   /**
    * Truncates uncommitted entries from the log.
    */
@@ -82,6 +93,7 @@ public class PassiveRole extends InactiveRole {
    * Handles an AppendRequest.
    */
   protected CompletableFuture<AppendResponse> handleAppend(final AppendRequest request) {
+    final long timestamp = System.currentTimeMillis();
     CompletableFuture<AppendResponse> future = new CompletableFuture<>();
 
     // Check that the term of the given request matches the local term or update the term.
@@ -94,6 +106,15 @@ public class PassiveRole extends InactiveRole {
       return future;
     }
 
+    // If the leader granted a read lease, record the lease for the current term. The lease is measured from the
+    // time the leader sent the request less the maximum clock drift, so it never outlasts the lease the leader
+    // assumes it granted even if the request was delayed and its response was lost.
+    if (request.leaseTimeout() > 0) {
+      long leaseTime = Math.min(timestamp, request.leaseTimestamp() - raft.getMaxClockDrift().toMillis());
+      leaseTerm = request.term();
+      leaseExpiration = Math.max(leaseExpiration, leaseTime + request.leaseTimeout());
+    }
+
     // Append the entries to the log.
     appendEntries(request, future);
     return future;
@@ -197,7 +218,9 @@ public class PassiveRole extends InactiveRole {
       }
 
       // Iterate through entries and append them.
-      for (RaftLogEntry entry : request.entries()) {
+      final List<RaftLogEntry> entries = request.entries();
+      for (int i = 0; i < entries.size(); i++) {
+        final RaftLogEntry entry = entries.get(i);
         long index = ++lastLogIndex;
 
         // Get the last entry written to the log by the writer.
@@ -248,17 +271,23 @@ public class PassiveRole extends InactiveRole {
               throw new IllegalStateException("Log writer inconsistent with next append entry index " + index);
             }
 
-            // Append the entry and log a message.
-            if (!appendEntry(index, entry, writer, future)) {
+            // Append the remaining entries to the end of the log in a single batch.
+            int count = getAppendCount(index, commitIndex, entries.size() - i);
+            if (!appendEntries(index, entries.subList(i, i + count), writer, future)) {
               return;
             }
+            lastLogIndex = index + count - 1;
+            break;
           }
         }
-        // Otherwise, if the last entry is null just append the entry and log a message.
+        // Otherwise, if the last entry is null just append the remaining entries in a single batch.
         else {
-          if (!appendEntry(index, entry, writer, future)) {
+          int count = getAppendCount(index, commitIndex, entries.size() - i);
+          if (!appendEntries(index, entries.subList(i, i + count), writer, future)) {
             return;
           }
+          lastLogIndex = index + count - 1;
+          break;
         }
 
         // If the last log index meets the commitIndex, break the append loop to avoid appending uncommitted entries.
@@ -298,6 +327,34 @@ public class PassiveRole extends InactiveRole {
     return true;
   }
 
+  /**
+   * Returns the number of remaining entries starting at the given index that should be appended to the log.
+   * <p>
+   * Passive members only append entries up to the commit index to avoid appending uncommitted entries.
+   */
+  private int getAppendCount(long index, long commitIndex, int remaining) {
+    if (!role().active() && commitIndex >= index) {
+      return (int) Math.min(remaining, commitIndex - index + 1);
+    }
+    return remaining;
+  }
+
+  /**
+   * Attempts to append a batch of entries, returning {@code false} if the append fails due to an {@link StorageException.OutOfDiskSpace} exception.
+   */
+  private boolean appendEntries(long index, List<RaftLogEntry> entries, RaftLogWriter writer, CompletableFuture<AppendResponse> future) {
+    try {
+      List<Indexed<RaftLogEntry>> indexed = writer.appendBatch(entries);
+      log.trace("Appended {}", indexed);
+    } catch (StorageException.OutOfDiskSpace e) {
+      log.trace("Append failed: {}", e);
+      raft.getServiceManager().compact();
+      failAppend(index - 1, future);
+      return false;
+    }
+    return true;
+  }
+
   /**
    * Returns a failed append response.
    *
@@ -378,11 +435,136 @@ public class PassiveRole extends InactiveRole {
               request.operation()), 0);
 
       return applyQuery(entry).thenApply(this::logResponse);
+    } else if (session.readConsistency() == ReadConsistency.LINEARIZABLE) {
+      return queryReadIndex(request);
+    } else if (session.readConsistency() == ReadConsistency.LINEARIZABLE_LEASE && hasReadLease()) {
+      return queryLease(request);
     } else {
       return queryForward(request);
     }
   }
 
+  /**
+   * Performs a linearizable query locally using the ReadIndex protocol.
+   * <p>
+   * The leader's commit index is requested as the read index, and the query is applied to the local state machine
+   * once entries up to the read index have been applied. If the read index cannot be obtained, the query is
+   * forwarded to the leader.
+   */
+  private CompletableFuture<QueryResponse> queryReadIndex(QueryRequest request) {
+    final Indexed<QueryEntry> entry = new Indexed<>(
+        request.index(),
+        new QueryEntry(
+            raft.getTerm(),
+            System.currentTimeMillis(),
+            request.session(),
+            request.sequenceNumber(),
+            request.operation()), 0);
+
+    CompletableFuture<QueryResponse> future = new CompletableFuture<>();
+    readIndex().whenComplete((readIndex, readIndexError) -> {
+      if (readIndexError == null) {
+        raft.awaitApplied(readIndex)
+            .thenCompose(v -> applyQuery(entry))
+            .whenComplete((response, error) -> {
+              if (error == null) {
+                future.complete(logResponse(response));
+              } else {
+                future.completeExceptionally(error);
+              }
+            });
+      } else {
+        log.trace("Failed to obtain read index, forwarding query to leader");
+        queryForward(request).whenComplete((response, error) -> {
+          if (error == null) {
+            future.complete(response);
+          } else {
+            future.completeExceptionally(error);
+          }
+        });
+      }
+    });
+    return future;
+  }
+
+  /**
+   * Returns a boolean indicating whether this server holds a read lease from the current leader.
+   */
+  private boolean hasReadLease() {
+    return leaseTerm == raft.getTerm() && raft.getLeader() != null && System.currentTimeMillis() < leaseExpiration;
+  }
+
+  /**
+   * Performs a lease-consistent query locally using the read lease granted by the leader.
+   * <p>
+   * While this server holds a read lease, the leader does not complete writes until this server has learned they
+   * are committed. The query is applied to the local state machine once entries up to the local commit index
+   * have been applied.
+   */
+  private CompletableFuture<QueryResponse> queryLease(QueryRequest request) {
+    final Indexed<QueryEntry> entry = new Indexed<>(
+        request.index(),
+        new QueryEntry(
+            raft.getTerm(),
+            System.currentTimeMillis(),
+            request.session(),
+            request.sequenceNumber(),
+            request.operation()), 0);
+
+    return raft.awaitApplied(raft.getCommitIndex())
+        .thenCompose(v -> applyQuery(entry))
+        .thenApply(this::logResponse);
+  }
+
+  /**
+   * Requests a read index from the leader.
+   * <p>
+   * Only a single read index request is sent to the leader at any given time. Queries received while a request is
+   * in flight share the next request, which is sent once the in-flight request completes.
+   *
+   * @return a future to be completed with the read index
+   */
+  private CompletableFuture<Long> readIndex() {
+    CompletableFuture<Long> future = readIndexFuture;
+    if (future == null) {
+      future = new CompletableFuture<>();
+      readIndexFuture = future;
+      if (!readIndexPending) {
+        sendReadIndexRequest();
+      }
+    }
+    return future;
+  }
+
+  /**
+   * Sends a read index request to the leader for queries awaiting a read index.
+   */
+  private void sendReadIndexRequest() {
+    CompletableFuture<Long> future = readIndexFuture;
+    readIndexFuture = null;
+    if (future == null) {
+      return;
+    }
+
+    ReadIndexRequest request = ReadIndexRequest.builder()
+        .withMember(raft.getCluster().getMember().memberId())
+        .build();
+    readIndexPending = true;
+    forward(request, raft.getProtocol()::readIndex).whenComplete((response, error) -> {
+      readIndexPending = false;
+      if (error == null && response.status() == RaftResponse.Status.OK) {
+        future.complete(response.index());
+      } else if (error == null) {
+        future.completeExceptionally(response.error().createException());
+      } else {
+        future.completeExceptionally(error);
+      }
+      if (isRunning()) {
+        sendReadIndexRequest();
+      }
+    });
+  }
+
   /**
    * Forwards the query to the leader.
    */
@@ -427,6 +609,13 @@ public class PassiveRole extends InactiveRole {
    * Completes an operation.
    */
   protected <T extends OperationResponse> void completeOperation(OperationResult result, OperationResponse.Builder<?, T> builder, Throwable error, CompletableFuture<T> future) {
+    future.complete(buildOperationResponse(result, builder, error));
+  }
+
+  /**
+   * Builds an operation response from the given result or error.
+   */
+  protected <T extends OperationResponse> T buildOperationResponse(OperationResult result, OperationResponse.Builder<?, T> builder, Throwable error) {
     if (result != null) {
       builder.withIndex(result.index());
       builder.withEventIndex(result.eventIndex());
@@ -437,27 +626,27 @@ public class PassiveRole extends InactiveRole {
 
     if (error == null) {
       if (result == null) {
-        future.complete(builder.withStatus(RaftResponse.Status.ERROR)
+        return builder.withStatus(RaftResponse.Status.ERROR)
             .withError(RaftError.Type.PROTOCOL_ERROR)
-            .build());
+            .build();
       } else {
-        future.complete(builder.withStatus(RaftResponse.Status.OK)
+        return builder.withStatus(RaftResponse.Status.OK)
             .withResult(result.result())
-            .build());
+            .build();
       }
     } else if (error instanceof CompletionException && error.getCause() instanceof RaftException) {
-      future.complete(builder.withStatus(RaftResponse.Status.ERROR)
+      return builder.withStatus(RaftResponse.Status.ERROR)
           .withError(((RaftException) error.getCause()).getType(), error.getMessage())
-          .build());
+          .build();
     } else if (error instanceof RaftException) {
-      future.complete(builder.withStatus(RaftResponse.Status.ERROR)
+      return builder.withStatus(RaftResponse.Status.ERROR)
           .withError(((RaftException) error).getType(), error.getMessage())
-          .build());
+          .build();
     } else {
       log.warn("An unexpected error occurred: {}", error);
-      future.complete(builder.withStatus(RaftResponse.Status.ERROR)
+      return builder.withStatus(RaftResponse.Status.ERROR)
           .withError(RaftError.Type.PROTOCOL_ERROR, error.getMessage())
-          .build());
+          .build();
     }
   }
 
@@ -490,9 +679,11 @@ public class PassiveRole extends InactiveRole {
     // where snapshots must be sent since entries can still legitimately exist prior to the snapshot,
     // and so snapshots aren't simply sent at the beginning of the follower's log, but rather the
     // leader dictates when a snapshot needs to be sent.
+    PendingSnapshot pendingSnapshot = raft.getPendingSnapshot();
     if (pendingSnapshot != null && request.snapshotIndex() != pendingSnapshot.snapshot().index()) {
       pendingSnapshot.rollback();
       pendingSnapshot = null;
+      raft.setPendingSnapshot(null);
     }
 
     // If there is no pending snapshot, create a new snapshot.
@@ -502,6 +693,7 @@ public class PassiveRole extends InactiveRole {
         return CompletableFuture.completedFuture(logResponse(InstallResponse.builder()
             .withStatus(RaftResponse.Status.ERROR)
             .withError(RaftError.Type.ILLEGAL_MEMBER_STATE, "Request chunk offset is invalid")
+            .withNextChunkOffset(0)
             .build()));
       }
 
@@ -509,37 +701,42 @@ public class PassiveRole extends InactiveRole {
           request.snapshotIndex(),
           WallClockTimestamp.from(request.snapshotTimestamp()));
       pendingSnapshot = new PendingSnapshot(snapshot);
+      raft.setPendingSnapshot(pendingSnapshot);
     }
 
-    // If the request offset is greater than the next expected snapshot offset, fail the request.
+    // If the request offset is greater than the next expected snapshot offset, fail the request and
+    // tell the leader which chunk to resume from.
     if (request.chunkOffset() > pendingSnapshot.nextOffset()) {
       return CompletableFuture.completedFuture(logResponse(InstallResponse.builder()
           .withStatus(RaftResponse.Status.ERROR)
           .withError(RaftError.Type.ILLEGAL_MEMBER_STATE, "Request chunk offset does not match the next chunk offset")
+          .withNextChunkOffset(pendingSnapshot.nextOffset())
           .build()));
     }
-    // If the request offset has already been written, return OK to skip to the next chunk.
+    // If the request offset has already been written, return OK with the next expected chunk offset to
+    // allow the leader to skip chunks that were received before an interruption.
     else if (request.chunkOffset() < pendingSnapshot.nextOffset()) {
       return CompletableFuture.completedFuture(logResponse(InstallResponse.builder()
           .withStatus(RaftResponse.Status.OK)
+          .withNextChunkOffset(pendingSnapshot.nextOffset())
           .build()));
     }
 
     // Write the data to the snapshot.
-    try (SnapshotWriter writer = pendingSnapshot.snapshot().openWriter()) {
-      writer.write(request.data());
-    }
+    pendingSnapshot.write(request.data());
 
-    // If the snapshot is complete, store the snapshot and reset state, otherwise update the next snapshot offset.
+    // If the snapshot is complete, store the snapshot and reset state, otherwise persist the install progress
+    // so the install can be resumed from the next chunk after a restart.
     if (request.complete()) {
       pendingSnapshot.commit();
-      pendingSnapshot = null;
+      raft.setPendingSnapshot(null);
     } else {
-      pendingSnapshot.incrementOffset();
+      raft.updatePendingSnapshot();
     }
 
     return CompletableFuture.completedFuture(logResponse(InstallResponse.builder()
         .withStatus(RaftResponse.Status.OK)
+        .withNextChunkOffset(pendingSnapshot.nextOffset())
         .build()));
   }
 
@@ -725,72 +922,4 @@ public class PassiveRole extends InactiveRole {
           .thenApply(this::logResponse);
     }
   }
-
-  @Override
-  public CompletableFuture<Void> stop() {
-    if (pendingSnapshot != null) {
-      pendingSnapshot.rollback();
-    }
-    return super.stop();
-  }
-
-  /**
-   * Pending snapshot.
-   */
-  private static class PendingSnapshot {
-    private final Snapshot snapshot;
-    private long nextOffset;
-
-    public PendingSnapshot(Snapshot snapshot) {
-      this.snapshot = snapshot;
-    }
-
-    /**
-     * Returns the pending snapshot.
-     *
-     * @return the pending snapshot
-     */
-    public Snapshot snapshot() {
-      return snapshot;
-    }
-
-    /**
-     * Returns and increments the next snapshot offset.
-     *
-     * @return the next snapshot offset
-     */
-    public long nextOffset() {
-      return nextOffset;
-    }
-
-    /**
-     * Increments the next snapshot offset.
-     */
-    public void incrementOffset() {
-      nextOffset++;
-    }
-
-    /**
-     * Commits the snapshot to disk.
-     */
-    public void commit() {
-      snapshot.complete();
-    }
-
-    /**
-     * Closes and deletes the snapshot.
-     */
-    public void rollback() {
-      snapshot.close();
-      snapshot.delete();
-    }
-
-    @Override
-    public String toString() {
-      return toStringHelper(this)
-          .add("snapshot", snapshot)
-          .add("nextOffset", nextOffset)
-          .toString();
-    }
-  }
 }
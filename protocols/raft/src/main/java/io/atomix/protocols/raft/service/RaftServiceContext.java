@@ -21,6 +21,7 @@ import io.atomix.primitive.PrimitiveId;
 import io.atomix.primitive.PrimitiveType;
 import io.atomix.primitive.operation.OperationType;
 import io.atomix.primitive.operation.PrimitiveOperation;
+import io.atomix.primitive.service.BackupOutput;
 import io.atomix.primitive.service.Commit;
 import io.atomix.primitive.service.PrimitiveService;
 import io.atomix.primitive.service.ServiceConfig;
@@ -38,7 +39,9 @@ import io.atomix.protocols.raft.session.RaftSession;
 import io.atomix.protocols.raft.session.RaftSessionRegistry;
 import io.atomix.protocols.raft.storage.snapshot.SnapshotReader;
 import io.atomix.protocols.raft.storage.snapshot.SnapshotWriter;
+import io.atomix.storage.buffer.BufferOutput;
 import io.atomix.storage.buffer.Bytes;
+import io.atomix.utils.concurrent.ThreadContext;
 import io.atomix.utils.concurrent.ThreadContextFactory;
 import io.atomix.utils.config.ConfigurationException;
 import io.atomix.utils.logging.ContextualLoggerFactory;
@@ -50,7 +53,12 @@ import io.atomix.utils.time.WallClock;
 import io.atomix.utils.time.WallClockTimestamp;
 import org.slf4j.Logger;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 import static com.google.common.base.MoreObjects.toStringHelper;
 import static com.google.common.base.Preconditions.checkNotNull;
@@ -68,14 +76,18 @@ public class RaftServiceContext implements ServiceContext {
   private final RaftContext raft;
   private final RaftSessionRegistry sessions;
   private final ThreadContextFactory threadContextFactory;
+  private final ThreadContext executor;
   private long currentIndex;
+  private long commandIndex;
   private Session currentSession;
   private long currentTimestamp;
   private OperationType currentOperation;
+  private boolean dirty = true;
+  private long snapshotIndex;
   private final LogicalClock logicalClock = new LogicalClock() {
     @Override
     public LogicalTimestamp getTime() {
-      return new LogicalTimestamp(currentIndex);
+      return new LogicalTimestamp(currentIndex());
     }
   };
   private final WallClock wallClock = new WallClock() {
@@ -92,7 +104,8 @@ public class RaftServiceContext implements ServiceContext {
       ServiceConfig config,
       PrimitiveService service,
       RaftContext raft,
-      ThreadContextFactory threadContextFactory) {
+      ThreadContextFactory threadContextFactory,
+      ThreadContext executor) {
     this.primitiveId = checkNotNull(primitiveId);
     this.serviceName = checkNotNull(serviceName);
     this.primitiveType = checkNotNull(primitiveType);
@@ -101,6 +114,7 @@ public class RaftServiceContext implements ServiceContext {
     this.raft = checkNotNull(raft);
     this.sessions = raft.getSessions();
     this.threadContextFactory = threadContextFactory;
+    this.executor = checkNotNull(executor);
     this.log = ContextualLoggerFactory.getLogger(getClass(), LoggerContext.builder(PrimitiveService.class)
         .addValue(primitiveId)
         .add("type", primitiveType)
@@ -109,6 +123,15 @@ public class RaftServiceContext implements ServiceContext {
     service.init(this);
   }
 
+  /**
+   * Returns the thread context on which operations are applied to the service.
+   *
+   * @return the service thread context
+   */
+  public ThreadContext executor() {
+    return executor;
+  }
+
   @Override
   public PrimitiveId serviceId() {
     return primitiveId;
@@ -134,8 +157,40 @@ public class RaftServiceContext implements ServiceContext {
     return service.serializer();
   }
 
+  /**
+   * {@inheritDoc}
+   * <p>
+   * Each command is applied at the index of its log entry or, if a previous command has already been applied at
+   * or beyond that index, at the index following the previous command. Since each command in a
+   * {@link #executeCommands(long, long, long, RaftSession, List) batch} is applied at its own index, the current
+   * index runs ahead of the log index after a batch, and remains ahead for commands in subsequent entries until
+   * the log index catches up with it. The current index is exposed to the service through commits, versions and
+   * the {@link #logicalClock() logical clock}, while sessions, events and {@link OperationResult operation results}
+   * are sequenced by the {@link #currentEntryIndex() log index}.
+   */
   @Override
   public long currentIndex() {
+    return Math.max(currentIndex, commandIndex);
+  }
+
+  /**
+   * Returns the index of the last command applied to the service.
+   * <p>
+   * The command index must be written with the service's sessions in snapshots, since it may run ahead of the index
+   * of the snapshot.
+   *
+   * @return the index of the last command applied to the service
+   */
+  public long commandIndex() {
+    return commandIndex;
+  }
+
+  /**
+   * Returns the index of the log entry currently being applied to the service.
+   *
+   * @return the index of the log entry currently being applied
+   */
+  public long currentEntryIndex() {
     return currentIndex;
   }
 
@@ -178,7 +233,9 @@ public class RaftServiceContext implements ServiceContext {
     // Set the current operation type to COMMAND to allow events to be sent.
     setOperation(OperationType.COMMAND);
 
-    service.tick(WallClockTimestamp.from(timestamp));
+    if (service.tickAndReportDirty(WallClockTimestamp.from(timestamp))) {
+      dirty = true;
+    }
   }
 
   /**
@@ -193,6 +250,7 @@ public class RaftServiceContext implements ServiceContext {
         if (session != null) {
           session.expire();
           service.expire(session.sessionId());
+          dirty = true;
         }
       }
     }
@@ -202,6 +260,23 @@ public class RaftServiceContext implements ServiceContext {
    * Installs a snapshot.
    */
   public void installSnapshot(SnapshotReader reader) {
+    installSnapshot(reader, reader, false);
+  }
+
+  /**
+   * Installs a snapshot from separate session and state readers.
+   * <p>
+   * If the state is read from a service snapshot, the service is not {@link #isDirty() dirty} once installed, allowing
+   * the service snapshot to be reused by subsequent partition snapshots.
+   * <p>
+   * Snapshots written in the legacy format do not include the service's command index. Commands were applied at the
+   * index of their log entry when legacy snapshots were written, so the command index resumes from the log index.
+   *
+   * @param reader          the reader from which to read the service sessions
+   * @param stateReader     the reader from which to read the service state
+   * @param hasCommandIndex whether the sessions are followed by the service's {@link #commandIndex() command index}
+   */
+  public void installSnapshot(SnapshotReader reader, SnapshotReader stateReader, boolean hasCommandIndex) {
     log.debug("Installing snapshot {}", reader.snapshot().index());
     reader.skip(Bytes.LONG); // Skip the service ID
     PrimitiveType primitiveType;
@@ -248,7 +323,35 @@ public class RaftServiceContext implements ServiceContext {
     }
     currentIndex = reader.snapshot().index();
     currentTimestamp = reader.snapshot().timestamp().unixTimestamp();
-    service.restore(new DefaultBackupInput(reader, service.serializer()));
+    commandIndex = hasCommandIndex ? reader.readLong() : 0;
+    service.restore(new DefaultBackupInput(stateReader, service.serializer()));
+    if (stateReader.snapshot().serviceId() != 0) {
+      snapshotIndex = stateReader.snapshot().index();
+      dirty = false;
+    } else {
+      dirty = true;
+    }
+  }
+
+  /**
+   * Returns whether the service state may have changed since it was last snapshotted.
+   * <p>
+   * The service is dirty after commands, session registration or expiration, and scheduled callbacks. Changes
+   * to session metadata alone do not dirty the service since sessions are snapshotted separately.
+   *
+   * @return whether the service state may have changed since it was last snapshotted
+   */
+  public boolean isDirty() {
+    return dirty;
+  }
+
+  /**
+   * Returns the index of the last {@link #takeServiceSnapshot(SnapshotWriter) service snapshot}.
+   *
+   * @return the index of the last service snapshot or {@code 0} if the service has not been snapshotted
+   */
+  public long snapshotIndex() {
+    return snapshotIndex;
   }
 
   /**
@@ -256,13 +359,26 @@ public class RaftServiceContext implements ServiceContext {
    */
   public void takeSnapshot(SnapshotWriter writer) {
     log.debug("Taking snapshot {}", writer.snapshot().index());
+    takeSessionSnapshot(writer);
+    takeServiceSnapshot(writer);
+  }
 
-    // Serialize sessions to the in-memory snapshot and request a snapshot from the state machine.
+  /**
+   * Takes a snapshot of the service's sessions.
+   * <p>
+   * Session snapshots must be followed by a {@link #takeServiceSnapshot(SnapshotWriter) service snapshot} to be
+   * installed.
+   */
+  public void takeSessionSnapshot(BufferOutput<?> writer) {
+    // Serialize the sessions belonging to this service to the snapshot.
+    Collection<RaftSession> sessions = this.sessions.getSessions().stream()
+        .filter(session -> session.getService().serviceId().equals(primitiveId))
+        .collect(Collectors.toList());
     writer.writeLong(primitiveId.id());
     writer.writeString(primitiveType.name());
     writer.writeString(serviceName);
-    writer.writeInt(sessions.getSessions().size());
-    for (RaftSession session : sessions.getSessions()) {
+    writer.writeInt(sessions.size());
+    for (RaftSession session : sessions) {
       writer.writeLong(session.sessionId().id());
       writer.writeString(session.memberId().id());
       writer.writeString(session.readConsistency().name());
@@ -274,7 +390,35 @@ public class RaftServiceContext implements ServiceContext {
       writer.writeLong(session.getEventIndex());
       writer.writeLong(session.getLastCompleted());
     }
+  }
+
+  /**
+   * Takes a snapshot of the state of the service, clearing the {@link #isDirty() dirty} flag.
+   */
+  public void takeServiceSnapshot(SnapshotWriter writer) {
     service.backup(new DefaultBackupOutput(writer, service.serializer()));
+    snapshotIndex = writer.snapshot().index();
+    dirty = false;
+  }
+
+  /**
+   * Captures a snapshot of the state of the service to be written asynchronously, clearing the
+   * {@link #isDirty() dirty} flag.
+   *
+   * @param index the index at which the snapshot is captured
+   * @return a function with which to write the captured snapshot, or {@code null} if the service does not support
+   * asynchronous snapshots
+   * @see PrimitiveService#captureBackup()
+   */
+  public Consumer<SnapshotWriter> captureServiceSnapshot(long index) {
+    Consumer<BackupOutput> backup = service.captureBackup();
+    if (backup == null) {
+      return null;
+    }
+    snapshotIndex = index;
+    dirty = false;
+    Serializer serializer = service.serializer();
+    return writer -> backup.accept(new DefaultBackupOutput(writer, serializer));
   }
 
   /**
@@ -299,6 +443,7 @@ public class RaftServiceContext implements ServiceContext {
     // Add the session to the sessions list.
     session.open();
     service.register(sessions.addSession(session));
+    dirty = true;
 
     // Commit the index, causing events to be sent to clients if necessary.
     commit();
@@ -413,12 +558,14 @@ public class RaftServiceContext implements ServiceContext {
       if (session != null) {
         session.expire();
         service.expire(session.sessionId());
+        dirty = true;
       }
     } else {
       session = sessions.removeSession(session.sessionId());
       if (session != null) {
         session.close();
         service.close(session.sessionId());
+        dirty = true;
       }
     }
 
@@ -465,6 +612,41 @@ public class RaftServiceContext implements ServiceContext {
     }
   }
 
+  /**
+   * Executes the given batch of commands on the state machine.
+   * <p>
+   * The commands in the batch are applied in order within the batch entry and share a single sequence number. The
+   * result of the batch is cached in the session as a single result so that retries of the batch receive the
+   * same outputs.
+   *
+   * @param index      The index of the commands.
+   * @param sequence   The batch sequence number.
+   * @param timestamp  The timestamp of the commands.
+   * @param session    The session that submitted the commands.
+   * @param operations The commands to execute.
+   * @return The batch result.
+   */
+  public OperationResult executeCommands(long index, long sequence, long timestamp, RaftSession session, List<PrimitiveOperation> operations) {
+    // Update the session's timestamp to prevent it from being expired.
+    session.setLastUpdated(timestamp);
+
+    // Update the state machine index/timestamp.
+    tick(index, timestamp);
+
+    // If the session is not open, fail the request.
+    if (!session.getState().active()) {
+      log.warn("Session not open: {}", session);
+      throw new RaftException.UnknownSession("Unknown session: " + session.sessionId());
+    }
+
+    // If the batch was previously applied to the state machine, return the cached result.
+    if (sequence > 0 && sequence < session.nextCommandSequence()) {
+      log.trace("Returning cached result for command batch with sequence number {} < {}", sequence, session.nextCommandSequence());
+      return sequenceCommand(index, sequence, session);
+    }
+    return applyCommands(index, sequence, timestamp, operations, session);
+  }
+
   /**
    * Loads and returns a cached command result according to the sequence number.
    */
@@ -480,38 +662,75 @@ public class RaftServiceContext implements ServiceContext {
    * Applies the given commit to the state machine.
    */
   private OperationResult applyCommand(long index, long sequence, long timestamp, PrimitiveOperation operation, RaftSession session) {
-    Commit<byte[]> commit = new DefaultCommit<>(index, operation.id(), operation.value(), session, timestamp);
+    OperationResult result = applyOperation(index, timestamp, operation, session);
+
+    // Once the operation has been applied to the state machine, commit events published by the command.
+    // The state machine context will build a composite future for events published to all sessions.
+    commit();
+
+    // Register the result in the session to ensure retries receive the same output for the command.
+    session.registerResult(sequence, result);
+
+    // Update the session timestamp and command sequence number.
+    session.setCommandSequence(sequence);
+
+    // Complete the command.
+    return result;
+  }
+
+  /**
+   * Applies the given batch of commits to the state machine.
+   * <p>
+   * The batch is committed as a single log entry, but each operation is applied at the {@link #currentIndex() index}
+   * following that of the previous command, so versions derived from the current index are distinct and increase
+   * monotonically within and across batches. Events published by the operations are committed once for the batch.
+   */
+  private OperationResult applyCommands(long index, long sequence, long timestamp, List<PrimitiveOperation> operations, RaftSession session) {
+    long eventIndex = session.getEventIndex();
+
+    // Apply each operation in order, storing failures individually so that one failed operation does not
+    // prevent the rest of the batch from being applied.
+    List<OperationResult> results = new ArrayList<>(operations.size());
+    for (PrimitiveOperation operation : operations) {
+      results.add(applyOperation(index, timestamp, operation, session));
+    }
+
+    // Commit events published by all the commands in the batch.
+    commit();
+
+    OperationResult result = OperationResult.batch(index, eventIndex, results);
+    session.registerResult(sequence, result);
+    session.setCommandSequence(sequence);
+    return result;
+  }
+
+  /**
+   * Applies a single operation in the log entry at the given index to the state machine.
+   * <p>
+   * The operation is applied at the entry index unless a previous command in a batch has already been applied at
+   * that index, in which case it's applied at the index following the previous command.
+   */
+  private OperationResult applyOperation(long index, long timestamp, PrimitiveOperation operation, RaftSession session) {
+    commandIndex = Math.max(index, commandIndex + 1);
+    Commit<byte[]> commit = new DefaultCommit<>(commandIndex, operation.id(), operation.value(), session, timestamp);
 
     long eventIndex = session.getEventIndex();
 
-    OperationResult result;
     try {
       currentSession = session;
 
       // Execute the state machine operation and get the result.
+      dirty = true;
       byte[] output = service.apply(commit);
 
       // Store the result for linearizability and complete the command.
-      result = OperationResult.succeeded(index, eventIndex, output);
+      return OperationResult.succeeded(index, eventIndex, output);
     } catch (Exception e) {
       // If an exception occurs during execution of the command, store the exception.
-      result = OperationResult.failed(index, eventIndex, e);
+      return OperationResult.failed(index, eventIndex, e);
     } finally {
       currentSession = null;
     }
-
-    // Once the operation has been applied to the state machine, commit events published by the command.
-    // The state machine context will build a composite future for events published to all sessions.
-    commit();
-
-    // Register the result in the session to ensure retries receive the same output for the command.
-    session.registerResult(sequence, result);
-
-    // Update the session timestamp and command sequence number.
-    session.setCommandSequence(sequence);
-
-    // Complete the command.
-    return result;
   }
 
   /**
@@ -588,7 +807,7 @@ public class RaftServiceContext implements ServiceContext {
     // Set the current operation type to QUERY to prevent events from being sent to clients.
     setOperation(OperationType.QUERY);
 
-    Commit<byte[]> commit = new DefaultCommit<>(currentIndex, operation.id(), operation.value(), session, timestamp);
+    Commit<byte[]> commit = new DefaultCommit<>(currentIndex(), operation.id(), operation.value(), session, timestamp);
 
     long eventIndex = session.getEventIndex();
 
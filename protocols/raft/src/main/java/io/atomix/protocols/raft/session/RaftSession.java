@@ -441,14 +441,14 @@ public class RaftSession extends AbstractSession {
 
     // If the client acked an index greater than the current event sequence number since we know the
     // client must have received it from another server.
-    if (completeIndex > context.currentIndex()) {
+    if (completeIndex > context.currentEntryIndex()) {
       return;
     }
 
     // If no event has been published for this index yet, create a new event holder.
-    if (this.currentEventList == null || this.currentEventList.eventIndex != context.currentIndex()) {
+    if (this.currentEventList == null || this.currentEventList.eventIndex != context.currentEntryIndex()) {
       long previousIndex = eventIndex;
-      eventIndex = context.currentIndex();
+      eventIndex = context.currentEntryIndex();
       this.currentEventList = new EventHolder(eventIndex, previousIndex);
     }
 
@@ -546,7 +546,7 @@ public class RaftSession extends AbstractSession {
    */
   public void open() {
     setState(State.OPEN);
-    protocol.registerResetListener(sessionId(), request -> resendEvents(request.index()), server.getServiceManager().executor());
+    protocol.registerResetListener(sessionId(), request -> resendEvents(request.index()), context.executor());
   }
 
   /**
@@ -41,6 +41,8 @@ public interface RaftSessionClient extends SessionClient {
     protected Recovery recoveryStrategy = Recovery.RECOVER;
     protected int maxRetries = 0;
     protected Duration retryDelay = Duration.ofMillis(100);
+    protected Duration commandBatchWindow = Duration.ZERO;
+    protected int maxCommandBatchSize = 128;
 
     /**
      * Sets the minimum session timeout.
@@ -142,5 +144,32 @@ public interface RaftSessionClient extends SessionClient {
       this.retryDelay = checkNotNull(retryDelay, "retryDelay cannot be null");
       return this;
     }
+  
+    /**
+     * Sets the window within which commands submitted to the session are batched.
+     * <p>
+     * When set to a positive duration, commands submitted within the window are sent to the cluster as a single
+     * request and committed as a single log entry. By default, command batching is disabled.
+     *
+     * @param commandBatchWindow the command batch window, or {@link Duration#ZERO} to disable command batching
+     * @return the proxy builder
+     * @throws NullPointerException if the window is null
+     */
+    public Builder withCommandBatchWindow(Duration commandBatchWindow) {
+      this.commandBatchWindow = checkNotNull(commandBatchWindow, "commandBatchWindow cannot be null");
+      return this;
+    }
+
+    /**
+     * Sets the maximum number of commands in a single batch.
+     *
+     * @param maxCommandBatchSize the maximum number of commands in a single batch
+     * @return the proxy builder
+     */
+    public Builder withMaxCommandBatchSize(int maxCommandBatchSize) {
+      checkArgument(maxCommandBatchSize > 0, "maxCommandBatchSize must be positive");
+      this.maxCommandBatchSize = maxCommandBatchSize;
+      return this;
+    }
   }
 }
@@ -65,6 +65,8 @@ public class DefaultRaftSessionClient implements RaftSessionClient {
   private final PartitionId partitionId;
   private final Duration minTimeout;
   private final Duration maxTimeout;
+  private final Duration commandBatchWindow;
+  private final int maxCommandBatchSize;
   private final RaftClientProtocol protocol;
   private final MemberSelectorManager selectorManager;
   private final RaftSessionManager sessionManager;
@@ -89,6 +91,25 @@ public class DefaultRaftSessionClient implements RaftSessionClient {
       ThreadContext context,
       Duration minTimeout,
       Duration maxTimeout) {
+    this(serviceName, primitiveType, serviceConfig, partitionId, protocol, selectorManager, sessionManager, readConsistency,
+        communicationStrategy, context, minTimeout, maxTimeout, Duration.ZERO, 1);
+  }
+
+  public DefaultRaftSessionClient(
+      String serviceName,
+      PrimitiveType primitiveType,
+      ServiceConfig serviceConfig,
+      PartitionId partitionId,
+      RaftClientProtocol protocol,
+      MemberSelectorManager selectorManager,
+      RaftSessionManager sessionManager,
+      ReadConsistency readConsistency,
+      CommunicationStrategy communicationStrategy,
+      ThreadContext context,
+      Duration minTimeout,
+      Duration maxTimeout,
+      Duration commandBatchWindow,
+      int maxCommandBatchSize) {
     this.serviceName = checkNotNull(serviceName, "serviceName cannot be null");
     this.primitiveType = checkNotNull(primitiveType, "serviceType cannot be null");
     this.serviceConfig = checkNotNull(serviceConfig, "serviceConfig cannot be null");
@@ -100,6 +121,8 @@ public class DefaultRaftSessionClient implements RaftSessionClient {
     this.context = checkNotNull(context, "context cannot be null");
     this.minTimeout = checkNotNull(minTimeout, "minTimeout cannot be null");
     this.maxTimeout = checkNotNull(maxTimeout, "maxTimeout cannot be null");
+    this.commandBatchWindow = checkNotNull(commandBatchWindow, "commandBatchWindow cannot be null");
+    this.maxCommandBatchSize = maxCommandBatchSize;
     this.sessionManager = checkNotNull(sessionManager, "sessionManager cannot be null");
   }
 
@@ -217,7 +240,9 @@ public class DefaultRaftSessionClient implements RaftSessionClient {
               state,
               sequencer,
               sessionManager,
-              context);
+              context,
+              commandBatchWindow,
+              maxCommandBatchSize);
 
           selectorManager.addLeaderChangeListener(leaderChangeListener);
           state.addStateChangeListener(s -> {
@@ -27,6 +27,7 @@ import io.atomix.protocols.raft.protocol.OperationResponse;
 import io.atomix.protocols.raft.protocol.QueryRequest;
 import io.atomix.protocols.raft.protocol.QueryResponse;
 import io.atomix.protocols.raft.protocol.RaftResponse;
+import io.atomix.utils.concurrent.Scheduled;
 import io.atomix.utils.concurrent.ThreadContext;
 
 import java.net.ConnectException;
@@ -34,6 +35,7 @@ import java.nio.channels.ClosedChannelException;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
@@ -63,8 +65,13 @@ final class RaftSessionInvoker {
   private final RaftSessionSequencer sequencer;
   private final RaftSessionManager manager;
   private final ThreadContext context;
+  private final Duration batchWindow;
+  private final int maxBatchSize;
   private final Map<Long, OperationAttempt> attempts = new LinkedHashMap<>();
   private final AtomicLong keepAliveIndex = new AtomicLong();
+  private List<PrimitiveOperation> batchOperations = new ArrayList<>();
+  private List<CompletableFuture<byte[]>> batchFutures = new ArrayList<>();
+  private Scheduled batchTimer;
 
   public RaftSessionInvoker(
       RaftSessionConnection leaderConnection,
@@ -73,12 +80,26 @@ final class RaftSessionInvoker {
       RaftSessionSequencer sequencer,
       RaftSessionManager manager,
       ThreadContext context) {
+    this(leaderConnection, sessionConnection, state, sequencer, manager, context, Duration.ZERO, 1);
+  }
+
+  public RaftSessionInvoker(
+      RaftSessionConnection leaderConnection,
+      RaftSessionConnection sessionConnection,
+      RaftSessionState state,
+      RaftSessionSequencer sequencer,
+      RaftSessionManager manager,
+      ThreadContext context,
+      Duration batchWindow,
+      int maxBatchSize) {
     this.leaderConnection = checkNotNull(leaderConnection, "leaderConnection");
     this.sessionConnection = checkNotNull(sessionConnection, "sessionConnection");
     this.state = checkNotNull(state, "state");
     this.sequencer = checkNotNull(sequencer, "sequencer");
     this.manager = checkNotNull(manager, "manager");
     this.context = checkNotNull(context, "context cannot be null");
+    this.batchWindow = checkNotNull(batchWindow, "batchWindow cannot be null");
+    this.maxBatchSize = maxBatchSize;
   }
 
   /**
@@ -104,8 +125,73 @@ final class RaftSessionInvoker {
 
   /**
    * Submits a command to the cluster.
+   * <p>
+   * If command batching is enabled, the command is added to the pending batch, which is submitted once the batch
+   * window expires or the batch is full.
    */
   private void invokeCommand(PrimitiveOperation operation, CompletableFuture<byte[]> future) {
+    if (batchWindow.isZero() || maxBatchSize <= 1) {
+      submitCommand(operation, future);
+      return;
+    }
+
+    batchOperations.add(operation);
+    batchFutures.add(future);
+    if (batchOperations.size() >= maxBatchSize) {
+      flushBatch();
+    } else if (batchTimer == null) {
+      batchTimer = context.schedule(batchWindow, () -> {
+        batchTimer = null;
+        flushBatch();
+      });
+    }
+  }
+
+  /**
+   * Submits the pending batch of commands to the cluster.
+   * <p>
+   * A batch is submitted as a single command request with a single sequence number. A batch containing a single
+   * command is submitted as a normal command.
+   */
+  private void flushBatch() {
+    if (batchTimer != null) {
+      batchTimer.cancel();
+      batchTimer = null;
+    }
+    if (batchOperations.isEmpty()) {
+      return;
+    }
+
+    List<PrimitiveOperation> operations = batchOperations;
+    List<CompletableFuture<byte[]>> futures = batchFutures;
+    batchOperations = new ArrayList<>();
+    batchFutures = new ArrayList<>();
+
+    if (operations.size() == 1) {
+      submitCommand(operations.get(0), futures.get(0));
+      return;
+    }
+
+    CommandRequest request = CommandRequest.builder()
+        .withSession(state.getSessionId().id())
+        .withSequence(state.nextCommandRequest())
+        .withOperations(operations)
+        .build();
+
+    // The batch attempt's future is completed once all the operations' futures have been completed in sequence.
+    CompletableFuture<byte[]> future = new CompletableFuture<>();
+    future.whenComplete((result, error) -> {
+      if (error != null) {
+        futures.forEach(f -> f.completeExceptionally(error));
+      }
+    });
+    invoke(new CommandBatchAttempt(sequencer.nextRequest(), request, future, futures));
+  }
+
+  /**
+   * Submits a single command to the cluster.
+   */
+  private void submitCommand(PrimitiveOperation operation, CompletableFuture<byte[]> future) {
     CommandRequest request = CommandRequest.builder()
         .withSession(state.getSessionId().id())
         .withSequence(state.nextCommandRequest())
@@ -125,6 +211,9 @@ final class RaftSessionInvoker {
    * Submits a query to the cluster.
    */
   private void invokeQuery(PrimitiveOperation operation, CompletableFuture<byte[]> future) {
+    // Submit pending commands before the query to ensure the query observes them.
+    flushBatch();
+
     QueryRequest request = QueryRequest.builder()
         .withSession(state.getSessionId().id())
         .withSequence(state.getCommandRequest())
@@ -209,6 +298,13 @@ final class RaftSessionInvoker {
    * @return A completable future to be completed with a list of pending operations.
    */
   public CompletableFuture<Void> close() {
+    if (batchTimer != null) {
+      batchTimer.cancel();
+      batchTimer = null;
+    }
+    batchFutures.forEach(future -> future.completeExceptionally(new PrimitiveException.ClosedSession("session closed")));
+    batchOperations = new ArrayList<>();
+    batchFutures = new ArrayList<>();
     for (OperationAttempt attempt : new ArrayList<>(attempts.values())) {
       attempt.fail(new PrimitiveException.ClosedSession("session closed"));
     }
@@ -321,7 +417,7 @@ final class RaftSessionInvoker {
   /**
    * Command operation attempt.
    */
-  private final class CommandAttempt extends OperationAttempt<CommandRequest, CommandResponse> {
+  private class CommandAttempt extends OperationAttempt<CommandRequest, CommandResponse> {
     CommandAttempt(long sequence, CommandRequest request, CompletableFuture<byte[]> future) {
       super(sequence, 1, request, future);
     }
@@ -394,6 +490,47 @@ final class RaftSessionInvoker {
     }
   }
 
+  /**
+   * Command batch attempt.
+   */
+  private final class CommandBatchAttempt extends CommandAttempt {
+    private final List<CompletableFuture<byte[]>> futures;
+
+    CommandBatchAttempt(long sequence, CommandRequest request, CompletableFuture<byte[]> future, List<CompletableFuture<byte[]>> futures) {
+      this(sequence, 1, request, future, futures);
+    }
+
+    CommandBatchAttempt(long sequence, int attempt, CommandRequest request, CompletableFuture<byte[]> future, List<CompletableFuture<byte[]>> futures) {
+      super(sequence, attempt, request, future);
+      this.futures = futures;
+    }
+
+    @Override
+    protected OperationAttempt<CommandRequest, CommandResponse> next() {
+      return new CommandBatchAttempt(sequence, this.attempt + 1, request, future, futures);
+    }
+
+    @Override
+    protected void complete(CommandResponse response) {
+      sequence(response, () -> {
+        state.setCommandResponse(request.sequenceNumber());
+        state.setResponseIndex(response.index());
+        List<CommandResponse> results = response.results();
+        for (int i = 0; i < futures.size(); i++) {
+          CommandResponse result = results != null && i < results.size() ? results.get(i) : null;
+          if (result == null) {
+            futures.get(i).completeExceptionally(defaultException());
+          } else if (result.status() == RaftResponse.Status.OK) {
+            futures.get(i).complete(result.result());
+          } else {
+            futures.get(i).completeExceptionally(result.error().createException());
+          }
+        }
+        future.complete(null);
+      });
+    }
+  }
+
   /**
    * Query operation attempt.
    */
@@ -29,6 +29,7 @@ import io.atomix.utils.serializer.Serializer;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
+import java.time.Duration;
 import java.util.function.Predicate;
 
 import static com.google.common.base.MoreObjects.toStringHelper;
@@ -72,6 +73,8 @@ public class RaftStorage {
   private final boolean dynamicCompaction;
   private final double freeDiskBuffer;
   private final boolean flushOnCommit;
+  private final int maxBatchSize;
+  private final Duration maxBatchLinger;
   private final boolean retainStaleSnapshots;
   private final StorageStatistics statistics;
 
@@ -85,6 +88,8 @@ public class RaftStorage {
       boolean dynamicCompaction,
       double freeDiskBuffer,
       boolean flushOnCommit,
+      int maxBatchSize,
+      Duration maxBatchLinger,
       boolean retainStaleSnapshots) {
     this.prefix = prefix;
     this.storageLevel = storageLevel;
@@ -95,6 +100,8 @@ public class RaftStorage {
     this.dynamicCompaction = dynamicCompaction;
     this.freeDiskBuffer = freeDiskBuffer;
     this.flushOnCommit = flushOnCommit;
+    this.maxBatchSize = maxBatchSize;
+    this.maxBatchLinger = maxBatchLinger;
     this.retainStaleSnapshots = retainStaleSnapshots;
     this.statistics = new StorageStatistics(directory);
     directory.mkdirs();
@@ -193,6 +200,24 @@ public class RaftStorage {
     return flushOnCommit;
   }
 
+  /**
+   * Returns the maximum number of bytes to accumulate in the log before a group commit flush.
+   *
+   * @return the maximum group commit batch size in bytes, or {@code 0} if group commit is disabled
+   */
+  public int maxBatchSize() {
+    return maxBatchSize;
+  }
+
+  /**
+   * Returns the maximum time for which a log flush may be deferred by group commit.
+   *
+   * @return the maximum group commit linger time
+   */
+  public Duration maxBatchLinger() {
+    return maxBatchLinger;
+  }
+
   /**
    * Returns a boolean value indicating whether to retain stale snapshots on disk.
    * <p>
@@ -235,7 +260,8 @@ public class RaftStorage {
    */
   public void deleteMetaStore() {
     deleteFiles(f -> f.getName().equals(String.format("%s.meta", prefix)) ||
-        f.getName().equals(String.format("%s.conf", prefix)));
+        f.getName().equals(String.format("%s.conf", prefix)) ||
+        f.getName().equals(String.format("%s.install", prefix)));
   }
 
   /**
@@ -280,6 +306,9 @@ public class RaftStorage {
         .withMaxSegmentSize(maxSegmentSize)
         .withMaxEntriesPerSegment(maxEntriesPerSegment)
         .withFlushOnCommit(flushOnCommit)
+        .withMaxBatchSize(maxBatchSize)
+        .withMaxBatchLinger(maxBatchLinger)
+        .withStatistics(statistics)
         .build();
   }
 
@@ -340,6 +369,8 @@ public class RaftStorage {
     private static final boolean DEFAULT_DYNAMIC_COMPACTION = true;
     private static final double DEFAULT_FREE_DISK_BUFFER = .2;
     private static final boolean DEFAULT_FLUSH_ON_COMMIT = true;
+    private static final int DEFAULT_MAX_BATCH_SIZE = 0;
+    private static final Duration DEFAULT_MAX_BATCH_LINGER = Duration.ofMillis(1);
     private static final boolean DEFAULT_RETAIN_STALE_SNAPSHOTS = false;
 
     private String prefix = DEFAULT_PREFIX;
@@ -351,6 +382,8 @@ public class RaftStorage {
     private boolean dynamicCompaction = DEFAULT_DYNAMIC_COMPACTION;
     private double freeDiskBuffer = DEFAULT_FREE_DISK_BUFFER;
     private boolean flushOnCommit = DEFAULT_FLUSH_ON_COMMIT;
+    private int maxBatchSize = DEFAULT_MAX_BATCH_SIZE;
+    private Duration maxBatchLinger = DEFAULT_MAX_BATCH_LINGER;
     private boolean retainStaleSnapshots = DEFAULT_RETAIN_STALE_SNAPSHOTS;
 
     private Builder() {
@@ -530,6 +563,38 @@ public class RaftStorage {
       return this;
     }
 
+    /**
+     * Sets the maximum group commit batch size in bytes, returning the builder for method chaining.
+     * <p>
+     * When the maximum batch size is positive, the leader appends commands received together to the log in a
+     * single write, and flushes on commit are deferred until either the number of unflushed bytes reaches the
+     * maximum batch size or the {@link #withMaxBatchLinger(Duration) maximum linger time} has elapsed, so a single
+     * flush covers many appended entries. Committed entries are not applied until they have been flushed. By
+     * default, group commit is disabled.
+     *
+     * @param maxBatchSize the maximum group commit batch size in bytes
+     * @return The storage builder.
+     * @throws IllegalArgumentException if the maximum batch size is negative
+     */
+    public Builder withMaxBatchSize(int maxBatchSize) {
+      checkArgument(maxBatchSize >= 0, "maxBatchSize must be positive");
+      this.maxBatchSize = maxBatchSize;
+      return this;
+    }
+
+    /**
+     * Sets the maximum time for which a log flush may be deferred by group commit, returning the builder for
+     * method chaining.
+     *
+     * @param maxBatchLinger the maximum group commit linger time
+     * @return The storage builder.
+     * @throws NullPointerException if the linger time is {@code null}
+     */
+    public Builder withMaxBatchLinger(Duration maxBatchLinger) {
+      this.maxBatchLinger = checkNotNull(maxBatchLinger, "maxBatchLinger cannot be null");
+      return this;
+    }
+
     /**
      * Enables retaining stale snapshots on disk, returning the builder for method chaining.
      * <p>
@@ -579,6 +644,8 @@ public class RaftStorage {
           dynamicCompaction,
           freeDiskBuffer,
           flushOnCommit,
+          maxBatchSize,
+          maxBatchLinger,
           retainStaleSnapshots);
     }
   }
@@ -19,9 +19,12 @@ import io.atomix.protocols.raft.storage.log.entry.RaftLogEntry;
 import io.atomix.storage.StorageLevel;
 import io.atomix.storage.journal.DelegatingJournal;
 import io.atomix.storage.journal.SegmentedJournal;
+import io.atomix.storage.journal.index.JournalIndexType;
+import io.atomix.storage.statistics.StorageStatistics;
 import io.atomix.utils.serializer.Serializer;
 
 import java.io.File;
+import java.time.Duration;
 
 /**
  * Raft log.
@@ -240,6 +243,20 @@ public class RaftLog extends DelegatingJournal<RaftLogEntry> {
       return this;
     }
 
+    /**
+     * Sets the log index type.
+     * <p>
+     * A {@link JournalIndexType#DENSE dense} index supports constant time lookups and is persisted alongside each
+     * segment file, allowing segments to be reopened without scanning all their entries.
+     *
+     * @param indexType the log index type
+     * @return the log builder
+     */
+    public Builder withIndexType(JournalIndexType indexType) {
+      journalBuilder.withIndexType(indexType);
+      return this;
+    }
+
     /**
      * Sets the log index density.
      * <p>
@@ -267,6 +284,56 @@ public class RaftLog extends DelegatingJournal<RaftLogEntry> {
       return this;
     }
 
+    /**
+     * Sets the maximum total size of cached entries in bytes.
+     *
+     * @param maxCacheBytes the maximum total size of cached entries in bytes
+     * @return the log builder
+     * @throws IllegalArgumentException if the maximum cache size is negative
+     */
+    public Builder withMaxCacheBytes(long maxCacheBytes) {
+      journalBuilder.withMaxCacheBytes(maxCacheBytes);
+      return this;
+    }
+
+    /**
+     * Sets the statistics to which to record log metrics.
+     *
+     * @param statistics the log statistics
+     * @return the log builder
+     */
+    public Builder withStatistics(StorageStatistics statistics) {
+      journalBuilder.withStatistics(statistics);
+      return this;
+    }
+
+    /**
+     * Sets the maximum group commit batch size in bytes, returning the builder for method chaining.
+     * <p>
+     * When the maximum batch size is positive, flushes on commit are deferred until either the number of
+     * unflushed bytes reaches the maximum batch size or the {@link #withMaxBatchLinger(Duration) maximum linger
+     * time} has elapsed.
+     *
+     * @param maxBatchSize the maximum group commit batch size in bytes
+     * @return the log builder
+     * @throws IllegalArgumentException if the maximum batch size is negative
+     */
+    public Builder withMaxBatchSize(int maxBatchSize) {
+      journalBuilder.withMaxBatchSize(maxBatchSize);
+      return this;
+    }
+
+    /**
+     * Sets the maximum time for which a log flush may be deferred by group commit.
+     *
+     * @param maxBatchLinger the maximum group commit linger time
+     * @return the log builder
+     */
+    public Builder withMaxBatchLinger(Duration maxBatchLinger) {
+      journalBuilder.withMaxBatchLinger(maxBatchLinger);
+      return this;
+    }
+
     /**
      * Enables flushing buffers to disk when entries are committed to a segment, returning the builder
      * for method chaining.
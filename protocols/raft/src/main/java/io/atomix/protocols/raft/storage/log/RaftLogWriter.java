@@ -18,6 +18,9 @@ package io.atomix.protocols.raft.storage.log;
 import io.atomix.protocols.raft.storage.log.entry.RaftLogEntry;
 import io.atomix.storage.journal.DelegatingJournalWriter;
 import io.atomix.storage.journal.SegmentedJournalWriter;
+import io.atomix.utils.concurrent.Scheduler;
+
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Raft log writer.
@@ -55,6 +58,26 @@ public class RaftLogWriter extends DelegatingJournalWriter<RaftLogEntry> {
     }
   }
 
+  /**
+   * Commits entries up to the given index, deferring the flush on commit if group commit is enabled.
+   * <p>
+   * If the flush is deferred, it is scheduled on the given scheduler, which must run the flush on the thread that
+   * writes to the log. Committed entries must not be applied until the returned future has been completed.
+   *
+   * @param index     The index up to which to commit entries.
+   * @param scheduler The scheduler with which to schedule a deferred flush.
+   * @return A future to be completed once the committed entries have been flushed to disk.
+   */
+  public CompletableFuture<Void> commit(long index, Scheduler scheduler) {
+    if (index > log.getCommitIndex()) {
+      log.setCommitIndex(index);
+      if (log.isFlushOnCommit()) {
+        return writer.flush(scheduler);
+      }
+    }
+    return CompletableFuture.completedFuture(null);
+  }
+
   @Override
   public void truncate(long index) {
     if (index < log.getCommitIndex()) {
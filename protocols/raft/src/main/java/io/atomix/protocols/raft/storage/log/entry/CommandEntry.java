@@ -16,15 +16,63 @@
 package io.atomix.protocols.raft.storage.log.entry;
 
 import io.atomix.primitive.operation.PrimitiveOperation;
+import io.atomix.utils.misc.TimestampPrinter;
+
+import java.util.List;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
 
 /**
  * Stores a state machine command.
  * <p>
  * The {@code CommandEntry} is used to store an individual state machine command from an individual
  * client along with information relevant to sequencing the command in the server state machine.
+ * <p>
+ * A command entry may store a {@link #operations() batch} of commands in place of a single operation. The
+ * commands in a batch share the entry's index and sequence number and are applied in the order in which they
+ * appear in the batch.
  */
 public class CommandEntry extends OperationEntry {
+  private final List<PrimitiveOperation> operations;
+
   public CommandEntry(long term, long timestamp, long session, long sequence, PrimitiveOperation operation) {
+    this(term, timestamp, session, sequence, operation, null);
+  }
+
+  public CommandEntry(long term, long timestamp, long session, long sequence, PrimitiveOperation operation, List<PrimitiveOperation> operations) {
     super(term, timestamp, session, sequence, operation);
+    this.operations = operations;
+  }
+
+  /**
+   * Returns the batch of operations stored in the entry.
+   *
+   * @return the batch of operations, or {@code null} if the entry stores a single operation
+   */
+  public List<PrimitiveOperation> operations() {
+    return operations;
+  }
+
+  /**
+   * Returns whether the entry stores a batch of operations.
+   *
+   * @return whether the entry stores a batch of operations
+   */
+  public boolean isBatch() {
+    return operations != null;
+  }
+
+  @Override
+  public String toString() {
+    if (operations == null) {
+      return super.toString();
+    }
+    return toStringHelper(this)
+        .add("term", term)
+        .add("timestamp", new TimestampPrinter(timestamp))
+        .add("session", session)
+        .add("sequence", sequence)
+        .add("operations", operations)
+        .toString();
   }
 }
\ No newline at end of file
@@ -66,6 +66,13 @@ final class FileSnapshot extends Snapshot {
     return openReader(new SnapshotReader(buffer.mark().limit(SnapshotDescriptor.BYTES + Integer.BYTES + length), this), descriptor);
   }
 
+  @Override
+  public int length() {
+    try (Buffer buffer = FileBuffer.allocate(file.file(), SnapshotDescriptor.BYTES)) {
+      return buffer.readInt(SnapshotDescriptor.BYTES);
+    }
+  }
+
   @Override
   public boolean isPersisted() {
     return true;
@@ -55,10 +55,15 @@ final class MemorySnapshot extends Snapshot {
     return openReader(new SnapshotReader(buffer.reset().slice(), this), descriptor);
   }
 
+  @Override
+  public int length() {
+    return (descriptor.isLocked() ? buffer.limit() : buffer.position()) - SnapshotDescriptor.BYTES;
+  }
+
   @Override
   public Snapshot persist() {
     if (store.storage.storageLevel() != StorageLevel.MEMORY) {
-      try (Snapshot newSnapshot = store.newSnapshot(index(), timestamp())) {
+      try (Snapshot newSnapshot = store.newSnapshot(serviceId(), index(), timestamp())) {
         try (SnapshotWriter newSnapshotWriter = newSnapshot.openWriter()) {
           buffer.flip().skip(SnapshotDescriptor.BYTES);
           newSnapshotWriter.write(buffer.array(), buffer.position(), buffer.remaining());
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.protocols.raft.storage.snapshot;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Snapshot being installed from the leader in chunks.
+ * <p>
+ * The pending snapshot tracks the offset of the next chunk to install and the number of bytes written so far,
+ * which together with the snapshot index form a resume token for the install.
+ */
+public class PendingSnapshot {
+  private final Snapshot snapshot;
+  private int nextOffset;
+  private int length;
+
+  public PendingSnapshot(Snapshot snapshot) {
+    this(snapshot, 0, 0);
+  }
+
+  public PendingSnapshot(Snapshot snapshot, int nextOffset, int length) {
+    this.snapshot = checkNotNull(snapshot, "snapshot cannot be null");
+    this.nextOffset = nextOffset;
+    this.length = length;
+  }
+
+  /**
+   * Returns the pending snapshot.
+   *
+   * @return the pending snapshot
+   */
+  public Snapshot snapshot() {
+    return snapshot;
+  }
+
+  /**
+   * Returns the offset of the next chunk to install.
+   *
+   * @return the offset of the next chunk to install
+   */
+  public int nextOffset() {
+    return nextOffset;
+  }
+
+  /**
+   * Returns the number of bytes written to the snapshot.
+   *
+   * @return the number of bytes written to the snapshot
+   */
+  public int length() {
+    return length;
+  }
+
+  /**
+   * Writes the next chunk to the snapshot and increments the next offset.
+   *
+   * @param data the chunk to write
+   */
+  public void write(byte[] data) {
+    try (SnapshotWriter writer = snapshot.openWriter()) {
+      writer.write(data);
+    }
+    nextOffset++;
+    length += data.length;
+  }
+
+  /**
+   * Commits the snapshot to disk.
+   */
+  public void commit() {
+    snapshot.complete();
+  }
+
+  /**
+   * Closes and deletes the snapshot.
+   */
+  public void rollback() {
+    snapshot.close();
+    snapshot.delete();
+  }
+
+  /**
+   * Closes the snapshot, retaining it on disk to be resumed.
+   */
+  public void close() {
+    snapshot.close();
+  }
+
+  @Override
+  public String toString() {
+    return toStringHelper(this)
+        .add("snapshot", snapshot)
+        .add("nextOffset", nextOffset)
+        .add("length", length)
+        .toString();
+  }
+}
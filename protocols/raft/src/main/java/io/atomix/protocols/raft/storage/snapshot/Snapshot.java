@@ -75,6 +75,30 @@ public abstract class Snapshot implements AutoCloseable {
     return descriptor.index();
   }
 
+  /**
+   * Returns the identifier of the service to which the snapshot belongs.
+   * <p>
+   * Partition snapshots, which contain the state of all services in the partition, have a service identifier
+   * of {@code 0}.
+   *
+   * @return The snapshot service identifier.
+   */
+  public long serviceId() {
+    return descriptor.serviceId();
+  }
+
+  /**
+   * Returns whether the snapshot is a {@link SnapshotManifest manifest} of service snapshots.
+   * <p>
+   * Manifest snapshots reference the service snapshots containing the state of each service rather than copying
+   * their state. Use {@link SnapshotStore#getManifest(Snapshot)} to read the services in a manifest snapshot.
+   *
+   * @return Indicates whether the snapshot is a manifest.
+   */
+  public boolean isManifest() {
+    return descriptor.isManifest();
+  }
+
   /**
    * Returns the snapshot timestamp.
    * <p>
@@ -175,6 +199,13 @@ public abstract class Snapshot implements AutoCloseable {
     return this;
   }
 
+  /**
+   * Returns the number of bytes written to the snapshot.
+   *
+   * @return the number of bytes written to the snapshot
+   */
+  public abstract int length();
+
   /**
    * Returns whether the snapshot is persisted.
    *
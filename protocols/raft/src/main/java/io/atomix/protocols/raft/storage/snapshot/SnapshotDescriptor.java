@@ -57,6 +57,8 @@ public final class SnapshotDescriptor implements AutoCloseable {
   private final long index;
   private final long timestamp;
   private boolean locked;
+  private final long serviceId;
+  private final boolean manifest;
 
   /**
    * @throws NullPointerException if {@code buffer} is null
@@ -66,6 +68,8 @@ public final class SnapshotDescriptor implements AutoCloseable {
     this.index = buffer.readLong();
     this.timestamp = buffer.readLong();
     this.locked = buffer.readBoolean();
+    this.serviceId = buffer.readLong();
+    this.manifest = buffer.readBoolean();
     buffer.skip(BYTES - buffer.position());
   }
 
@@ -87,6 +91,30 @@ public final class SnapshotDescriptor implements AutoCloseable {
     return timestamp;
   }
 
+  /**
+   * Returns the identifier of the service to which the snapshot belongs.
+   * <p>
+   * Service snapshots contain the state of a single service and are used to compose partition snapshots. The
+   * service identifier of a partition snapshot is {@code 0}.
+   *
+   * @return The snapshot service identifier.
+   */
+  public long serviceId() {
+    return serviceId;
+  }
+
+  /**
+   * Returns whether the snapshot is a manifest of service snapshots.
+   * <p>
+   * Manifest snapshots store the metadata and sessions of each service along with a reference to the service
+   * snapshot containing its state rather than the state itself.
+   *
+   * @return Indicates whether the snapshot is a manifest.
+   */
+  public boolean isManifest() {
+    return manifest;
+  }
+
   /**
    * Returns whether the snapshot has been locked by commitment.
    * <p>
@@ -116,6 +144,8 @@ public final class SnapshotDescriptor implements AutoCloseable {
         .writeLong(index)
         .writeLong(timestamp)
         .writeBoolean(locked)
+        .writeLong(serviceId)
+        .writeBoolean(manifest)
         .skip(BYTES - buffer.position())
         .flush();
     return this;
@@ -167,6 +197,28 @@ public final class SnapshotDescriptor implements AutoCloseable {
       return this;
     }
 
+    /**
+     * Sets the snapshot service identifier.
+     *
+     * @param serviceId The snapshot service identifier.
+     * @return The snapshot builder.
+     */
+    public Builder withServiceId(long serviceId) {
+      buffer.writeLong(17, serviceId);
+      return this;
+    }
+
+    /**
+     * Sets whether the snapshot is a manifest of service snapshots.
+     *
+     * @param manifest Whether the snapshot is a manifest.
+     * @return The snapshot builder.
+     */
+    public Builder withManifest(boolean manifest) {
+      buffer.writeBoolean(25, manifest);
+      return this;
+    }
+
     /**
      * Builds the snapshot descriptor.
      *
@@ -102,6 +102,26 @@ public final class SnapshotFile {
         EXTENSION);
   }
 
+  /**
+   * Creates a service snapshot file for the given directory, log name, service, and snapshot index.
+   */
+  @VisibleForTesting
+  static File createServiceSnapshotFile(File directory, String serverName, long serviceId, long index) {
+    return new File(directory, createServiceSnapshotFileName(serverName, serviceId, index));
+  }
+
+  /**
+   * Creates a service snapshot file name from the given parameters.
+   */
+  @VisibleForTesting
+  static String createServiceSnapshotFileName(String serverName, long serviceId, long index) {
+    return String.format("%s-%d-%d.%s",
+        serverName,
+        serviceId,
+        index,
+        EXTENSION);
+  }
+
   /**
    * @throws IllegalArgumentException if {@code file} is not a valid snapshot file
    */
@@ -0,0 +1,290 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.protocols.raft.storage.snapshot;
+
+import io.atomix.storage.buffer.Buffer;
+import io.atomix.storage.buffer.BufferOutput;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+/**
+ * Manifest of the service snapshots from which a partition snapshot is composed.
+ * <p>
+ * Rather than copying the state of each service into the partition snapshot, a manifest snapshot stores the header
+ * of each service, containing the service metadata and sessions, along with a reference to the service snapshot
+ * that holds the state of the service. Referenced service snapshots are retained by the {@link SnapshotStore} for as
+ * long as the manifest snapshot is retained.
+ * <p>
+ * Followers do not share the service snapshots of the leader, so manifests can be {@link #read(int, byte[]) read} in
+ * the inline partition snapshot format, in which each service is written as its length followed by its header and
+ * state.
+ * <p>
+ * Both formats begin with a {@link #writeVersion(BufferOutput) version}. From {@link #COMMAND_INDEX_VERSION version
+ * 1}, each service header ends with the index of the last command applied to the service. Legacy snapshots have no
+ * version and begin directly with the first service, whose header and state are read unchanged.
+ */
+public final class SnapshotManifest {
+
+  /**
+   * Marker with which versioned snapshots begin. Legacy snapshots begin with a non-negative length.
+   */
+  private static final int VERSION_MARKER = -1;
+
+  /**
+   * Version from which service headers end with the service's command index.
+   */
+  public static final int COMMAND_INDEX_VERSION = 1;
+
+  /**
+   * The version of snapshots written by this server.
+   */
+  public static final int VERSION = COMMAND_INDEX_VERSION;
+
+  /**
+   * Version of legacy snapshots, which are not prefixed with a version.
+   */
+  public static final int LEGACY_VERSION = 0;
+
+  /**
+   * Writes the current snapshot version.
+   * <p>
+   * The version must be written at the start of both manifest and inline partition snapshots.
+   *
+   * @param writer the snapshot writer
+   */
+  public static void writeVersion(BufferOutput<?> writer) {
+    writer.writeInt(VERSION_MARKER).writeInt(VERSION);
+  }
+
+  /**
+   * Reads the version of a partition snapshot.
+   * <p>
+   * If the snapshot is a legacy snapshot, the reader is left at the start of the snapshot.
+   *
+   * @param reader the partition snapshot reader
+   * @return the snapshot version or {@link #LEGACY_VERSION} if the snapshot is not versioned
+   */
+  public static int readVersion(SnapshotReader reader) {
+    Buffer buffer = reader.buffer();
+    if (reader.remaining() >= Integer.BYTES && buffer.readInt(buffer.position()) == VERSION_MARKER) {
+      reader.skip(Integer.BYTES);
+      int version = reader.readInt();
+      checkState(version <= VERSION, "unsupported snapshot version %s", version);
+      return version;
+    }
+    return LEGACY_VERSION;
+  }
+
+  /**
+   * Writes an entry for a service to a manifest snapshot.
+   *
+   * @param writer   the manifest snapshot writer
+   * @param header   the service header
+   * @param snapshot the service snapshot containing the state of the service
+   */
+  public static void writeEntry(SnapshotWriter writer, byte[] header, Snapshot snapshot) {
+    checkArgument(snapshot.serviceId() != 0, "snapshot must be a service snapshot");
+    writer.writeInt(header.length)
+        .write(header)
+        .writeLong(snapshot.serviceId())
+        .writeLong(snapshot.index());
+  }
+
+  /**
+   * Reads the manifest of the given snapshot, resolving service snapshots from the given store.
+   *
+   * @param snapshot the manifest snapshot
+   * @param store    the store from which to resolve service snapshots
+   * @return the snapshot manifest
+   * @throws IllegalStateException if a referenced service snapshot does not exist
+   */
+  static SnapshotManifest read(Snapshot snapshot, SnapshotStore store) {
+    List<Entry> entries = new ArrayList<>();
+    int version;
+    try (SnapshotReader reader = snapshot.openReader()) {
+      version = readVersion(reader);
+      while (reader.hasRemaining()) {
+        byte[] header = reader.readBytes(reader.readInt());
+        long serviceId = reader.readLong();
+        long index = reader.readLong();
+        Snapshot serviceSnapshot = store.getServiceSnapshot(serviceId, index);
+        checkState(serviceSnapshot != null, "missing snapshot %s for service %s", index, serviceId);
+        entries.add(new Entry(header, serviceSnapshot));
+      }
+    }
+    return new SnapshotManifest(version, entries);
+  }
+
+  private final int version;
+  private final byte[] prefix;
+  private final List<Entry> entries;
+  private final int length;
+
+  private SnapshotManifest(int version, List<Entry> entries) {
+    this.version = version;
+    this.prefix = version == LEGACY_VERSION ? new byte[0] : ByteBuffer.allocate(Integer.BYTES * 2)
+        .putInt(VERSION_MARKER)
+        .putInt(version)
+        .array();
+    this.entries = Collections.unmodifiableList(entries);
+    int length = prefix.length;
+    for (Entry entry : entries) {
+      length += entry.length();
+    }
+    this.length = length;
+  }
+
+  /**
+   * Returns the version of the manifest.
+   * <p>
+   * The inline partition snapshot is written in the same version as the manifest.
+   *
+   * @return the manifest version
+   */
+  public int version() {
+    return version;
+  }
+
+  /**
+   * Returns the service entries in the manifest.
+   *
+   * @return the service entries in the manifest
+   */
+  public List<Entry> entries() {
+    return entries;
+  }
+
+  /**
+   * Returns the length of the manifest in the inline partition snapshot format.
+   *
+   * @return the length of the inline partition snapshot
+   */
+  public int length() {
+    return length;
+  }
+
+  /**
+   * Reads bytes of the inline partition snapshot into the given array.
+   *
+   * @param position the position in the inline partition snapshot from which to read
+   * @param bytes    the array into which to read bytes
+   * @throws IllegalArgumentException if the array extends beyond the end of the inline partition snapshot
+   */
+  public void read(int position, byte[] bytes) {
+    checkArgument(position >= 0 && position + bytes.length <= length, "cannot read beyond the end of the manifest");
+    int offset = 0;
+    if (position < prefix.length) {
+      offset = Math.min(prefix.length - position, bytes.length);
+      System.arraycopy(prefix, position, bytes, 0, offset);
+      position += offset;
+    }
+    int entryPosition = prefix.length;
+    for (Entry entry : entries) {
+      if (offset == bytes.length) {
+        break;
+      }
+      int entryLength = entry.length();
+      if (position < entryPosition + entryLength) {
+        int count = Math.min(entryPosition + entryLength - position, bytes.length - offset);
+        entry.read(position - entryPosition, bytes, offset, count);
+        offset += count;
+        position += count;
+      }
+      entryPosition += entryLength;
+    }
+  }
+
+  @Override
+  public String toString() {
+    return toStringHelper(this)
+        .add("version", version)
+        .add("entries", entries.size())
+        .add("length", length)
+        .toString();
+  }
+
+  /**
+   * Manifest entry for a single service.
+   */
+  public static final class Entry {
+    private final byte[] header;
+    private final Snapshot snapshot;
+    private final byte[] prefix;
+    private final int length;
+
+    private Entry(byte[] header, Snapshot snapshot) {
+      this.header = checkNotNull(header);
+      this.snapshot = checkNotNull(snapshot);
+      int snapshotLength = snapshot.length();
+      this.prefix = ByteBuffer.allocate(Integer.BYTES + header.length)
+          .putInt(header.length + snapshotLength)
+          .put(header)
+          .array();
+      this.length = prefix.length + snapshotLength;
+    }
+
+    /**
+     * Returns the service header, containing the service metadata and sessions.
+     *
+     * @return the service header
+     */
+    public byte[] header() {
+      return header;
+    }
+
+    /**
+     * Returns the service snapshot containing the state of the service.
+     *
+     * @return the service snapshot
+     */
+    public Snapshot snapshot() {
+      return snapshot;
+    }
+
+    /**
+     * Returns the length of the entry in the inline partition snapshot format.
+     */
+    private int length() {
+      return length;
+    }
+
+    /**
+     * Reads bytes of the inline entry into the given array.
+     */
+    private void read(int position, byte[] bytes, int offset, int count) {
+      if (position < prefix.length) {
+        int prefixCount = Math.min(prefix.length - position, count);
+        System.arraycopy(prefix, position, bytes, offset, prefixCount);
+        position += prefixCount;
+        offset += prefixCount;
+        count -= prefixCount;
+      }
+      if (count > 0) {
+        try (SnapshotReader reader = snapshot.openReader()) {
+          reader.skip(position - prefix.length).read(bytes, offset, count);
+        }
+      }
+    }
+  }
+}
@@ -25,12 +25,18 @@ import org.slf4j.LoggerFactory;
 
 import java.io.File;
 import java.util.ArrayList;
-import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentSkipListMap;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 /**
@@ -42,8 +48,9 @@ import static com.google.common.base.Preconditions.checkNotNull;
  * <p>
  * When a snapshot store is {@link RaftStorage#openSnapshotStore() created}, the store will load any
  * existing snapshots from disk and make them available for reading. Only snapshots that have been
- * written and {@link Snapshot#complete() completed} will be read from disk. Incomplete snapshots are
- * automatically deleted from disk when the snapshot store is opened.
+ * written and {@link Snapshot#complete() completed} will be read from disk. Incomplete service snapshots are
+ * automatically deleted from disk when the snapshot store is opened. Incomplete partition snapshots are retained
+ * until {@link #resumeSnapshot(long, int)} is called, allowing a partially installed snapshot to be resumed.
  * <p>
  * <pre>
  *   {@code
@@ -68,11 +75,21 @@ import static com.google.common.base.Preconditions.checkNotNull;
  * Snapshots don't necessarily represent the beginning of the log. Typical Raft implementations take a
  * snapshot of the state machine state and then clear their logs up to that point. However, in Raft
  * a snapshot may actually only represent a subset of the state machine's state.
+ * <p>
+ * In addition to partition snapshots, the store tracks {@link #newServiceSnapshot(long, long, WallClockTimestamp)
+ * service snapshots} for each service. Service snapshots allow partition snapshots to be composed without serializing
+ * services whose state has not changed since their last snapshot. Partition snapshots created with
+ * {@link #newManifestSnapshot(long, WallClockTimestamp)} are {@link SnapshotManifest manifests} that reference service
+ * snapshots rather than copying their state. Service snapshots are retained while they're referenced by a partition
+ * snapshot or were taken after the current partition snapshot, and are deleted once neither is true.
  */
 public class SnapshotStore implements AutoCloseable {
   private final Logger log = LoggerFactory.getLogger(getClass());
   final RaftStorage storage;
   private final NavigableMap<Long, Snapshot> snapshots = new ConcurrentSkipListMap<>();
+  private final Map<Long, NavigableMap<Long, Snapshot>> serviceSnapshots = new ConcurrentHashMap<>();
+  private final Map<Long, SnapshotManifest> manifests = new ConcurrentHashMap<>();
+  private final Map<Long, Snapshot> partialSnapshots = new ConcurrentHashMap<>();
 
   public SnapshotStore(RaftStorage storage) {
     this.storage = checkNotNull(storage, "storage cannot be null");
@@ -82,10 +99,28 @@ public class SnapshotStore implements AutoCloseable {
   /**
    * Opens the snapshot manager.
    */
-  private void open() {
-    for (Snapshot snapshot : loadSnapshots()) {
-      completeSnapshot(snapshot);
+  private synchronized void open() {
+    List<Snapshot> snapshots = loadSnapshots();
+    snapshots.sort(Comparator.comparingLong(Snapshot::index));
+
+    // Load service snapshots before the partition snapshots that reference them.
+    for (Snapshot snapshot : snapshots) {
+      if (snapshot.serviceId() != 0) {
+        completeServiceSnapshot(snapshot);
+      }
     }
+    for (Snapshot snapshot : snapshots) {
+      if (snapshot.serviceId() == 0) {
+        try {
+          completePartitionSnapshot(snapshot);
+        } catch (IllegalStateException e) {
+          log.warn("Deleting invalid snapshot: {} ({})", snapshot, e.getMessage());
+          snapshot.close();
+          snapshot.delete();
+        }
+      }
+    }
+    pruneServiceSnapshots();
   }
 
   /**
@@ -108,12 +143,75 @@ public class SnapshotStore implements AutoCloseable {
     return snapshots.get(index);
   }
 
+  /**
+   * Returns the latest completed snapshot for the given service.
+   *
+   * @param serviceId the service identifier
+   * @return the latest snapshot for the given service or {@code null} if no snapshot exists
+   */
+  public Snapshot getServiceSnapshot(long serviceId) {
+    NavigableMap<Long, Snapshot> snapshots = serviceSnapshots.get(serviceId);
+    if (snapshots == null) {
+      return null;
+    }
+    Map.Entry<Long, Snapshot> entry = snapshots.lastEntry();
+    return entry != null ? entry.getValue() : null;
+  }
+
+  /**
+   * Returns the completed snapshot for the given service at the given index.
+   *
+   * @param serviceId the service identifier
+   * @param index     the index of the service snapshot
+   * @return the service snapshot at the given index or {@code null} if the snapshot doesn't exist
+   */
+  public Snapshot getServiceSnapshot(long serviceId, long index) {
+    NavigableMap<Long, Snapshot> snapshots = serviceSnapshots.get(serviceId);
+    return snapshots != null ? snapshots.get(index) : null;
+  }
+
+  /**
+   * Returns the manifest of the given partition snapshot.
+   *
+   * @param snapshot the partition snapshot
+   * @return the snapshot manifest or {@code null} if the snapshot is not a completed manifest snapshot
+   */
+  public SnapshotManifest getManifest(Snapshot snapshot) {
+    return snapshot.isManifest() ? manifests.get(snapshot.index()) : null;
+  }
+
+  /**
+   * Resumes a partial snapshot loaded from disk, deleting all other partial snapshots.
+   * <p>
+   * A partial snapshot is only resumed if the number of bytes written to it matches the given length, ensuring
+   * chunks written after the resume token was last stored are not duplicated.
+   *
+   * @param index  the index of the snapshot to resume
+   * @param length the number of bytes expected to have been written to the snapshot
+   * @return the partial snapshot or {@code null} if no matching partial snapshot exists
+   */
+  public synchronized Snapshot resumeSnapshot(long index, int length) {
+    Snapshot resumed = null;
+    for (Snapshot snapshot : partialSnapshots.values()) {
+      if (resumed == null && snapshot.index() == index && snapshot.length() == length) {
+        log.debug("Resuming partial snapshot: {}", snapshot);
+        resumed = snapshot;
+      } else {
+        log.debug("Deleting partial snapshot: {}", snapshot);
+        snapshot.close();
+        snapshot.delete();
+      }
+    }
+    partialSnapshots.clear();
+    return resumed;
+  }
+
   /**
    * Loads all available snapshots from disk.
    *
    * @return A list of available snapshots.
    */
-  private Collection<Snapshot> loadSnapshots() {
+  private List<Snapshot> loadSnapshots() {
     // Ensure log directories are created.
     storage.directory().mkdirs();
 
@@ -134,6 +232,12 @@ public class SnapshotStore implements AutoCloseable {
           snapshots.add(new FileSnapshot(snapshotFile, descriptor, this));
           descriptor.close();
         }
+        // Retain partial partition snapshots to allow them to be resumed.
+        else if (descriptor.serviceId() == 0) {
+          log.debug("Loaded partial snapshot: {} ({})", descriptor.index(), snapshotFile.file().getName());
+          partialSnapshots.put(descriptor.index(), new FileSnapshot(snapshotFile, descriptor, this));
+          descriptor.close();
+        }
         // If the segment descriptor wasn't locked, close and delete the descriptor.
         else {
           log.debug("Deleting partial snapshot: {} ({})", descriptor.index(), snapshotFile.file().getName());
@@ -169,9 +273,67 @@ public class SnapshotStore implements AutoCloseable {
    * @return The snapshot.
    */
   public Snapshot newSnapshot(long index, WallClockTimestamp timestamp) {
+    return newSnapshot(0, index, timestamp);
+  }
+
+  /**
+   * Creates a new manifest snapshot.
+   * <p>
+   * Manifest snapshots are written with {@link SnapshotManifest#writeEntry(SnapshotWriter, byte[], Snapshot)}, and
+   * all service snapshots referenced by the manifest must be completed before the manifest snapshot is completed.
+   *
+   * @param index     The snapshot index.
+   * @param timestamp The snapshot timestamp.
+   * @return The snapshot.
+   */
+  public Snapshot newManifestSnapshot(long index, WallClockTimestamp timestamp) {
+    SnapshotDescriptor descriptor = SnapshotDescriptor.builder()
+        .withIndex(index)
+        .withTimestamp(timestamp.unixTimestamp())
+        .withManifest(true)
+        .build();
+    return newSnapshot(descriptor, storage.storageLevel());
+  }
+
+  /**
+   * Creates a temporary in-memory snapshot for the given service.
+   *
+   * @param serviceId The service identifier.
+   * @param index     The snapshot index.
+   * @param timestamp The snapshot timestamp.
+   * @return The snapshot.
+   */
+  public Snapshot newTemporaryServiceSnapshot(long serviceId, long index, WallClockTimestamp timestamp) {
+    checkArgument(serviceId != 0, "serviceId cannot be 0");
     SnapshotDescriptor descriptor = SnapshotDescriptor.builder()
         .withIndex(index)
         .withTimestamp(timestamp.unixTimestamp())
+        .withServiceId(serviceId)
+        .build();
+    return newSnapshot(descriptor, StorageLevel.MEMORY);
+  }
+
+  /**
+   * Creates a new snapshot for the given service.
+   *
+   * @param serviceId The service identifier.
+   * @param index     The snapshot index.
+   * @param timestamp The snapshot timestamp.
+   * @return The snapshot.
+   */
+  public Snapshot newServiceSnapshot(long serviceId, long index, WallClockTimestamp timestamp) {
+    checkArgument(serviceId != 0, "serviceId cannot be 0");
+    return newSnapshot(serviceId, index, timestamp);
+  }
+
+  /**
+   * Creates a new snapshot for the given service identifier, which is {@code 0} for partition snapshots.
+   */
+  Snapshot newSnapshot(long serviceId, long index, WallClockTimestamp timestamp) {
+    SnapshotDescriptor descriptor = SnapshotDescriptor.builder()
+        .withIndex(index)
+        .withTimestamp(timestamp.unixTimestamp())
+        .withServiceId(serviceId)
         .build();
     return newSnapshot(descriptor, storage.storageLevel());
   }
@@ -201,11 +363,16 @@ public class SnapshotStore implements AutoCloseable {
    * Creates a disk snapshot.
    */
   private Snapshot createDiskSnapshot(SnapshotDescriptor descriptor) {
-    SnapshotFile file = new SnapshotFile(SnapshotFile.createSnapshotFile(
-        storage.directory(),
-        storage.prefix(),
-        descriptor.index()
-    ));
+    SnapshotFile file = new SnapshotFile(descriptor.serviceId() != 0
+        ? SnapshotFile.createServiceSnapshotFile(
+            storage.directory(),
+            storage.prefix(),
+            descriptor.serviceId(),
+            descriptor.index())
+        : SnapshotFile.createSnapshotFile(
+            storage.directory(),
+            storage.prefix(),
+            descriptor.index()));
     Snapshot snapshot = new FileSnapshot(file, descriptor, this);
     log.debug("Created disk snapshot: {}", snapshot);
     return snapshot;
@@ -217,22 +384,93 @@ public class SnapshotStore implements AutoCloseable {
   protected synchronized void completeSnapshot(Snapshot snapshot) {
     checkNotNull(snapshot, "snapshot cannot be null");
 
+    if (snapshot.serviceId() != 0) {
+      completeServiceSnapshot(snapshot);
+    } else {
+      completePartitionSnapshot(snapshot);
+      pruneServiceSnapshots();
+    }
+  }
+
+  /**
+   * Completes writing a partition snapshot, replacing the prior snapshot unless stale snapshots are retained.
+   */
+  private void completePartitionSnapshot(Snapshot snapshot) {
     Map.Entry<Long, Snapshot> lastEntry = snapshots.lastEntry();
     if (lastEntry == null) {
-      snapshots.put(snapshot.index(), snapshot);
+      addSnapshot(snapshot);
     } else if (lastEntry.getValue().index() < snapshot.index()) {
-      snapshots.put(snapshot.index(), snapshot);
+      addSnapshot(snapshot);
       Snapshot lastSnapshot = lastEntry.getValue();
+      manifests.remove(lastSnapshot.index());
       lastSnapshot.close();
       lastSnapshot.delete();
     } else if (storage.isRetainStaleSnapshots()) {
-      snapshots.put(snapshot.index(), snapshot);
+      addSnapshot(snapshot);
     } else {
       snapshot.close();
       snapshot.delete();
     }
   }
 
+  /**
+   * Adds a completed partition snapshot, resolving the service snapshots referenced by manifest snapshots.
+   */
+  private void addSnapshot(Snapshot snapshot) {
+    if (snapshot.isManifest()) {
+      manifests.put(snapshot.index(), SnapshotManifest.read(snapshot, this));
+    }
+    snapshots.put(snapshot.index(), snapshot);
+  }
+
+  /**
+   * Completes writing a service snapshot.
+   */
+  private void completeServiceSnapshot(Snapshot snapshot) {
+    Snapshot lastSnapshot = serviceSnapshots.computeIfAbsent(snapshot.serviceId(), id -> new ConcurrentSkipListMap<>())
+        .put(snapshot.index(), snapshot);
+    // A snapshot of the same service at the same index shares its file with the new snapshot.
+    if (lastSnapshot != null && lastSnapshot != snapshot) {
+      lastSnapshot.close();
+    }
+  }
+
+  /**
+   * Deletes service snapshots that are not referenced by a partition snapshot.
+   * <p>
+   * Service snapshots taken after the current partition snapshot are retained, since they may be referenced by a
+   * partition snapshot that has not yet been completed.
+   */
+  private void pruneServiceSnapshots() {
+    Snapshot currentSnapshot = getCurrentSnapshot();
+    long currentIndex = currentSnapshot != null ? currentSnapshot.index() : 0;
+
+    Set<Snapshot> references = Collections.newSetFromMap(new IdentityHashMap<>());
+    for (SnapshotManifest manifest : manifests.values()) {
+      for (SnapshotManifest.Entry entry : manifest.entries()) {
+        references.add(entry.snapshot());
+      }
+    }
+
+    Iterator<NavigableMap<Long, Snapshot>> serviceIterator = serviceSnapshots.values().iterator();
+    while (serviceIterator.hasNext()) {
+      NavigableMap<Long, Snapshot> snapshots = serviceIterator.next();
+      Iterator<Snapshot> iterator = snapshots.headMap(currentIndex, true).values().iterator();
+      while (iterator.hasNext()) {
+        Snapshot snapshot = iterator.next();
+        if (!references.contains(snapshot)) {
+          log.debug("Deleting service snapshot: {}", snapshot);
+          iterator.remove();
+          snapshot.close();
+          snapshot.delete();
+        }
+      }
+      if (snapshots.isEmpty()) {
+        serviceIterator.remove();
+      }
+    }
+  }
+
   @Override
   public void close() {
   }
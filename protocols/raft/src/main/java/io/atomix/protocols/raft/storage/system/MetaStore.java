@@ -44,6 +44,7 @@ public class MetaStore implements AutoCloseable {
   private final Serializer serializer;
   private final FileBuffer metadataBuffer;
   private final Buffer configurationBuffer;
+  private final Buffer installBuffer;
 
   public MetaStore(RaftStorage storage, Serializer serializer) {
     this.serializer = checkNotNull(serializer, "serializer cannot be null");
@@ -58,9 +59,12 @@ public class MetaStore implements AutoCloseable {
 
     if (storage.storageLevel() == StorageLevel.MEMORY) {
       configurationBuffer = HeapBuffer.allocate(32);
+      installBuffer = HeapBuffer.allocate(16);
     } else {
       File confFile = new File(storage.directory(), String.format("%s.conf", storage.prefix()));
       configurationBuffer = FileBuffer.allocate(confFile, 32);
+      File installFile = new File(storage.directory(), String.format("%s.install", storage.prefix()));
+      installBuffer = FileBuffer.allocate(installFile, 16);
     }
   }
 
@@ -134,10 +138,56 @@ public class MetaStore implements AutoCloseable {
     return null;
   }
 
+  /**
+   * Stores the progress of a snapshot being installed from the leader.
+   * <p>
+   * The install progress is a resume token that allows a partially installed snapshot to be resumed from the
+   * next chunk after a leader change or restart. An index of {@code 0} indicates no install is in progress.
+   *
+   * @param index  the index of the snapshot being installed
+   * @param offset the offset of the next chunk to install
+   * @param length the number of bytes written to the snapshot
+   */
+  public synchronized void storeInstallProgress(long index, int offset, int length) {
+    log.trace("Store install progress {} {} {}", index, offset, length);
+    installBuffer.writeLong(0, index)
+        .writeInt(8, offset)
+        .writeInt(12, length)
+        .flush();
+  }
+
+  /**
+   * Loads the index of the snapshot being installed.
+   *
+   * @return the index of the snapshot being installed or {@code 0} if no install is in progress
+   */
+  public synchronized long loadInstallIndex() {
+    return installBuffer.readLong(0);
+  }
+
+  /**
+   * Loads the offset of the next chunk of the snapshot being installed.
+   *
+   * @return the offset of the next chunk of the snapshot being installed
+   */
+  public synchronized int loadInstallOffset() {
+    return installBuffer.readInt(8);
+  }
+
+  /**
+   * Loads the number of bytes written to the snapshot being installed.
+   *
+   * @return the number of bytes written to the snapshot being installed
+   */
+  public synchronized int loadInstallLength() {
+    return installBuffer.readInt(12);
+  }
+
   @Override
   public synchronized void close() {
     metadataBuffer.close();
     configurationBuffer.close();
+    installBuffer.close();
   }
 
   @Override
@@ -30,6 +30,7 @@ import io.atomix.primitive.SyncPrimitive;
 import io.atomix.primitive.config.PrimitiveConfig;
 import io.atomix.primitive.event.Event;
 import io.atomix.primitive.operation.Command;
+import io.atomix.primitive.operation.OperationId;
 import io.atomix.primitive.operation.OperationType;
 import io.atomix.primitive.operation.PrimitiveOperation;
 import io.atomix.primitive.operation.Query;
@@ -50,7 +51,11 @@ import io.atomix.primitive.session.SessionMetadata;
 import io.atomix.protocols.raft.cluster.RaftClusterEvent;
 import io.atomix.protocols.raft.cluster.RaftMember;
 import io.atomix.protocols.raft.cluster.impl.DefaultRaftMember;
+import io.atomix.protocols.raft.protocol.QueryRequest;
+import io.atomix.protocols.raft.protocol.QueryResponse;
+import io.atomix.protocols.raft.protocol.RaftClientProtocol;
 import io.atomix.protocols.raft.protocol.TestRaftProtocolFactory;
+import io.atomix.protocols.raft.session.CommunicationStrategy;
 import io.atomix.protocols.raft.storage.RaftStorage;
 import io.atomix.protocols.raft.storage.log.entry.CloseSessionEntry;
 import io.atomix.protocols.raft.storage.log.entry.CommandEntry;
@@ -62,6 +67,7 @@ import io.atomix.protocols.raft.storage.log.entry.OpenSessionEntry;
 import io.atomix.protocols.raft.storage.log.entry.QueryEntry;
 import io.atomix.protocols.raft.storage.system.Configuration;
 import io.atomix.storage.StorageLevel;
+import io.atomix.utils.concurrent.EventLoopContextFactory;
 import io.atomix.utils.concurrent.SingleThreadContext;
 import io.atomix.utils.concurrent.ThreadContext;
 import io.atomix.utils.serializer.Namespace;
@@ -71,6 +77,7 @@ import org.junit.After;
 import org.junit.Before;
 import org.junit.Ignore;
 import org.junit.Test;
+import org.slf4j.LoggerFactory;
 
 import java.io.File;
 import java.io.IOException;
@@ -139,6 +146,16 @@ public class RaftTest extends ConcurrentTestCase {
   protected volatile List<RaftServer> servers = new ArrayList<>();
   protected volatile TestRaftProtocolFactory protocolFactory;
   protected volatile ThreadContext context;
+  protected volatile boolean parallelApply;
+  protected volatile int maxBatchSize;
+  protected volatile int maxAppendsInFlight = 2;
+  protected volatile int maxAppendBatchSize = 1024 * 32;
+  protected volatile int maxSnapshotChunksInFlight = 1;
+  protected volatile long maxSnapshotInstallRate;
+  protected volatile EventLoopContextFactory eventLoops;
+  protected volatile Duration commandBatchWindow = Duration.ZERO;
+  protected volatile CommunicationStrategy communicationStrategy = CommunicationStrategy.LEADER;
+  protected volatile Duration readLeaseTimeout = Duration.ZERO;
 
   /**
    * Tests getting session metadata.
@@ -193,6 +210,26 @@ public class RaftTest extends ConcurrentTestCase {
     testServerJoinLate(RaftMember.Type.PASSIVE, RaftServer.Role.PASSIVE);
   }
 
+  /**
+   * Tests joining a server after many entries have been committed with small pipelined append requests.
+   */
+  @Test
+  public void testActiveJoinLatePipelinedAppend() throws Throwable {
+    maxAppendsInFlight = 8;
+    maxAppendBatchSize = 256;
+    testServerJoinLate(RaftMember.Type.ACTIVE, RaftServer.Role.FOLLOWER);
+  }
+
+  /**
+   * Tests joining a server after many entries have been committed with pipelined and throttled snapshot installs.
+   */
+  @Test
+  public void testActiveJoinLatePipelinedInstall() throws Throwable {
+    maxSnapshotChunksInFlight = 4;
+    maxSnapshotInstallRate = 1024 * 1024;
+    testServerJoinLate(RaftMember.Type.ACTIVE, RaftServer.Role.FOLLOWER);
+  }
+
   /**
    * Tests joining a server after many entries have been committed.
    */
@@ -414,6 +451,92 @@ public class RaftTest extends ConcurrentTestCase {
     await(15000, 2);
   }
 
+  /**
+   * Tests submitting commands and queries to multiple services with parallel apply enabled.
+   */
+  @Test
+  public void testParallelApply() throws Throwable {
+    parallelApply = true;
+    createServers(3);
+
+    RaftClient client = createClient();
+    List<TestPrimitive> primitives = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      primitives.add(createPrimitive(client, "raft-test-" + i, ReadConsistency.LINEARIZABLE));
+    }
+
+    for (TestPrimitive primitive : primitives) {
+      AtomicLong lastIndex = new AtomicLong();
+      for (int i = 0; i < 10; i++) {
+        primitive.write("Hello world!").thenAccept(index -> {
+          threadAssertTrue(index > lastIndex.getAndSet(index));
+          resume();
+        });
+      }
+      primitive.read().thenAccept(index -> {
+        threadAssertTrue(index >= lastIndex.get());
+        resume();
+      });
+    }
+
+    await(30000, primitives.size() * 11);
+  }
+
+  /**
+   * Tests applying session entries while commands are pending with parallel apply enabled.
+   */
+  @Test
+  public void testParallelApplySessionClose() throws Throwable {
+    parallelApply = true;
+    createServers(3);
+
+    RaftClient client1 = createClient();
+    TestPrimitive primitive1 = createPrimitive(client1);
+    RaftClient client2 = createClient();
+    primitive1.onClose(event -> resume()).thenRun(this::resume);
+    await(Duration.ofSeconds(10).toMillis(), 1);
+
+    AtomicLong lastIndex = new AtomicLong();
+    for (int i = 0; i < 10; i++) {
+      primitive1.write("Hello world!").thenAccept(index -> {
+        threadAssertTrue(index > lastIndex.getAndSet(index));
+        resume();
+      });
+    }
+    createSession(client2).close().thenRun(this::resume);
+    primitive1.read().thenAccept(index -> {
+      threadAssertTrue(index >= lastIndex.get());
+      resume();
+    });
+    await(Duration.ofSeconds(10).toMillis(), 13);
+  }
+
+  /**
+   * Tests committing commands with group commit enabled.
+   */
+  @Test
+  public void testGroupCommit() throws Throwable {
+    maxBatchSize = 1024 * 4;
+    createServers(3);
+
+    RaftClient client = createClient();
+    TestPrimitive primitive = createPrimitive(client);
+    AtomicLong lastIndex = new AtomicLong();
+    for (int i = 0; i < 100; i++) {
+      primitive.write("Hello world!").thenAccept(index -> {
+        threadAssertTrue(index > lastIndex.getAndSet(index));
+        resume();
+      });
+    }
+    await(30000, 100);
+
+    primitive.read().thenAccept(index -> {
+      threadAssertTrue(index >= lastIndex.get());
+      resume();
+    });
+    await(30000);
+  }
+
   /**
    * Tests submitting a command.
    */
@@ -637,6 +760,104 @@ public class RaftTest extends ConcurrentTestCase {
     await(30000);
   }
 
+  /**
+   * Tests linearizable queries evaluated by followers using the leader's read index.
+   */
+  @Test
+  public void testFollowerLinearizableQuery() throws Throwable {
+    createServers(3);
+
+    TestPrimitive writer = createPrimitive(createClient());
+    communicationStrategy = CommunicationStrategy.FOLLOWERS;
+    TestPrimitive reader = createPrimitive(createClient());
+
+    for (int i = 0; i < 10; i++) {
+      long index = writer.write("Hello world!").get(10, TimeUnit.SECONDS);
+      threadAssertTrue(reader.read().get(10, TimeUnit.SECONDS) >= index);
+    }
+
+    long index = writer.write("Hello world!").get(10, TimeUnit.SECONDS);
+    List<CompletableFuture<Long>> reads = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      reads.add(reader.read());
+    }
+    for (CompletableFuture<Long> read : reads) {
+      threadAssertTrue(read.get(10, TimeUnit.SECONDS) >= index);
+    }
+  }
+
+  /**
+   * Tests lease-consistent queries evaluated by followers holding read leases.
+   */
+  @Test
+  public void testFollowerLeaseQuery() throws Throwable {
+    readLeaseTimeout = Duration.ofMillis(200);
+    createServers(3);
+
+    TestPrimitive writer = createPrimitive(createClient());
+    communicationStrategy = CommunicationStrategy.FOLLOWERS;
+    TestPrimitive reader = createPrimitive(createClient(), ReadConsistency.LINEARIZABLE_LEASE);
+
+    for (int i = 0; i < 10; i++) {
+      long index = writer.write("Hello world!").get(10, TimeUnit.SECONDS);
+      threadAssertTrue(reader.read().get(10, TimeUnit.SECONDS) >= index);
+    }
+
+    List<CompletableFuture<Long>> writes = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      writes.add(writer.write("Hello world!"));
+    }
+    long index = 0;
+    for (CompletableFuture<Long> write : writes) {
+      index = Math.max(index, write.get(10, TimeUnit.SECONDS));
+    }
+    List<CompletableFuture<Long>> reads = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      reads.add(reader.read());
+    }
+    for (CompletableFuture<Long> read : reads) {
+      threadAssertTrue(read.get(10, TimeUnit.SECONDS) >= index);
+    }
+  }
+
+  /**
+   * Tests that a follower does not hold a read lease granted by a delayed append request whose response was lost
+   * beyond the lease assumed by the leader.
+   */
+  @Test
+  public void testDelayedFollowerLease() throws Throwable {
+    readLeaseTimeout = Duration.ofMillis(200);
+    List<RaftServer> servers = createServers(3);
+    MemberId leader = servers.stream()
+        .filter(s -> s.getRole() == RaftServer.Role.LEADER)
+        .findFirst().get().cluster().getMember().memberId();
+    MemberId follower = servers.stream()
+        .filter(s -> s.getRole() == RaftServer.Role.FOLLOWER)
+        .findFirst().get().cluster().getMember().memberId();
+
+    TestPrimitive writer = createPrimitive(createClient());
+    SessionClient reader = createSession(createClient(), ReadConsistency.LINEARIZABLE_LEASE);
+    RaftClientProtocol protocol = protocolFactory.newClientProtocol(nextNodeId());
+
+    // Deliver append requests to the follower after the lease timeout plus drift and drop their responses, so the
+    // leader commits the write without the follower once it assumes the follower's lease has expired.
+    protocolFactory.server(leader).delayAppends(follower, Duration.ofMillis(500));
+    long start = System.currentTimeMillis();
+    long index = writer.write("Hello world!").get(10, TimeUnit.SECONDS);
+
+    // Query the follower directly once the delayed requests granting leases have been delivered.
+    Thread.sleep(Math.max(start + 550 - System.currentTimeMillis(), 0));
+    QueryResponse response = protocol.query(follower, QueryRequest.builder()
+        .withSession(reader.sessionId().id())
+        .withSequence(0)
+        .withIndex(0)
+        .withOperation(PrimitiveOperation.operation(OperationId.query("read")))
+        .build())
+        .get(10, TimeUnit.SECONDS);
+    protocolFactory.server(leader).resumeAppends(follower);
+    assertTrue(response.index() >= index);
+  }
+
   /**
    * Tests submitting a sequential event.
    */
@@ -901,6 +1122,40 @@ public class RaftTest extends ConcurrentTestCase {
     }
   }
 
+  /**
+   * Tests batching commands submitted to the same session.
+   */
+  @Test
+  public void testBatchedCommands() throws Throwable {
+    commandBatchWindow = Duration.ofMillis(100);
+    createServers(3);
+
+    RaftClient client = createClient();
+    TestPrimitive primitive = createPrimitive(client);
+    primitive.onEvent(event -> {
+      threadAssertNotNull(event);
+      resume();
+    });
+
+    List<CompletableFuture<Long>> writes = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      writes.add(primitive.write("Hello world!"));
+    }
+    CompletableFuture<Long> event = primitive.sendEvent(true);
+    CompletableFuture<Long> read = primitive.read();
+
+    // Commands in a batch are applied in order, each at its own index.
+    long index = 0;
+    for (CompletableFuture<Long> write : writes) {
+      long writeIndex = write.get(10, TimeUnit.SECONDS);
+      threadAssertTrue(writeIndex > index);
+      index = writeIndex;
+    }
+    threadAssertTrue(event.get(10, TimeUnit.SECONDS) > index);
+    threadAssertTrue(read.get(10, TimeUnit.SECONDS) >= index);
+    await(10000);
+  }
+
   /**
    * Tests submitting linearizable events.
    */
@@ -909,6 +1164,52 @@ public class RaftTest extends ConcurrentTestCase {
     testManyEventsAfterLeaderShutdown(3);
   }
 
+  /**
+   * Tests submitting events and electing a new leader with servers multiplexed onto shared event loops.
+   */
+  @Test
+  public void testSharedEventLoops() throws Throwable {
+    eventLoops = new EventLoopContextFactory("raft-test-%d", 2, LoggerFactory.getLogger(getClass()));
+    testManyEventsAfterLeaderShutdown(3);
+  }
+
+  /**
+   * Tests starting leaders with all servers multiplexed onto a single shared event loop.
+   */
+  @Test
+  public void testSharedEventLoopLeader() throws Throwable {
+    eventLoops = new EventLoopContextFactory("raft-test-%d", 1, LoggerFactory.getLogger(getClass()));
+    List<RaftServer> servers = createServers(3);
+    RaftClient client = createClient();
+    TestPrimitive primitive = createPrimitive(client);
+    primitive.write("Hello world!").get(10, TimeUnit.SECONDS);
+
+    RaftServer leader = servers.stream().filter(RaftServer::isLeader).findFirst().get();
+    leader.shutdown().get(10, TimeUnit.SECONDS);
+
+    primitive.write("Hello world again!").get(30, TimeUnit.SECONDS);
+    assertTrue(servers.stream().filter(server -> server != leader).anyMatch(RaftServer::isLeader));
+  }
+
+  /**
+   * Tests handling requests across a leader change when leaders start asynchronously.
+   */
+  @Test
+  public void testAsyncLeaderStart() throws Throwable {
+    // With group commit enabled, leaders append their initial entries asynchronously.
+    maxBatchSize = 1024 * 4;
+    List<RaftServer> servers = createServers(3);
+    RaftClient client = createClient();
+    TestPrimitive primitive = createPrimitive(client);
+    long index = primitive.write("Hello world!").get(10, TimeUnit.SECONDS);
+
+    RaftServer leader = servers.stream().filter(RaftServer::isLeader).findFirst().get();
+    leader.shutdown().get(10, TimeUnit.SECONDS);
+
+    assertTrue(primitive.write("Hello world again!").get(30, TimeUnit.SECONDS) > index);
+    assertTrue(primitive.read().get(30, TimeUnit.SECONDS) > index);
+  }
+
   /**
    * Tests submitting linearizable events.
    */
@@ -1227,7 +1528,18 @@ public class RaftTest extends ConcurrentTestCase {
             .withSerializer(storageSerializer)
             .withMaxSegmentSize(1024 * 10)
             .withMaxEntriesPerSegment(10)
-            .build());
+            .withMaxBatchSize(maxBatchSize)
+            .build())
+        .withParallelApply(parallelApply)
+        .withMaxAppendsInFlight(maxAppendsInFlight)
+        .withMaxAppendBatchSize(maxAppendBatchSize)
+        .withMaxSnapshotChunksInFlight(maxSnapshotChunksInFlight)
+        .withMaxSnapshotInstallRate(maxSnapshotInstallRate)
+        .withReadLeaseTimeout(readLeaseTimeout);
+
+    if (eventLoops != null) {
+      builder.withThreadContextFactory(eventLoops.newPinnedFactory());
+    }
 
     RaftServer server = builder.build();
     servers.add(server);
@@ -1261,10 +1573,19 @@ public class RaftTest extends ConcurrentTestCase {
    * Creates a test session.
    */
   private SessionClient createSession(RaftClient client, ReadConsistency consistency) throws Exception {
-    return client.sessionBuilder("raft-test", TestPrimitiveType.INSTANCE, new ServiceConfig())
+    return createSession(client, "raft-test", consistency);
+  }
+
+  /**
+   * Creates a test session for the named service.
+   */
+  private SessionClient createSession(RaftClient client, String name, ReadConsistency consistency) throws Exception {
+    return client.sessionBuilder(name, TestPrimitiveType.INSTANCE, new ServiceConfig())
         .withReadConsistency(consistency)
         .withMinTimeout(Duration.ofMillis(250))
         .withMaxTimeout(Duration.ofSeconds(5))
+        .withCommandBatchWindow(commandBatchWindow)
+        .withCommunicationStrategy(communicationStrategy)
         .build()
         .connect()
         .get(10, TimeUnit.SECONDS);
@@ -1281,7 +1602,14 @@ public class RaftTest extends ConcurrentTestCase {
    * Creates a new primitive instance.
    */
   private TestPrimitive createPrimitive(RaftClient client, ReadConsistency consistency) throws Exception {
-    SessionClient partition = createSession(client, consistency);
+    return createPrimitive(client, "raft-test", consistency);
+  }
+
+  /**
+   * Creates a new primitive instance for the named service.
+   */
+  private TestPrimitive createPrimitive(RaftClient client, String name, ReadConsistency consistency) throws Exception {
+    SessionClient partition = createSession(client, name, consistency);
     ProxyClient<TestPrimitiveService> proxy = new DefaultProxyClient<>(
         "test",
         TestPrimitiveType.INSTANCE,
@@ -1297,6 +1625,15 @@ public class RaftTest extends ConcurrentTestCase {
   @Before
   @After
   public void clearTests() throws Exception {
+    parallelApply = false;
+    maxBatchSize = 0;
+    maxAppendsInFlight = 2;
+    maxAppendBatchSize = 1024 * 32;
+    maxSnapshotChunksInFlight = 1;
+    maxSnapshotInstallRate = 0;
+    commandBatchWindow = Duration.ZERO;
+    communicationStrategy = CommunicationStrategy.LEADER;
+    readLeaseTimeout = Duration.ZERO;
     clients.forEach(c -> {
       try {
         c.close().get(10, TimeUnit.SECONDS);
@@ -1313,6 +1650,11 @@ public class RaftTest extends ConcurrentTestCase {
       }
     });
 
+    if (eventLoops != null) {
+      eventLoops.close();
+      eventLoops = null;
+    }
+
     Path directory = Paths.get("target/test-logs/");
     if (Files.exists(directory)) {
       Files.walkFileTree(directory, new SimpleFileVisitor<Path>() {
@@ -0,0 +1,247 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.protocols.raft.partition.impl;
+
+import io.atomix.cluster.MemberId;
+import io.atomix.cluster.messaging.ClusterCommunicationService;
+import io.atomix.cluster.messaging.MessagingException;
+import io.atomix.protocols.raft.protocol.AppendRequest;
+import io.atomix.protocols.raft.protocol.AppendResponse;
+import io.atomix.protocols.raft.protocol.RaftResponse;
+import io.atomix.utils.concurrent.Futures;
+import io.atomix.utils.net.Address;
+import io.atomix.utils.serializer.Serializer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Raft heartbeat coalescer test.
+ */
+public class RaftHeartbeatCoalescerTest {
+  private static final Serializer SERIALIZER = Serializer.using(RaftNamespaces.RAFT_PROTOCOL);
+  private static final MemberId NODE1 = MemberId.from("1");
+  private static final MemberId NODE2 = MemberId.from("2");
+
+  private final Map<MemberId, Map<String, Function<byte[], CompletableFuture<byte[]>>>> handlers = new ConcurrentHashMap<>();
+  private final AtomicInteger messages = new AtomicInteger();
+  private RaftHeartbeatCoalescer coalescer1;
+  private RaftHeartbeatCoalescer coalescer2;
+
+  @Before
+  public void setupCoalescers() {
+    coalescer1 = new RaftHeartbeatCoalescer("test", Duration.ofMillis(50), SERIALIZER, new TestClusterCommunicator(NODE1));
+    coalescer2 = new RaftHeartbeatCoalescer("test", Duration.ofMillis(50), SERIALIZER, new TestClusterCommunicator(NODE2));
+  }
+
+  @After
+  public void closeCoalescers() {
+    coalescer1.close();
+    coalescer2.close();
+  }
+
+  /**
+   * Tests that heartbeats from multiple partitions to the same peer are sent in a single message.
+   */
+  @Test
+  public void testCoalesceHeartbeats() throws Exception {
+    for (int i = 1; i <= 3; i++) {
+      long term = i;
+      coalescer2.registerHandler("partition-" + i + "-append", request ->
+          CompletableFuture.completedFuture(response(term)));
+    }
+
+    List<CompletableFuture<AppendResponse>> futures = new ArrayList<>();
+    for (int i = 1; i <= 3; i++) {
+      futures.add(coalescer1.append("partition-" + i + "-append", NODE2, heartbeat(i)));
+    }
+
+    for (int i = 1; i <= 3; i++) {
+      assertEquals(i, futures.get(i - 1).get(10, TimeUnit.SECONDS).term());
+    }
+    assertEquals(1, messages.get());
+  }
+
+  /**
+   * Tests that a newer heartbeat from the same partition replaces a pending heartbeat.
+   */
+  @Test
+  public void testReplacePendingHeartbeat() throws Exception {
+    AtomicInteger received = new AtomicInteger();
+    coalescer2.registerHandler("partition-1-append", request -> {
+      received.incrementAndGet();
+      return CompletableFuture.completedFuture(response(request.term()));
+    });
+
+    CompletableFuture<AppendResponse> future1 = coalescer1.append("partition-1-append", NODE2, heartbeat(1));
+    CompletableFuture<AppendResponse> future2 = coalescer1.append("partition-1-append", NODE2, heartbeat(2));
+    assertEquals(2, future1.get(10, TimeUnit.SECONDS).term());
+    assertEquals(2, future2.get(10, TimeUnit.SECONDS).term());
+    assertEquals(1, received.get());
+    assertEquals(1, messages.get());
+  }
+
+  /**
+   * Tests that heartbeats for partitions that are not running on the peer fail.
+   */
+  @Test
+  public void testUnknownPartition() throws Exception {
+    coalescer2.registerHandler("partition-1-append", request -> CompletableFuture.completedFuture(response(1)));
+
+    CompletableFuture<AppendResponse> future1 = coalescer1.append("partition-1-append", NODE2, heartbeat(1));
+    CompletableFuture<AppendResponse> future2 = coalescer1.append("partition-2-append", NODE2, heartbeat(1));
+    assertEquals(1, future1.get(10, TimeUnit.SECONDS).term());
+    try {
+      future2.get(10, TimeUnit.SECONDS);
+      fail();
+    } catch (ExecutionException e) {
+      assertTrue(e.getCause() instanceof MessagingException.NoRemoteHandler);
+    }
+  }
+
+  /**
+   * Tests that a slow partition is omitted from the batch reply and its heartbeat resent individually.
+   */
+  @Test
+  public void testSlowPartition() throws Exception {
+    coalescer2.registerHandler("partition-1-append", request -> CompletableFuture.completedFuture(response(1)));
+    AtomicInteger received = new AtomicInteger();
+    Function<AppendRequest, CompletableFuture<AppendResponse>> slowHandler = request ->
+        received.incrementAndGet() == 1 ? new CompletableFuture<>() : CompletableFuture.completedFuture(response(2));
+    coalescer2.registerHandler("partition-2-append", slowHandler);
+    new TestClusterCommunicator(NODE2).subscribe("partition-2-append", SERIALIZER::decode, slowHandler, SERIALIZER::encode);
+
+    CompletableFuture<AppendResponse> future1 = coalescer1.append("partition-1-append", NODE2, heartbeat(1));
+    CompletableFuture<AppendResponse> future2 = coalescer1.append("partition-2-append", NODE2, heartbeat(2));
+    assertEquals(1, future1.get(10, TimeUnit.SECONDS).term());
+    assertEquals(2, future2.get(10, TimeUnit.SECONDS).term());
+    assertEquals(2, received.get());
+    assertEquals(2, messages.get());
+  }
+
+  private static AppendRequest heartbeat(long term) {
+    return AppendRequest.builder()
+        .withTerm(term)
+        .withLeader(NODE1)
+        .withPrevLogIndex(0)
+        .withPrevLogTerm(0)
+        .withEntries(Collections.emptyList())
+        .withCommitIndex(0)
+        .build();
+  }
+
+  private static AppendResponse response(long term) {
+    return AppendResponse.builder()
+        .withStatus(RaftResponse.Status.OK)
+        .withTerm(term)
+        .withSucceeded(true)
+        .withLastLogIndex(0)
+        .build();
+  }
+
+  /**
+   * In-memory cluster communicator supporting request-reply messaging.
+   */
+  private class TestClusterCommunicator implements ClusterCommunicationService {
+    private final MemberId localMemberId;
+
+    TestClusterCommunicator(MemberId localMemberId) {
+      this.localMemberId = localMemberId;
+    }
+
+    @Override
+    public <M, R> CompletableFuture<R> send(
+        String subject, M message, Function<M, byte[]> encoder, Function<byte[], R> decoder, MemberId toMemberId, Duration timeout) {
+      messages.incrementAndGet();
+      Function<byte[], CompletableFuture<byte[]>> handler = handlers.getOrDefault(toMemberId, Collections.emptyMap()).get(subject);
+      if (handler == null) {
+        return Futures.exceptionalFuture(new MessagingException.NoRemoteHandler());
+      }
+      return handler.apply(encoder.apply(message)).thenApply(decoder);
+    }
+
+    @Override
+    public <M, R> CompletableFuture<Void> subscribe(
+        String subject, Function<byte[], M> decoder, Function<M, CompletableFuture<R>> handler, Function<R, byte[]> encoder) {
+      handlers.computeIfAbsent(localMemberId, id -> new ConcurrentHashMap<>())
+          .put(subject, bytes -> handler.apply(decoder.apply(bytes)).thenApply(encoder));
+      return CompletableFuture.completedFuture(null);
+    }
+
+    @Override
+    public void unsubscribe(String subject) {
+      handlers.getOrDefault(localMemberId, Collections.emptyMap()).remove(subject);
+    }
+
+    @Override
+    public <M> void broadcast(String subject, M message, Function<M, byte[]> encoder) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public <M> void broadcastIncludeSelf(String subject, M message, Function<M, byte[]> encoder) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public <M> CompletableFuture<Void> unicast(String subject, M message, Function<M, byte[]> encoder, MemberId toMemberId) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public <M> void multicast(String subject, M message, Function<M, byte[]> encoder, Set<MemberId> memberIds) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public <M, R> CompletableFuture<Void> subscribe(
+        String subject, Function<byte[], M> decoder, Function<M, R> handler, Function<R, byte[]> encoder, Executor executor) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public <M> CompletableFuture<Void> subscribe(
+        String subject, Function<byte[], M> decoder, Consumer<M> handler, Executor executor) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public <M> CompletableFuture<Void> subscribe(
+        String subject, Function<byte[], M> decoder, BiConsumer<Address, M> handler, Executor executor) {
+      throw new UnsupportedOperationException();
+    }
+  }
+}
@@ -51,6 +51,10 @@ public abstract class TestRaftProtocol {
     return future.whenComplete((r, e) -> scheduled.cancel());
   }
 
+  void schedule(Duration delay, Runnable callback) {
+    context.schedule(delay, callback);
+  }
+
   TestRaftServerProtocol server(MemberId memberId) {
     return servers.get(memberId);
   }
@@ -52,4 +52,14 @@ public class TestRaftProtocolFactory {
   public RaftServerProtocol newServerProtocol(MemberId memberId) {
     return new TestRaftServerProtocol(memberId, servers, clients, context);
   }
+
+  /**
+   * Returns the test server protocol for the given member.
+   *
+   * @param memberId the server member identifier
+   * @return the test server protocol for the given member
+   */
+  public TestRaftServerProtocol server(MemberId memberId) {
+    return servers.get(memberId);
+  }
 }
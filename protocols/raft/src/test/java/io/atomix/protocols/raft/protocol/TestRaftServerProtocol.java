@@ -22,6 +22,7 @@ import io.atomix.utils.concurrent.Futures;
 import io.atomix.utils.concurrent.ThreadContext;
 
 import java.net.ConnectException;
+import java.time.Duration;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
@@ -44,10 +45,12 @@ public class TestRaftServerProtocol extends TestRaftProtocol implements RaftServ
   private Function<ReconfigureRequest, CompletableFuture<ReconfigureResponse>> reconfigureHandler;
   private Function<InstallRequest, CompletableFuture<InstallResponse>> installHandler;
   private Function<TransferRequest, CompletableFuture<TransferResponse>> transferHandler;
+  private Function<ReadIndexRequest, CompletableFuture<ReadIndexResponse>> readIndexHandler;
   private Function<PollRequest, CompletableFuture<PollResponse>> pollHandler;
   private Function<VoteRequest, CompletableFuture<VoteResponse>> voteHandler;
   private Function<AppendRequest, CompletableFuture<AppendResponse>> appendHandler;
   private final Map<Long, Consumer<ResetRequest>> resetListeners = Maps.newConcurrentMap();
+  private final Map<MemberId, Duration> appendDelays = Maps.newConcurrentMap();
 
   public TestRaftServerProtocol(
       MemberId memberId,
@@ -136,6 +139,11 @@ public class TestRaftServerProtocol extends TestRaftProtocol implements RaftServ
     return scheduleTimeout(getServer(memberId).thenCompose(listener -> listener.transfer(request)));
   }
 
+  @Override
+  public CompletableFuture<ReadIndexResponse> readIndex(MemberId memberId, ReadIndexRequest request) {
+    return scheduleTimeout(getServer(memberId).thenCompose(listener -> listener.readIndex(request)));
+  }
+
   @Override
   public CompletableFuture<PollResponse> poll(MemberId memberId, PollRequest request) {
     return scheduleTimeout(getServer(memberId).thenCompose(listener -> listener.poll(request)));
@@ -148,9 +156,33 @@ public class TestRaftServerProtocol extends TestRaftProtocol implements RaftServ
 
   @Override
   public CompletableFuture<AppendResponse> append(MemberId memberId, AppendRequest request) {
+    Duration delay = appendDelays.get(memberId);
+    if (delay != null) {
+      schedule(delay, () -> getServer(memberId).thenCompose(listener -> listener.append(request)));
+      return scheduleTimeout(new CompletableFuture<>());
+    }
     return scheduleTimeout(getServer(memberId).thenCompose(listener -> listener.append(request)));
   }
 
+  /**
+   * Delays append requests sent to the given member and drops their responses.
+   *
+   * @param memberId the member to which to delay append requests
+   * @param delay    the delay after which append requests are delivered
+   */
+  public void delayAppends(MemberId memberId, Duration delay) {
+    appendDelays.put(memberId, delay);
+  }
+
+  /**
+   * Resumes delivering append requests to the given member without delay.
+   *
+   * @param memberId the member to which to deliver append requests
+   */
+  public void resumeAppends(MemberId memberId) {
+    appendDelays.remove(memberId);
+  }
+
   @Override
   public void publish(MemberId memberId, PublishRequest request) {
     getClient(memberId).thenAccept(protocol -> protocol.publish(request));
@@ -377,6 +409,24 @@ public class TestRaftServerProtocol extends TestRaftProtocol implements RaftServ
     this.transferHandler = null;
   }
 
+  CompletableFuture<ReadIndexResponse> readIndex(ReadIndexRequest request) {
+    if (readIndexHandler != null) {
+      return readIndexHandler.apply(request);
+    } else {
+      return Futures.exceptionalFuture(new ConnectException());
+    }
+  }
+
+  @Override
+  public void registerReadIndexHandler(Function<ReadIndexRequest, CompletableFuture<ReadIndexResponse>> handler) {
+    this.readIndexHandler = handler;
+  }
+
+  @Override
+  public void unregisterReadIndexHandler() {
+    this.readIndexHandler = null;
+  }
+
   CompletableFuture<PollResponse> poll(PollRequest request) {
     if (pollHandler != null) {
       return pollHandler.apply(request);
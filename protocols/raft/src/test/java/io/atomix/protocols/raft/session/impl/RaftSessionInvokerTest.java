@@ -17,6 +17,7 @@ package io.atomix.protocols.raft.session.impl;
 
 import io.atomix.primitive.operation.OperationId;
 import io.atomix.primitive.session.SessionId;
+import io.atomix.protocols.raft.RaftError;
 import io.atomix.protocols.raft.RaftException;
 import io.atomix.protocols.raft.TestPrimitiveType;
 import io.atomix.protocols.raft.protocol.CommandRequest;
@@ -28,6 +29,7 @@ import io.atomix.storage.buffer.HeapBytes;
 import io.atomix.utils.concurrent.Scheduled;
 import io.atomix.utils.concurrent.ThreadContext;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 
 import java.time.Duration;
@@ -42,6 +44,7 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
@@ -77,6 +80,50 @@ public class RaftSessionInvokerTest {
     assertEquals(state.getResponseIndex(), 10);
   }
 
+  /**
+   * Tests submitting a batch of commands to the cluster.
+   */
+  @Test
+  public void testSubmitCommandBatch() throws Throwable {
+    RaftSessionConnection connection = mock(RaftSessionConnection.class);
+    when(connection.command(any(CommandRequest.class)))
+      .thenReturn(CompletableFuture.completedFuture(CommandResponse.builder()
+        .withStatus(RaftResponse.Status.OK)
+        .withIndex(10)
+        .withResults(Arrays.asList(
+          CommandResponse.builder()
+            .withStatus(RaftResponse.Status.OK)
+            .withIndex(10)
+            .withResult("Hello world!".getBytes())
+            .build(),
+          CommandResponse.builder()
+            .withStatus(RaftResponse.Status.ERROR)
+            .withError(RaftError.Type.APPLICATION_ERROR)
+            .build()))
+        .build()));
+
+    RaftSessionState state = new RaftSessionState("test", SessionId.from(1), UUID.randomUUID().toString(), TestPrimitiveType.instance(), 1000);
+    RaftSessionManager manager = mock(RaftSessionManager.class);
+    ThreadContext threadContext = new TestContext();
+
+    RaftSessionInvoker submitter = new RaftSessionInvoker(
+        connection, mock(RaftSessionConnection.class), state, new RaftSessionSequencer(state), manager, threadContext, Duration.ofSeconds(1), 2);
+    CompletableFuture<byte[]> result1 = submitter.invoke(operation(COMMAND, HeapBytes.EMPTY));
+    assertFalse(result1.isDone());
+    CompletableFuture<byte[]> result2 = submitter.invoke(operation(COMMAND, HeapBytes.EMPTY));
+
+    ArgumentCaptor<CommandRequest> request = ArgumentCaptor.forClass(CommandRequest.class);
+    verify(connection).command(request.capture());
+    assertTrue(request.getValue().isBatch());
+    assertEquals(2, request.getValue().operations().size());
+
+    assertArrayEquals("Hello world!".getBytes(), result1.get());
+    assertTrue(result2.isCompletedExceptionally());
+    assertEquals(state.getCommandRequest(), 1);
+    assertEquals(state.getCommandResponse(), 1);
+    assertEquals(state.getResponseIndex(), 10);
+  }
+
   /**
    * Test resequencing a command response.
    */
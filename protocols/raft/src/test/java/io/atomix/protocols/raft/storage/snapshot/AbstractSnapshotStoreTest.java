@@ -15,11 +15,16 @@
  */
 package io.atomix.protocols.raft.storage.snapshot;
 
+import io.atomix.storage.buffer.Buffer;
+import io.atomix.storage.buffer.HeapBuffer;
 import io.atomix.utils.time.WallClockTimestamp;
 import org.junit.Test;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
 /**
  * Snapshot store test.
@@ -74,4 +79,137 @@ public abstract class AbstractSnapshotStoreTest {
     }
   }
 
+  /**
+   * Tests writing service snapshots and deleting them once they're no longer referenced by a partition snapshot.
+   */
+  @Test
+  public void testServiceSnapshots() {
+    SnapshotStore store = createSnapshotStore();
+    Snapshot snapshot = store.newTemporaryServiceSnapshot(1, 2, new WallClockTimestamp());
+    assertEquals(snapshot.serviceId(), 1);
+    try (SnapshotWriter writer = snapshot.openWriter()) {
+      writer.writeLong(10);
+    }
+    snapshot.persist().complete();
+
+    assertNull(store.getSnapshot(2));
+    assertEquals(store.getServiceSnapshot(1).index(), 2);
+
+    snapshot = store.newServiceSnapshot(1, 5, new WallClockTimestamp());
+    try (SnapshotWriter writer = snapshot.openWriter()) {
+      writer.writeLong(11);
+    }
+    snapshot.complete();
+
+    assertEquals(store.getServiceSnapshot(1).index(), 5);
+    assertEquals(store.getServiceSnapshot(1, 2).index(), 2);
+    try (SnapshotReader reader = store.getServiceSnapshot(1).openReader()) {
+      assertEquals(reader.readLong(), 11);
+    }
+
+    // Service snapshots that are not referenced by the current partition snapshot are deleted.
+    snapshot = store.newManifestSnapshot(5, new WallClockTimestamp());
+    try (SnapshotWriter writer = snapshot.openWriter()) {
+      SnapshotManifest.writeEntry(writer, new byte[]{1}, store.getServiceSnapshot(1, 5));
+    }
+    snapshot.complete();
+
+    assertNull(store.getServiceSnapshot(1, 2));
+    assertEquals(store.getServiceSnapshot(1).index(), 5);
+
+    // Service snapshots taken after the current partition snapshot are retained until they're referenced.
+    snapshot = store.newServiceSnapshot(2, 6, new WallClockTimestamp());
+    try (SnapshotWriter writer = snapshot.openWriter()) {
+      writer.writeLong(12);
+    }
+    snapshot.complete();
+
+    snapshot = store.newManifestSnapshot(6, new WallClockTimestamp());
+    try (SnapshotWriter writer = snapshot.openWriter()) {
+      SnapshotManifest.writeEntry(writer, new byte[]{2}, store.getServiceSnapshot(2, 6));
+    }
+    snapshot.complete();
+
+    assertNull(store.getServiceSnapshot(1));
+    assertEquals(store.getServiceSnapshot(2).index(), 6);
+  }
+
+  /**
+   * Tests reading a manifest snapshot in the inline partition snapshot format.
+   */
+  @Test
+  public void testManifestSnapshot() {
+    testManifestSnapshot(true);
+  }
+
+  /**
+   * Tests reading a legacy manifest snapshot, which is not prefixed with a version.
+   */
+  @Test
+  public void testLegacyManifestSnapshot() {
+    testManifestSnapshot(false);
+  }
+
+  private void testManifestSnapshot(boolean versioned) {
+    SnapshotStore store = createSnapshotStore();
+    for (long serviceId = 1; serviceId <= 2; serviceId++) {
+      Snapshot snapshot = store.newServiceSnapshot(serviceId, 3, new WallClockTimestamp());
+      try (SnapshotWriter writer = snapshot.openWriter()) {
+        writer.writeLong(serviceId * 10);
+        writer.writeLong(serviceId * 100);
+      }
+      snapshot.complete();
+    }
+
+    Snapshot snapshot = store.newManifestSnapshot(3, new WallClockTimestamp());
+    try (SnapshotWriter writer = snapshot.openWriter()) {
+      if (versioned) {
+        SnapshotManifest.writeVersion(writer);
+      }
+      SnapshotManifest.writeEntry(writer, new byte[]{1, 2, 3}, store.getServiceSnapshot(1));
+      SnapshotManifest.writeEntry(writer, new byte[]{4, 5}, store.getServiceSnapshot(2));
+    }
+    assertNull(store.getManifest(snapshot));
+    snapshot.complete();
+
+    snapshot = store.getSnapshot(3);
+    assertTrue(snapshot.isManifest());
+    SnapshotManifest manifest = store.getManifest(snapshot);
+    assertEquals(versioned ? SnapshotManifest.VERSION : SnapshotManifest.LEGACY_VERSION, manifest.version());
+    assertEquals(2, manifest.entries().size());
+    assertArrayEquals(new byte[]{1, 2, 3}, manifest.entries().get(0).header());
+    assertSame(store.getServiceSnapshot(2), manifest.entries().get(1).snapshot());
+
+    Buffer buffer = HeapBuffer.allocate();
+    if (versioned) {
+      buffer.writeInt(-1).writeInt(SnapshotManifest.VERSION);
+    }
+    buffer.writeInt(3 + 16).write(new byte[]{1, 2, 3}).writeLong(10).writeLong(100);
+    buffer.writeInt(2 + 16).write(new byte[]{4, 5}).writeLong(20).writeLong(200);
+    byte[] expected = buffer.flip().readBytes((int) buffer.remaining());
+    assertEquals(expected.length, manifest.length());
+
+    // Read the manifest in chunks that span the boundaries of headers and service snapshots.
+    for (int chunkSize = 1; chunkSize <= expected.length; chunkSize++) {
+      byte[] bytes = new byte[expected.length];
+      for (int position = 0; position < expected.length; position += chunkSize) {
+        byte[] chunk = new byte[Math.min(chunkSize, expected.length - position)];
+        manifest.read(position, chunk);
+        System.arraycopy(chunk, 0, bytes, position, chunk.length);
+      }
+      assertArrayEquals(expected, bytes);
+    }
+
+    // The version of the inline partition snapshot is read back from its prefix.
+    Snapshot inline = store.newSnapshot(4, new WallClockTimestamp());
+    try (SnapshotWriter writer = inline.openWriter()) {
+      writer.write(expected);
+    }
+    inline.complete();
+    try (SnapshotReader reader = inline.openReader()) {
+      assertEquals(manifest.version(), SnapshotManifest.readVersion(reader));
+      assertEquals(3 + 16, reader.readInt());
+    }
+  }
+
 }
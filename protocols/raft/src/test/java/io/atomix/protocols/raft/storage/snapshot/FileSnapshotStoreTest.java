@@ -32,6 +32,7 @@ import java.nio.file.SimpleFileVisitor;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.util.UUID;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
@@ -141,6 +142,93 @@ public class FileSnapshotStoreTest extends AbstractSnapshotStoreTest {
     }
   }
 
+  /**
+   * Tests resuming a partially installed snapshot after the store is reopened.
+   */
+  @Test
+  public void testResumePendingSnapshot() throws Exception {
+    SnapshotStore store = createSnapshotStore();
+
+    PendingSnapshot pendingSnapshot = new PendingSnapshot(store.newSnapshot(3, new WallClockTimestamp()));
+    pendingSnapshot.write(new byte[]{1, 2, 3, 4});
+    pendingSnapshot.write(new byte[]{5, 6});
+    assertEquals(2, pendingSnapshot.nextOffset());
+    assertEquals(6, pendingSnapshot.length());
+    pendingSnapshot.close();
+    store.close();
+
+    store = createSnapshotStore();
+    assertNull(store.getSnapshot(3));
+    Snapshot snapshot = store.resumeSnapshot(3, 6);
+    assertNotNull(snapshot);
+    assertEquals(6, snapshot.length());
+
+    pendingSnapshot = new PendingSnapshot(snapshot, 2, 6);
+    pendingSnapshot.write(new byte[]{7, 8});
+    pendingSnapshot.commit();
+    assertEquals(8, pendingSnapshot.length());
+
+    snapshot = store.getSnapshot(3);
+    assertNotNull(snapshot);
+    try (SnapshotReader reader = snapshot.openReader()) {
+      byte[] bytes = new byte[8];
+      reader.read(bytes);
+      assertArrayEquals(new byte[]{1, 2, 3, 4, 5, 6, 7, 8}, bytes);
+    }
+
+    pendingSnapshot = new PendingSnapshot(store.newSnapshot(4, new WallClockTimestamp()));
+    pendingSnapshot.write(new byte[]{1, 2, 3, 4});
+    pendingSnapshot.close();
+    store.close();
+
+    store = createSnapshotStore();
+    assertNull(store.resumeSnapshot(4, 8));
+    assertNull(store.resumeSnapshot(4, 4));
+    assertNull(store.getSnapshot(4));
+    assertNotNull(store.getSnapshot(3));
+  }
+
+  /**
+   * Tests loading manifest snapshots and the service snapshots they reference.
+   */
+  @Test
+  public void testStoreLoadManifestSnapshot() throws Exception {
+    SnapshotStore store = createSnapshotStore();
+
+    Snapshot snapshot = store.newServiceSnapshot(1, 2, new WallClockTimestamp());
+    try (SnapshotWriter writer = snapshot.openWriter()) {
+      writer.writeLong(10);
+    }
+    snapshot.complete();
+
+    snapshot = store.newManifestSnapshot(2, new WallClockTimestamp());
+    try (SnapshotWriter writer = snapshot.openWriter()) {
+      SnapshotManifest.writeEntry(writer, new byte[]{1}, store.getServiceSnapshot(1));
+    }
+    snapshot.complete();
+
+    snapshot = store.newServiceSnapshot(2, 3, new WallClockTimestamp());
+    try (SnapshotWriter writer = snapshot.openWriter()) {
+      writer.writeLong(20);
+    }
+    snapshot.complete();
+    store.close();
+
+    store = createSnapshotStore();
+    snapshot = store.getSnapshot(2);
+    assertNotNull(snapshot);
+    assertTrue(snapshot.isManifest());
+    SnapshotManifest manifest = store.getManifest(snapshot);
+    assertEquals(1, manifest.entries().size());
+    assertArrayEquals(new byte[]{1}, manifest.entries().get(0).header());
+    try (SnapshotReader reader = manifest.entries().get(0).snapshot().openReader()) {
+      assertEquals(10, reader.readLong());
+    }
+
+    // Service snapshots taken after the current partition snapshot are loaded.
+    assertEquals(3, store.getServiceSnapshot(2).index());
+  }
+
   @Before
   @After
   public void cleanupStorage() throws IOException {
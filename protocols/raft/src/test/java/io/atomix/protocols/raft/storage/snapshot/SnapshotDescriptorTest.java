@@ -20,6 +20,8 @@ import io.atomix.storage.buffer.HeapBuffer;
 import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 /**
  * Snapshot descriptor test.
@@ -34,6 +36,7 @@ public class SnapshotDescriptorTest {
         .build();
     assertEquals(2, descriptor.index());
     assertEquals(3, descriptor.timestamp());
+    assertFalse(descriptor.isManifest());
   }
 
   @Test
@@ -41,6 +44,8 @@ public class SnapshotDescriptorTest {
     SnapshotDescriptor descriptor = SnapshotDescriptor.builder()
         .withIndex(2)
         .withTimestamp(3)
+        .withServiceId(4)
+        .withManifest(true)
         .build();
     Buffer buffer = HeapBuffer.allocate(SnapshotDescriptor.BYTES);
     descriptor.copyTo(buffer);
@@ -48,6 +53,8 @@ public class SnapshotDescriptorTest {
     descriptor = new SnapshotDescriptor(buffer);
     assertEquals(2, descriptor.index());
     assertEquals(3, descriptor.timestamp());
+    assertEquals(4, descriptor.serviceId());
+    assertTrue(descriptor.isManifest());
   }
 
 }
@@ -15,6 +15,8 @@
  */
 package io.atomix.storage.journal;
 
+import java.util.List;
+
 import static com.google.common.base.MoreObjects.toStringHelper;
 
 /**
@@ -47,6 +49,11 @@ public class DelegatingJournalWriter<E> implements JournalWriter<E> {
     return delegate.append(entry);
   }
 
+  @Override
+  public <T extends E> List<Indexed<T>> appendBatch(List<T> entries) {
+    return delegate.appendBatch(entries);
+  }
+
   @Override
   public void append(Indexed<E> entry) {
     delegate.append(entry);
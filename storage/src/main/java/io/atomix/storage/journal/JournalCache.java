@@ -0,0 +1,118 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.storage.journal;
+
+import io.atomix.storage.statistics.StorageStatistics;
+
+import java.util.Deque;
+import java.util.concurrent.ConcurrentLinkedDeque;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+
+/**
+ * Journal-wide entry cache.
+ * <p>
+ * The journal cache enforces a byte budget across the {@link JournalSegmentCache segment caches} of all the segments
+ * in a journal. When the total size of cached entries exceeds the budget, entries are evicted from the oldest
+ * segments first. Cache hits and misses are recorded in the journal's {@link StorageStatistics}.
+ */
+class JournalCache {
+  private final int segmentCacheSize;
+  private final long maxBytes;
+  private final StorageStatistics statistics;
+  private final Deque<JournalSegmentCache> caches = new ConcurrentLinkedDeque<>();
+  private long bytes;
+
+  JournalCache(int segmentCacheSize, long maxBytes, StorageStatistics statistics) {
+    this.segmentCacheSize = segmentCacheSize;
+    this.maxBytes = maxBytes;
+    this.statistics = statistics;
+  }
+
+  /**
+   * Creates a new cache for a segment starting at the given index.
+   *
+   * @param index the first index of the segment
+   * @return the segment cache
+   */
+  JournalSegmentCache newSegmentCache(long index) {
+    JournalSegmentCache cache = new JournalSegmentCache(index, segmentCacheSize, this);
+    caches.add(cache);
+    return cache;
+  }
+
+  /**
+   * Unregisters the given segment cache.
+   *
+   * @param cache the segment cache to unregister
+   */
+  void unregister(JournalSegmentCache cache) {
+    caches.remove(cache);
+  }
+
+  /**
+   * Records bytes added to a segment cache, evicting the oldest cached entries if the cache budget is exceeded.
+   *
+   * @param size the number of bytes added to the cache
+   */
+  void add(long size) {
+    bytes += size;
+    for (JournalSegmentCache cache : caches) {
+      if (bytes <= maxBytes) {
+        break;
+      }
+      while (bytes > maxBytes) {
+        if (!cache.evict()) {
+          break;
+        }
+      }
+    }
+    statistics.setCacheSize(bytes);
+  }
+
+  /**
+   * Records bytes removed from a segment cache.
+   *
+   * @param size the number of bytes removed from the cache
+   */
+  void remove(long size) {
+    bytes -= size;
+    statistics.setCacheSize(bytes);
+  }
+
+  /**
+   * Records a cache hit.
+   */
+  void hit() {
+    statistics.recordCacheHit();
+  }
+
+  /**
+   * Records a cache miss.
+   */
+  void miss() {
+    statistics.recordCacheMiss();
+  }
+
+  @Override
+  public String toString() {
+    return toStringHelper(this)
+        .add("segments", caches.size())
+        .add("bytes", bytes)
+        .add("maxBytes", maxBytes)
+        .toString();
+  }
+}
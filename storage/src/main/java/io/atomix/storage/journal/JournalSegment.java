@@ -15,8 +15,11 @@
  */
 package io.atomix.storage.journal;
 
+import io.atomix.storage.StorageLevel;
 import io.atomix.utils.serializer.Serializer;
+import io.atomix.storage.journal.index.DenseJournalIndex;
 import io.atomix.storage.journal.index.JournalIndex;
+import io.atomix.storage.journal.index.JournalIndexType;
 import io.atomix.storage.journal.index.SparseJournalIndex;
 
 import static com.google.common.base.MoreObjects.toStringHelper;
@@ -28,8 +31,6 @@ import static com.google.common.base.Preconditions.checkState;
  * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
  */
 public class JournalSegment<E> implements AutoCloseable {
-  private static final int ENTRY_CACHE_SIZE = 1024;
-
   protected final JournalSegmentFile file;
   protected final JournalSegmentDescriptor descriptor;
   protected final JournalIndex index;
@@ -38,15 +39,41 @@ public class JournalSegment<E> implements AutoCloseable {
   private final JournalSegmentCache cache;
   private boolean open = true;
 
-  public JournalSegment(JournalSegmentFile file, JournalSegmentDescriptor descriptor, double indexDensity, int cacheSize, Serializer serializer) {
+  JournalSegment(
+      JournalSegmentFile file,
+      JournalSegmentDescriptor descriptor,
+      StorageLevel storageLevel,
+      JournalIndexType indexType,
+      double indexDensity,
+      JournalCache journalCache,
+      Serializer serializer) {
     this.file = file;
     this.descriptor = descriptor;
-    this.index = new SparseJournalIndex(indexDensity);
+    this.index = createIndex(file, descriptor, storageLevel, indexType, indexDensity);
     this.serializer = serializer;
-    this.cache = new JournalSegmentCache(descriptor.index(), cacheSize);
+    this.cache = journalCache.newSegmentCache(descriptor.index());
     this.writer = new JournalSegmentWriter<>(descriptor, cache, index, serializer);
   }
 
+  /**
+   * Creates the segment index. Dense indexes for segments stored on disk are persisted to the segment's index file.
+   */
+  private static JournalIndex createIndex(
+      JournalSegmentFile file,
+      JournalSegmentDescriptor descriptor,
+      StorageLevel storageLevel,
+      JournalIndexType indexType,
+      double indexDensity) {
+    switch (indexType) {
+      case SPARSE:
+        return new SparseJournalIndex(indexDensity);
+      case DENSE:
+        return new DenseJournalIndex(descriptor.index(), indexDensity, storageLevel != StorageLevel.MEMORY ? file.indexFile() : null);
+      default:
+        throw new AssertionError();
+    }
+  }
+
   /**
    * Returns the segment ID.
    *
@@ -149,11 +176,14 @@ public class JournalSegment<E> implements AutoCloseable {
 
   /**
    * Creates a new segment reader.
+   * <p>
+   * If the segment was recovered from its footer, the segment is indexed and verified before it's first read.
    *
    * @return A new segment reader.
    */
   JournalSegmentReader<E> createReader() {
     checkOpen();
+    writer.verify();
     return new JournalSegmentReader<>(descriptor, cache, index, serializer);
   }
 
@@ -180,6 +210,8 @@ public class JournalSegment<E> implements AutoCloseable {
   public void close() {
     writer.close();
     descriptor.close();
+    index.close();
+    cache.close();
     open = false;
   }
 
@@ -188,6 +220,7 @@ public class JournalSegment<E> implements AutoCloseable {
    */
   public void delete() {
     writer.delete();
+    index.delete();
   }
 
   @Override
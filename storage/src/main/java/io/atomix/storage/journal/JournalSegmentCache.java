@@ -15,22 +15,30 @@
  */
 package io.atomix.storage.journal;
 
-import java.util.HashMap;
-import java.util.Map;
-
 import static com.google.common.base.MoreObjects.toStringHelper;
 
 /**
  * Journal segment cache.
+ * <p>
+ * The cache stores the most recently written entries in a segment in a fixed-capacity circular array. Because indexes
+ * within a segment are dense and monotonically increasing, entries are addressed by their offset from the first
+ * cached index, so puts, lookups and truncation are all constant time and no keys are boxed. Memory used by cached
+ * entries is accounted against the {@link JournalCache} shared by all the segments in a journal, which evicts the
+ * oldest cached entries when the journal's cache budget is exceeded.
  */
 class JournalSegmentCache {
+  private final JournalCache journalCache;
   private final int size;
-  private final Map<Long, Indexed> entries;
-  private long firstIndex;
+  private final Indexed[] entries;
+  private volatile long firstIndex;
+  private volatile int head;
+  private volatile int count;
+  private long bytes;
 
-  JournalSegmentCache(long index, int size) {
+  JournalSegmentCache(long index, int size, JournalCache journalCache) {
+    this.journalCache = journalCache;
     this.size = size;
-    this.entries = new HashMap<>(size);
+    this.entries = new Indexed[size];
     this.firstIndex = index;
   }
 
@@ -40,13 +48,25 @@ class JournalSegmentCache {
    * @param indexed the entry to add to the cache
    */
   public void put(Indexed indexed) {
-    if (indexed.index() == firstIndex + entries.size()) {
-      entries.put(indexed.index(), indexed);
+    if (size == 0) {
+      return;
+    }
+
+    if (count == 0) {
+      firstIndex = indexed.index();
+    } else if (indexed.index() != firstIndex + count) {
+      return;
     }
-    if (entries.size() > size) {
-      entries.remove(firstIndex);
-      firstIndex++;
+
+    // If the cache is full, evict the oldest entry to make room for the new entry.
+    if (count == size) {
+      evict();
     }
+
+    entries[(head + count) % size] = indexed;
+    count++;
+    bytes += indexed.size();
+    journalCache.add(indexed.size());
   }
 
   /**
@@ -56,7 +76,39 @@ class JournalSegmentCache {
    * @return the indexed entry
    */
   public Indexed get(long index) {
-    return entries.get(index);
+    final long offset = index - firstIndex;
+    if (offset < 0 || offset >= count) {
+      journalCache.miss();
+      return null;
+    }
+
+    // Verify the index of the entry in case the slot was overwritten by a concurrent put.
+    final Indexed indexed = entries[(int) ((head + offset) % size)];
+    if (indexed == null || indexed.index() != index) {
+      journalCache.miss();
+      return null;
+    }
+    journalCache.hit();
+    return indexed;
+  }
+
+  /**
+   * Evicts the oldest entry from the cache.
+   *
+   * @return indicates whether an entry was evicted
+   */
+  boolean evict() {
+    if (count == 0) {
+      return false;
+    }
+    final Indexed indexed = entries[head];
+    entries[head] = null;
+    head = (head + 1) % size;
+    firstIndex++;
+    count--;
+    bytes -= indexed.size();
+    journalCache.remove(indexed.size());
+    return true;
   }
 
   /**
@@ -66,20 +118,56 @@ class JournalSegmentCache {
    */
   public void truncate(long index) {
     if (index < firstIndex) {
+      clear();
       firstIndex = index + 1;
-      entries.clear();
     } else {
-      int size = entries.size();
-      for (long i = index + 1; i < firstIndex + size; i++) {
-        entries.remove(i);
+      while (count > 0 && firstIndex + count - 1 > index) {
+        final int slot = (head + count - 1) % size;
+        final Indexed indexed = entries[slot];
+        entries[slot] = null;
+        count--;
+        bytes -= indexed.size();
+        journalCache.remove(indexed.size());
       }
     }
   }
 
+  /**
+   * Removes all entries from the cache.
+   */
+  void clear() {
+    for (int i = 0; i < count; i++) {
+      entries[(head + i) % size] = null;
+    }
+    head = 0;
+    count = 0;
+    journalCache.remove(bytes);
+    bytes = 0;
+  }
+
+  /**
+   * Returns the number of entries in the cache.
+   *
+   * @return the number of entries in the cache
+   */
+  int count() {
+    return count;
+  }
+
+  /**
+   * Closes the cache, releasing its entries from the journal cache.
+   */
+  void close() {
+    clear();
+    journalCache.unregister(this);
+  }
+
   @Override
   public String toString() {
     return toStringHelper(this)
         .add("size", size)
+        .add("count", count)
+        .add("bytes", bytes)
         .toString();
   }
 }
@@ -22,6 +22,9 @@ import io.atomix.storage.buffer.FileBuffer;
 import io.atomix.storage.buffer.HeapBuffer;
 import io.atomix.storage.buffer.MappedBuffer;
 
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32;
+
 import static com.google.common.base.MoreObjects.toStringHelper;
 import static com.google.common.base.Preconditions.checkNotNull;
 
@@ -50,7 +53,16 @@ import static com.google.common.base.Preconditions.checkNotNull;
  * all entries have been committed to the segment. The lock state of each segment is used to determine log compaction
  * and recovery behavior.</li>
  * </ul>
- * The remainder of the 64 segment header bytes are reserved for future metadata.
+ * The last {@code 24} bytes of the header hold the segment footer, which is written when the segment is sealed:
+ * <ul>
+ * <li>{@code lastIndex} (64-bit signed integer) - The index of the last entry in the segment.</li>
+ * <li>{@code lastPosition} (32-bit signed integer) - The position of the last entry in the segment.</li>
+ * <li>{@code entries} (32-bit signed integer) - The number of entries in the segment.</li>
+ * <li>{@code checksum} (32-bit unsigned integer) - A CRC32 of the checksums of all entries in the segment.</li>
+ * <li>{@code footerChecksum} (32-bit unsigned integer) - A CRC32 of the preceding footer fields. The footer is only
+ * valid if the footer checksum matches.</li>
+ * </ul>
+ * The remaining header bytes are reserved for future metadata.
  *
  * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
  */
@@ -68,6 +80,10 @@ public final class JournalSegmentDescriptor implements AutoCloseable {
   private static final int MAX_SIZE_LENGTH = Bytes.INTEGER;    // 32-bit signed integer
   private static final int MAX_ENTRIES_LENGTH = Bytes.INTEGER; // 32-bit signed integer
   private static final int UPDATED_LENGTH = Bytes.LONG;        // 64-bit signed integer
+  private static final int LAST_INDEX_LENGTH = Bytes.LONG;       // 64-bit signed integer
+  private static final int LAST_POSITION_LENGTH = Bytes.INTEGER; // 32-bit signed integer
+  private static final int ENTRIES_LENGTH = Bytes.INTEGER;       // 32-bit signed integer
+  private static final int CHECKSUM_LENGTH = Bytes.INTEGER;      // 32-bit unsigned integer
 
   // The positions of each field in the header.
   private static final int VERSION_POSITION = 0;                                         // 0
@@ -77,6 +93,14 @@ public final class JournalSegmentDescriptor implements AutoCloseable {
   private static final int MAX_ENTRIES_POSITION = MAX_SIZE_POSITION + MAX_SIZE_LENGTH;   // 24
   private static final int UPDATED_POSITION = MAX_ENTRIES_POSITION + MAX_ENTRIES_LENGTH; // 28
 
+  // The positions of each field in the footer.
+  private static final int FOOTER_POSITION = 40;                                             // 40
+  private static final int LAST_INDEX_POSITION = FOOTER_POSITION;                            // 40
+  private static final int LAST_POSITION_POSITION = LAST_INDEX_POSITION + LAST_INDEX_LENGTH; // 48
+  private static final int ENTRIES_POSITION = LAST_POSITION_POSITION + LAST_POSITION_LENGTH; // 52
+  private static final int CHECKSUM_POSITION = ENTRIES_POSITION + ENTRIES_LENGTH;            // 56
+  private static final int FOOTER_CHECKSUM_POSITION = CHECKSUM_POSITION + CHECKSUM_LENGTH;   // 60
+
   /**
    * Returns a descriptor builder.
    * <p>
@@ -107,6 +131,11 @@ public final class JournalSegmentDescriptor implements AutoCloseable {
   private final int maxEntries;
   private volatile long updated;
   private volatile boolean locked;
+  private volatile long lastIndex;
+  private volatile int lastPosition;
+  private volatile int entries;
+  private volatile long checksum;
+  private volatile boolean sealed;
 
   /**
    * @throws NullPointerException if {@code buffer} is null
@@ -120,6 +149,12 @@ public final class JournalSegmentDescriptor implements AutoCloseable {
     this.maxEntries = buffer.readInt();
     this.updated = buffer.readLong();
     this.locked = buffer.readBoolean();
+    buffer.skip(FOOTER_POSITION - buffer.position());
+    this.lastIndex = buffer.readLong();
+    this.lastPosition = buffer.readInt();
+    this.entries = buffer.readInt();
+    this.checksum = buffer.readUnsignedInt();
+    this.sealed = entries > 0 && buffer.readUnsignedInt() == footerChecksum(lastIndex, lastPosition, entries, checksum);
     buffer.skip(BYTES - buffer.position()); // 64 bytes reserved for the header
   }
 
@@ -208,6 +243,106 @@ public final class JournalSegmentDescriptor implements AutoCloseable {
     }
   }
 
+  /**
+   * Returns a boolean indicating whether the segment has been sealed with a valid footer.
+   * <p>
+   * Once a segment is sealed, the footer fields can be used to recover the segment without scanning its entries.
+   *
+   * @return indicates whether the segment is sealed
+   */
+  public boolean isSealed() {
+    return sealed;
+  }
+
+  /**
+   * Returns the last index in the segment as recorded in the segment footer.
+   *
+   * @return the last index in the segment
+   */
+  public long lastIndex() {
+    return lastIndex;
+  }
+
+  /**
+   * Returns the position of the last entry in the segment as recorded in the segment footer.
+   *
+   * @return the position of the last entry in the segment
+   */
+  public int lastPosition() {
+    return lastPosition;
+  }
+
+  /**
+   * Returns the number of entries in the segment as recorded in the segment footer.
+   *
+   * @return the number of entries in the segment
+   */
+  public int entries() {
+    return entries;
+  }
+
+  /**
+   * Returns the segment checksum as recorded in the segment footer.
+   *
+   * @return the segment checksum
+   */
+  public long checksum() {
+    return checksum;
+  }
+
+  /**
+   * Writes the segment footer and flushes it to disk.
+   *
+   * @param lastIndex the index of the last entry in the segment
+   * @param lastPosition the position of the last entry in the segment
+   * @param entries the number of entries in the segment
+   * @param checksum the segment checksum
+   */
+  void seal(long lastIndex, int lastPosition, int entries, long checksum) {
+    buffer.writeLong(LAST_INDEX_POSITION, lastIndex)
+        .writeInt(LAST_POSITION_POSITION, lastPosition)
+        .writeInt(ENTRIES_POSITION, entries)
+        .writeUnsignedInt(CHECKSUM_POSITION, checksum)
+        .writeUnsignedInt(FOOTER_CHECKSUM_POSITION, footerChecksum(lastIndex, lastPosition, entries, checksum))
+        .flush();
+    this.lastIndex = lastIndex;
+    this.lastPosition = lastPosition;
+    this.entries = entries;
+    this.checksum = checksum;
+    this.sealed = true;
+  }
+
+  /**
+   * Clears the segment footer, e.g. before the entries in a sealed segment are modified.
+   */
+  void unseal() {
+    buffer.writeLong(LAST_INDEX_POSITION, 0)
+        .writeInt(LAST_POSITION_POSITION, 0)
+        .writeInt(ENTRIES_POSITION, 0)
+        .writeUnsignedInt(CHECKSUM_POSITION, 0)
+        .writeUnsignedInt(FOOTER_CHECKSUM_POSITION, 0)
+        .flush();
+    this.lastIndex = 0;
+    this.lastPosition = 0;
+    this.entries = 0;
+    this.checksum = 0;
+    this.sealed = false;
+  }
+
+  /**
+   * Computes the checksum of the given footer fields.
+   */
+  private static long footerChecksum(long lastIndex, int lastPosition, int entries, long checksum) {
+    ByteBuffer buffer = ByteBuffer.allocate(FOOTER_CHECKSUM_POSITION - FOOTER_POSITION)
+        .putLong(lastIndex)
+        .putInt(lastPosition)
+        .putInt(entries)
+        .putInt((int) checksum);
+    CRC32 crc32 = new CRC32();
+    crc32.update(buffer.array(), 0, buffer.position());
+    return crc32.getValue();
+  }
+
   /**
    * Copies the segment to a new buffer.
    */
@@ -220,6 +355,12 @@ public final class JournalSegmentDescriptor implements AutoCloseable {
         .writeInt(maxEntries)
         .writeLong(updated)
         .writeBoolean(locked)
+        .skip(FOOTER_POSITION - buffer.position())
+        .writeLong(lastIndex)
+        .writeInt(lastPosition)
+        .writeInt(entries)
+        .writeUnsignedInt(checksum)
+        .writeUnsignedInt(sealed ? footerChecksum(lastIndex, lastPosition, entries, checksum) : 0)
         .skip(BYTES - buffer.position())
         .flush();
     return this;
@@ -248,6 +389,7 @@ public final class JournalSegmentDescriptor implements AutoCloseable {
         .add("id", id)
         .add("index", index)
         .add("updated", updated)
+        .add("sealed", sealed)
         .toString();
   }
 
@@ -17,12 +17,14 @@ package io.atomix.storage.journal;
 
 import io.atomix.utils.serializer.Serializer;
 import io.atomix.storage.buffer.Buffer;
+import io.atomix.storage.buffer.ByteBufferBytes;
 import io.atomix.storage.buffer.Bytes;
 import io.atomix.storage.buffer.HeapBuffer;
 import io.atomix.storage.journal.index.JournalIndex;
 import io.atomix.storage.journal.index.Position;
 
 import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
 import java.util.NoSuchElementException;
 import java.util.zip.CRC32;
 import java.util.zip.Checksum;
@@ -148,6 +150,12 @@ public class JournalSegmentReader<E> implements JournalReader<E> {
       // Read the checksum of the entry.
       long checksum = buffer.readUnsignedInt();
 
+      // If the segment is backed by a ByteBuffer, verify and decode the entry directly from the segment memory.
+      if (buffer.bytes() instanceof ByteBufferBytes) {
+        readDirect(index, length, checksum);
+        return;
+      }
+
       // Read the entry into memory.
       buffer.read(memory.clear().limit(length));
       memory.flip();
@@ -170,6 +178,39 @@ public class JournalSegmentReader<E> implements JournalReader<E> {
     }
   }
 
+  /**
+   * Reads the next entry directly from the segment's {@link ByteBuffer} without copying it into memory.
+   */
+  private void readDirect(long index, int length, long checksum) {
+    final ByteBuffer byteBuffer = ((ByteBufferBytes) buffer.bytes()).byteBuffer().duplicate();
+    final int offset = buffer.offset() + buffer.position();
+
+    // If the entry extends beyond the segment memory, the entry is incomplete.
+    if (length < 0 || (long) offset + length > byteBuffer.capacity()) {
+      buffer.reset();
+      nextEntry = null;
+      return;
+    }
+
+    byteBuffer.limit(offset + length).position(offset);
+    final ByteBuffer slice = byteBuffer.slice();
+
+    // Compute the checksum for the entry bytes.
+    final CRC32 crc32 = new CRC32();
+    crc32.update(slice);
+    slice.rewind();
+
+    // If the stored checksum equals the computed checksum, decode the entry and skip past it.
+    if (checksum == crc32.getValue()) {
+      E entry = serializer.decode(slice);
+      buffer.position(buffer.position() + length);
+      nextEntry = new Indexed<>(index, entry, length);
+    } else {
+      buffer.reset();
+      nextEntry = null;
+    }
+  }
+
   @Override
   public void close() {
     memory.close();
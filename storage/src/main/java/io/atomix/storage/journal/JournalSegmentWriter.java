@@ -17,12 +17,21 @@ package io.atomix.storage.journal;
 
 import io.atomix.utils.serializer.Serializer;
 import io.atomix.storage.buffer.Buffer;
+import io.atomix.storage.buffer.ByteBufferBytes;
+import io.atomix.storage.buffer.Bytes;
 import io.atomix.storage.buffer.FileBuffer;
 import io.atomix.storage.buffer.HeapBuffer;
 import io.atomix.storage.buffer.MappedBuffer;
 import io.atomix.storage.buffer.SlicedBuffer;
 import io.atomix.storage.journal.index.JournalIndex;
-
+import io.atomix.storage.journal.index.Position;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.zip.CRC32;
 import java.util.zip.Checksum;
 
@@ -42,14 +51,22 @@ import java.util.zip.Checksum;
  * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
  */
 public class JournalSegmentWriter<E> implements JournalWriter<E> {
+  private final Logger log = LoggerFactory.getLogger(getClass());
   private final JournalSegmentDescriptor descriptor;
   private final JournalSegmentCache cache;
   private final JournalIndex index;
   private final Buffer buffer;
   private final Serializer serializer;
   private final HeapBuffer memory = HeapBuffer.allocate();
+  private final HeapBuffer batch = HeapBuffer.allocate();
   private final long firstIndex;
+  private final CRC32 segmentChecksum = new CRC32();
+  private final byte[] checksumBytes = new byte[Bytes.INTEGER];
+  private boolean segmentChecksumValid;
+  private volatile boolean verified = true;
   private Indexed<E> lastEntry;
+  private int lastPosition;
+  private boolean sealed;
 
   public JournalSegmentWriter(JournalSegmentDescriptor descriptor, JournalSegmentCache cache, JournalIndex index, Serializer serializer) {
     this.descriptor = descriptor;
@@ -58,18 +75,253 @@ public class JournalSegmentWriter<E> implements JournalWriter<E> {
     this.buffer = descriptor.buffer().slice();
     this.serializer = serializer;
     this.firstIndex = descriptor.index();
-    reset(0);
+    if (descriptor.isSealed()) {
+      sealed = recover();
+      if (!sealed) {
+        descriptor.unseal();
+      }
+    }
+    if (!sealed) {
+      reset(0);
+    }
+  }
+
+  /**
+   * Recovers a sealed segment from its footer.
+   * <p>
+   * The last index, last position and entry count recorded in the footer are trusted, and only the last entry is read
+   * and verified. If a persisted index was loaded for the segment, the entries following its last indexed position are
+   * walked to verify that it matches the footer. The remaining entries are indexed and the segment checksum verified
+   * the first time the segment is read or modified. See {@link #verify()}.
+   *
+   * @return indicates whether the footer matched the contents of the segment
+   */
+  private boolean recover() {
+    final long lastIndex = descriptor.lastIndex();
+    final int position = descriptor.lastPosition();
+    if (lastIndex < firstIndex
+        || lastIndex - firstIndex + 1 != descriptor.entries()
+        || position < 0
+        || position > buffer.maxCapacity() - Bytes.INTEGER - Bytes.INTEGER) {
+      return false;
+    }
+
+    // If the index was loaded from disk, verify that it leads to the last entry. Otherwise, discard it.
+    if (!recoverIndex(lastIndex, position)) {
+      index.truncate(firstIndex - 1);
+    }
+
+    // Read the last entry and verify its checksum.
+    buffer.clear().position(position);
+    final int length = buffer.readInt();
+    if (length <= 0 || (long) position + Bytes.INTEGER + Bytes.INTEGER + length > buffer.maxCapacity()) {
+      return abortRecovery();
+    }
+    final long checksum = buffer.readUnsignedInt();
+    buffer.read(memory.clear().limit(length));
+    memory.flip();
+    final Checksum crc32 = new CRC32();
+    crc32.update(memory.array(), 0, length);
+
+    // Verify that no entries follow the last entry recorded in the footer.
+    final int nextLength = buffer.mark().readInt();
+    buffer.reset();
+    if (checksum != crc32.getValue() || nextLength != 0) {
+      return abortRecovery();
+    }
+
+    index.index(lastIndex, position);
+    lastEntry = new Indexed<>(lastIndex, serializer.decode(memory.array()), length);
+    lastPosition = position;
+    segmentChecksumValid = false;
+    verified = false;
+    return true;
+  }
+
+  /**
+   * Verifies a persisted index against the last position recorded in the segment footer.
+   *
+   * @return indicates whether the index is empty or its last indexed entry leads to the last entry in the segment
+   */
+  private boolean recoverIndex(long lastIndex, int lastPosition) {
+    final Position indexed = index.lookup(lastIndex);
+    if (indexed == null) {
+      return true;
+    }
+    if (indexed.index() < firstIndex || indexed.index() > lastIndex || indexed.position() < 0) {
+      return false;
+    }
+
+    long nextIndex = indexed.index();
+    long nextPosition = indexed.position();
+    while (nextIndex < lastIndex && nextPosition < lastPosition) {
+      final int length = buffer.position((int) nextPosition).readInt();
+      if (length <= 0) {
+        return false;
+      }
+      nextIndex++;
+      nextPosition += Bytes.INTEGER + Bytes.INTEGER + length;
+    }
+    return nextIndex == lastIndex && nextPosition == lastPosition;
+  }
+
+  /**
+   * Discards the state of a failed recovery so the segment can be scanned.
+   *
+   * @return {@code false}
+   */
+  private boolean abortRecovery() {
+    index.truncate(firstIndex - 1);
+    buffer.clear();
+    return false;
+  }
+
+  /**
+   * Completes the recovery of a segment that was recovered from its footer.
+   * <p>
+   * The entry headers are walked to index the entries and verify the segment checksum recorded in the footer. This is
+   * called before the segment is first read or modified rather than when the segment is loaded, so segments that are
+   * never read are never scanned. If the entry headers do not match the footer, the footer is cleared so the segment
+   * is scanned the next time it's loaded.
+   */
+  void verify() {
+    if (verified) {
+      return;
+    }
+
+    synchronized (this) {
+      if (!verified) {
+        if (!scanHeaders(lastEntry.index(), lastPosition) || segmentChecksum.getValue() != descriptor.checksum()) {
+          log.warn("Segment {} does not match its footer", descriptor.id());
+          descriptor.unseal();
+          sealed = false;
+          segmentChecksumValid = false;
+        }
+        verified = true;
+      }
+    }
+  }
+
+  /**
+   * Walks the entry headers from the start of the segment to the given last entry, indexing the entries and computing
+   * the segment checksum.
+   *
+   * @return indicates whether the last entry was found at the given position
+   */
+  private boolean scanHeaders(long lastIndex, int lastPosition) {
+    segmentChecksum.reset();
+    segmentChecksumValid = true;
+    final Buffer buffer = descriptor.buffer().slice().duplicate();
+    try {
+      long position = 0;
+      for (long i = firstIndex; i <= lastIndex && position <= lastPosition; i++) {
+        final int length = buffer.position((int) position).readInt();
+        if (length <= 0) {
+          break;
+        }
+        updateChecksum(buffer.readUnsignedInt());
+        index.index(i, (int) position);
+        if (i == lastIndex) {
+          return position == lastPosition;
+        }
+        position += Bytes.INTEGER + Bytes.INTEGER + length;
+      }
+      segmentChecksumValid = false;
+      return false;
+    } finally {
+      buffer.close();
+    }
+  }
+
+  /**
+   * Seals the segment.
+   * <p>
+   * The segment is flushed and a footer recording the last index, last position, entry count and segment checksum
+   * is written to the segment descriptor, allowing the segment to be recovered without scanning its entries. Any
+   * subsequent write to the segment clears the footer.
+   */
+  public void seal() {
+    flush();
+    if (sealed || lastEntry == null) {
+      return;
+    }
+
+    // If the segment checksum was not computed while scanning and appending entries, compute it from the entry headers.
+    if (!segmentChecksumValid) {
+      scanHeaders(lastEntry.index(), lastPosition);
+    }
+
+    descriptor.seal(lastEntry.index(), lastPosition, (int) (lastEntry.index() - firstIndex + 1), segmentChecksum.getValue());
+    sealed = true;
+  }
+
+  /**
+   * Returns a boolean indicating whether the segment is sealed.
+   *
+   * @return indicates whether the segment is sealed
+   */
+  public boolean isSealed() {
+    return sealed;
+  }
+
+  /**
+   * Clears the segment footer before the segment is modified.
+   */
+  private void unseal() {
+    verify();
+    descriptor.unseal();
+    sealed = false;
+  }
+
+  /**
+   * Updates the segment checksum with the given entry checksum.
+   */
+  private void updateChecksum(long checksum) {
+    if (segmentChecksumValid) {
+      checksumBytes[0] = (byte) (checksum >>> 24);
+      checksumBytes[1] = (byte) (checksum >>> 16);
+      checksumBytes[2] = (byte) (checksum >>> 8);
+      checksumBytes[3] = (byte) checksum;
+      segmentChecksum.update(checksumBytes, 0, checksumBytes.length);
+    }
   }
 
   /**
    * Initializes the writer by seeking to the end of the segment.
+   * <p>
+   * If the index contains a position at or before the given index, entries are scanned from the indexed position
+   * rather than from the start of the segment. If the indexed entry cannot be read, e.g. because a persisted index
+   * is stale, the index is discarded and the segment is scanned from the start.
    */
-  @SuppressWarnings("unchecked")
   private void reset(long index) {
-    long nextIndex = firstIndex;
+    Position position = this.index.lookup(index == 0 ? Long.MAX_VALUE : index);
+    if (position == null || !reset(position.index(), position.position(), index)) {
+      this.index.truncate(firstIndex - 1);
+      reset(firstIndex, 0, index);
+    }
+  }
 
-    // Clear the buffer indexes.
-    buffer.clear();
+  /**
+   * Scans entries starting at the given index and position.
+   *
+   * @return indicates whether the entry at the given position was read
+   */
+  @SuppressWarnings("unchecked")
+  private boolean reset(long startIndex, int startPosition, long index) {
+    long nextIndex = startIndex;
+    lastEntry = null;
+
+    // If the start position is out of the bounds of the segment, the index is invalid.
+    if (startPosition > buffer.maxCapacity() - Bytes.INTEGER) {
+      return false;
+    }
+
+    // The segment checksum can only be computed if the segment is scanned from the start.
+    segmentChecksumValid = startPosition == 0;
+    segmentChecksum.reset();
+
+    // Clear the buffer indexes and seek to the start position.
+    buffer.clear().position(startPosition);
 
     // Record the current buffer position.
     int position = buffer.position();
@@ -95,6 +347,8 @@ public class JournalSegmentWriter<E> implements JournalWriter<E> {
       if (checksum == crc32.getValue()) {
         final E entry = serializer.decode(memory.array());
         lastEntry = new Indexed<>(nextIndex, entry, length);
+        lastPosition = position;
+        updateChecksum(checksum);
         this.index.index(nextIndex, position);
         nextIndex++;
       } else {
@@ -108,6 +362,7 @@ public class JournalSegmentWriter<E> implements JournalWriter<E> {
 
     // Reset the buffer to the previous mark.
     buffer.reset();
+    return nextIndex > startIndex || startPosition == 0;
   }
 
   @Override
@@ -184,32 +439,171 @@ public class JournalSegmentWriter<E> implements JournalWriter<E> {
   @Override
   @SuppressWarnings("unchecked")
   public <T extends E> Indexed<T> append(T entry) {
+    // Clear the footer if the segment was sealed.
+    if (sealed) {
+      unseal();
+    }
+
     // Store the entry index.
     final long index = getNextIndex();
 
+    // Record the current buffer position;
+    final int position = buffer.position();
+
+    // Write the entry length, checksum and entry to the segment. If the segment is backed by a ByteBuffer, the
+    // entry is serialized directly into the segment. Otherwise, the entry is serialized into an in-memory buffer
+    // and written to the segment in a single write.
+    final CRC32 crc32 = new CRC32();
+    final int length;
+    try {
+      if (buffer.bytes() instanceof ByteBufferBytes) {
+        length = writeEntry(entry, buffer, crc32);
+      } else {
+        batch.clear();
+        length = writeEntry(entry, batch, crc32);
+        buffer.write(batch.array(), 0, batch.position());
+      }
+    } catch (BufferOverflowException e) {
+      buffer.writeInt(position, 0).position(position);
+      throw e;
+    }
+
+    // Update the last entry with the correct index/term/length.
+    Indexed<E> indexedEntry = new Indexed<>(index, entry, length);
+    this.lastEntry = indexedEntry;
+    this.lastPosition = position;
+    updateChecksum(crc32.getValue());
+    this.cache.put(indexedEntry);
+    this.index.index(index, position);
+    return (Indexed<T>) indexedEntry;
+  }
+
+  /**
+   * Appends a batch of entries to the segment.
+   * <p>
+   * Entries are serialized into a contiguous in-memory buffer and written to the segment in a single write.
+   * Entries are appended until the next entry would overflow the segment, so the returned list may contain fewer
+   * entries than the provided batch. The caller is responsible for rolling over to a new segment to append the
+   * remaining entries. As with {@link #append(Object)}, an entry larger than the segment is only appended to an
+   * empty segment.
+   *
+   * @param entries the entries to append
+   * @return the entries that were appended to the segment
+   */
+  @Override
+  @SuppressWarnings("unchecked")
+  public <T extends E> List<Indexed<T>> appendBatch(List<T> entries) {
+    if (sealed) {
+      unseal();
+    }
+
+    final long firstBatchIndex = getNextIndex();
+    final int firstPosition = buffer.position();
+    final List<Indexed<T>> indexedEntries = new ArrayList<>(entries.size());
+    final int[] positions = new int[entries.size()];
+    final long[] checksums = new long[entries.size()];
+    final CRC32 crc32 = new CRC32();
+
+    batch.clear();
+
+    long index = firstBatchIndex;
+    for (T entry : entries) {
+      // Stop appending entries once the segment is full.
+      if (size() + batch.position() >= descriptor.maxSegmentSize() || index - firstIndex >= descriptor.maxEntries()) {
+        break;
+      }
+
+      // Record the position of the entry relative to the start of the batch.
+      final int batchPosition = batch.position();
+      positions[indexedEntries.size()] = firstPosition + batchPosition;
+
+      // Write the entry length, checksum and entry to the batch buffer.
+      final int length = writeEntry(entry, batch, crc32);
+
+      // If the entry overflows the segment, discard it and leave it to be appended to the next segment.
+      if (size() + batch.position() > descriptor.maxSegmentSize() && index > firstIndex) {
+        batch.position(batchPosition);
+        break;
+      }
+
+      checksums[indexedEntries.size()] = crc32.getValue();
+      indexedEntries.add(new Indexed<>(index++, entry, length));
+    }
+
+    if (indexedEntries.isEmpty()) {
+      return indexedEntries;
+    }
+
+    // Write the entire batch to the segment at once.
+    buffer.write(batch.array(), 0, batch.position());
+
+    // Once the batch has been written, update the cache and index.
+    for (int i = 0; i < indexedEntries.size(); i++) {
+      Indexed<E> indexedEntry = (Indexed<E>) indexedEntries.get(i);
+      this.cache.put(indexedEntry);
+      this.index.index(indexedEntry.index(), positions[i]);
+      updateChecksum(checksums[i]);
+    }
+    this.lastEntry = (Indexed<E>) indexedEntries.get(indexedEntries.size() - 1);
+    this.lastPosition = positions[indexedEntries.size() - 1];
+    return indexedEntries;
+  }
+
+  /**
+   * Writes an entry's length, checksum and bytes to the given buffer at its current position.
+   * <p>
+   * If the buffer is backed by a {@link ByteBuffer}, space for the length and checksum is reserved and the entry is
+   * serialized directly into the buffer's memory, after which the header is back-patched. If the entry does not fit
+   * in the buffer's currently allocated memory, the entry is serialized to an array and the buffer is grown.
+   *
+   * @param entry the entry to write
+   * @param buffer the buffer to which to write the entry
+   * @param crc32 the checksum with which to compute the entry checksum
+   * @return the length of the serialized entry
+   */
+  private int writeEntry(Object entry, Buffer buffer, CRC32 crc32) {
+    final int position = buffer.position();
+    crc32.reset();
+
+    if (buffer.bytes() instanceof ByteBufferBytes) {
+      final ByteBuffer byteBuffer = ((ByteBufferBytes) buffer.bytes()).byteBuffer().duplicate();
+      final int offset = buffer.offset() + position + Bytes.INTEGER + Bytes.INTEGER;
+      final int limit = (int) Math.min(byteBuffer.capacity(), (long) buffer.offset() + buffer.maxCapacity());
+      if (offset < limit) {
+        byteBuffer.limit(limit).position(offset);
+        final ByteBuffer slice = byteBuffer.slice();
+        try {
+          serializer.encode(entry, slice);
+
+          // Compute the checksum for the entry directly from the buffer.
+          final int length = slice.position();
+          slice.flip();
+          crc32.update(slice);
+
+          // Back-patch the entry length and checksum and advance the buffer past the entry.
+          buffer.writeInt(length)
+              .writeUnsignedInt(crc32.getValue())
+              .position(position + Bytes.INTEGER + Bytes.INTEGER + length);
+          return length;
+        } catch (BufferOverflowException e) {
+          // Fall through and serialize the entry to an array.
+        }
+      }
+    }
+
     // Serialize the entry.
     final byte[] bytes = serializer.encode(entry);
     final int length = bytes.length;
 
     // Compute the checksum for the entry.
-    final Checksum crc32 = new CRC32();
     crc32.update(bytes, 0, length);
     final long checksum = crc32.getValue();
 
-    // Record the current buffer position;
-    int position = buffer.position();
-
-    // Write the entry length and entry to the segment.
+    // Write the entry length and entry to the buffer.
     buffer.writeInt(length)
         .writeUnsignedInt(checksum)
         .write(bytes);
-
-    // Update the last entry with the correct index/term/length.
-    Indexed<E> indexedEntry = new Indexed<>(index, entry, length);
-    this.lastEntry = indexedEntry;
-    this.cache.put(indexedEntry);
-    this.index.index(index, position);
-    return (Indexed<T>) indexedEntry;
+    return length;
   }
 
   @Override
@@ -220,6 +614,11 @@ public class JournalSegmentWriter<E> implements JournalWriter<E> {
       return;
     }
 
+    // Clear the footer if the segment was sealed.
+    if (sealed) {
+      unseal();
+    }
+
     // Reset the last entry.
     lastEntry = null;
 
@@ -228,6 +627,8 @@ public class JournalSegmentWriter<E> implements JournalWriter<E> {
       buffer.zero().clear();
       this.cache.truncate(index);
       this.index.truncate(index);
+      segmentChecksum.reset();
+      segmentChecksumValid = true;
       return;
     }
 
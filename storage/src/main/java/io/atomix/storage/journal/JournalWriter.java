@@ -15,6 +15,8 @@
  */
 package io.atomix.storage.journal;
 
+import java.util.List;
+
 /**
  * Log writer.
  *
@@ -51,6 +53,17 @@ public interface JournalWriter<E> extends AutoCloseable {
    */
   <T extends E> Indexed<T> append(T entry);
 
+  /**
+   * Appends a batch of entries to the journal.
+   * <p>
+   * Entries in the batch are assigned sequential indexes and are written to the underlying storage in as few
+   * writes as possible. The batch is not flushed to disk until {@link #flush()} is called.
+   *
+   * @param entries The entries to append.
+   * @return The appended indexed entries.
+   */
+  <T extends E> List<Indexed<T>> appendBatch(List<T> entries);
+
   /**
    * Appends an indexed entry to the log.
    *
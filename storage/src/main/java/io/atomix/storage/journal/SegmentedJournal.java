@@ -22,18 +22,21 @@ import io.atomix.storage.buffer.Buffer;
 import io.atomix.storage.buffer.FileBuffer;
 import io.atomix.storage.buffer.HeapBuffer;
 import io.atomix.storage.buffer.MappedBuffer;
-import io.atomix.storage.journal.index.SparseJournalIndex;
+import io.atomix.storage.journal.index.JournalIndexType;
+import io.atomix.storage.statistics.StorageStatistics;
 import io.atomix.utils.serializer.Serializer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
+import java.time.Duration;
 import java.util.Collection;
 import java.util.Map;
 import java.util.NavigableMap;
 import java.util.SortedMap;
 import java.util.TreeMap;
 import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
@@ -66,8 +69,12 @@ public class SegmentedJournal<E> implements Journal<E> {
   private final Serializer serializer;
   private final int maxSegmentSize;
   private final int maxEntriesPerSegment;
+  private final JournalIndexType indexType;
   private final double indexDensity;
-  private final int cacheSize;
+  private final StorageStatistics statistics;
+  private final JournalCache cache;
+  private final int maxBatchSize;
+  private final Duration maxBatchLinger;
 
   private final NavigableMap<Long, JournalSegment<E>> segments = new ConcurrentSkipListMap<>();
   private final Collection<SegmentedJournalReader<E>> readers = Sets.newConcurrentHashSet();
@@ -83,16 +90,25 @@ public class SegmentedJournal<E> implements Journal<E> {
       Serializer serializer,
       int maxSegmentSize,
       int maxEntriesPerSegment,
+      JournalIndexType indexType,
       double indexDensity,
-      int cacheSize) {
+      int cacheSize,
+      long maxCacheBytes,
+      StorageStatistics statistics,
+      int maxBatchSize,
+      Duration maxBatchLinger) {
     this.name = checkNotNull(name, "name cannot be null");
     this.storageLevel = checkNotNull(storageLevel, "storageLevel cannot be null");
     this.directory = checkNotNull(directory, "directory cannot be null");
     this.serializer = checkNotNull(serializer, "serializer cannot be null");
     this.maxSegmentSize = maxSegmentSize;
     this.maxEntriesPerSegment = maxEntriesPerSegment;
+    this.indexType = checkNotNull(indexType, "indexType cannot be null");
     this.indexDensity = indexDensity;
-    this.cacheSize = cacheSize;
+    this.statistics = statistics != null ? statistics : new StorageStatistics(directory);
+    this.cache = new JournalCache(cacheSize, maxCacheBytes, this.statistics);
+    this.maxBatchSize = maxBatchSize;
+    this.maxBatchLinger = checkNotNull(maxBatchLinger, "maxBatchLinger cannot be null");
     open();
     this.writer = openWriter();
   }
@@ -154,6 +170,38 @@ public class SegmentedJournal<E> implements Journal<E> {
     return maxEntriesPerSegment;
   }
 
+  /**
+   * Returns the journal statistics.
+   * <p>
+   * The statistics include entry cache hit and miss counts for all the segments in the journal.
+   *
+   * @return the journal statistics
+   */
+  public StorageStatistics statistics() {
+    return statistics;
+  }
+
+  /**
+   * Returns the maximum number of bytes to accumulate before flushing a group commit batch.
+   * <p>
+   * If the maximum batch size is {@code 0}, group commit is disabled and every
+   * {@link SegmentedJournalWriter#flush(io.atomix.utils.concurrent.Scheduler) deferred flush} is performed immediately.
+   *
+   * @return The maximum group commit batch size in bytes.
+   */
+  public int maxBatchSize() {
+    return maxBatchSize;
+  }
+
+  /**
+   * Returns the maximum time for which a flush may be deferred by group commit.
+   *
+   * @return The maximum group commit linger time.
+   */
+  public Duration maxBatchLinger() {
+    return maxBatchLinger;
+  }
+
   /**
    * Opens a new journal writer.
    *
@@ -375,7 +423,7 @@ public class SegmentedJournal<E> implements Journal<E> {
    * @return The segment instance.
    */
   protected JournalSegment<E> newSegment(JournalSegmentFile segmentFile, JournalSegmentDescriptor descriptor) {
-    return new JournalSegment<>(segmentFile, descriptor, indexDensity, cacheSize, serializer);
+    return new JournalSegment<>(segmentFile, descriptor, storageLevel, indexType, indexDensity, cache, serializer);
   }
 
   /**
@@ -485,8 +533,12 @@ public class SegmentedJournal<E> implements Journal<E> {
         JournalSegmentFile segmentFile = new JournalSegmentFile(file);
         JournalSegmentDescriptor descriptor = new JournalSegmentDescriptor(FileBuffer.allocate(file, JournalSegmentDescriptor.BYTES));
 
-        // Load the segment.
+        // Load the segment, recording the time taken to recover the segment.
+        long startTime = System.nanoTime();
         JournalSegment<E> segment = loadSegment(descriptor.id());
+        long recoveryTime = System.nanoTime() - startTime;
+        statistics.recordSegmentRecovery(descriptor.id(), recoveryTime);
+        log.debug("Recovered segment {} in {} ms (sealed: {})", descriptor.id(), TimeUnit.NANOSECONDS.toMillis(recoveryTime), segment.descriptor().isSealed());
 
         // If a segment with an equal or lower index has already been loaded, ensure this segment is not superseded
         // by the earlier segment. This can occur due to segments being combined during log compaction.
@@ -668,6 +720,9 @@ public class SegmentedJournal<E> implements Journal<E> {
     private static final int DEFAULT_MAX_ENTRIES_PER_SEGMENT = 1024 * 1024;
     private static final double DEFAULT_INDEX_DENSITY = .005;
     private static final int DEFAULT_CACHE_SIZE = 1024;
+    private static final long DEFAULT_MAX_CACHE_BYTES = 1024 * 1024 * 64;
+    private static final int DEFAULT_MAX_BATCH_SIZE = 0;
+    private static final Duration DEFAULT_MAX_BATCH_LINGER = Duration.ofMillis(1);
 
     protected String name = DEFAULT_NAME;
     protected StorageLevel storageLevel = StorageLevel.DISK;
@@ -675,8 +730,13 @@ public class SegmentedJournal<E> implements Journal<E> {
     protected Serializer serializer;
     protected int maxSegmentSize = DEFAULT_MAX_SEGMENT_SIZE;
     protected int maxEntriesPerSegment = DEFAULT_MAX_ENTRIES_PER_SEGMENT;
+    protected JournalIndexType indexType = JournalIndexType.SPARSE;
     protected double indexDensity = DEFAULT_INDEX_DENSITY;
     protected int cacheSize = DEFAULT_CACHE_SIZE;
+    protected long maxCacheBytes = DEFAULT_MAX_CACHE_BYTES;
+    protected StorageStatistics statistics;
+    protected int maxBatchSize = DEFAULT_MAX_BATCH_SIZE;
+    protected Duration maxBatchLinger = DEFAULT_MAX_BATCH_LINGER;
 
     protected Builder() {
     }
@@ -784,6 +844,22 @@ public class SegmentedJournal<E> implements Journal<E> {
       return this;
     }
 
+    /**
+     * Sets the journal index type.
+     * <p>
+     * The index type controls how the positions of entries within each segment are indexed. A
+     * {@link JournalIndexType#DENSE dense} index supports constant time lookups and is persisted alongside each
+     * segment file when the segment is closed, allowing segments to be reopened without scanning all their entries.
+     * By default, a {@link JournalIndexType#SPARSE sparse} index is used.
+     *
+     * @param indexType the journal index type
+     * @return the journal builder
+     */
+    public Builder<E> withIndexType(JournalIndexType indexType) {
+      this.indexType = checkNotNull(indexType, "indexType cannot be null");
+      return this;
+    }
+
     /**
      * Sets the journal index density.
      * <p>
@@ -813,6 +889,75 @@ public class SegmentedJournal<E> implements Journal<E> {
       return this;
     }
 
+    /**
+     * Sets the maximum total size of cached entries in bytes, returning the builder for method chaining.
+     * <p>
+     * The cache size limits the number of entries cached per segment, while the maximum cache bytes limits the
+     * memory used by cached entries across all segments in the journal. When the limit is exceeded, entries are
+     * evicted from the oldest segments first.
+     * <p>
+     * By default, the maximum cache size is {@code 1024 * 1024 * 64}.
+     *
+     * @param maxCacheBytes the maximum total size of cached entries in bytes
+     * @return the journal builder
+     * @throws IllegalArgumentException if the maximum cache size is negative
+     */
+    public Builder<E> withMaxCacheBytes(long maxCacheBytes) {
+      checkArgument(maxCacheBytes >= 0, "maxCacheBytes must be positive");
+      this.maxCacheBytes = maxCacheBytes;
+      return this;
+    }
+
+    /**
+     * Sets the statistics to which to record journal metrics, returning the builder for method chaining.
+     * <p>
+     * If no statistics are provided, the journal will create statistics for the journal directory.
+     *
+     * @param statistics the journal statistics
+     * @return the journal builder
+     */
+    public Builder<E> withStatistics(StorageStatistics statistics) {
+      this.statistics = checkNotNull(statistics, "statistics cannot be null");
+      return this;
+    }
+
+    /**
+     * Sets the maximum group commit batch size in bytes, returning the builder for method chaining.
+     * <p>
+     * When the maximum batch size is positive, group commit is enabled for the journal. Entries appended to the
+     * journal accumulate in the current segment and
+     * {@link SegmentedJournalWriter#flush(io.atomix.utils.concurrent.Scheduler) deferred flushes} of the journal are
+     * performed once either the number of unflushed bytes reaches the maximum batch size or the
+     * {@link #withMaxBatchLinger(Duration) maximum linger time} has elapsed since the first deferred flush was
+     * requested. {@link JournalWriter#flush()} always flushes the journal immediately.
+     * <p>
+     * By default, the maximum batch size is {@code 0} and group commit is disabled.
+     *
+     * @param maxBatchSize the maximum group commit batch size in bytes
+     * @return the journal builder
+     * @throws IllegalArgumentException if the maximum batch size is negative
+     */
+    public Builder<E> withMaxBatchSize(int maxBatchSize) {
+      checkArgument(maxBatchSize >= 0, "maxBatchSize must be positive");
+      this.maxBatchSize = maxBatchSize;
+      return this;
+    }
+
+    /**
+     * Sets the maximum time for which a flush may be deferred by group commit, returning the builder for method
+     * chaining.
+     * <p>
+     * By default, the maximum linger time is {@code 1} millisecond.
+     *
+     * @param maxBatchLinger the maximum group commit linger time
+     * @return the journal builder
+     * @throws NullPointerException if the linger time is {@code null}
+     */
+    public Builder<E> withMaxBatchLinger(Duration maxBatchLinger) {
+      this.maxBatchLinger = checkNotNull(maxBatchLinger, "maxBatchLinger cannot be null");
+      return this;
+    }
+
     /**
      * Builds the journal.
      *
@@ -820,7 +965,7 @@ public class SegmentedJournal<E> implements Journal<E> {
      */
     @Override
     public SegmentedJournal<E> build() {
-      return new SegmentedJournal<>(name, storageLevel, directory, serializer, maxSegmentSize, maxEntriesPerSegment, indexDensity, cacheSize);
+      return new SegmentedJournal<>(name, storageLevel, directory, serializer, maxSegmentSize, maxEntriesPerSegment, indexType, indexDensity, cacheSize, maxCacheBytes, statistics, maxBatchSize, maxBatchLinger);
     }
   }
 }
\ No newline at end of file
@@ -15,20 +15,39 @@
  */
 package io.atomix.storage.journal;
 
+import io.atomix.utils.concurrent.Scheduled;
+import io.atomix.utils.concurrent.Scheduler;
+
 import java.nio.BufferOverflowException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Log writer.
+ * <p>
+ * If the journal is configured with a positive {@link SegmentedJournal#maxBatchSize() maximum batch size}, the writer
+ * performs group commit for {@link #flush(Scheduler) deferred flushes}: a deferred flush is performed once enough bytes
+ * have been written or a scheduled task fires after the maximum linger time, and a single flush then covers all the
+ * entries appended in the meantime. {@link #flush()} always flushes the journal before returning.
  *
  * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
  */
 public class SegmentedJournalWriter<E> implements JournalWriter<E> {
   private final SegmentedJournal<E> journal;
+  private final int maxBatchSize;
+  private final Duration maxBatchLinger;
   private JournalSegment<E> currentSegment;
   private JournalSegmentWriter<E> currentWriter;
+  private long unflushedBytes;
+  private CompletableFuture<Void> flushFuture;
+  private Scheduled flushTimer;
 
   public SegmentedJournalWriter(SegmentedJournal<E> journal) {
     this.journal = journal;
+    this.maxBatchSize = journal.maxBatchSize();
+    this.maxBatchLinger = journal.maxBatchLinger();
     this.currentSegment = journal.getLastSegment();
     this.currentWriter = currentSegment.writer();
   }
@@ -54,6 +73,7 @@ public class SegmentedJournalWriter<E> implements JournalWriter<E> {
    * @param index the index to which to reset the head of the journal
    */
   public void reset(long index) {
+    flush();
     currentWriter.close();
     currentSegment = journal.resetSegments(index);
     currentWriter = currentSegment.writer();
@@ -62,41 +82,99 @@ public class SegmentedJournalWriter<E> implements JournalWriter<E> {
 
   @Override
   public <T extends E> Indexed<T> append(T entry) {
+    long size = currentWriter.size();
     try {
       if (currentWriter.isFull()) {
-        currentWriter.flush();
-        currentSegment = journal.getNextSegment();
-        currentWriter = currentSegment.writer();
+        nextSegment();
+        size = currentWriter.size();
       }
       return currentWriter.append(entry);
     } catch (BufferOverflowException e) {
       if (currentWriter.firstIndex() == currentWriter.getNextIndex()) {
         throw e;
       }
-      currentWriter.flush();
-      currentSegment = journal.getNextSegment();
-      currentWriter = currentSegment.writer();
+      nextSegment();
+      size = currentWriter.size();
       return currentWriter.append(entry);
+    } finally {
+      appended(currentWriter.size() - size);
+    }
+  }
+
+  @Override
+  public <T extends E> List<Indexed<T>> appendBatch(List<T> entries) {
+    List<Indexed<T>> indexedEntries = new ArrayList<>(entries.size());
+    while (indexedEntries.size() < entries.size()) {
+      long size = currentWriter.size();
+      try {
+        if (currentWriter.isFull()) {
+          nextSegment();
+          size = currentWriter.size();
+        }
+        List<Indexed<T>> segmentEntries = currentWriter.appendBatch(entries.subList(indexedEntries.size(), entries.size()));
+
+        // If the next entry does not fit in the remainder of the segment, roll over to the next segment.
+        if (segmentEntries.isEmpty()) {
+          if (currentWriter.firstIndex() == currentWriter.getNextIndex()) {
+            throw new BufferOverflowException();
+          }
+          nextSegment();
+        }
+        indexedEntries.addAll(segmentEntries);
+      } catch (BufferOverflowException e) {
+        if (currentWriter.firstIndex() == currentWriter.getNextIndex()) {
+          throw e;
+        }
+        nextSegment();
+      } finally {
+        appended(currentWriter.size() - size);
+      }
     }
+    return indexedEntries;
   }
 
   @Override
   public void append(Indexed<E> entry) {
+    long size = currentWriter.size();
     try {
       if (currentWriter.isFull()) {
-        currentWriter.flush();
-        currentSegment = journal.getNextSegment();
-        currentWriter = currentSegment.writer();
+        nextSegment();
+        size = currentWriter.size();
       }
       currentWriter.append(entry);
     } catch (BufferOverflowException e) {
       if (currentWriter.firstIndex() == currentWriter.getNextIndex()) {
         throw e;
       }
-      currentWriter.flush();
-      currentSegment = journal.getNextSegment();
-      currentWriter = currentSegment.writer();
+      nextSegment();
+      size = currentWriter.size();
       currentWriter.append(entry);
+    } finally {
+      appended(currentWriter.size() - size);
+    }
+  }
+
+  /**
+   * Seals the current segment and rolls over to the next segment.
+   */
+  private void nextSegment() {
+    currentWriter.seal();
+    unflushedBytes = 0;
+    currentSegment = journal.getNextSegment();
+    currentWriter = currentSegment.writer();
+  }
+
+  /**
+   * Records bytes appended to the current segment, performing a deferred flush once the group commit batch is full.
+   *
+   * @param bytes the number of bytes appended to the current segment
+   */
+  private void appended(long bytes) {
+    if (bytes > 0) {
+      unflushedBytes += bytes;
+    }
+    if (flushFuture != null && unflushedBytes >= maxBatchSize) {
+      flush();
     }
   }
 
@@ -120,10 +198,46 @@ public class SegmentedJournalWriter<E> implements JournalWriter<E> {
   @Override
   public void flush() {
     currentWriter.flush();
+    unflushedBytes = 0;
+    if (flushTimer != null) {
+      flushTimer.cancel();
+      flushTimer = null;
+    }
+    CompletableFuture<Void> flushFuture = this.flushFuture;
+    this.flushFuture = null;
+    if (flushFuture != null) {
+      flushFuture.complete(null);
+    }
+  }
+
+  /**
+   * Flushes written entries to disk as part of a group commit.
+   * <p>
+   * If group commit is disabled or the group commit batch is full, the journal is flushed immediately. Otherwise, the
+   * flush is deferred and a task is scheduled to perform it once the maximum linger time has elapsed. Entries appended
+   * and flushes requested in the meantime are covered by the same flush, which is performed early if the batch fills
+   * up. The scheduler must run the task on the thread that writes to the journal.
+   *
+   * @param scheduler the scheduler with which to schedule a deferred flush
+   * @return a future to be completed once the entries written prior to the call have been flushed to disk
+   */
+  public CompletableFuture<Void> flush(Scheduler scheduler) {
+    if (maxBatchSize == 0 || unflushedBytes >= maxBatchSize) {
+      flush();
+      return CompletableFuture.completedFuture(null);
+    }
+    if (flushFuture == null) {
+      flushFuture = new CompletableFuture<>();
+      flushTimer = scheduler.schedule(maxBatchLinger, this::flush);
+    }
+    return flushFuture;
   }
 
   @Override
   public void close() {
+    if (flushFuture != null) {
+      flush();
+    }
     currentWriter.close();
   }
-}
\ No newline at end of file
+}
@@ -0,0 +1,205 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.storage.journal.index;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+/**
+ * Dense journal index.
+ * <p>
+ * The dense index stores entry positions in a growable {@code int} array addressed by the offset of the entry from the
+ * first index in the segment divided by the index density, allowing positions to be looked up and truncated in
+ * constant time. If the index is backed by a file, the index is written to the file when it's closed and read back
+ * when the index is reopened. The index file is deleted once the index is truncated below the persisted positions.
+ */
+public class DenseJournalIndex implements JournalIndex {
+  private static final int MIN_DENSITY = 1000;
+  private static final int VERSION = 1;
+  private static final int HEADER_BYTES = Integer.BYTES + Long.BYTES + Integer.BYTES + Integer.BYTES + Long.BYTES;
+  private static final int INITIAL_CAPACITY = 64;
+
+  private final Logger log = LoggerFactory.getLogger(getClass());
+  private final long firstIndex;
+  private final int density;
+  private final File file;
+  private int[] positions = new int[INITIAL_CAPACITY];
+  private int size;
+  private boolean persisted;
+
+  public DenseJournalIndex(long firstIndex, double density) {
+    this(firstIndex, density, null);
+  }
+
+  public DenseJournalIndex(long firstIndex, double density, File file) {
+    this.firstIndex = firstIndex;
+    this.density = (int) Math.ceil(MIN_DENSITY / (density * MIN_DENSITY));
+    this.file = file;
+    if (file != null && file.exists()) {
+      load();
+    }
+  }
+
+  /**
+   * Returns the number of positions stored in the index.
+   *
+   * @return the number of positions stored in the index
+   */
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public void index(long index, int position) {
+    long offset = index - firstIndex;
+    if (offset < 0 || offset % density != 0) {
+      return;
+    }
+
+    long slot = offset / density;
+    if (slot < size) {
+      positions[(int) slot] = position;
+    } else if (slot == size) {
+      if (size == positions.length) {
+        positions = Arrays.copyOf(positions, size * 2);
+      }
+      positions[size++] = position;
+    }
+  }
+
+  @Override
+  public Position lookup(long index) {
+    if (index < firstIndex || size == 0) {
+      return null;
+    }
+    int slot = (int) Math.min((index - firstIndex) / density, size - 1);
+    return new Position(firstIndex + (long) slot * density, positions[slot]);
+  }
+
+  @Override
+  public void truncate(long index) {
+    int length = index < firstIndex ? 0 : (int) Math.min((index - firstIndex) / density + 1, size);
+    if (length < size) {
+      size = length;
+      if (persisted) {
+        delete();
+      }
+    }
+  }
+
+  @Override
+  public void close() {
+    if (file != null && size > 0) {
+      store();
+    }
+  }
+
+  @Override
+  public void delete() {
+    if (file != null) {
+      try {
+        Files.deleteIfExists(file.toPath());
+      } catch (IOException e) {
+        log.warn("Failed to delete index file {}", file, e);
+      }
+      persisted = false;
+    }
+  }
+
+  /**
+   * Reads the index from the index file, discarding the file if it does not match this index.
+   */
+  private void load() {
+    try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+      ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+      if (channel.read(header) == HEADER_BYTES) {
+        header.flip();
+        int version = header.getInt();
+        long index = header.getLong();
+        int density = header.getInt();
+        int size = header.getInt();
+        long checksum = header.getLong();
+        if (version == VERSION && index == firstIndex && density == this.density && size >= 0
+            && channel.size() == HEADER_BYTES + (long) size * Integer.BYTES) {
+          ByteBuffer buffer = ByteBuffer.allocate(size * Integer.BYTES);
+          while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+              break;
+            }
+          }
+          buffer.flip();
+          CRC32 crc32 = new CRC32();
+          crc32.update(buffer.duplicate());
+          if (crc32.getValue() == checksum) {
+            int[] positions = new int[Math.max(size, INITIAL_CAPACITY)];
+            buffer.asIntBuffer().get(positions, 0, size);
+            this.positions = positions;
+            this.size = size;
+            this.persisted = true;
+            return;
+          }
+        }
+      }
+    } catch (IOException e) {
+      log.warn("Failed to read index file {}", file, e);
+    }
+    delete();
+  }
+
+  /**
+   * Writes the index to a temporary file and atomically moves it into place.
+   */
+  private void store() {
+    ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + size * Integer.BYTES);
+    buffer.position(HEADER_BYTES);
+    buffer.asIntBuffer().put(positions, 0, size);
+    ByteBuffer body = buffer.duplicate();
+    body.position(HEADER_BYTES);
+    CRC32 crc32 = new CRC32();
+    crc32.update(body);
+    buffer.position(0);
+    buffer.putInt(VERSION)
+        .putLong(firstIndex)
+        .putInt(density)
+        .putInt(size)
+        .putLong(crc32.getValue())
+        .position(0);
+
+    File tmpFile = new File(file.getParentFile(), file.getName() + ".tmp");
+    try {
+      try (FileChannel channel = FileChannel.open(tmpFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+        while (buffer.hasRemaining()) {
+          channel.write(buffer);
+        }
+        channel.force(true);
+      }
+      Files.move(tmpFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      persisted = true;
+    } catch (IOException e) {
+      log.warn("Failed to write index file {}", file, e);
+    }
+  }
+}
@@ -43,4 +43,18 @@ public interface JournalIndex {
    */
   void truncate(long index);
 
+  /**
+   * Closes the index.
+   * <p>
+   * Indexes that are backed by a file persist their positions when closed.
+   */
+  default void close() {
+  }
+
+  /**
+   * Deletes any persistent state for the index.
+   */
+  default void delete() {
+  }
+
 }
@@ -16,12 +16,20 @@
 package io.atomix.storage.statistics;
 
 import java.io.File;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Atomix storage statistics.
  */
 public class StorageStatistics {
   private final File file;
+  private final LongAdder cacheHits = new LongAdder();
+  private final LongAdder cacheMisses = new LongAdder();
+  private volatile long cacheSize;
+  private final Map<Long, Long> segmentRecoveryTimes = new ConcurrentSkipListMap<>();
 
   public StorageStatistics(File file) {
     this.file = file;
@@ -53,4 +61,82 @@ public class StorageStatistics {
   public long getTotalSpace() {
     return file.getTotalSpace();
   }
+
+  /**
+   * Returns the number of journal entry reads that were served from the entry cache.
+   *
+   * @return the number of cache hits
+   */
+  public long getCacheHits() {
+    return cacheHits.sum();
+  }
+
+  /**
+   * Returns the number of journal entry reads that were not found in the entry cache.
+   *
+   * @return the number of cache misses
+   */
+  public long getCacheMisses() {
+    return cacheMisses.sum();
+  }
+
+  /**
+   * Returns the total size of entries held in the entry cache in bytes.
+   *
+   * @return the size of the entry cache in bytes
+   */
+  public long getCacheSize() {
+    return cacheSize;
+  }
+
+  /**
+   * Records an entry cache hit.
+   */
+  public void recordCacheHit() {
+    cacheHits.increment();
+  }
+
+  /**
+   * Records an entry cache miss.
+   */
+  public void recordCacheMiss() {
+    cacheMisses.increment();
+  }
+
+  /**
+   * Sets the total size of entries held in the entry cache.
+   *
+   * @param cacheSize the size of the entry cache in bytes
+   */
+  public void setCacheSize(long cacheSize) {
+    this.cacheSize = cacheSize;
+  }
+
+  /**
+   * Returns the time taken to recover each journal segment on startup.
+   *
+   * @return the recovery time in nanoseconds of each segment, keyed by segment ID
+   */
+  public Map<Long, Long> getSegmentRecoveryTimes() {
+    return Collections.unmodifiableMap(segmentRecoveryTimes);
+  }
+
+  /**
+   * Returns the total time taken to recover journal segments on startup.
+   *
+   * @return the total recovery time in nanoseconds
+   */
+  public long getRecoveryTime() {
+    return segmentRecoveryTimes.values().stream().mapToLong(Long::longValue).sum();
+  }
+
+  /**
+   * Records the time taken to recover a journal segment on startup.
+   *
+   * @param segmentId the ID of the recovered segment
+   * @param recoveryTime the recovery time in nanoseconds
+   */
+  public void recordSegmentRecovery(long segmentId, long recoveryTime) {
+    segmentRecoveryTimes.put(segmentId, recoveryTime);
+  }
 }
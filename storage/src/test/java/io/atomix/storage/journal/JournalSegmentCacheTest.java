@@ -0,0 +1,103 @@
+/*
+ * Copyright 2017-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.storage.journal;
+
+import io.atomix.storage.statistics.StorageStatistics;
+import org.junit.Test;
+
+import java.io.File;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Journal segment cache test.
+ */
+public class JournalSegmentCacheTest {
+
+  @Test
+  public void testPutGetTruncate() throws Exception {
+    StorageStatistics statistics = new StorageStatistics(new File(System.getProperty("user.dir")));
+    JournalCache journalCache = new JournalCache(4, Long.MAX_VALUE, statistics);
+    JournalSegmentCache cache = journalCache.newSegmentCache(1);
+
+    for (int i = 1; i <= 6; i++) {
+      cache.put(new Indexed<>(i, null, 10));
+    }
+
+    // The oldest entries should have been evicted from the ring.
+    assertEquals(4, cache.count());
+    assertNull(cache.get(1));
+    assertNull(cache.get(2));
+    for (int i = 3; i <= 6; i++) {
+      assertEquals(i, cache.get(i).index());
+    }
+    assertEquals(4, statistics.getCacheHits());
+    assertEquals(2, statistics.getCacheMisses());
+    assertEquals(40, statistics.getCacheSize());
+
+    // Non-sequential entries are not cached.
+    cache.put(new Indexed<>(8, null, 10));
+    assertNull(cache.get(8));
+
+    // Truncate the cache and append a new entry.
+    cache.truncate(4);
+    assertEquals(2, cache.count());
+    assertNull(cache.get(5));
+    cache.put(new Indexed<>(5, null, 20));
+    assertEquals(20, cache.get(5).size());
+    assertEquals(40, statistics.getCacheSize());
+
+    // Truncate the cache prior to its first index.
+    cache.truncate(1);
+    assertEquals(0, cache.count());
+    assertEquals(0, statistics.getCacheSize());
+    cache.put(new Indexed<>(2, null, 10));
+    assertEquals(2, cache.get(2).index());
+  }
+
+  @Test
+  public void testByteBudget() throws Exception {
+    StorageStatistics statistics = new StorageStatistics(new File(System.getProperty("user.dir")));
+    JournalCache journalCache = new JournalCache(10, 50, statistics);
+    JournalSegmentCache cache1 = journalCache.newSegmentCache(1);
+    JournalSegmentCache cache2 = journalCache.newSegmentCache(5);
+
+    for (int i = 1; i <= 4; i++) {
+      cache1.put(new Indexed<>(i, null, 10));
+    }
+    assertEquals(40, statistics.getCacheSize());
+
+    // Entries should be evicted from the oldest segment first.
+    for (int i = 5; i <= 7; i++) {
+      cache2.put(new Indexed<>(i, null, 10));
+    }
+    assertEquals(50, statistics.getCacheSize());
+    assertEquals(2, cache1.count());
+    assertNull(cache1.get(1));
+    assertNull(cache1.get(2));
+    assertEquals(3, cache1.get(3).index());
+    assertEquals(3, cache2.count());
+
+    // Closing a segment cache releases its entries from the budget.
+    cache1.close();
+    assertEquals(30, statistics.getCacheSize());
+    for (int i = 8; i <= 9; i++) {
+      cache2.put(new Indexed<>(i, null, 10));
+    }
+    assertEquals(5, cache2.count());
+  }
+}
@@ -25,6 +25,8 @@ import java.io.IOException;
 import java.nio.file.Files;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 /**
  * Segment descriptor test.
@@ -121,6 +123,38 @@ public class JournalSegmentDescriptorTest {
     assertEquals(descriptor.updated(), time);
   }
 
+  /**
+   * Tests sealing the segment descriptor.
+   */
+  @Test
+  public void testDescriptorSeal() {
+    Buffer buffer = FileBuffer.allocate(file, JournalSegmentDescriptor.BYTES);
+    JournalSegmentDescriptor descriptor = JournalSegmentDescriptor.builder(buffer)
+      .withId(2)
+      .withIndex(1025)
+      .withMaxSegmentSize(1024 * 1024)
+      .withMaxEntries(2048)
+      .build();
+
+    assertFalse(descriptor.isSealed());
+    descriptor.seal(2048, 4096, 1024, 0xFFFFFFFFL);
+    buffer.close();
+
+    descriptor = new JournalSegmentDescriptor(FileBuffer.allocate(file, JournalSegmentDescriptor.BYTES));
+    assertTrue(descriptor.isSealed());
+    assertEquals(descriptor.lastIndex(), 2048);
+    assertEquals(descriptor.lastPosition(), 4096);
+    assertEquals(descriptor.entries(), 1024);
+    assertEquals(descriptor.checksum(), 0xFFFFFFFFL);
+    descriptor.unseal();
+    descriptor.close();
+
+    descriptor = new JournalSegmentDescriptor(FileBuffer.allocate(file, JournalSegmentDescriptor.BYTES));
+    assertFalse(descriptor.isSealed());
+    assertEquals(descriptor.id(), 2);
+    assertEquals(descriptor.index(), 1025);
+  }
+
   /**
    * Deletes the descriptor file.
    */
@@ -18,10 +18,15 @@ package io.atomix.storage.journal;
 import io.atomix.utils.serializer.Serializer;
 import io.atomix.utils.serializer.Namespace;
 import io.atomix.storage.StorageLevel;
+import io.atomix.storage.buffer.Bytes;
+import io.atomix.storage.journal.index.JournalIndexType;
+import io.atomix.utils.concurrent.Scheduled;
+import io.atomix.utils.concurrent.Scheduler;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.io.File;
 import java.io.IOException;
 import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
@@ -29,6 +34,11 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.SimpleFileVisitor;
 import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
@@ -149,6 +159,397 @@ public class JournalTest {
     assertFalse(reader.hasNext());
   }
 
+  @Test
+  public void testAppendBatch() throws Exception {
+    testAppendBatch(StorageLevel.MEMORY);
+    testAppendBatch(StorageLevel.MAPPED);
+    testAppendBatch(StorageLevel.DISK);
+  }
+
+  private void testAppendBatch(StorageLevel storageLevel) throws Exception {
+    cleanupStorage();
+    SegmentedJournal<TestEntry> journal = SegmentedJournal.<TestEntry>builder()
+        .withName("test")
+        .withDirectory(PATH.toFile())
+        .withSerializer(serializer)
+        .withStorageLevel(storageLevel)
+        .withMaxEntriesPerSegment(10)
+        .withMaxBatchSize(1024)
+        .build();
+    JournalWriter<TestEntry> writer = journal.writer();
+
+    List<TestEntry> entries = new ArrayList<>();
+    for (int i = 0; i < 25; i++) {
+      entries.add(new TestEntry(32));
+    }
+
+    // Append a batch spanning multiple segments.
+    writer.append(new TestEntry(32));
+    List<Indexed<TestEntry>> indexed = writer.appendBatch(entries);
+    assertEquals(25, indexed.size());
+    assertEquals(2, indexed.get(0).index());
+    assertEquals(26, indexed.get(24).index());
+    assertEquals(26, writer.getLastIndex());
+    assertEquals(27, writer.getNextIndex());
+    writer.flush();
+
+    JournalReader<TestEntry> reader = journal.openReader(1);
+    for (int i = 1; i <= 26; i++) {
+      assertTrue(reader.hasNext());
+      assertEquals(i, reader.next().index());
+    }
+    assertFalse(reader.hasNext());
+
+    // Truncate into the batch and append another batch.
+    writer.truncate(15);
+    indexed = writer.appendBatch(entries.subList(0, 5));
+    assertEquals(16, indexed.get(0).index());
+    assertEquals(20, writer.getLastIndex());
+    reader.reset(14);
+    for (int i = 14; i <= 20; i++) {
+      assertTrue(reader.hasNext());
+      assertEquals(i, reader.next().index());
+    }
+    assertFalse(reader.hasNext());
+    journal.close();
+
+    // Reopen the journal and verify the batched entries were persisted.
+    if (storageLevel != StorageLevel.MEMORY) {
+      journal = createJournal(storageLevel);
+      assertEquals(20, journal.writer().getLastIndex());
+      reader = journal.openReader(1);
+      for (int i = 1; i <= 20; i++) {
+        assertTrue(reader.hasNext());
+        assertEquals(i, reader.next().index());
+      }
+      assertFalse(reader.hasNext());
+      journal.close();
+    }
+  }
+
+  @Test
+  public void testGroupCommit() throws Exception {
+    testGroupCommit(StorageLevel.MAPPED);
+    testGroupCommit(StorageLevel.DISK);
+  }
+
+  private void testGroupCommit(StorageLevel storageLevel) throws Exception {
+    cleanupStorage();
+    SegmentedJournal<TestEntry> journal = SegmentedJournal.<TestEntry>builder()
+        .withName("test")
+        .withDirectory(PATH.toFile())
+        .withSerializer(serializer)
+        .withStorageLevel(storageLevel)
+        .withMaxBatchSize(1024)
+        .withMaxBatchLinger(Duration.ofMillis(5))
+        .build();
+    SegmentedJournalWriter<TestEntry> writer = journal.writer();
+    TestScheduler scheduler = new TestScheduler();
+
+    // A deferred flush is scheduled once and shared by later requests.
+    writer.append(new TestEntry(32));
+    CompletableFuture<Void> future = writer.flush(scheduler);
+    assertFalse(future.isDone());
+    writer.append(new TestEntry(32));
+    assertEquals(future, writer.flush(scheduler));
+    assertEquals(1, scheduler.tasks.size());
+    assertEquals(Duration.ofMillis(5), scheduler.delay);
+
+    // The scheduled task performs the flush.
+    scheduler.tasks.get(0).run();
+    assertTrue(future.isDone());
+
+    // A full batch is flushed early and the scheduled flush is cancelled.
+    writer.append(new TestEntry(32));
+    future = writer.flush(scheduler);
+    assertFalse(future.isDone());
+    List<TestEntry> entries = new ArrayList<>();
+    for (int i = 0; i < 32; i++) {
+      entries.add(new TestEntry(32));
+    }
+    writer.appendBatch(entries);
+    assertTrue(future.isDone());
+    assertTrue(scheduler.cancelled);
+
+    // Synchronous flushes complete deferred flushes.
+    writer.append(new TestEntry(32));
+    future = writer.flush(scheduler);
+    assertFalse(future.isDone());
+    writer.flush();
+    assertTrue(future.isDone());
+    journal.close();
+  }
+
+  /**
+   * Scheduler that records scheduled tasks to be run by the test.
+   */
+  private static class TestScheduler implements Scheduler {
+    private final List<Runnable> tasks = new ArrayList<>();
+    private Duration delay;
+    private boolean cancelled;
+
+    @Override
+    public Scheduled schedule(Duration delay, Runnable callback) {
+      this.delay = delay;
+      tasks.add(callback);
+      return () -> cancelled = true;
+    }
+
+    @Override
+    public Scheduled schedule(Duration initialDelay, Duration interval, Runnable callback) {
+      throw new UnsupportedOperationException();
+    }
+  }
+
+  @Test
+  public void testAppendBatchSegmentSize() throws Exception {
+    testAppendBatchSegmentSize(StorageLevel.MEMORY);
+    testAppendBatchSegmentSize(StorageLevel.MAPPED);
+    testAppendBatchSegmentSize(StorageLevel.DISK);
+  }
+
+  private void testAppendBatchSegmentSize(StorageLevel storageLevel) throws Exception {
+    cleanupStorage();
+    int maxSegmentSize = JournalSegmentDescriptor.BYTES + 256;
+    SegmentedJournal<TestEntry> journal = SegmentedJournal.<TestEntry>builder()
+        .withName("test")
+        .withDirectory(PATH.toFile())
+        .withSerializer(serializer)
+        .withStorageLevel(storageLevel)
+        .withMaxSegmentSize(maxSegmentSize)
+        .build();
+    JournalWriter<TestEntry> writer = journal.writer();
+
+    List<TestEntry> entries = new ArrayList<>();
+    for (int i = 0; i < 25; i++) {
+      entries.add(new TestEntry(32));
+    }
+
+    // Append a batch spanning multiple segments by size.
+    writer.append(new TestEntry(32));
+    List<Indexed<TestEntry>> indexed = writer.appendBatch(entries);
+    assertEquals(25, indexed.size());
+    assertEquals(26, writer.getLastIndex());
+
+    // Each segment should be filled with as many entries as fit without overflowing the segment.
+    int entrySize = Bytes.INTEGER + Bytes.INTEGER + indexed.get(0).size();
+    int segments = 0;
+    JournalSegment<TestEntry> segment = journal.getFirstSegment();
+    while (segment != null) {
+      assertTrue(segment.size() <= maxSegmentSize);
+      if (segment.lastIndex() < writer.getLastIndex()) {
+        assertTrue(segment.size() + entrySize > maxSegmentSize);
+      }
+      segment = journal.getNextSegment(segment.index());
+      segments++;
+    }
+    assertTrue(segments > 1);
+
+    JournalReader<TestEntry> reader = journal.openReader(1);
+    for (int i = 1; i <= 26; i++) {
+      assertTrue(reader.hasNext());
+      assertEquals(i, reader.next().index());
+    }
+    assertFalse(reader.hasNext());
+    journal.close();
+  }
+
+  @Test
+  public void testWriteReadLargeEntries() throws Exception {
+    testWriteReadLargeEntries(StorageLevel.MEMORY);
+    testWriteReadLargeEntries(StorageLevel.MAPPED);
+    testWriteReadLargeEntries(StorageLevel.DISK);
+  }
+
+  private void testWriteReadLargeEntries(StorageLevel storageLevel) throws Exception {
+    cleanupStorage();
+    SegmentedJournal<TestEntry> journal = createJournal(storageLevel);
+    JournalWriter<TestEntry> writer = journal.writer();
+
+    // Write entries that exceed the initial size of the segment buffer.
+    for (int i = 1; i <= 20; i++) {
+      byte[] bytes = new byte[1024 * 10];
+      Arrays.fill(bytes, (byte) i);
+      assertEquals(i, writer.append(new TestEntry(bytes)).index());
+    }
+    writer.flush();
+
+    JournalReader<TestEntry> reader = journal.openReader(1);
+    for (int i = 1; i <= 20; i++) {
+      assertTrue(reader.hasNext());
+      Indexed<TestEntry> indexed = reader.next();
+      assertEquals(i, indexed.index());
+      assertEquals(1024 * 10, indexed.entry().bytes().length);
+      assertEquals((byte) i, indexed.entry().bytes()[1024 * 10 - 1]);
+    }
+    assertFalse(reader.hasNext());
+    journal.close();
+
+    // Reopen the journal and read the entries from the segment.
+    if (storageLevel != StorageLevel.MEMORY) {
+      journal = createJournal(storageLevel);
+      reader = journal.openReader(1);
+      for (int i = 1; i <= 20; i++) {
+        assertTrue(reader.hasNext());
+        Indexed<TestEntry> indexed = reader.next();
+        assertEquals(i, indexed.index());
+        assertEquals((byte) i, indexed.entry().bytes()[0]);
+      }
+      assertFalse(reader.hasNext());
+      journal.close();
+    }
+  }
+
+  @Test
+  public void testDenseIndex() throws Exception {
+    testDenseIndex(StorageLevel.MAPPED);
+    testDenseIndex(StorageLevel.DISK);
+  }
+
+  private void testDenseIndex(StorageLevel storageLevel) throws Exception {
+    cleanupStorage();
+    SegmentedJournal<TestEntry> journal = createDenseJournal(storageLevel);
+    JournalWriter<TestEntry> writer = journal.writer();
+    for (int i = 1; i <= 25; i++) {
+      assertEquals(i, writer.append(new TestEntry(32)).index());
+    }
+    journal.close();
+
+    // Closing the journal should persist the index of each segment.
+    assertTrue(new File(PATH.toFile(), "test-1.index").exists());
+    assertTrue(new File(PATH.toFile(), "test-3.index").exists());
+
+    journal = createDenseJournal(storageLevel);
+    writer = journal.writer();
+    assertEquals(25, writer.getLastIndex());
+    JournalReader<TestEntry> reader = journal.openReader(17);
+    for (int i = 17; i <= 25; i++) {
+      assertTrue(reader.hasNext());
+      assertEquals(i, reader.next().index());
+    }
+    assertFalse(reader.hasNext());
+
+    // Truncating the journal should discard the persisted index of the truncated segment.
+    writer.truncate(15);
+    assertFalse(new File(PATH.toFile(), "test-2.index").exists());
+    for (int i = 16; i <= 18; i++) {
+      assertEquals(i, writer.append(new TestEntry(32)).index());
+    }
+    journal.close();
+
+    journal = createDenseJournal(storageLevel);
+    assertEquals(18, journal.writer().getLastIndex());
+    reader = journal.openReader(1);
+    for (int i = 1; i <= 18; i++) {
+      assertTrue(reader.hasNext());
+      assertEquals(i, reader.next().index());
+    }
+    assertFalse(reader.hasNext());
+    journal.close();
+  }
+
+  private SegmentedJournal<TestEntry> createDenseJournal(StorageLevel storageLevel) {
+    return SegmentedJournal.<TestEntry>builder()
+        .withName("test")
+        .withDirectory(PATH.toFile())
+        .withSerializer(serializer)
+        .withStorageLevel(storageLevel)
+        .withMaxEntriesPerSegment(10)
+        .withIndexType(JournalIndexType.DENSE)
+        .withIndexDensity(.5)
+        .build();
+  }
+
+  @Test
+  public void testSealedSegmentRecovery() throws Exception {
+    testSealedSegmentRecovery(StorageLevel.MAPPED);
+    testSealedSegmentRecovery(StorageLevel.DISK);
+  }
+
+  private void testSealedSegmentRecovery(StorageLevel storageLevel) throws Exception {
+    cleanupStorage();
+    SegmentedJournal<TestEntry> journal = createSegmentedJournal(storageLevel);
+    JournalWriter<TestEntry> writer = journal.writer();
+    for (int i = 1; i <= 25; i++) {
+      assertEquals(i, writer.append(new TestEntry(32)).index());
+    }
+
+    // Segments should be sealed when the writer rolls over to the next segment.
+    assertTrue(journal.getSegment(1).descriptor().isSealed());
+    assertEquals(10, journal.getSegment(1).descriptor().lastIndex());
+    assertEquals(10, journal.getSegment(1).descriptor().entries());
+    assertTrue(journal.getSegment(11).descriptor().isSealed());
+    assertFalse(journal.getSegment(21).descriptor().isSealed());
+    long checksum = journal.getSegment(11).descriptor().checksum();
+    journal.close();
+
+    journal = createSegmentedJournal(storageLevel);
+    assertEquals(3, journal.statistics().getSegmentRecoveryTimes().size());
+    assertTrue(journal.getSegment(11).writer().isSealed());
+    assertEquals(20, journal.getSegment(11).lastIndex());
+    assertEquals(25, journal.writer().getLastIndex());
+    JournalReader<TestEntry> reader = journal.openReader(5);
+    for (int i = 5; i <= 25; i++) {
+      assertTrue(reader.hasNext());
+      assertEquals(i, reader.next().index());
+    }
+    assertFalse(reader.hasNext());
+
+    // Truncating a sealed segment should clear its footer.
+    writer = journal.writer();
+    writer.truncate(15);
+    assertFalse(journal.getSegment(11).descriptor().isSealed());
+    for (int i = 16; i <= 20; i++) {
+      assertEquals(i, writer.append(new TestEntry(32)).index());
+    }
+    assertEquals(21, writer.append(new TestEntry(32)).index());
+    assertTrue(journal.getSegment(11).descriptor().isSealed());
+    assertEquals(checksum, journal.getSegment(11).descriptor().checksum());
+    journal.close();
+
+    journal = createSegmentedJournal(storageLevel);
+    assertEquals(21, journal.writer().getLastIndex());
+    reader = journal.openReader(1);
+    for (int i = 1; i <= 21; i++) {
+      assertTrue(reader.hasNext());
+      assertEquals(i, reader.next().index());
+    }
+    assertFalse(reader.hasNext());
+
+    // A footer whose segment checksum does not match the segment should be discarded when the segment is first read.
+    JournalSegmentDescriptor descriptor = journal.getSegment(11).descriptor();
+    descriptor.seal(descriptor.lastIndex(), descriptor.lastPosition(), descriptor.entries(), checksum ^ 1);
+    journal.close();
+
+    journal = createSegmentedJournal(storageLevel);
+    assertTrue(journal.getSegment(11).descriptor().isSealed());
+    assertEquals(20, journal.getSegment(11).lastIndex());
+    reader = journal.openReader(1);
+    for (int i = 1; i <= 21; i++) {
+      assertTrue(reader.hasNext());
+      assertEquals(i, reader.next().index());
+    }
+    assertFalse(reader.hasNext());
+    assertFalse(journal.getSegment(11).descriptor().isSealed());
+    journal.close();
+
+    // Once the footer has been discarded, the segment should be scanned when it's loaded.
+    journal = createSegmentedJournal(storageLevel);
+    assertFalse(journal.getSegment(11).descriptor().isSealed());
+    assertEquals(21, journal.writer().getLastIndex());
+    journal.close();
+  }
+
+  private SegmentedJournal<TestEntry> createSegmentedJournal(StorageLevel storageLevel) {
+    return SegmentedJournal.<TestEntry>builder()
+        .withName("test")
+        .withDirectory(PATH.toFile())
+        .withSerializer(serializer)
+        .withStorageLevel(storageLevel)
+        .withMaxEntriesPerSegment(10)
+        .build();
+  }
+
   @Test
   public void testLoadSegments() throws Exception {
     SegmentedJournal<TestEntry> journal = createJournal(StorageLevel.DISK);
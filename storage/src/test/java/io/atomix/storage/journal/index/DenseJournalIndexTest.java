@@ -0,0 +1,107 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.storage.journal.index;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Dense journal index test.
+ */
+public class DenseJournalIndexTest {
+  private static final Path PATH = Paths.get("target/test-logs/");
+
+  @Test
+  public void testDenseJournalIndex() throws Exception {
+    JournalIndex index = new DenseJournalIndex(101, .2);
+    assertNull(index.lookup(100));
+    index.index(101, 2);
+    assertNull(index.lookup(100));
+    assertEquals(101, index.lookup(101).index());
+    assertEquals(2, index.lookup(101).position());
+    index.index(102, 4);
+    index.index(103, 6);
+    index.index(104, 8);
+    index.index(105, 10);
+    assertEquals(101, index.lookup(105).index());
+    assertEquals(2, index.lookup(105).position());
+    index.index(106, 12);
+    index.index(107, 14);
+    index.index(108, 16);
+    assertEquals(106, index.lookup(108).index());
+    assertEquals(12, index.lookup(108).position());
+    index.index(109, 18);
+    index.index(110, 20);
+    index.index(111, 22);
+    assertEquals(111, index.lookup(111).index());
+    assertEquals(22, index.lookup(111).position());
+    assertEquals(111, index.lookup(1000).index());
+    index.truncate(110);
+    assertEquals(106, index.lookup(110).index());
+    assertEquals(12, index.lookup(110).position());
+    assertEquals(106, index.lookup(111).index());
+    index.truncate(105);
+    assertEquals(101, index.lookup(108).index());
+    assertEquals(2, index.lookup(108).position());
+    index.truncate(100);
+    assertNull(index.lookup(101));
+    assertNull(index.lookup(108));
+  }
+
+  @Test
+  public void testPersistentDenseJournalIndex() throws Exception {
+    File file = PATH.resolve("test-1.index").toFile();
+    DenseJournalIndex index = new DenseJournalIndex(1, .5, file);
+    for (int i = 1; i <= 100; i++) {
+      index.index(i, i * 10);
+    }
+    index.close();
+    assertTrue(file.exists());
+
+    index = new DenseJournalIndex(1, .5, file);
+    assertEquals(50, index.size());
+    assertEquals(99, index.lookup(100).index());
+    assertEquals(990, index.lookup(100).position());
+    index.truncate(50);
+    assertFalse(file.exists());
+    assertEquals(49, index.lookup(100).index());
+    index.close();
+
+    // An index with a different first index should discard the file.
+    index = new DenseJournalIndex(2, .5, file);
+    assertEquals(0, index.size());
+    assertFalse(file.exists());
+  }
+
+  @Before
+  @After
+  public void cleanup() throws IOException {
+    Files.createDirectories(PATH);
+    Files.deleteIfExists(PATH.resolve("test-1.index"));
+  }
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.cluster.messaging.test;
+
+import com.google.common.util.concurrent.MoreExecutors;
+import io.atomix.cluster.messaging.ManagedMessagingService;
+import io.atomix.cluster.messaging.impl.NettyMessagingService;
+import io.atomix.utils.net.Address;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Messaging flush performance test.
+ * <p>
+ * Sends a large number of small one-way messages over a loopback connection and reports the throughput in
+ * messages per second when flushing every message, when consolidating flushes, and when sending batches of
+ * messages with a single flush.
+ */
+public class MessagingFlushPerformanceTest implements Runnable {
+
+  private static final String SUBJECT = "perf-flush";
+  private static final int MESSAGE_SIZE = 64;
+  private static final int MESSAGES = 1_000_000;
+  private static final int MAX_MESSAGES_PER_FLUSH = 256;
+  private static final int BATCH_SIZE = 64;
+  private static final int MESSAGES_IN_FLIGHT = 4096;
+  private static final int ITERATIONS = 3;
+
+  /**
+   * Runs the test.
+   */
+  public static void main(String[] args) {
+    new MessagingFlushPerformanceTest().run();
+    System.exit(0);
+  }
+
+  private int port = 5000;
+
+  @Override
+  public void run() {
+    try {
+      for (int i = 0; i < ITERATIONS; i++) {
+        System.out.println(String.format("flush per message:    %d messages/sec", runIteration(0, 1)));
+        System.out.println(String.format("flush consolidation:  %d messages/sec", runIteration(MAX_MESSAGES_PER_FLUSH, 1)));
+        System.out.println(String.format("batches of %d:        %d messages/sec", BATCH_SIZE, runIteration(0, BATCH_SIZE)));
+      }
+    } catch (Exception e) {
+      e.printStackTrace();
+    }
+  }
+
+  /**
+   * Sends messages with the given flush configuration and returns the number of messages received per second.
+   */
+  private long runIteration(int maxMessagesPerFlush, int batchSize) throws Exception {
+    Address address1 = Address.from("localhost", ++port);
+    Address address2 = Address.from("localhost", ++port);
+    ManagedMessagingService sender = (ManagedMessagingService) NettyMessagingService.builder()
+        .withAddress(address1)
+        .withFlushConsolidation(maxMessagesPerFlush)
+        .build()
+        .start()
+        .get(10, TimeUnit.SECONDS);
+    ManagedMessagingService receiver = (ManagedMessagingService) NettyMessagingService.builder()
+        .withAddress(address2)
+        .withFlushConsolidation(maxMessagesPerFlush)
+        .build()
+        .start()
+        .get(10, TimeUnit.SECONDS);
+
+    CountDownLatch latch = new CountDownLatch(MESSAGES);
+    receiver.registerHandler(SUBJECT, (address, payload) -> {
+      latch.countDown();
+    }, MoreExecutors.directExecutor());
+
+    try {
+      // Open the connection before starting the clock.
+      sender.sendAndReceive(address2, "perf-connect", new byte[0]).exceptionally(e -> null).get(10, TimeUnit.SECONDS);
+
+      byte[] payload = new byte[MESSAGE_SIZE];
+      List<byte[]> batch = new ArrayList<>(batchSize);
+      for (int i = 0; i < batchSize; i++) {
+        batch.add(payload);
+      }
+
+      // Limit the number of messages that have been sent but not yet written to the socket.
+      Semaphore window = new Semaphore(MESSAGES_IN_FLIGHT);
+      long start = System.nanoTime();
+      if (batchSize == 1) {
+        for (int i = 0; i < MESSAGES; i++) {
+          window.acquireUninterruptibly();
+          sender.sendAsync(address2, SUBJECT, payload).whenComplete((result, error) -> window.release());
+        }
+      } else {
+        for (int i = 0; i < MESSAGES; i += batchSize) {
+          window.acquireUninterruptibly(batchSize);
+          sender.sendBatch(address2, SUBJECT, batch).whenComplete((result, error) -> window.release(batchSize));
+        }
+      }
+      if (!latch.await(5, TimeUnit.MINUTES)) {
+        throw new IllegalStateException("timed out waiting for messages");
+      }
+      return MESSAGES * TimeUnit.SECONDS.toNanos(1) / (System.nanoTime() - start);
+    } finally {
+      sender.stop().get(10, TimeUnit.SECONDS);
+      receiver.stop().get(10, TimeUnit.SECONDS);
+    }
+  }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.cluster.messaging.test;
+
+import io.atomix.cluster.messaging.ManagedMessagingService;
+import io.atomix.cluster.messaging.impl.NettyMessagingService;
+import io.atomix.utils.net.Address;
+import org.apache.commons.math3.stat.descriptive.DescriptiveStatistics;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Messaging priority lane performance test.
+ * <p>
+ * Saturates the connections between two messaging services with large data messages on many subjects, loading
+ * every pooled data connection, while sending small vote-like control messages. Reports the control message round
+ * trip latency with all messages sharing the data lane and with control messages sent on the priority lane. Control
+ * message latency bounds how quickly heartbeats and votes are delivered, so high tail latencies under load lead to
+ * spurious elections.
+ */
+public class MessagingPriorityPerformanceTest implements Runnable {
+
+  private static final String DATA_SUBJECT = "perf-append-%d";
+  private static final int DATA_SUBJECTS = 16;
+  private static final String CONTROL_SUBJECT = "perf-vote";
+  private static final int DATA_MESSAGE_SIZE = 1024 * 1024;
+  private static final int DATA_MESSAGES_IN_FLIGHT = 32;
+  private static final int CONTROL_MESSAGES = 500;
+  private static final long CONTROL_INTERVAL_MILLIS = 10;
+
+  /**
+   * Runs the test.
+   */
+  public static void main(String[] args) {
+    new MessagingPriorityPerformanceTest().run();
+    System.exit(0);
+  }
+
+  private int port = 5000;
+
+  @Override
+  public void run() {
+    try {
+      DescriptiveStatistics shared = runIteration(Collections.emptyList());
+      DescriptiveStatistics priority = runIteration(Collections.singletonList("*-vote"));
+      System.out.println(String.format("shared lane:   p50 %.1fms, p99 %.1fms, max %.1fms",
+          shared.getPercentile(50), shared.getPercentile(99), shared.getMax()));
+      System.out.println(String.format("priority lane: p50 %.1fms, p99 %.1fms, max %.1fms",
+          priority.getPercentile(50), priority.getPercentile(99), priority.getMax()));
+    } catch (Exception e) {
+      e.printStackTrace();
+    }
+  }
+
+  /**
+   * Measures control message latency with the given priority subjects while the data lane is saturated.
+   */
+  private DescriptiveStatistics runIteration(Collection<String> prioritySubjects) throws Exception {
+    Address address1 = Address.from("localhost", ++port);
+    Address address2 = Address.from("localhost", ++port);
+    ManagedMessagingService sender = (ManagedMessagingService) NettyMessagingService.builder()
+        .withAddress(address1)
+        .withPrioritySubjects(prioritySubjects)
+        .build()
+        .start()
+        .get(10, TimeUnit.SECONDS);
+    ManagedMessagingService receiver = (ManagedMessagingService) NettyMessagingService.builder()
+        .withAddress(address2)
+        .withPrioritySubjects(prioritySubjects)
+        .build()
+        .start()
+        .get(10, TimeUnit.SECONDS);
+
+    for (int i = 0; i < DATA_SUBJECTS; i++) {
+      receiver.registerHandler(String.format(DATA_SUBJECT, i), (address, payload) -> CompletableFuture.completedFuture(new byte[0]));
+    }
+    receiver.registerHandler(CONTROL_SUBJECT, (address, payload) -> CompletableFuture.completedFuture(payload));
+
+    // Keep a window of large data messages in flight for the duration of the iteration.
+    AtomicBoolean running = new AtomicBoolean(true);
+    Semaphore window = new Semaphore(DATA_MESSAGES_IN_FLIGHT);
+    byte[] data = new byte[DATA_MESSAGE_SIZE];
+    Thread dataThread = new Thread(() -> {
+      int count = 0;
+      while (running.get()) {
+        window.acquireUninterruptibly();
+        String subject = String.format(DATA_SUBJECT, count++ % DATA_SUBJECTS);
+        sender.sendAndReceive(address2, subject, data, Duration.ofSeconds(30))
+            .whenComplete((result, error) -> window.release());
+      }
+    });
+    dataThread.start();
+
+    // Send control messages at a fixed interval and record their round trip times.
+    DescriptiveStatistics latencies = new DescriptiveStatistics();
+    try {
+      for (int i = 0; i < CONTROL_MESSAGES; i++) {
+        long start = System.nanoTime();
+        sender.sendAndReceive(address2, CONTROL_SUBJECT, new byte[64], Duration.ofSeconds(30)).get(30, TimeUnit.SECONDS);
+        latencies.addValue((System.nanoTime() - start) / 1_000_000d);
+        Thread.sleep(CONTROL_INTERVAL_MILLIS);
+      }
+    } finally {
+      running.set(false);
+      dataThread.join();
+      sender.stop().get(10, TimeUnit.SECONDS);
+      receiver.stop().get(10, TimeUnit.SECONDS);
+    }
+    return latencies;
+  }
+}
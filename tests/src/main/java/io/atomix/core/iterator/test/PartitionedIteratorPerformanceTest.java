@@ -0,0 +1,253 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.core.iterator.test;
+
+import io.atomix.core.iterator.AsyncIterator;
+import io.atomix.core.iterator.impl.IterableService;
+import io.atomix.core.iterator.impl.IteratorBatch;
+import io.atomix.core.iterator.impl.PartitionedProxyIterator;
+import io.atomix.primitive.PrimitiveState;
+import io.atomix.primitive.PrimitiveType;
+import io.atomix.primitive.partition.PartitionId;
+import io.atomix.primitive.protocol.PrimitiveProtocol;
+import io.atomix.primitive.proxy.ProxyClient;
+import io.atomix.primitive.proxy.ProxySession;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Partitioned iterator performance test.
+ * <p>
+ * Iterates a partitioned collection through a proxy client that delays each request by a fixed round trip time,
+ * comparing partition ordered iteration with a single open partition, partition ordered iteration with the default
+ * window of prefetched partitions, and unordered iteration of concurrent partitions with {@code forEachBatch}.
+ */
+public class PartitionedIteratorPerformanceTest implements Runnable {
+
+  private static final int ITERATIONS = 3;
+
+  private static final int PARTITIONS = 32;
+  private static final int ENTRIES_PER_PARTITION = 10000;
+  private static final int BATCH_SIZE = 1000;
+  private static final long ROUND_TRIP_MICROS = 2000;
+
+  /**
+   * Runs the test.
+   */
+  public static void main(String[] args) {
+    new PartitionedIteratorPerformanceTest().run();
+    System.exit(0);
+  }
+
+  @Override
+  public void run() {
+    TestProxyClient client = new TestProxyClient();
+    try {
+      for (int i = 0; i < ITERATIONS; i++) {
+        System.out.println(String.format("single partition: %dms", runIteration(() -> newIterator(client, 1), false)));
+        System.out.println(String.format("prefetched partitions: %dms", runIteration(() -> newIterator(client, 8), false)));
+        System.out.println(String.format("forEachBatch: %dms", runIteration(() -> newIterator(client, 8), true)));
+      }
+    } catch (Exception e) {
+      e.printStackTrace();
+    } finally {
+      client.executor.shutdownNow();
+    }
+  }
+
+  /**
+   * Creates a new iterator over all partitions.
+   */
+  private AsyncIterator<Integer> newIterator(TestProxyClient client, int concurrency) {
+    return new PartitionedProxyIterator<>(
+        client,
+        IterableService::iterate,
+        IterableService::next,
+        IterableService::close,
+        concurrency);
+  }
+
+  /**
+   * Iterates all entries, returning the elapsed time in milliseconds.
+   */
+  private long runIteration(Supplier<AsyncIterator<Integer>> iteratorFactory, boolean batches) throws Exception {
+    AtomicLong count = new AtomicLong();
+    long startTime = System.nanoTime();
+    AsyncIterator<Integer> iterator = iteratorFactory.get();
+    if (batches) {
+      iterator.forEachBatch(batch -> count.addAndGet(batch.size())).get(60, TimeUnit.SECONDS);
+    } else {
+      while (iterator.hasNext().get(60, TimeUnit.SECONDS)) {
+        iterator.next().get(60, TimeUnit.SECONDS);
+        count.incrementAndGet();
+      }
+    }
+    long elapsed = (System.nanoTime() - startTime) / 1_000_000;
+    if (count.get() != (long) PARTITIONS * ENTRIES_PER_PARTITION) {
+      throw new IllegalStateException("iterated " + count.get() + " entries");
+    }
+    return elapsed;
+  }
+
+  /**
+   * Proxy client that applies operations to local services after a simulated round trip.
+   */
+  private static class TestProxyClient implements ProxyClient<IterableService<Integer>> {
+    private final ScheduledExecutorService executor = Executors.newScheduledThreadPool(4);
+    private final List<PartitionId> partitions = new ArrayList<>();
+    private final Map<PartitionId, TestIterableService> services = new HashMap<>();
+
+    TestProxyClient() {
+      for (int i = 1; i <= PARTITIONS; i++) {
+        PartitionId partitionId = PartitionId.from("test", i);
+        partitions.add(partitionId);
+        services.put(partitionId, new TestIterableService());
+      }
+    }
+
+    @Override
+    public <R> CompletableFuture<R> applyOn(PartitionId partitionId, Function<IterableService<Integer>, R> operation) {
+      TestIterableService service = services.get(partitionId);
+      CompletableFuture<R> future = new CompletableFuture<>();
+      executor.schedule(() -> {
+        R result;
+        synchronized (service) {
+          result = operation.apply(service);
+        }
+        future.complete(result);
+      }, ROUND_TRIP_MICROS, TimeUnit.MICROSECONDS);
+      return future;
+    }
+
+    @Override
+    public CompletableFuture<Void> acceptOn(PartitionId partitionId, Consumer<IterableService<Integer>> operation) {
+      return applyOn(partitionId, service -> {
+        operation.accept(service);
+        return null;
+      });
+    }
+
+    @Override
+    public Collection<PartitionId> getPartitionIds() {
+      return partitions;
+    }
+
+    @Override
+    public String name() {
+      return "test";
+    }
+
+    @Override
+    public PrimitiveType type() {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public PrimitiveProtocol protocol() {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public PrimitiveState getState() {
+      return PrimitiveState.CONNECTED;
+    }
+
+    @Override
+    public Collection<ProxySession<IterableService<Integer>>> getPartitions() {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public ProxySession<IterableService<Integer>> getPartition(PartitionId partitionId) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public PartitionId getPartitionId(String key) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public PartitionId getPartitionId(Object key) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void addStateChangeListener(Consumer<PrimitiveState> listener) {
+    }
+
+    @Override
+    public void removeStateChangeListener(Consumer<PrimitiveState> listener) {
+    }
+
+    @Override
+    public CompletableFuture<ProxyClient<IterableService<Integer>>> connect() {
+      return CompletableFuture.completedFuture(this);
+    }
+
+    @Override
+    public CompletableFuture<Void> close() {
+      return CompletableFuture.completedFuture(null);
+    }
+  }
+
+  /**
+   * Iterable service over a fixed number of entries.
+   */
+  private static class TestIterableService implements IterableService<Integer> {
+    private final Map<Long, Integer> iterators = new HashMap<>();
+    private long iteratorId;
+
+    @Override
+    public long iterate() {
+      long iteratorId = ++this.iteratorId;
+      iterators.put(iteratorId, 0);
+      return iteratorId;
+    }
+
+    @Override
+    public IteratorBatch<Integer> next(long iteratorId, int position) {
+      if (!iterators.containsKey(iteratorId)) {
+        return IteratorBatch.missing();
+      } else if (position >= ENTRIES_PER_PARTITION) {
+        return null;
+      }
+      int end = Math.min(position + BATCH_SIZE, ENTRIES_PER_PARTITION);
+      List<Integer> entries = new ArrayList<>(end - position);
+      for (int i = position; i < end; i++) {
+        entries.add(i);
+      }
+      return new IteratorBatch<>(end, entries);
+    }
+
+    @Override
+    public void close(long iteratorId) {
+      iterators.remove(iteratorId);
+    }
+  }
+}
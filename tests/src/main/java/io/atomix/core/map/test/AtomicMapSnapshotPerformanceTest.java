@@ -0,0 +1,215 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.core.map.test;
+
+import io.atomix.core.map.AtomicMapType;
+import io.atomix.core.map.impl.AbstractAtomicMapService;
+import io.atomix.core.map.impl.AtomicMapServiceConfig;
+import io.atomix.core.map.impl.DefaultAtomicMapService;
+import io.atomix.primitive.PrimitiveId;
+import io.atomix.primitive.PrimitiveType;
+import io.atomix.primitive.operation.OperationType;
+import io.atomix.primitive.service.BackupOutput;
+import io.atomix.primitive.service.ServiceConfig;
+import io.atomix.primitive.service.ServiceContext;
+import io.atomix.primitive.service.impl.DefaultBackupOutput;
+import io.atomix.primitive.session.Session;
+import io.atomix.storage.buffer.HeapBuffer;
+import io.atomix.utils.time.LogicalClock;
+import io.atomix.utils.time.LogicalTimestamp;
+import io.atomix.utils.time.WallClock;
+import io.atomix.utils.time.WallClockTimestamp;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Atomic map snapshot performance test.
+ * <p>
+ * Measures the latency of puts applied to an atomic map service while the service is periodically snapshotted,
+ * comparing synchronous snapshots on the state machine thread with asynchronous snapshots of a persistent map that
+ * are captured on the state machine thread and written on a separate thread.
+ */
+public class AtomicMapSnapshotPerformanceTest implements Runnable {
+
+  private static final int ITERATIONS = 3;
+
+  private static final int ENTRIES = 200000;
+  private static final int VALUE_SIZE = 128;
+  private static final int PUTS_PER_MILLISECOND = 10;
+  private static final int RUN_TIME_MILLIS = 10000;
+  private static final int SNAPSHOT_INTERVAL_MILLIS = 1000;
+
+  /**
+   * Runs the test.
+   */
+  public static void main(String[] args) {
+    new AtomicMapSnapshotPerformanceTest().run();
+  }
+
+  @Override
+  public void run() {
+    for (int i = 0; i < ITERATIONS; i++) {
+      try {
+        System.out.println(String.format("sync: %s", runIteration(false)));
+        System.out.println(String.format("async: %s", runIteration(true)));
+      } catch (Exception e) {
+        e.printStackTrace();
+        return;
+      }
+    }
+  }
+
+  /**
+   * Runs a single iteration, returning a summary of put latencies.
+   */
+  private String runIteration(boolean asyncSnapshots) throws Exception {
+    AbstractAtomicMapService<String> service = new DefaultAtomicMapService(
+        new AtomicMapServiceConfig().setAsyncSnapshots(asyncSnapshots));
+    TestServiceContext context = new TestServiceContext();
+    service.init(context);
+
+    byte[] value = new byte[VALUE_SIZE];
+    for (int i = 0; i < ENTRIES; i++) {
+      context.index++;
+      service.put(String.valueOf(i), value);
+    }
+
+    ExecutorService stateExecutor = Executors.newSingleThreadExecutor();
+    ExecutorService snapshotExecutor = Executors.newSingleThreadExecutor();
+    ScheduledExecutorService clientExecutor = Executors.newScheduledThreadPool(1);
+
+    long[] latencies = new long[RUN_TIME_MILLIS * PUTS_PER_MILLISECOND];
+    AtomicInteger count = new AtomicInteger();
+    CountDownLatch latch = new CountDownLatch(latencies.length);
+
+    ScheduledFuture<?> snapshots = clientExecutor.scheduleAtFixedRate(() -> stateExecutor.execute(() -> {
+      if (asyncSnapshots) {
+        Consumer<BackupOutput> backup = service.captureBackup();
+        snapshotExecutor.execute(() -> backup.accept(new DefaultBackupOutput(HeapBuffer.allocate(), service.serializer())));
+      } else {
+        service.backup(new DefaultBackupOutput(HeapBuffer.allocate(), service.serializer()));
+      }
+    }), SNAPSHOT_INTERVAL_MILLIS, SNAPSHOT_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+
+    ScheduledFuture<?> puts = clientExecutor.scheduleAtFixedRate(() -> {
+      for (int i = 0; i < PUTS_PER_MILLISECOND; i++) {
+        int id = count.getAndIncrement();
+        if (id >= latencies.length) {
+          return;
+        }
+        long startTime = System.nanoTime();
+        stateExecutor.execute(() -> {
+          context.index++;
+          service.put(String.valueOf(id % ENTRIES), value);
+          latencies[id] = System.nanoTime() - startTime;
+          latch.countDown();
+        });
+      }
+    }, 0, 1, TimeUnit.MILLISECONDS);
+
+    latch.await();
+    puts.cancel(false);
+    snapshots.cancel(false);
+    clientExecutor.shutdownNow();
+    stateExecutor.shutdownNow();
+    snapshotExecutor.shutdownNow();
+    snapshotExecutor.awaitTermination(30, TimeUnit.SECONDS);
+
+    Arrays.sort(latencies);
+    return String.format("p50: %dus, p99: %dus, p99.9: %dus, max: %dus",
+        percentile(latencies, .5), percentile(latencies, .99), percentile(latencies, .999),
+        latencies[latencies.length - 1] / 1000);
+  }
+
+  /**
+   * Returns the given percentile of the given sorted latencies in microseconds.
+   */
+  private static long percentile(long[] latencies, double percentile) {
+    return latencies[(int) (latencies.length * percentile)] / 1000;
+  }
+
+  /**
+   * Test service context.
+   */
+  private static class TestServiceContext implements ServiceContext {
+    private volatile long index;
+
+    @Override
+    public PrimitiveId serviceId() {
+      return PrimitiveId.from(1);
+    }
+
+    @Override
+    public String serviceName() {
+      return "test";
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public PrimitiveType serviceType() {
+      return AtomicMapType.instance();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <C extends ServiceConfig> C serviceConfig() {
+      return (C) new AtomicMapServiceConfig();
+    }
+
+    @Override
+    public long currentIndex() {
+      return index;
+    }
+
+    @Override
+    public Session currentSession() {
+      return null;
+    }
+
+    @Override
+    public OperationType currentOperation() {
+      return OperationType.COMMAND;
+    }
+
+    @Override
+    public LogicalClock logicalClock() {
+      return new LogicalClock() {
+        @Override
+        public LogicalTimestamp getTime() {
+          return new LogicalTimestamp(index);
+        }
+      };
+    }
+
+    @Override
+    public WallClock wallClock() {
+      return new WallClock() {
+        @Override
+        public WallClockTimestamp getTime() {
+          return new WallClockTimestamp();
+        }
+      };
+    }
+  }
+}
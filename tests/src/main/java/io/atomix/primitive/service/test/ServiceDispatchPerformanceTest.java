@@ -0,0 +1,170 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.primitive.service.test;
+
+import io.atomix.core.map.AtomicMapType;
+import io.atomix.core.map.impl.AtomicMapService;
+import io.atomix.core.map.impl.AtomicMapServiceConfig;
+import io.atomix.core.map.impl.DefaultAtomicMapService;
+import io.atomix.primitive.PrimitiveId;
+import io.atomix.primitive.PrimitiveType;
+import io.atomix.primitive.operation.OperationId;
+import io.atomix.primitive.operation.OperationType;
+import io.atomix.primitive.operation.impl.MethodInvoker;
+import io.atomix.primitive.service.ServiceConfig;
+import io.atomix.primitive.service.ServiceContext;
+import io.atomix.primitive.service.impl.DefaultCommit;
+import io.atomix.primitive.session.Session;
+import io.atomix.utils.time.LogicalClock;
+import io.atomix.utils.time.LogicalTimestamp;
+import io.atomix.utils.time.WallClock;
+import io.atomix.utils.time.WallClockTimestamp;
+
+import java.lang.reflect.Method;
+
+/**
+ * Service operation dispatch performance test.
+ * <p>
+ * Measures the cost of invoking atomic map service operations through reflection and through generated method
+ * invokers, and the cost per operation of applying encoded commits to the service, which includes decoding the
+ * operation arguments and encoding the result.
+ */
+public class ServiceDispatchPerformanceTest implements Runnable {
+
+  private static final int ITERATIONS = 3;
+
+  private static final int INVOCATIONS = 10000000;
+  private static final int COMMITS = 1000000;
+
+  /**
+   * Runs the test.
+   */
+  public static void main(String[] args) {
+    new ServiceDispatchPerformanceTest().run();
+  }
+
+  @Override
+  public void run() {
+    try {
+      DefaultAtomicMapService service = new DefaultAtomicMapService(new AtomicMapServiceConfig());
+      TestServiceContext context = new TestServiceContext();
+      service.init(context);
+      service.put("foo", "Hello world!".getBytes());
+
+      Method containsKey = AtomicMapService.class.getMethod("containsKey", Object.class);
+      MethodInvoker invoker = MethodInvoker.of(containsKey);
+      Object[] args = new Object[]{"foo"};
+
+      byte[] getArgs = service.serializer().encode(new Object[]{"foo"});
+      byte[] putArgs = service.serializer().encode(new Object[]{"foo", "Hello world!".getBytes(), 0L});
+
+      for (int i = 0; i < ITERATIONS; i++) {
+        long reflectionTime = time(INVOCATIONS, () -> containsKey.invoke(service, args));
+        long invokerTime = time(INVOCATIONS, () -> invoker.invoke(service, args));
+        long getTime = time(COMMITS, () -> service.apply(new DefaultCommit<>(
+            context.index, OperationId.query("get"), getArgs, null, System.currentTimeMillis())));
+        long putTime = time(COMMITS, () -> service.apply(new DefaultCommit<>(
+            ++context.index, OperationId.command("putWithTtl"), putArgs, null, System.currentTimeMillis())));
+        System.out.println(String.format(
+            "reflection: %.1fns/op, invoker: %.1fns/op, apply get: %.1fns/op, apply put: %.1fns/op",
+            (double) reflectionTime / INVOCATIONS, (double) invokerTime / INVOCATIONS,
+            (double) getTime / COMMITS, (double) putTime / COMMITS));
+      }
+    } catch (Exception e) {
+      e.printStackTrace();
+    }
+  }
+
+  /**
+   * Runs the given operation the given number of times, returning the total time in nanoseconds.
+   */
+  private static long time(int count, Operation operation) throws Exception {
+    long start = System.nanoTime();
+    for (int i = 0; i < count; i++) {
+      operation.run();
+    }
+    return System.nanoTime() - start;
+  }
+
+  @FunctionalInterface
+  private interface Operation {
+    void run() throws Exception;
+  }
+
+  /**
+   * Test service context.
+   */
+  private static class TestServiceContext implements ServiceContext {
+    private long index;
+
+    @Override
+    public PrimitiveId serviceId() {
+      return PrimitiveId.from(1);
+    }
+
+    @Override
+    public String serviceName() {
+      return "test";
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public PrimitiveType serviceType() {
+      return AtomicMapType.instance();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <C extends ServiceConfig> C serviceConfig() {
+      return (C) new AtomicMapServiceConfig();
+    }
+
+    @Override
+    public long currentIndex() {
+      return index;
+    }
+
+    @Override
+    public Session currentSession() {
+      return null;
+    }
+
+    @Override
+    public OperationType currentOperation() {
+      return OperationType.COMMAND;
+    }
+
+    @Override
+    public LogicalClock logicalClock() {
+      return new LogicalClock() {
+        @Override
+        public LogicalTimestamp getTime() {
+          return new LogicalTimestamp(index);
+        }
+      };
+    }
+
+    @Override
+    public WallClock wallClock() {
+      return new WallClock() {
+        @Override
+        public WallClockTimestamp getTime() {
+          return new WallClockTimestamp();
+        }
+      };
+    }
+  }
+}
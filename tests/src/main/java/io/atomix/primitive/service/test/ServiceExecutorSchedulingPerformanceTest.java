@@ -0,0 +1,195 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.primitive.service.test;
+
+import io.atomix.core.map.AtomicMapType;
+import io.atomix.core.map.impl.AtomicMapServiceConfig;
+import io.atomix.primitive.PrimitiveId;
+import io.atomix.primitive.PrimitiveType;
+import io.atomix.primitive.operation.OperationId;
+import io.atomix.primitive.operation.OperationType;
+import io.atomix.primitive.service.ServiceConfig;
+import io.atomix.primitive.service.ServiceContext;
+import io.atomix.primitive.service.impl.DefaultCommit;
+import io.atomix.primitive.service.impl.DefaultServiceExecutor;
+import io.atomix.primitive.session.Session;
+import io.atomix.utils.concurrent.Scheduled;
+import io.atomix.utils.serializer.Namespaces;
+import io.atomix.utils.serializer.Serializer;
+import io.atomix.utils.time.LogicalClock;
+import io.atomix.utils.time.LogicalTimestamp;
+import io.atomix.utils.time.WallClock;
+import io.atomix.utils.time.WallClockTimestamp;
+
+import java.time.Duration;
+import java.util.Random;
+
+/**
+ * Service executor scheduling performance test.
+ * <p>
+ * Schedules a TTL-like task for each of a large number of entries in a service executor, cancels and reschedules
+ * the tasks of half of the entries as if they were overwritten, and then advances the log time until every task has
+ * expired, reporting the time spent in each phase.
+ */
+public class ServiceExecutorSchedulingPerformanceTest implements Runnable {
+
+  private static final int ITERATIONS = 3;
+
+  private static final int ENTRIES = 1000000;
+  private static final long MAX_TTL_MILLIS = 60000;
+  private static final long TICK_INTERVAL_MILLIS = 10;
+
+  /**
+   * Runs the test.
+   */
+  public static void main(String[] args) {
+    new ServiceExecutorSchedulingPerformanceTest().run();
+  }
+
+  @Override
+  public void run() {
+    for (int i = 0; i < ITERATIONS; i++) {
+      try {
+        System.out.println(runIteration());
+      } catch (Exception e) {
+        e.printStackTrace();
+        return;
+      }
+    }
+  }
+
+  /**
+   * Runs a single iteration, returning a summary of the time spent scheduling, cancelling and expiring tasks.
+   */
+  private String runIteration() {
+    TestServiceContext context = new TestServiceContext();
+    DefaultServiceExecutor executor = new DefaultServiceExecutor(context, Serializer.using(Namespaces.BASIC));
+    Random random = new Random(0);
+    Scheduled[] tasks = new Scheduled[ENTRIES];
+    int[] expired = new int[1];
+    int[] entry = new int[1];
+
+    executor.handle(OperationId.command("put"), commit -> {
+      tasks[entry[0]] = executor.schedule(
+          Duration.ofMillis(1 + random.nextInt((int) MAX_TTL_MILLIS)), () -> expired[0]++);
+      return null;
+    });
+    executor.handle(OperationId.command("overwrite"), commit -> {
+      tasks[entry[0]].cancel();
+      tasks[entry[0]] = executor.schedule(
+          Duration.ofMillis(1 + random.nextInt((int) MAX_TTL_MILLIS)), () -> expired[0]++);
+      return null;
+    });
+
+    // Apply one put per entry, advancing the log time by a millisecond every 100 puts.
+    long time = 0;
+    long scheduleStart = System.nanoTime();
+    for (int i = 0; i < ENTRIES; i++) {
+      entry[0] = i;
+      time = i / 100;
+      executor.apply(commit(OperationId.command("put"), i, time));
+    }
+    long scheduleTime = System.nanoTime() - scheduleStart;
+
+    // Overwrite every other entry, cancelling and rescheduling its task.
+    long cancelStart = System.nanoTime();
+    for (int i = 0; i < ENTRIES; i += 2) {
+      entry[0] = i;
+      executor.apply(commit(OperationId.command("overwrite"), ENTRIES + i, time));
+    }
+    long cancelTime = System.nanoTime() - cancelStart;
+
+    // Advance the log time until all tasks have expired.
+    long expireStart = System.nanoTime();
+    while (expired[0] < ENTRIES) {
+      time += TICK_INTERVAL_MILLIS;
+      executor.tick(new WallClockTimestamp(time));
+    }
+    long expireTime = System.nanoTime() - expireStart;
+
+    return String.format("schedule: %dms, cancel/reschedule: %dms, expire: %dms",
+        scheduleTime / 1_000_000, cancelTime / 1_000_000, expireTime / 1_000_000);
+  }
+
+  /**
+   * Returns a commit for the given operation.
+   */
+  private static DefaultCommit<byte[]> commit(OperationId operation, long index, long timestamp) {
+    return new DefaultCommit<>(index, operation, null, null, timestamp);
+  }
+
+  /**
+   * Test service context.
+   */
+  private static class TestServiceContext implements ServiceContext {
+    @Override
+    public PrimitiveId serviceId() {
+      return PrimitiveId.from(1);
+    }
+
+    @Override
+    public String serviceName() {
+      return "test";
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public PrimitiveType serviceType() {
+      return AtomicMapType.instance();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <C extends ServiceConfig> C serviceConfig() {
+      return (C) new AtomicMapServiceConfig();
+    }
+
+    @Override
+    public long currentIndex() {
+      return 0;
+    }
+
+    @Override
+    public Session currentSession() {
+      return null;
+    }
+
+    @Override
+    public OperationType currentOperation() {
+      return OperationType.COMMAND;
+    }
+
+    @Override
+    public LogicalClock logicalClock() {
+      return new LogicalClock() {
+        @Override
+        public LogicalTimestamp getTime() {
+          return new LogicalTimestamp(0);
+        }
+      };
+    }
+
+    @Override
+    public WallClock wallClock() {
+      return new WallClock() {
+        @Override
+        public WallClockTimestamp getTime() {
+          return new WallClockTimestamp();
+        }
+      };
+    }
+  }
+}
@@ -0,0 +1,378 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.protocols.raft.test;
+
+import io.atomix.cluster.BootstrapService;
+import io.atomix.cluster.Member;
+import io.atomix.cluster.MemberId;
+import io.atomix.cluster.MembershipConfig;
+import io.atomix.cluster.Node;
+import io.atomix.cluster.discovery.BootstrapDiscoveryProvider;
+import io.atomix.cluster.impl.DefaultClusterMembershipService;
+import io.atomix.cluster.impl.DefaultNodeDiscoveryService;
+import io.atomix.cluster.messaging.BroadcastService;
+import io.atomix.cluster.messaging.MessagingService;
+import io.atomix.primitive.PrimitiveBuilder;
+import io.atomix.primitive.PrimitiveManagementService;
+import io.atomix.primitive.PrimitiveType;
+import io.atomix.primitive.config.PrimitiveConfig;
+import io.atomix.primitive.operation.OperationId;
+import io.atomix.primitive.partition.PartitionId;
+import io.atomix.primitive.service.AbstractPrimitiveService;
+import io.atomix.primitive.service.BackupInput;
+import io.atomix.primitive.service.BackupOutput;
+import io.atomix.primitive.service.Commit;
+import io.atomix.primitive.service.PrimitiveService;
+import io.atomix.primitive.service.ServiceConfig;
+import io.atomix.primitive.service.ServiceExecutor;
+import io.atomix.primitive.session.SessionClient;
+import io.atomix.protocols.raft.RaftClient;
+import io.atomix.protocols.raft.RaftServer;
+import io.atomix.protocols.raft.storage.RaftStorage;
+import io.atomix.protocols.raft.test.protocol.LocalRaftProtocolFactory;
+import io.atomix.storage.StorageLevel;
+import io.atomix.utils.concurrent.EventLoopContextFactory;
+import io.atomix.utils.net.Address;
+import io.atomix.utils.serializer.Namespace;
+import io.atomix.utils.serializer.Serializer;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static io.atomix.primitive.operation.PrimitiveOperation.operation;
+
+/**
+ * Raft event loop performance test.
+ * <p>
+ * Measures command throughput and the number of live threads for an increasing number of three member Raft
+ * partitions, comparing partitions running on dedicated threads with partitions multiplexed onto a shared set of
+ * event loops sized to the number of available processors.
+ * <p>
+ * The partition counts to test may be passed as arguments.
+ */
+public class RaftEventLoopPerformanceTest implements Runnable {
+
+  private static final int[] PARTITION_COUNTS = new int[]{16, 64, 256};
+
+  private static final int MEMBERS_PER_PARTITION = 3;
+  private static final int TOTAL_OPERATIONS = 50000;
+  private static final int PARTITION_CONCURRENCY = 4;
+
+  private static final Serializer clientSerializer = Serializer.using(Namespace.DEFAULT);
+
+  /**
+   * Runs the test.
+   */
+  public static void main(String[] args) {
+    int[] partitionCounts = PARTITION_COUNTS;
+    if (args.length > 0) {
+      partitionCounts = new int[args.length];
+      for (int i = 0; i < args.length; i++) {
+        partitionCounts[i] = Integer.parseInt(args[i]);
+      }
+    }
+    new RaftEventLoopPerformanceTest(partitionCounts).run();
+    System.exit(0);
+  }
+
+  private final int[] partitionCounts;
+  private int nextId;
+  private int port = 5000;
+  private List<RaftClient> clients = new ArrayList<>();
+  private List<RaftServer> servers = new ArrayList<>();
+  private LocalRaftProtocolFactory protocolFactory;
+  private EventLoopContextFactory eventLoops;
+  private final AtomicInteger totalOperations = new AtomicInteger();
+
+  public RaftEventLoopPerformanceTest(int[] partitionCounts) {
+    this.partitionCounts = partitionCounts;
+  }
+
+  @Override
+  public void run() {
+    int processors = Runtime.getRuntime().availableProcessors();
+    for (int partitions : partitionCounts) {
+      try {
+        Result dedicated = runIteration(partitions, 0);
+        Result shared = runIteration(partitions, processors);
+        System.out.println(String.format(
+            "partitions: %d, dedicated: %d ops/sec %d threads, shared (%d event loops): %d ops/sec %d threads",
+            partitions, dedicated.throughput, dedicated.threads, processors, shared.throughput, shared.threads));
+      } catch (Exception e) {
+        e.printStackTrace();
+        return;
+      } finally {
+        shutdown();
+      }
+    }
+  }
+
+  /**
+   * Runs a single iteration against the given number of partitions.
+   */
+  @SuppressWarnings("unchecked")
+  private Result runIteration(int partitions, int eventLoopCount) throws Exception {
+    reset(eventLoopCount);
+
+    // Bootstrap all partitions concurrently.
+    List<List<Member>> partitionMembers = new ArrayList<>();
+    List<CompletableFuture<RaftServer>> serverFutures = new ArrayList<>();
+    for (int i = 0; i < partitions; i++) {
+      partitionMembers.add(createServers(i, serverFutures));
+    }
+    CompletableFuture.allOf(serverFutures.toArray(new CompletableFuture[serverFutures.size()])).get(60, TimeUnit.SECONDS);
+
+    // Count the server threads before any clients are created.
+    int threads = ManagementFactory.getThreadMXBean().getThreadCount();
+
+    List<SessionClient> sessions = new ArrayList<>();
+    for (int i = 0; i < partitions; i++) {
+      sessions.add(createClient(i, partitionMembers.get(i))
+          .sessionBuilder("raft-event-loop-test", TestPrimitiveType.INSTANCE, new ServiceConfig())
+          .build()
+          .connect()
+          .get(30, TimeUnit.SECONDS));
+    }
+
+    List<CompletableFuture<Void>> futures = new ArrayList<>();
+    long startTime = System.currentTimeMillis();
+    for (SessionClient session : sessions) {
+      for (int i = 0; i < PARTITION_CONCURRENCY; i++) {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        runProxy(session, future);
+        futures.add(future);
+      }
+    }
+    CompletableFuture.allOf(futures.toArray(new CompletableFuture[futures.size()])).join();
+    long runTime = System.currentTimeMillis() - startTime;
+    return new Result((long) (TOTAL_OPERATIONS / (runTime / 1000d)), threads);
+  }
+
+  /**
+   * Runs operations for a single Raft proxy.
+   */
+  private void runProxy(SessionClient proxy, CompletableFuture<Void> future) {
+    if (totalOperations.incrementAndGet() > TOTAL_OPERATIONS) {
+      future.complete(null);
+    } else {
+      proxy.execute(operation(INCREMENT)).whenComplete((result, error) -> runProxy(proxy, future));
+    }
+  }
+
+  /**
+   * Resets the test state.
+   */
+  private void reset(int eventLoopCount) {
+    totalOperations.set(0);
+
+    shutdown();
+
+    clients = new ArrayList<>();
+    servers = new ArrayList<>();
+    protocolFactory = new LocalRaftProtocolFactory(RaftPerformanceTest.protocolSerializer);
+    if (eventLoopCount > 0) {
+      eventLoops = new EventLoopContextFactory("raft-event-loop-%d", eventLoopCount, LoggerFactory.getLogger(getClass()));
+    }
+  }
+
+  /**
+   * Shuts down clients and servers.
+   */
+  private void shutdown() {
+    clients.forEach(c -> {
+      try {
+        c.close().get(10, TimeUnit.SECONDS);
+      } catch (Exception e) {
+      }
+    });
+
+    servers.forEach(s -> {
+      try {
+        if (s.isRunning()) {
+          s.shutdown().get(10, TimeUnit.SECONDS);
+        }
+      } catch (Exception e) {
+      }
+    });
+    clients.clear();
+    servers.clear();
+
+    if (eventLoops != null) {
+      eventLoops.close();
+      eventLoops = null;
+    }
+  }
+
+  /**
+   * Returns the next unique member.
+   */
+  private Member nextNode() {
+    return Member.builder(MemberId.from(String.valueOf(++nextId)))
+        .withAddress(Address.from("localhost", ++port))
+        .build();
+  }
+
+  /**
+   * Creates the servers for a partition.
+   */
+  private List<Member> createServers(int partition, List<CompletableFuture<RaftServer>> futures) {
+    List<Member> members = new ArrayList<>();
+    for (int i = 0; i < MEMBERS_PER_PARTITION; i++) {
+      members.add(nextNode());
+    }
+
+    for (Member member : members) {
+      RaftServer server = createServer(partition, member, new ArrayList<>(members));
+      futures.add(server.bootstrap(members.stream().map(Member::id).collect(Collectors.toList())));
+    }
+    return members;
+  }
+
+  /**
+   * Creates a Raft server.
+   */
+  private RaftServer createServer(int partition, Member member, List<Node> members) {
+    BootstrapService bootstrapService = new BootstrapService() {
+      @Override
+      public MessagingService getMessagingService() {
+        return null;
+      }
+
+      @Override
+      public BroadcastService getBroadcastService() {
+        return new RaftPerformanceTest.BroadcastServiceAdapter();
+      }
+    };
+
+    RaftServer.Builder builder = RaftServer.builder(member.id())
+        .withName("partition-" + partition)
+        .withProtocol(protocolFactory.newServerProtocol(member.id()))
+        .withMembershipService(new DefaultClusterMembershipService(
+            member,
+            new DefaultNodeDiscoveryService(bootstrapService, member, new BootstrapDiscoveryProvider(members)),
+            bootstrapService,
+            new MembershipConfig()))
+        .withStorage(RaftStorage.builder()
+            .withStorageLevel(StorageLevel.MEMORY)
+            .withSerializer(RaftPerformanceTest.storageSerializer)
+            .withMaxEntriesPerSegment(32768)
+            .withMaxSegmentSize(1024 * 1024)
+            .build());
+    if (eventLoops != null) {
+      builder.withThreadContextFactory(eventLoops.newPinnedFactory());
+    }
+
+    RaftServer server = builder.build();
+    servers.add(server);
+    return server;
+  }
+
+  /**
+   * Creates a Raft client.
+   */
+  private RaftClient createClient(int partition, List<Member> members) throws Exception {
+    Member member = nextNode();
+    RaftClient client = RaftClient.builder()
+        .withMemberId(member.id())
+        .withPartitionId(PartitionId.from("test", partition + 1))
+        .withProtocol(protocolFactory.newClientProtocol(member.id()))
+        .withThreadPoolSize(1)
+        .build();
+    client.connect(members.stream().map(Member::id).collect(Collectors.toList())).get(30, TimeUnit.SECONDS);
+    clients.add(client);
+    return client;
+  }
+
+  /**
+   * Iteration result.
+   */
+  private static class Result {
+    private final long throughput;
+    private final int threads;
+
+    Result(long throughput, int threads) {
+      this.throughput = throughput;
+      this.threads = threads;
+    }
+  }
+
+  private static final OperationId INCREMENT = OperationId.command("increment");
+
+  public static class TestPrimitiveType implements PrimitiveType {
+    private static final TestPrimitiveType INSTANCE = new TestPrimitiveType();
+
+    @Override
+    public String name() {
+      return "raft-event-loop-test";
+    }
+
+    @Override
+    public PrimitiveConfig newConfig() {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public PrimitiveBuilder newBuilder(String primitiveName, PrimitiveConfig config, PrimitiveManagementService managementService) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public PrimitiveService newService(ServiceConfig config) {
+      return new CounterService();
+    }
+  }
+
+  /**
+   * Counter test state machine.
+   */
+  public static class CounterService extends AbstractPrimitiveService {
+    private long value;
+
+    public CounterService() {
+      super(TestPrimitiveType.INSTANCE);
+    }
+
+    @Override
+    public Serializer serializer() {
+      return clientSerializer;
+    }
+
+    @Override
+    protected void configure(ServiceExecutor executor) {
+      executor.register(INCREMENT, this::increment);
+    }
+
+    @Override
+    public void backup(BackupOutput writer) {
+      writer.writeLong(value);
+    }
+
+    @Override
+    public void restore(BackupInput reader) {
+      value = reader.readLong();
+    }
+
+    protected long increment(Commit<Void> commit) {
+      return ++value;
+    }
+  }
+}
@@ -0,0 +1,343 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.protocols.raft.test;
+
+import com.google.common.collect.Lists;
+import io.atomix.cluster.BootstrapService;
+import io.atomix.cluster.Member;
+import io.atomix.cluster.MemberId;
+import io.atomix.cluster.MembershipConfig;
+import io.atomix.cluster.Node;
+import io.atomix.cluster.discovery.BootstrapDiscoveryProvider;
+import io.atomix.cluster.impl.DefaultClusterMembershipService;
+import io.atomix.cluster.impl.DefaultNodeDiscoveryService;
+import io.atomix.cluster.messaging.BroadcastService;
+import io.atomix.cluster.messaging.MessagingService;
+import io.atomix.primitive.PrimitiveBuilder;
+import io.atomix.primitive.PrimitiveManagementService;
+import io.atomix.primitive.PrimitiveType;
+import io.atomix.primitive.config.PrimitiveConfig;
+import io.atomix.primitive.operation.OperationId;
+import io.atomix.primitive.partition.PartitionId;
+import io.atomix.primitive.service.AbstractPrimitiveService;
+import io.atomix.primitive.service.BackupInput;
+import io.atomix.primitive.service.BackupOutput;
+import io.atomix.primitive.service.Commit;
+import io.atomix.primitive.service.PrimitiveService;
+import io.atomix.primitive.service.ServiceConfig;
+import io.atomix.primitive.service.ServiceExecutor;
+import io.atomix.primitive.session.SessionClient;
+import io.atomix.protocols.raft.RaftClient;
+import io.atomix.protocols.raft.RaftServer;
+import io.atomix.protocols.raft.storage.RaftStorage;
+import io.atomix.protocols.raft.test.protocol.LocalRaftProtocolFactory;
+import io.atomix.storage.StorageLevel;
+import io.atomix.utils.net.Address;
+import io.atomix.utils.serializer.Namespace;
+import io.atomix.utils.serializer.Serializer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static io.atomix.primitive.operation.PrimitiveOperation.operation;
+
+/**
+ * Raft parallel apply performance test.
+ * <p>
+ * Measures command throughput for an increasing number of CPU-bound services, comparing sequential application on
+ * the single state machine thread with parallel application on per-service thread contexts.
+ */
+public class RaftParallelApplyPerformanceTest implements Runnable {
+
+  private static final int[] SERVICE_COUNTS = new int[]{1, 2, 4, 8, 16};
+
+  private static final int TOTAL_OPERATIONS = 20000;
+  private static final int SESSION_CONCURRENCY = 16;
+  private static final int WORK_ROUNDS = 20000;
+
+  private static final Serializer clientSerializer = Serializer.using(Namespace.DEFAULT);
+
+  /**
+   * Runs the test.
+   */
+  public static void main(String[] args) {
+    new RaftParallelApplyPerformanceTest().run();
+  }
+
+  private int nextId;
+  private int port = 5000;
+  private List<Member> members = new ArrayList<>();
+  private List<RaftClient> clients = new ArrayList<>();
+  private List<RaftServer> servers = new ArrayList<>();
+  private LocalRaftProtocolFactory protocolFactory;
+  private final AtomicInteger totalOperations = new AtomicInteger();
+
+  @Override
+  public void run() {
+    for (int services : SERVICE_COUNTS) {
+      try {
+        long sequential = runIteration(services, false);
+        long parallel = runIteration(services, true);
+        System.out.println(String.format("services: %d, sequential: %d ops/sec, parallel: %d ops/sec",
+            services, throughput(sequential), throughput(parallel)));
+      } catch (Exception e) {
+        e.printStackTrace();
+        return;
+      } finally {
+        shutdown();
+      }
+    }
+  }
+
+  /**
+   * Runs a single iteration against the given number of services, returning the run time in milliseconds.
+   */
+  @SuppressWarnings("unchecked")
+  private long runIteration(int services, boolean parallelApply) throws Exception {
+    reset();
+
+    createServers(3, parallelApply);
+
+    RaftClient client = createClient();
+    List<SessionClient> sessions = new ArrayList<>();
+    for (int i = 0; i < services; i++) {
+      sessions.add(createProxy(client, "raft-parallel-apply-test-" + i).connect().join());
+    }
+
+    List<CompletableFuture<Void>> futures = new ArrayList<>();
+    long startTime = System.currentTimeMillis();
+    for (SessionClient session : sessions) {
+      for (int i = 0; i < SESSION_CONCURRENCY; i++) {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        runProxy(session, future);
+        futures.add(future);
+      }
+    }
+    CompletableFuture.allOf(futures.toArray(new CompletableFuture[futures.size()])).join();
+    return System.currentTimeMillis() - startTime;
+  }
+
+  /**
+   * Runs operations for a single Raft proxy.
+   */
+  private void runProxy(SessionClient proxy, CompletableFuture<Void> future) {
+    if (totalOperations.incrementAndGet() > TOTAL_OPERATIONS) {
+      future.complete(null);
+    } else {
+      proxy.execute(operation(WORK)).whenComplete((result, error) -> runProxy(proxy, future));
+    }
+  }
+
+  /**
+   * Returns the throughput in operations per second for the given run time.
+   */
+  private long throughput(long runTimeMillis) {
+    return (long) (TOTAL_OPERATIONS / (runTimeMillis / 1000d));
+  }
+
+  /**
+   * Resets the test state.
+   */
+  private void reset() {
+    totalOperations.set(0);
+
+    shutdown();
+
+    members = new ArrayList<>();
+    clients = new ArrayList<>();
+    servers = new ArrayList<>();
+    protocolFactory = new LocalRaftProtocolFactory(RaftPerformanceTest.protocolSerializer);
+  }
+
+  /**
+   * Shuts down clients and servers.
+   */
+  private void shutdown() {
+    clients.forEach(c -> {
+      try {
+        c.close().get(10, TimeUnit.SECONDS);
+      } catch (Exception e) {
+      }
+    });
+
+    servers.forEach(s -> {
+      try {
+        if (s.isRunning()) {
+          s.shutdown().get(10, TimeUnit.SECONDS);
+        }
+      } catch (Exception e) {
+      }
+    });
+    clients.clear();
+    servers.clear();
+  }
+
+  /**
+   * Returns the next unique member.
+   */
+  private Member nextNode() {
+    return Member.builder(MemberId.from(String.valueOf(++nextId)))
+        .withAddress(Address.from("localhost", ++port))
+        .build();
+  }
+
+  /**
+   * Creates a set of Raft servers.
+   */
+  private void createServers(int nodes, boolean parallelApply) throws Exception {
+    for (int i = 0; i < nodes; i++) {
+      members.add(nextNode());
+    }
+
+    CountDownLatch latch = new CountDownLatch(nodes);
+    for (int i = 0; i < nodes; i++) {
+      RaftServer server = createServer(members.get(i), Lists.newArrayList(members), parallelApply);
+      server.bootstrap(members.stream().map(Member::id).collect(Collectors.toList())).thenRun(latch::countDown);
+    }
+
+    latch.await(30000, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Creates a Raft server.
+   */
+  private RaftServer createServer(Member member, List<Node> members, boolean parallelApply) {
+    BootstrapService bootstrapService = new BootstrapService() {
+      @Override
+      public MessagingService getMessagingService() {
+        return null;
+      }
+
+      @Override
+      public BroadcastService getBroadcastService() {
+        return new RaftPerformanceTest.BroadcastServiceAdapter();
+      }
+    };
+
+    RaftServer server = RaftServer.builder(member.id())
+        .withProtocol(protocolFactory.newServerProtocol(member.id()))
+        .withParallelApply(parallelApply)
+        .withMembershipService(new DefaultClusterMembershipService(
+            member,
+            new DefaultNodeDiscoveryService(bootstrapService, member, new BootstrapDiscoveryProvider(members)),
+            bootstrapService,
+            new MembershipConfig()))
+        .withStorage(RaftStorage.builder()
+            .withStorageLevel(StorageLevel.MEMORY)
+            .withSerializer(RaftPerformanceTest.storageSerializer)
+            .withMaxEntriesPerSegment(32768)
+            .withMaxSegmentSize(1024 * 1024 * 32)
+            .build())
+        .build();
+    servers.add(server);
+    return server;
+  }
+
+  /**
+   * Creates a Raft client.
+   */
+  private RaftClient createClient() {
+    Member member = nextNode();
+    RaftClient client = RaftClient.builder()
+        .withMemberId(member.id())
+        .withPartitionId(PartitionId.from("test", 1))
+        .withProtocol(protocolFactory.newClientProtocol(member.id()))
+        .build();
+    client.connect(members.stream().map(Member::id).collect(Collectors.toList())).join();
+    clients.add(client);
+    return client;
+  }
+
+  /**
+   * Creates a session for the given service.
+   */
+  private SessionClient createProxy(RaftClient client, String name) {
+    return client.sessionBuilder(name, TestPrimitiveType.INSTANCE, new ServiceConfig()).build();
+  }
+
+  private static final OperationId WORK = OperationId.command("work");
+
+  public static class TestPrimitiveType implements PrimitiveType {
+    private static final TestPrimitiveType INSTANCE = new TestPrimitiveType();
+
+    @Override
+    public String name() {
+      return "raft-parallel-apply-test";
+    }
+
+    @Override
+    public PrimitiveConfig newConfig() {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public PrimitiveBuilder newBuilder(String primitiveName, PrimitiveConfig config, PrimitiveManagementService managementService) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public PrimitiveService newService(ServiceConfig config) {
+      return new WorkService();
+    }
+  }
+
+  /**
+   * CPU-bound test state machine.
+   */
+  public static class WorkService extends AbstractPrimitiveService {
+    private long state = 1;
+
+    public WorkService() {
+      super(TestPrimitiveType.INSTANCE);
+    }
+
+    @Override
+    public Serializer serializer() {
+      return clientSerializer;
+    }
+
+    @Override
+    protected void configure(ServiceExecutor executor) {
+      executor.register(WORK, this::work);
+    }
+
+    @Override
+    public void backup(BackupOutput writer) {
+      writer.writeLong(state);
+    }
+
+    @Override
+    public void restore(BackupInput reader) {
+      state = reader.readLong();
+    }
+
+    protected long work(Commit<Void> commit) {
+      long x = state ^ commit.index();
+      for (int i = 0; i < WORK_ROUNDS; i++) {
+        x ^= x << 13;
+        x ^= x >>> 7;
+        x ^= x << 17;
+      }
+      state = x;
+      return x;
+    }
+  }
+}
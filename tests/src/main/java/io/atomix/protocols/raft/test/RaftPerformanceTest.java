@@ -37,6 +37,7 @@ import io.atomix.primitive.operation.OperationId;
 import io.atomix.primitive.operation.OperationType;
 import io.atomix.primitive.operation.PrimitiveOperation;
 import io.atomix.primitive.operation.impl.DefaultOperationId;
+import io.atomix.primitive.partition.PartitionId;
 import io.atomix.primitive.service.AbstractPrimitiveService;
 import io.atomix.primitive.service.BackupInput;
 import io.atomix.primitive.service.BackupOutput;
@@ -82,6 +83,8 @@ import io.atomix.protocols.raft.protocol.QueryResponse;
 import io.atomix.protocols.raft.protocol.RaftClientProtocol;
 import io.atomix.protocols.raft.protocol.RaftResponse;
 import io.atomix.protocols.raft.protocol.RaftServerProtocol;
+import io.atomix.protocols.raft.protocol.ReadIndexRequest;
+import io.atomix.protocols.raft.protocol.ReadIndexResponse;
 import io.atomix.protocols.raft.protocol.ReconfigureRequest;
 import io.atomix.protocols.raft.protocol.ReconfigureResponse;
 import io.atomix.protocols.raft.protocol.ResetRequest;
@@ -115,6 +118,7 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.SimpleFileVisitor;
 import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -148,6 +152,11 @@ public class RaftPerformanceTest implements Runnable {
   private static final int TOTAL_OPERATIONS = 1000000;
   private static final int WRITE_RATIO = 10;
   private static final int NUM_CLIENTS = 5;
+  private static final int CLIENT_CONCURRENCY = 32;
+
+  // Set the batch window to Duration.ZERO to submit each command individually.
+  private static final Duration COMMAND_BATCH_WINDOW = Duration.ofMillis(1);
+  private static final int MAX_COMMAND_BATCH_SIZE = 128;
 
   private static final ReadConsistency READ_CONSISTENCY = ReadConsistency.LINEARIZABLE;
   private static final CommunicationStrategy COMMUNICATION_STRATEGY = CommunicationStrategy.ANY;
@@ -159,7 +168,7 @@ public class RaftPerformanceTest implements Runnable {
     new RaftPerformanceTest().run();
   }
 
-  private static final Serializer protocolSerializer = Serializer.using(Namespace.builder()
+  static final Serializer protocolSerializer = Serializer.using(Namespace.builder()
       .register(HeartbeatRequest.class)
       .register(HeartbeatResponse.class)
       .register(OpenSessionRequest.class)
@@ -192,6 +201,8 @@ public class RaftPerformanceTest implements Runnable {
       .register(AppendResponse.class)
       .register(PublishRequest.class)
       .register(ResetRequest.class)
+      .register(ReadIndexRequest.class)
+      .register(ReadIndexResponse.class)
       .register(RaftResponse.Status.class)
       .register(RaftError.class)
       .register(RaftError.Type.class)
@@ -222,7 +233,7 @@ public class RaftPerformanceTest implements Runnable {
       .register(Configuration.class)
       .build());
 
-  private static final Serializer storageSerializer = Serializer.using(Namespace.builder()
+  static final Serializer storageSerializer = Serializer.using(Namespace.builder()
       .register(CloseSessionEntry.class)
       .register(CommandEntry.class)
       .register(ConfigurationEntry.class)
@@ -303,19 +314,20 @@ public class RaftPerformanceTest implements Runnable {
 
     createServers(3);
 
-    CompletableFuture<Void>[] futures = new CompletableFuture[NUM_CLIENTS];
+    CompletableFuture<Void>[] futures = new CompletableFuture[NUM_CLIENTS * CLIENT_CONCURRENCY];
     RaftClient[] clients = new RaftClient[NUM_CLIENTS];
     SessionClient[] proxies = new SessionClient[NUM_CLIENTS];
     for (int i = 0; i < NUM_CLIENTS; i++) {
-      CompletableFuture<Void> future = new CompletableFuture<>();
       clients[i] = createClient();
       proxies[i] = createProxy(clients[i]).connect().join();
-      futures[i] = future;
+    }
+    for (int i = 0; i < futures.length; i++) {
+      futures[i] = new CompletableFuture<>();
     }
 
     long startTime = System.currentTimeMillis();
-    for (int i = 0; i < clients.length; i++) {
-      runProxy(proxies[i], futures[i]);
+    for (int i = 0; i < futures.length; i++) {
+      runProxy(proxies[i % NUM_CLIENTS], futures[i]);
     }
     CompletableFuture.allOf(futures).join();
     long endTime = System.currentTimeMillis();
@@ -534,6 +546,7 @@ public class RaftPerformanceTest implements Runnable {
 
     RaftClient client = RaftClient.builder()
         .withMemberId(member.id())
+        .withPartitionId(PartitionId.from("test", 1))
         .withProtocol(protocol)
         .withThreadModel(ThreadModel.SHARED_THREAD_POOL)
         .build();
@@ -550,6 +563,8 @@ public class RaftPerformanceTest implements Runnable {
     return client.sessionBuilder("raft-performance-test", TestPrimitiveType.INSTANCE, new ServiceConfig())
         .withReadConsistency(READ_CONSISTENCY)
         .withCommunicationStrategy(COMMUNICATION_STRATEGY)
+        .withCommandBatchWindow(COMMAND_BATCH_WINDOW)
+        .withMaxCommandBatchSize(MAX_COMMAND_BATCH_SIZE)
         .build();
   }
 
@@ -712,7 +727,7 @@ public class RaftPerformanceTest implements Runnable {
     }
   }
 
-  private static class BroadcastServiceAdapter implements BroadcastService {
+  static class BroadcastServiceAdapter implements BroadcastService {
     @Override
     public void broadcast(String subject, byte[] message) {
 
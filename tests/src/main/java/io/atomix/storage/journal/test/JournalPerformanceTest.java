@@ -0,0 +1,198 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.storage.journal.test;
+
+import io.atomix.storage.StorageLevel;
+import io.atomix.storage.journal.JournalWriter;
+import io.atomix.storage.journal.SegmentedJournal;
+import io.atomix.storage.journal.SegmentedJournalWriter;
+import io.atomix.utils.concurrent.SingleThreadContext;
+import io.atomix.utils.concurrent.ThreadContext;
+import io.atomix.utils.serializer.Namespace;
+import io.atomix.utils.serializer.Serializer;
+
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Journal append performance test.
+ * <p>
+ * Compares the throughput of appending and flushing entries one at a time with appending batches of entries and
+ * flushing once per batch, and with appending and committing entries one at a time on a single thread with group
+ * commit enabled, as the Raft leader does.
+ */
+public class JournalPerformanceTest implements Runnable {
+
+  private static final int ITERATIONS = 3;
+
+  private static final int TOTAL_ENTRIES = 100000;
+  private static final int ENTRY_SIZE = 128;
+  private static final int BATCH_SIZE = 64;
+  private static final int MAX_BATCH_BYTES = 1024 * 64;
+
+  private static final Path PATH = Paths.get("target/perf-journal/");
+
+  private static final Serializer serializer = Serializer.using(Namespace.builder()
+      .register(byte[].class)
+      .build());
+
+  /**
+   * Runs the test.
+   */
+  public static void main(String[] args) {
+    new JournalPerformanceTest().run();
+  }
+
+  @Override
+  public void run() {
+    for (StorageLevel storageLevel : new StorageLevel[]{StorageLevel.DISK, StorageLevel.MAPPED}) {
+      try {
+        long perEntry = 0;
+        long batched = 0;
+        long grouped = 0;
+        for (int i = 0; i < ITERATIONS; i++) {
+          perEntry += runPerEntry(storageLevel);
+          batched += runBatched(storageLevel);
+          grouped += runGroupCommit(storageLevel);
+        }
+        System.out.println(String.format("%s per-entry: %d entries/sec", storageLevel, throughput(perEntry / ITERATIONS)));
+        System.out.println(String.format("%s batched: %d entries/sec", storageLevel, throughput(batched / ITERATIONS)));
+        System.out.println(String.format("%s group commit: %d entries/sec", storageLevel, throughput(grouped / ITERATIONS)));
+      } catch (Exception e) {
+        e.printStackTrace();
+        return;
+      }
+    }
+  }
+
+  /**
+   * Appends and flushes each entry individually, returning the run time in nanoseconds.
+   */
+  private long runPerEntry(StorageLevel storageLevel) throws IOException {
+    cleanup();
+    SegmentedJournal<byte[]> journal = createJournal(storageLevel, 0);
+    JournalWriter<byte[]> writer = journal.writer();
+    byte[] entry = new byte[ENTRY_SIZE];
+    long startTime = System.nanoTime();
+    for (int i = 0; i < TOTAL_ENTRIES; i++) {
+      writer.append(entry);
+      writer.flush();
+    }
+    long runTime = System.nanoTime() - startTime;
+    journal.close();
+    return runTime;
+  }
+
+  /**
+   * Appends entries in batches and flushes each batch, returning the run time in nanoseconds.
+   */
+  private long runBatched(StorageLevel storageLevel) throws IOException {
+    cleanup();
+    SegmentedJournal<byte[]> journal = createJournal(storageLevel, 0);
+    JournalWriter<byte[]> writer = journal.writer();
+    List<byte[]> batch = new ArrayList<>(BATCH_SIZE);
+    for (int i = 0; i < BATCH_SIZE; i++) {
+      batch.add(new byte[ENTRY_SIZE]);
+    }
+    long startTime = System.nanoTime();
+    for (int i = 0; i < TOTAL_ENTRIES; i += BATCH_SIZE) {
+      writer.appendBatch(batch.subList(0, Math.min(BATCH_SIZE, TOTAL_ENTRIES - i)));
+      writer.flush();
+    }
+    long runTime = System.nanoTime() - startTime;
+    journal.close();
+    return runTime;
+  }
+
+  /**
+   * Appends and commits each entry in a separate task on a single thread with group commit enabled, returning the
+   * run time in nanoseconds.
+   */
+  private long runGroupCommit(StorageLevel storageLevel) throws Exception {
+    cleanup();
+    SegmentedJournal<byte[]> journal = createJournal(storageLevel, MAX_BATCH_BYTES);
+    SegmentedJournalWriter<byte[]> writer = journal.writer();
+    ThreadContext context = new SingleThreadContext("journal-perf");
+    byte[] entry = new byte[ENTRY_SIZE];
+    CompletableFuture<Void> future = new CompletableFuture<>();
+    long startTime = System.nanoTime();
+    for (int i = 0; i < TOTAL_ENTRIES; i++) {
+      boolean last = i == TOTAL_ENTRIES - 1;
+      context.execute(() -> {
+        writer.append(entry);
+        CompletableFuture<Void> flushFuture = writer.flush(context);
+        if (last) {
+          flushFuture.thenRun(() -> future.complete(null));
+        }
+      });
+    }
+    future.get();
+    long runTime = System.nanoTime() - startTime;
+    context.close();
+    journal.close();
+    return runTime;
+  }
+
+  /**
+   * Creates a new journal.
+   */
+  private SegmentedJournal<byte[]> createJournal(StorageLevel storageLevel, int maxBatchSize) {
+    return SegmentedJournal.<byte[]>builder()
+        .withName("perf")
+        .withDirectory(PATH.toFile())
+        .withSerializer(serializer)
+        .withStorageLevel(storageLevel)
+        .withMaxSegmentSize(1024 * 1024 * 32)
+        .withMaxBatchSize(maxBatchSize)
+        .build();
+  }
+
+  /**
+   * Returns the throughput in entries per second for the given run time.
+   */
+  private long throughput(long runTimeNanos) {
+    return (long) (TOTAL_ENTRIES / (runTimeNanos / 1000000000d));
+  }
+
+  /**
+   * Deletes the journal directory.
+   */
+  private void cleanup() throws IOException {
+    if (Files.exists(PATH)) {
+      Files.walkFileTree(PATH, new SimpleFileVisitor<Path>() {
+        @Override
+        public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+          Files.delete(file);
+          return FileVisitResult.CONTINUE;
+        }
+
+        @Override
+        public FileVisitResult postVisitDirectory(Path dir, IOException exc) throws IOException {
+          Files.delete(dir);
+          return FileVisitResult.CONTINUE;
+        }
+      });
+    }
+  }
+}
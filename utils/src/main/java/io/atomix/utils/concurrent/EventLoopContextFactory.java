@@ -0,0 +1,93 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.utils.concurrent;
+
+import org.slf4j.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static io.atomix.utils.concurrent.Threads.namedThreads;
+
+/**
+ * Event loop thread context factory.
+ * <p>
+ * This factory multiplexes thread contexts onto a fixed number of single threaded event loops. Contexts are assigned
+ * to event loops in round robin order, and each context always executes on the same event loop thread. Because every
+ * event loop is a single thread, tasks submitted to a context are executed in order and never concurrently.
+ * <p>
+ * Groups of contexts that communicate frequently can be pinned to the same event loop with a
+ * {@link #newPinnedFactory() pinned factory} to avoid handing tasks off between threads.
+ */
+public class EventLoopContextFactory implements ThreadContextFactory {
+  private final List<ScheduledExecutorService> eventLoops;
+  private final AtomicInteger nextEventLoop = new AtomicInteger();
+
+  public EventLoopContextFactory(String nameFormat, int eventLoops, Logger logger) {
+    this(eventLoops, namedThreads(nameFormat, logger));
+  }
+
+  public EventLoopContextFactory(int eventLoops, ThreadFactory threadFactory) {
+    checkArgument(eventLoops > 0, "eventLoops must be positive");
+    this.eventLoops = new ArrayList<>(eventLoops);
+    for (int i = 0; i < eventLoops; i++) {
+      this.eventLoops.add(Executors.newSingleThreadScheduledExecutor(threadFactory));
+    }
+  }
+
+  /**
+   * Returns the number of event loops.
+   *
+   * @return the number of event loops
+   */
+  public int eventLoops() {
+    return eventLoops.size();
+  }
+
+  /**
+   * Returns the next event loop in round robin order.
+   */
+  private ScheduledExecutorService nextEventLoop() {
+    return eventLoops.get(Math.floorMod(nextEventLoop.getAndIncrement(), eventLoops.size()));
+  }
+
+  @Override
+  public ThreadContext createContext() {
+    return new ThreadPoolContext(nextEventLoop());
+  }
+
+  /**
+   * Returns a new factory that creates all of its contexts on a single event loop.
+   * <p>
+   * The event loop is selected in round robin order. Closing the returned factory does not close the event loop.
+   *
+   * @return a new factory for contexts pinned to a single event loop
+   */
+  public ThreadContextFactory newPinnedFactory() {
+    ScheduledExecutorService eventLoop = nextEventLoop();
+    return () -> new ThreadPoolContext(eventLoop);
+  }
+
+  @Override
+  public void close() {
+    eventLoops.forEach(ScheduledExecutorService::shutdownNow);
+  }
+}
@@ -16,6 +16,7 @@
 package io.atomix.utils.serializer;
 
 import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.KryoException;
 import com.esotericsoftware.kryo.Registration;
 import com.esotericsoftware.kryo.Serializer;
 import com.esotericsoftware.kryo.io.ByteBufferInput;
@@ -36,6 +37,7 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
+import java.nio.BufferOverflowException;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -397,13 +399,20 @@ public final class Namespace implements KryoFactory, KryoPool {
    *
    * @param obj    Object to serialize
    * @param buffer to write to
+   * @throws BufferOverflowException if the serialized object does not fit in the remaining bytes of the buffer
    */
   public void serialize(final Object obj, final ByteBuffer buffer) {
-    ByteBufferOutput out = new ByteBufferOutput(buffer);
+    BoundedByteBufferOutput out = new BoundedByteBufferOutput(buffer);
     Kryo kryo = borrow();
     try {
       kryo.writeClassAndObject(out, obj);
       out.flush();
+    } catch (KryoException e) {
+      // Serializers wrap exceptions thrown while writing nested objects, so check the output itself for overflow.
+      if (out.isOverflow()) {
+        throw new BufferOverflowException();
+      }
+      throw e;
     } finally {
       release(kryo);
     }
@@ -629,6 +638,40 @@ public final class Namespace implements KryoFactory, KryoPool {
         .toString();
   }
 
+  /**
+   * Kryo output that writes to a fixed buffer and never grows it.
+   * <p>
+   * The output is bounded by the limit of the buffer, and a write that does not fit in the remaining bytes of the
+   * buffer fails with a {@link BufferOverflowException} before anything is written past the limit.
+   */
+  private static final class BoundedByteBufferOutput extends ByteBufferOutput {
+    private boolean overflow;
+
+    BoundedByteBufferOutput(ByteBuffer buffer) {
+      super(buffer, buffer.limit());
+      // Kryo bounds writes by the capacity of the output rather than the limit of the buffer.
+      this.capacity = buffer.limit();
+    }
+
+    @Override
+    protected boolean require(int required) {
+      if (capacity - position < required) {
+        overflow = true;
+        throw new BufferOverflowException();
+      }
+      return super.require(required);
+    }
+
+    /**
+     * Returns a boolean indicating whether a write overflowed the buffer.
+     *
+     * @return indicates whether a write overflowed the buffer
+     */
+    boolean isOverflow() {
+      return overflow;
+    }
+  }
+
   static final class RegistrationBlock {
     private final int begin;
     private final ImmutableList<Pair<Class<?>[], Serializer<?>>> types;
@@ -16,6 +16,8 @@
 
 package io.atomix.utils.serializer;
 
+import java.nio.ByteBuffer;
+
 /**
  * Interface for serialization of store artifacts.
  */
@@ -39,6 +41,34 @@ public interface Serializer {
    */
   <T> T decode(byte[] bytes);
 
+  /**
+   * Serialize the specified object into the given buffer.
+   * <p>
+   * The object is written starting at the buffer's current position, and the buffer's position is advanced to the
+   * end of the serialized bytes.
+   *
+   * @param object object to serialize.
+   * @param buffer buffer to which to write the serialized object.
+   * @param <T>    encoded type
+   * @throws java.nio.BufferOverflowException if the buffer does not have enough remaining space
+   */
+  default <T> void encode(T object, ByteBuffer buffer) {
+    buffer.put(encode(object));
+  }
+
+  /**
+   * Deserialize the remaining bytes in the specified buffer.
+   *
+   * @param buffer buffer from which to read the serialized object.
+   * @param <T>    decoded type
+   * @return deserialized object.
+   */
+  default <T> T decode(ByteBuffer buffer) {
+    byte[] bytes = new byte[buffer.remaining()];
+    buffer.get(bytes);
+    return decode(bytes);
+  }
+
   /**
    * Creates a new Serializer instance from a Namespace.
    *
@@ -56,6 +86,16 @@ public interface Serializer {
       public <T> T decode(byte[] bytes) {
         return namespace.deserialize(bytes);
       }
+
+      @Override
+      public <T> void encode(T object, ByteBuffer buffer) {
+        namespace.serialize(object, buffer);
+      }
+
+      @Override
+      public <T> T decode(ByteBuffer buffer) {
+        return namespace.deserialize(buffer);
+      }
     };
   }
 
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.utils.concurrent;
+
+import org.junit.Test;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Event loop context factory test.
+ */
+public class EventLoopContextFactoryTest {
+
+  /**
+   * Tests that contexts execute tasks in order on their own context.
+   */
+  @Test
+  public void testContextOrdering() throws Exception {
+    EventLoopContextFactory factory = new EventLoopContextFactory("test-%d", 2, LoggerFactory.getLogger(getClass()));
+    try {
+      List<ThreadContext> contexts = new ArrayList<>();
+      for (int i = 0; i < 4; i++) {
+        contexts.add(factory.createContext());
+      }
+
+      List<CompletableFuture<List<Integer>>> futures = new ArrayList<>();
+      for (ThreadContext context : contexts) {
+        List<Integer> values = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+          int value = i;
+          context.execute(() -> {
+            context.checkThread();
+            values.add(value);
+          });
+        }
+        CompletableFuture<List<Integer>> future = new CompletableFuture<>();
+        context.schedule(Duration.ofMillis(10), () -> future.complete(values));
+        futures.add(future);
+      }
+
+      for (CompletableFuture<List<Integer>> future : futures) {
+        List<Integer> values = future.get(10, TimeUnit.SECONDS);
+        assertEquals(100, values.size());
+        for (int i = 0; i < values.size(); i++) {
+          assertEquals(i, values.get(i).intValue());
+        }
+      }
+    } finally {
+      factory.close();
+    }
+  }
+
+  /**
+   * Tests that pinned factories create contexts on a single event loop.
+   */
+  @Test
+  public void testPinnedFactory() throws Exception {
+    EventLoopContextFactory factory = new EventLoopContextFactory("test-%d", 2, LoggerFactory.getLogger(getClass()));
+    try {
+      ThreadContextFactory pinned1 = factory.newPinnedFactory();
+      ThreadContextFactory pinned2 = factory.newPinnedFactory();
+      Thread thread1 = currentThread(pinned1.createContext());
+      assertEquals(thread1, currentThread(pinned1.createContext()));
+      Thread thread2 = currentThread(pinned2.createContext());
+      assertEquals(thread2, currentThread(pinned2.createContext()));
+      assertNotEquals(thread1, thread2);
+
+      pinned1.close();
+      assertTrue(thread1.isAlive());
+    } finally {
+      factory.close();
+    }
+  }
+
+  private Thread currentThread(ThreadContext context) throws Exception {
+    CompletableFuture<Thread> future = new CompletableFuture<>();
+    context.execute(() -> future.complete(Thread.currentThread()));
+    return future.get(10, TimeUnit.SECONDS);
+  }
+}
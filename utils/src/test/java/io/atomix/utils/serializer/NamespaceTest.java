@@ -0,0 +1,76 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.utils.serializer;
+
+import org.junit.Test;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * Namespace test.
+ */
+public class NamespaceTest {
+  private final Namespace namespace = Namespace.builder()
+      .register(byte[].class)
+      .register(TestObject.class)
+      .build();
+
+  @Test
+  public void testSerializeByteBuffer() throws Exception {
+    ByteBuffer buffer = ByteBuffer.allocate(64);
+    buffer.position(8);
+    namespace.serialize(new byte[]{1, 2, 3}, buffer.slice());
+    buffer.position(8);
+    assertArrayEquals(new byte[]{1, 2, 3}, namespace.deserialize(buffer.slice()));
+  }
+
+  @Test
+  public void testSerializeByteBufferOverflow() throws Exception {
+    ByteBuffer buffer = ByteBuffer.allocate(64);
+    buffer.limit(16);
+    try {
+      namespace.serialize(new byte[32], buffer);
+      fail();
+    } catch (BufferOverflowException e) {
+    }
+
+    // Overflows while writing nested objects are reported the same way.
+    try {
+      namespace.serialize(new TestObject(new byte[32]), buffer);
+      fail();
+    } catch (BufferOverflowException e) {
+    }
+
+    // Nothing should be written past the limit of the buffer.
+    buffer.clear();
+    for (int i = 16; i < buffer.capacity(); i++) {
+      assertEquals(0, buffer.get(i));
+    }
+  }
+
+  private static class TestObject {
+    private final byte[] bytes;
+
+    TestObject(byte[] bytes) {
+      this.bytes = bytes;
+    }
+  }
+}